@@ -2,6 +2,10 @@ package org.hcjf.cloud.counter;
 
 /**
  * Distributed atomic counter.
+ * The values returned by the get and add operations are unique over the cloud, each node takes them
+ * from blocks reserved over the cloud, then the values of different nodes are not ordered.
+ * The value of the counter is accumulated into each node and shared with the other nodes
+ * periodically, then this value is eventually consistent.
  * @author javaito
  */
 public interface Counter {
@@ -21,4 +25,24 @@ public interface Counter {
      */
     public Long getAndAdd(Long offset);
 
+    /**
+     * This method adds the delta to the counter without wait for the other nodes of the cloud.
+     * The default implementation doesn't support this operation in order to keep the compatibility
+     * with the implementations that only supports the get and add operations.
+     * @param delta Positive or negative delta.
+     */
+    public default void add(Long delta) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * This method returns the value of the counter known by this node, the deltas added
+     * into the other nodes are visible after the next synchronization.
+     * The default implementation doesn't support this operation.
+     * @return Value of the counter.
+     */
+    public default Long get() {
+        throw new UnsupportedOperationException();
+    }
+
 }
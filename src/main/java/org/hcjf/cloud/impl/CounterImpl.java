@@ -0,0 +1,37 @@
+package org.hcjf.cloud.impl;
+
+import org.hcjf.cloud.counter.Counter;
+import org.hcjf.cloud.impl.network.CloudOrchestrator;
+
+/**
+ * @author javaito
+ */
+public final class CounterImpl implements Counter {
+
+    private final String name;
+
+    public CounterImpl(String name) {
+        this.name = name;
+        CloudOrchestrator.getInstance().publishPath(Counter.class.getName(), name);
+    }
+
+    @Override
+    public Long getAndAdd() {
+        return getAndAdd(1L);
+    }
+
+    @Override
+    public Long getAndAdd(Long offset) {
+        return CloudOrchestrator.getInstance().getAndAddCounter(name, offset);
+    }
+
+    @Override
+    public void add(Long delta) {
+        CloudOrchestrator.getInstance().addCounter(name, delta);
+    }
+
+    @Override
+    public Long get() {
+        return CloudOrchestrator.getInstance().getCounterValue(name);
+    }
+}
@@ -25,11 +25,13 @@ public class DefaultCloudServiceImpl implements CloudServiceImpl {
     private final Map<String,Map> mapInstances;
     private final Map<String,Queue> queueInstances;
     private final Map<String,Lock> lockInstances;
+    private final Map<String,Counter> counterInstances;
 
     public DefaultCloudServiceImpl() {
         this.mapInstances = new HashMap<>();
         this.queueInstances = new HashMap<>();
         this.lockInstances = new HashMap<>();
+        this.counterInstances = new HashMap<>();
     }
 
     /**
@@ -93,7 +95,15 @@ public class DefaultCloudServiceImpl implements CloudServiceImpl {
      */
     @Override
     public Counter getCounter(String counterName) {
-        return null;
+        Counter result;
+        synchronized (counterInstances) {
+            result = counterInstances.get(counterName);
+            if(result == null) {
+                result = new CounterImpl(counterName);
+                counterInstances.put(counterName, result);
+            }
+        }
+        return result;
     }
 
     /**
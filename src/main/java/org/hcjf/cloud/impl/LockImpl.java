@@ -48,10 +48,34 @@ public final class LockImpl implements Lock {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Releases the lock, if the lease of the lock was lost before the unlock then the lock is released anyway
+     * and the exception notifies that the current thread was not the holder of the lock.
+     * @throws IllegalMonitorStateException if the lease of the lock was lost.
+     */
     @Override
     public void unlock() {
         lockedId = -1;
-        CloudOrchestrator.getInstance().unlock(Lock.class.getName(), name, LOCK_NAME);
+        if(!CloudOrchestrator.getInstance().unlock(Lock.class.getName(), name, LOCK_NAME)) {
+            throw new IllegalMonitorStateException("The lease of the lock was lost before unlock: " + name);
+        }
+    }
+
+    /**
+     * Verify if the lease of the lock is still valid, if the lease was lost then the other nodes
+     * could grant the lock to other thread and the unlock operation throws an IllegalMonitorStateException.
+     * @return True if the lease is valid.
+     */
+    public boolean isLeaseValid() {
+        return CloudOrchestrator.getInstance().isLockLeaseValid(Lock.class.getName(), name, LOCK_NAME);
+    }
+
+    /**
+     * Returns the fencing token of the lease, the tokens of the successive holders are increasing.
+     * @return Fencing token or null if the lease is not valid.
+     */
+    public Long getFencingToken() {
+        return CloudOrchestrator.getInstance().getLockFencingToken(Lock.class.getName(), name, LOCK_NAME);
     }
 
     @Override
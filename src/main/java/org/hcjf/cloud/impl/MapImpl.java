@@ -39,7 +39,7 @@ public class MapImpl<K extends Object, V extends Object> implements Map<K, V> {
     public boolean containsValue(Object value) {
         boolean result = false;
         for(Object mapValue : values()) {
-            if(result = mapValue.equals(value)) {
+            if(result = Objects.equals(mapValue, value)) {
                 break;
             }
         }
@@ -86,17 +86,15 @@ public class MapImpl<K extends Object, V extends Object> implements Map<K, V> {
 
     @Override
     public Collection<V> values() {
-        Collection<V> result = new ArrayList<>();
-        for(K key : keySet()) {
-            result.add(get(key));
-        }
-        return result;
+        return new ArrayList<>(getValues().values());
     }
 
     @Override
     public Set<Entry<K, V>> entrySet() {
         Set<Entry<K,V>> result = new HashSet<>();
-        for(K key : keySet()) {
+        Map<K,V> values = getValues();
+        for(K key : values.keySet()) {
+            V currentValue = values.get(key);
             result.add(new Entry<>() {
                 @Override
                 public K getKey() {
@@ -105,7 +103,7 @@ public class MapImpl<K extends Object, V extends Object> implements Map<K, V> {
 
                 @Override
                 public V getValue() {
-                    return CloudOrchestrator.getInstance().invokeNode(Map.class.getName(), name, key);
+                    return currentValue;
                 }
 
                 @Override
@@ -118,4 +116,13 @@ public class MapImpl<K extends Object, V extends Object> implements Map<K, V> {
         }
         return result;
     }
+
+    /**
+     * Returns the values of all the keys of the map obtained using a batch invocation.
+     * @return Map with the values of the keys.
+     */
+    private Map<K,V> getValues() {
+        return (Map<K,V>) CloudOrchestrator.getInstance().invokeNodes(
+                new Object[]{Map.class.getName(), name}, new ArrayList<>(keySet()));
+    }
 }
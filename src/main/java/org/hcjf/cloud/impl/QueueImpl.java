@@ -31,46 +31,17 @@ public class QueueImpl<O extends Object> implements Queue<O> {
 
     @Override
     public boolean contains(Object o) {
-        DistributedTree tree = CloudOrchestrator.getInstance().invokeNode(Queue.class.getName(), name);
-        Boolean result = false;
-        for(Object key : tree.keySet()) {
-            result = CloudOrchestrator.getInstance().invokeNode(Queue.class.getName(), name, key).equals(o);
-            if(result) {
-                break;
-            }
-        }
-        return result;
+        return getValues().containsValue(o);
     }
 
     @Override
     public Iterator<O> iterator() {
-        DistributedTree tree = CloudOrchestrator.getInstance().invokeNode(Queue.class.getName(), name);
-        return new Iterator<>() {
-
-            Set keySet = Set.of(tree.keySet());
-            Iterator iterator = keySet.iterator();
-
-            @Override
-            public boolean hasNext() {
-                return iterator.hasNext();
-            }
-
-            @Override
-            public O next() {
-                return CloudOrchestrator.getInstance().invokeNode(Queue.class.getName(), name, iterator.next());
-            }
-        };
+        return ((Collection<O>) getValues().values()).iterator();
     }
 
     @Override
     public Object[] toArray() {
-        DistributedTree tree = CloudOrchestrator.getInstance().invokeNode(Queue.class.getName(), name);
-        Object[] result = new Object[tree.size()];
-        int i = 0;
-        for(Object key : tree.keySet()) {
-            result[i++] = CloudOrchestrator.getInstance().invokeNode(Queue.class.getName(), name, key);
-        }
-        return result;
+        return getValues().values().toArray();
     }
 
     @Override
@@ -86,12 +57,12 @@ public class QueueImpl<O extends Object> implements Queue<O> {
 
     @Override
     public boolean remove(Object o) {
-        DistributedTree tree = CloudOrchestrator.getInstance().invokeNode(Queue.class.getName(), name);
-        Boolean result = false;
-        for(Object key : tree.keySet()) {
-            result = CloudOrchestrator.getInstance().invokeNode(Queue.class.getName(), name, key).equals(o);
-            CloudOrchestrator.getInstance().hidePath(Queue.class.getName(), name, key);
-            if(result) {
+        boolean result = false;
+        Map<Object,Object> values = getValues();
+        for(Object key : values.keySet()) {
+            if(Objects.equals(values.get(key), o)) {
+                CloudOrchestrator.getInstance().hidePath(Queue.class.getName(), name, key);
+                result = true;
                 break;
             }
         }
@@ -207,6 +178,16 @@ public class QueueImpl<O extends Object> implements Queue<O> {
         return result;
     }
 
+    /**
+     * Returns the values of all the keys of the queue, in the order of the keys, obtained using a batch invocation.
+     * @return Map with the values of the keys.
+     */
+    private Map<Object,Object> getValues() {
+        DistributedTree tree = CloudOrchestrator.getInstance().invokeNode(Queue.class.getName(), name);
+        return CloudOrchestrator.getInstance().invokeNodes(
+                new Object[]{Queue.class.getName(), name}, new TreeSet<>(tree.keySet()));
+    }
+
     private String createKey() {
         return Long.toString(System.currentTimeMillis()) + Long.toString(System.nanoTime());
     }
@@ -0,0 +1,40 @@
+package org.hcjf.cloud.impl.messages;
+
+import org.hcjf.io.net.messages.Message;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * This message requests the values of many keys of the same path using only one round trip,
+ * the response contains a list of versioned values in the same order that the keys.
+ * @author javaito
+ */
+public class BatchInvokeMessage extends Message {
+
+    private Object[] path;
+    private List<Object> keys;
+
+    public BatchInvokeMessage() {
+    }
+
+    public BatchInvokeMessage(UUID id) {
+        super(id);
+    }
+
+    public Object[] getPath() {
+        return path;
+    }
+
+    public void setPath(Object[] path) {
+        this.path = path;
+    }
+
+    public List<Object> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<Object> keys) {
+        this.keys = keys;
+    }
+}
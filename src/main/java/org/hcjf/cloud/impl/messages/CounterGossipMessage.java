@@ -0,0 +1,38 @@
+package org.hcjf.cloud.impl.messages;
+
+import org.hcjf.io.net.messages.Message;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * @author javaito
+ */
+public class CounterGossipMessage extends Message {
+
+    private UUID nodeId;
+    private List<CounterShard> shards;
+
+    public CounterGossipMessage() {
+    }
+
+    public CounterGossipMessage(UUID id) {
+        super(id);
+    }
+
+    public UUID getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(UUID nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public List<CounterShard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<CounterShard> shards) {
+        this.shards = shards;
+    }
+}
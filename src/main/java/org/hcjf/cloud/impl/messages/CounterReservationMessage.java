@@ -0,0 +1,46 @@
+package org.hcjf.cloud.impl.messages;
+
+import org.hcjf.io.net.messages.Message;
+
+import java.util.UUID;
+
+/**
+ * @author javaito
+ */
+public class CounterReservationMessage extends Message {
+
+    private String name;
+    private Long reservation;
+    private Long fencingToken;
+
+    public CounterReservationMessage() {
+    }
+
+    public CounterReservationMessage(UUID id) {
+        super(id);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getReservation() {
+        return reservation;
+    }
+
+    public void setReservation(Long reservation) {
+        this.reservation = reservation;
+    }
+
+    public Long getFencingToken() {
+        return fencingToken;
+    }
+
+    public void setFencingToken(Long fencingToken) {
+        this.fencingToken = fencingToken;
+    }
+}
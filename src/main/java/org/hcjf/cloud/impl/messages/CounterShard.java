@@ -0,0 +1,60 @@
+package org.hcjf.cloud.impl.messages;
+
+import org.hcjf.utils.bson.BsonParcelable;
+
+import java.util.UUID;
+
+/**
+ * Totals of the increments and decrements of a counter into one node, the shard is identified
+ * by the node and its startup date.
+ * @author javaito
+ */
+public final class CounterShard implements BsonParcelable {
+
+    private String name;
+    private UUID shardId;
+    private Long increments;
+    private Long decrements;
+
+    public CounterShard() {
+    }
+
+    public CounterShard(String name, UUID shardId, Long increments, Long decrements) {
+        this.name = name;
+        this.shardId = shardId;
+        this.increments = increments;
+        this.decrements = decrements;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public UUID getShardId() {
+        return shardId;
+    }
+
+    public void setShardId(UUID shardId) {
+        this.shardId = shardId;
+    }
+
+    public Long getIncrements() {
+        return increments;
+    }
+
+    public void setIncrements(Long increments) {
+        this.increments = increments;
+    }
+
+    public Long getDecrements() {
+        return decrements;
+    }
+
+    public void setDecrements(Long decrements) {
+        this.decrements = decrements;
+    }
+}
@@ -10,6 +10,7 @@ import java.util.UUID;
 public class InvokeMessage extends Message {
 
     private Object[] path;
+    private Boolean versioned;
 
     public InvokeMessage() {
     }
@@ -25,4 +26,16 @@ public class InvokeMessage extends Message {
     public void setPath(Object[] path) {
         this.path = path;
     }
+
+    /**
+     * Indicates if the response must contains the value with the timestamp of the leaf.
+     * @return True if the response is a versioned value.
+     */
+    public Boolean getVersioned() {
+        return versioned;
+    }
+
+    public void setVersioned(Boolean versioned) {
+        this.versioned = versioned;
+    }
 }
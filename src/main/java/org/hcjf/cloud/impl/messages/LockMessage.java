@@ -10,7 +10,11 @@ import java.util.UUID;
 public class LockMessage extends Message {
 
     private Object[] path;
+    private UUID requestId;
+    private Long leaseDuration;
+    private Boolean renewal;
     private Long nanos;
+    private Long fencingToken;
 
     public LockMessage() {
     }
@@ -34,4 +38,36 @@ public class LockMessage extends Message {
     public void setNanos(Long nanos) {
         this.nanos = nanos;
     }
+
+    public UUID getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(UUID requestId) {
+        this.requestId = requestId;
+    }
+
+    public Long getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    public void setLeaseDuration(Long leaseDuration) {
+        this.leaseDuration = leaseDuration;
+    }
+
+    public Boolean getRenewal() {
+        return renewal;
+    }
+
+    public void setRenewal(Boolean renewal) {
+        this.renewal = renewal;
+    }
+
+    public Long getFencingToken() {
+        return fencingToken;
+    }
+
+    public void setFencingToken(Long fencingToken) {
+        this.fencingToken = fencingToken;
+    }
 }
@@ -10,6 +10,8 @@ import java.util.UUID;
 public class UnlockMessage extends Message {
 
     private Object[] path;
+    private UUID requestId;
+    private Boolean keepWaiting;
 
     public UnlockMessage() {
     }
@@ -25,4 +27,20 @@ public class UnlockMessage extends Message {
     public void setPath(Object[] path) {
         this.path = path;
     }
+
+    public UUID getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(UUID requestId) {
+        this.requestId = requestId;
+    }
+
+    public Boolean getKeepWaiting() {
+        return keepWaiting;
+    }
+
+    public void setKeepWaiting(Boolean keepWaiting) {
+        this.keepWaiting = keepWaiting;
+    }
 }
@@ -0,0 +1,37 @@
+package org.hcjf.cloud.impl.messages;
+
+import org.hcjf.utils.bson.BsonParcelable;
+
+/**
+ * Value of a leaf with the timestamp of the publication that created the value.
+ * @author javaito
+ */
+public final class VersionedValue implements BsonParcelable {
+
+    private Object value;
+    private Long timestamp;
+
+    public VersionedValue() {
+    }
+
+    public VersionedValue(Object value, Long timestamp) {
+        this.value = value;
+        this.timestamp = timestamp;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public void setValue(Object value) {
+        this.value = value;
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,255 @@
+package org.hcjf.cloud.impl.network;
+
+import org.hcjf.errors.HCJFRuntimeException;
+import org.hcjf.io.net.NetService;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class maintains persistent connections with each remote host, each connection is shared by many
+ * invocations at the same time because the responses are correlated by the id of the messages.
+ * The pool creates a new connection only when all the connections of the host have the max number of
+ * invocations in flight, and the failed connection attempts are retried using an exponential backoff.
+ * @author javaito
+ */
+public class CloudClientPool {
+
+    private static final String KEY_TEMPLATE = "%s:%d";
+
+    private final Map<String, EndPoint> endPoints;
+
+    public CloudClientPool() {
+        this.endPoints = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns a connection with the remote host, the connection is reserved for one invocation until
+     * the method {@link CloudClientPool#release(Connection, boolean)} is called.
+     * @param host Remote host.
+     * @param port Remote port.
+     * @return Connection instance.
+     */
+    public Connection acquire(String host, Integer port) {
+        EndPoint endPoint = endPoints.computeIfAbsent(String.format(KEY_TEMPLATE, host, port),
+                key -> new EndPoint(host, port));
+        long deadline = System.currentTimeMillis() +
+                SystemProperties.getLong(SystemProperties.Cloud.Orchestrator.ConnectionPool.ACQUIRE_TIMEOUT);
+        Connection result = null;
+        while (result == null) {
+            boolean connect = false;
+            synchronized (endPoint) {
+                result = endPoint.reserve();
+                if (result == null) {
+                    long now = System.currentTimeMillis();
+                    if (endPoint.connections.size() + endPoint.connecting <
+                            SystemProperties.getInteger(SystemProperties.Cloud.Orchestrator.ConnectionPool.MAX_CONNECTIONS) &&
+                            now >= endPoint.nextAttempt) {
+                        endPoint.connecting++;
+                        connect = true;
+                    } else if (endPoint.connections.isEmpty() && endPoint.connecting == 0) {
+                        throw new HCJFRuntimeException("Connection with %s:%d in backoff period, %d failed attempts",
+                                host, port, endPoint.failedAttempts);
+                    } else if (now >= deadline) {
+                        throw new HCJFRuntimeException("Unable to get a connection with %s:%d, all the connections are busy",
+                                host, port);
+                    } else {
+                        try {
+                            endPoint.wait(deadline - now);
+                        } catch (InterruptedException ex) {
+                            throw new HCJFRuntimeException("Interrupted waiting for a connection with %s:%d", ex, host, port);
+                        }
+                    }
+                }
+            }
+
+            if (connect) {
+                result = connect(endPoint);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a new connection for the end point.
+     * @param endPoint End point instance.
+     * @return Connection reserved for one invocation.
+     */
+    private Connection connect(EndPoint endPoint) {
+        Connection result = null;
+        try {
+            CloudClient client = new CloudClient(endPoint.host, endPoint.port);
+            NetService.getInstance().registerConsumer(client);
+            if (client.waitForConnect()) {
+                result = new Connection(endPoint, client);
+            }
+        } catch (Exception ex) {
+            Log.d(System.getProperty(SystemProperties.Cloud.LOG_TAG),
+                    "Unable to connect with %s:%d", ex, endPoint.host, endPoint.port);
+        }
+
+        synchronized (endPoint) {
+            endPoint.connecting--;
+            if (result != null) {
+                endPoint.failedAttempts = 0;
+                endPoint.nextAttempt = 0;
+                result.inFlight.incrementAndGet();
+                endPoint.connections.add(result);
+            } else {
+                endPoint.failedAttempts++;
+                long backoff = SystemProperties.getLong(SystemProperties.Cloud.Orchestrator.ConnectionPool.RECONNECT_BACKOFF_BASE) <<
+                        Math.min(endPoint.failedAttempts - 1, 16);
+                endPoint.nextAttempt = System.currentTimeMillis() + Math.min(backoff,
+                        SystemProperties.getLong(SystemProperties.Cloud.Orchestrator.ConnectionPool.RECONNECT_BACKOFF_MAX));
+            }
+            endPoint.notifyAll();
+        }
+
+        if (result == null) {
+            throw new HCJFRuntimeException("Unable to connect with %s:%d", endPoint.host, endPoint.port);
+        }
+        return result;
+    }
+
+    /**
+     * Releases the reservation of the connection, if the invocation fails many consecutive times then the
+     * connection is considered unhealthy and it is closed.
+     * @param connection Connection instance.
+     * @param failed True if the invocation fails.
+     */
+    public void release(Connection connection, boolean failed) {
+        EndPoint endPoint = connection.endPoint;
+        boolean evict = false;
+        synchronized (endPoint) {
+            connection.inFlight.decrementAndGet();
+            if (failed) {
+                if (connection.failures.incrementAndGet() >=
+                        SystemProperties.getInteger(SystemProperties.Cloud.Orchestrator.ConnectionPool.MAX_CONSECUTIVE_FAILURES)) {
+                    evict = endPoint.connections.remove(connection);
+                }
+            } else {
+                connection.failures.set(0);
+            }
+            endPoint.notifyAll();
+        }
+
+        if (evict) {
+            Log.d(System.getProperty(SystemProperties.Cloud.LOG_TAG),
+                    "Closing unhealthy connection with %s:%d", endPoint.host, endPoint.port);
+            connection.close();
+        }
+    }
+
+    /**
+     * Returns the number of open connections with the remote host.
+     * @param host Remote host.
+     * @param port Remote port.
+     * @return Number of open connections.
+     */
+    public int getConnections(String host, Integer port) {
+        int result = 0;
+        EndPoint endPoint = endPoints.get(String.format(KEY_TEMPLATE, host, port));
+        if (endPoint != null) {
+            synchronized (endPoint) {
+                result = endPoint.connections.size();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Pooled connection.
+     */
+    public static final class Connection {
+
+        private final EndPoint endPoint;
+        private final CloudClient client;
+        private final AtomicInteger inFlight;
+        private final AtomicInteger failures;
+
+        private Connection(EndPoint endPoint, CloudClient client) {
+            this.endPoint = endPoint;
+            this.client = client;
+            this.inFlight = new AtomicInteger();
+            this.failures = new AtomicInteger();
+        }
+
+        /**
+         * Returns the client of the connection.
+         * @return Cloud client instance.
+         */
+        public CloudClient getClient() {
+            return client;
+        }
+
+        /**
+         * Returns the number of invocations in flight over the connection.
+         * @return Number of invocations.
+         */
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        /**
+         * Verify if the channel of the connection is still open.
+         * @return True if the connection is alive.
+         */
+        private boolean isAlive() {
+            return NetService.getInstance().checkSession(client.getSession());
+        }
+
+        /**
+         * Disconnects the client.
+         */
+        private void close() {
+            try {
+                client.disconnect();
+            } catch (Exception ex){}
+        }
+    }
+
+    /**
+     * Contains all the connections with a remote host.
+     */
+    private static final class EndPoint {
+
+        private final String host;
+        private final Integer port;
+        private final List<Connection> connections;
+        private int connecting;
+        private int failedAttempts;
+        private long nextAttempt;
+
+        private EndPoint(String host, Integer port) {
+            this.host = host;
+            this.port = port;
+            this.connections = new ArrayList<>();
+        }
+
+        /**
+         * Removes the closed connections and reserves the alive connection with less invocations in flight,
+         * only if the connection has not the max number of invocations in flight.
+         * @return Reserved connection or null if there are not available connections.
+         */
+        private Connection reserve() {
+            Connection result = null;
+            int maxInFlight = SystemProperties.getInteger(SystemProperties.Cloud.Orchestrator.ConnectionPool.MAX_IN_FLIGHT);
+            connections.removeIf(connection -> !connection.isAlive());
+            for (Connection connection : connections) {
+                if (connection.getInFlight() < maxInFlight &&
+                        (result == null || connection.getInFlight() < result.getInFlight())) {
+                    result = connection;
+                }
+            }
+            if (result != null) {
+                result.inFlight.incrementAndGet();
+            }
+            return result;
+        }
+    }
+}
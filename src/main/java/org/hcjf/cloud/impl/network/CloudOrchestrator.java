@@ -4,6 +4,7 @@ import io.kubernetes.client.openapi.models.V1Pod;
 import io.kubernetes.client.openapi.models.V1Service;
 import io.kubernetes.client.openapi.models.V1ServicePort;
 import org.hcjf.cloud.Cloud;
+import org.hcjf.cloud.counter.Counter;
 import org.hcjf.cloud.impl.LockImpl;
 import org.hcjf.cloud.impl.messages.*;
 import org.hcjf.cloud.impl.objects.*;
@@ -14,6 +15,7 @@ import org.hcjf.events.DistributedEvent;
 import org.hcjf.events.Events;
 import org.hcjf.events.RemoteEvent;
 import org.hcjf.events.StoreStrategyLayerInterface;
+import org.hcjf.io.net.NetPackage;
 import org.hcjf.io.net.NetService;
 import org.hcjf.io.net.NetServiceConsumer;
 import org.hcjf.io.net.broadcast.BroadcastService;
@@ -30,6 +32,8 @@ import org.hcjf.layers.crud.ReadRowsLayerInterface;
 import org.hcjf.layers.query.JoinableMap;
 import org.hcjf.layers.query.Queryable;
 import org.hcjf.log.Log;
+import org.hcjf.log.debug.Agent;
+import org.hcjf.log.debug.Agents;
 import org.hcjf.properties.SystemProperties;
 import org.hcjf.service.Service;
 import org.hcjf.service.ServiceSession;
@@ -37,10 +41,13 @@ import org.hcjf.utils.Introspection;
 import org.hcjf.utils.JsonUtils;
 import org.hcjf.utils.Strings;
 
-import java.io.IOException;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class implements a orchestrator in order to maintains the connection
@@ -56,6 +63,8 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
         private static final String UNKNOWN = "unknown";
     }
 
+    private static final String COUNTER_RESERVATION_LOCK_NAME = "__counter_reservation__";
+
     public static final CloudOrchestrator instance;
 
     static {
@@ -71,8 +80,21 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
     private Map<String, Node> nodesByLanId;
     private Map<String, Node> nodesByWanId;
     private Set<Node> sortedNodes;
+    private volatile ConsistentHashRing ring;
     private Map<UUID, Node> waitingAck;
     private Map<UUID, ResponseListener> responseListeners;
+    private CloudClientPool clientPool;
+    private AtomicLong lockAcquisitions;
+    private AtomicLong lockContentions;
+    private AtomicLong lockAcquisitionTime;
+    private AtomicLong lockMaxAcquisitionTime;
+    private AtomicLong lostLockLeases;
+    private NearCache nearCache;
+    private Map<String, DistributedCounter> counters;
+    private AtomicLong counterOperations;
+    private AtomicLong counterReservations;
+    private AtomicLong counterGossipMessages;
+    private AtomicLong counterMergedShards;
 
     private ServiceEndPoint thisServiceEndPoint;
     private Map<String,Object> thisServiceEndPointMap;
@@ -105,7 +127,22 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
         nodesByWanId = new HashMap<>();
         sortedNodes = new TreeSet<>();
         waitingAck = new HashMap<>();
-        responseListeners = new HashMap<>();
+        responseListeners = new ConcurrentHashMap<>();
+        clientPool = new CloudClientPool();
+        lockAcquisitions = new AtomicLong();
+        lockContentions = new AtomicLong();
+        lockAcquisitionTime = new AtomicLong();
+        lockMaxAcquisitionTime = new AtomicLong();
+        lostLockLeases = new AtomicLong();
+        Agents.register(new LockAgent());
+        nearCache = new NearCache(SystemProperties.getInteger(SystemProperties.Cloud.Orchestrator.NearCache.SIZE));
+        Agents.register(new NearCacheAgent());
+        counters = new ConcurrentHashMap<>();
+        counterOperations = new AtomicLong();
+        counterReservations = new AtomicLong();
+        counterGossipMessages = new AtomicLong();
+        counterMergedShards = new AtomicLong();
+        Agents.register(new CounterAgent());
 
         thisNode = new Node();
         UUID thisNodeId = SystemProperties.getUUID(SystemProperties.Cloud.Orchestrator.ThisNode.ID);
@@ -127,6 +164,8 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
         thisNode.setStatus(Node.Status.CONNECTED);
         thisNode.setLocalNode(true);
         sortedNodes.add(thisNode);
+        ring = new ConsistentHashRing(List.of(thisNode),
+                SystemProperties.getInteger(SystemProperties.Cloud.Orchestrator.VIRTUAL_NODES));
 
         thisServiceEndPoint = new ServiceEndPoint();
         UUID thisServiceEndPointId = SystemProperties.getUUID(SystemProperties.Cloud.Orchestrator.ThisServiceEndPoint.ID);
@@ -431,29 +470,6 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
         }
     }
 
-    /**
-     * Returns a list with the nodes sorted by id, this list has the same
-     * order in all the nodes into the cluster.
-     * @return List with sorted nodes.
-     */
-    private List<Node> getSortedNodes() {
-        List < Node > nodes = new ArrayList<>();
-        boolean insert = false;
-        for(Node node : sortedNodes) {
-            if(node.equals(thisNode)) {
-                insert = true;
-                continue;
-            }
-
-            if(insert) {
-                nodes.add(0, node);
-            } else {
-                nodes.add(node);
-            }
-        }
-        return nodes;
-    }
-
     /**
      * Creates all the message needed to publish the service.
      * @return Collection of messages.
@@ -477,6 +493,23 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
         return messages;
     }
 
+    /**
+     * Process the incoming messages of the server, the responses are processed into the lane of the session but
+     * the rest of the messages are processed over the service threads because the lane of the session executes
+     * the messages in order and many invocations share the same pooled connection, then a slow invocation
+     * must not block the votes and invocations received after it, and the nested invocations between two nodes
+     * must not wait for the invocation that is waiting for them.
+     * @param session Session of the connection.
+     * @param message Incoming message.
+     */
+    public void dispatchIncomingMessage(CloudSession session, Message message) {
+        if(message instanceof ResponseMessage) {
+            incomingMessage(session, message);
+        } else {
+            fork(() -> incomingMessage(session, message));
+        }
+    }
+
     public void incomingMessage(CloudSession session, Message message) {
         String from = OriginDataFields.UNKNOWN;
         if(message.getOriginData() != null) {
@@ -609,11 +642,12 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
                         waitingAck.put(returnNodeIdentificationMessage.getId(), node);
                         responseMessage = returnNodeIdentificationMessage;
                     } else {
-                        try {
-                            ((CloudServer) session.getConsumer()).send(session, new BusyNodeMessage(thisNode));
-                        } catch (IOException e) {
-                            //TODO: Close the session
-                        }
+                        ((CloudServer) session.getConsumer()).sendAsync(session, new BusyNodeMessage(thisNode)).
+                                whenComplete((netPackage, throwable) -> {
+                                    if(throwable != null) {
+                                        server.destroySession(session);
+                                    }
+                                });
                     }
                 }
             } else {
@@ -631,11 +665,14 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
             }
         } else if(message instanceof HidePathMessage) {
             removePath(((HidePathMessage)message).getPath());
+            responseMessage = new ResponseMessage(message);
+            ((ResponseMessage)responseMessage).setValue(true);
         } else if(message instanceof PublishPathMessage) {
             addPath(((PublishPathMessage)message).getPath());
         } else if(message instanceof PublishObjectMessage) {
             PublishObjectMessage publishObjectMessage = (PublishObjectMessage) message;
             for(PublishObjectMessage.Path path : publishObjectMessage.getPaths()) {
+                invalidateNearCache(path.getPath());
                 if(path.getValue() != null) {
                     addLocalObject(path.getValue(), path.getNodes(), List.of(),
                             publishObjectMessage.getTimestamp(), path.getPath());
@@ -644,20 +681,48 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
                             path.getNodes(), publishObjectMessage.getTimestamp(), path.getPath());
                 }
             }
+            responseMessage = new ResponseMessage(publishObjectMessage);
+            ((ResponseMessage)responseMessage).setValue(true);
         } else if(message instanceof InvokeMessage) {
             InvokeMessage invokeMessage = (InvokeMessage) message;
 
             responseMessage = new ResponseMessage(invokeMessage);
-            Object object = sharedStore.getInstance(invokeMessage.getPath());
-            ((ResponseMessage)responseMessage).setValue(object);
+            if(Boolean.TRUE.equals(invokeMessage.getVersioned())) {
+                ((ResponseMessage)responseMessage).setValue(getVersionedValue(sharedStore, invokeMessage.getPath()));
+            } else {
+                Object object = sharedStore.getInstance(invokeMessage.getPath());
+                ((ResponseMessage)responseMessage).setValue(object);
+            }
+        } else if(message instanceof BatchInvokeMessage) {
+            BatchInvokeMessage batchInvokeMessage = (BatchInvokeMessage) message;
+            responseMessage = new ResponseMessage(batchInvokeMessage);
+            ((ResponseMessage)responseMessage).setValue(getVersionedValues(sharedStore,
+                    batchInvokeMessage.getPath(), batchInvokeMessage.getKeys()));
         } else if(message instanceof LockMessage) {
             LockMessage lockMessage = (LockMessage) message;
             responseMessage = new ResponseMessage(lockMessage);
-            ((ResponseMessage)responseMessage).setValue(distributedLock(lockMessage.getTimestamp(),
-                    lockMessage.getNanos(), lockMessage.getPath()));
+            ((ResponseMessage)responseMessage).setValue(distributedLock(lockMessage.getRequestId(),
+                    lockMessage.getTimestamp(), lockMessage.getLeaseDuration(), lockMessage.getRenewal(),
+                    lockMessage.getFencingToken(), lockMessage.getPath()));
         } else if(message instanceof UnlockMessage) {
             UnlockMessage unlockMessage = (UnlockMessage) message;
-            distributedUnlock(unlockMessage.getPath());
+            distributedUnlock(unlockMessage.getRequestId(), unlockMessage.getKeepWaiting(), unlockMessage.getPath());
+            responseMessage = new ResponseMessage(unlockMessage);
+            ((ResponseMessage)responseMessage).setValue(true);
+        } else if(message instanceof CounterReservationMessage) {
+            CounterReservationMessage counterReservationMessage = (CounterReservationMessage) message;
+            responseMessage = new ResponseMessage(counterReservationMessage);
+            ((ResponseMessage)responseMessage).setValue(reserveCounter(counterReservationMessage.getName(),
+                    counterReservationMessage.getReservation(), counterReservationMessage.getFencingToken()));
+        } else if(message instanceof CounterGossipMessage) {
+            CounterGossipMessage counterGossipMessage = (CounterGossipMessage) message;
+            for(CounterShard shard : counterGossipMessage.getShards()) {
+                getDistributedCounter(shard.getName()).merge(shard.getShardId(),
+                        shard.getIncrements(), shard.getDecrements());
+                counterMergedShards.incrementAndGet();
+            }
+            responseMessage = new ResponseMessage(counterGossipMessage);
+            ((ResponseMessage)responseMessage).setValue(true);
         } else if(message instanceof SignalMessage) {
             SignalMessage signalMessage = (SignalMessage) message;
             distributedSignal(signalMessage.getLockName(), signalMessage.getConditionName());
@@ -757,17 +822,25 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
         }
     }
 
+    /**
+     * Sends the response without blocking the thread that processes the incoming messages, if the write fails
+     * then the session is destroyed.
+     * @param session Session of the connection.
+     * @param message Response message.
+     */
     private void sendResponse(CloudSession session, Message message) {
-        try {
-            NetServiceConsumer consumer = session.getConsumer();
-            if(consumer instanceof CloudClient) {
-                ((CloudClient)consumer).send(message);
-            } else {
-                ((CloudServer)consumer).send(session, message);
-            }
-        } catch (IOException e) {
-            server.destroySession(session);
+        NetServiceConsumer consumer = session.getConsumer();
+        CompletableFuture<NetPackage> future;
+        if(consumer instanceof CloudClient) {
+            future = ((CloudClient)consumer).sendAsync(message);
+        } else {
+            future = ((CloudServer)consumer).sendAsync(session, message);
         }
+        future.whenComplete((netPackage, throwable) -> {
+            if(throwable != null) {
+                server.destroySession(session);
+            }
+        });
     }
 
     private Object invokeNetworkComponent(NetworkComponent networkComponent, Message message) {
@@ -783,45 +856,50 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
         message = populateOriginData(message);
 
         if(networkComponent != null) {
-            CloudClient client;
-            try {
-                String host = networkComponent instanceof ServiceEndPoint ?
-                        ((ServiceEndPoint)networkComponent).getGatewayAddress() :
-                        ((Node)networkComponent).getLanAddress();
-                Integer port = networkComponent instanceof ServiceEndPoint ?
-                        ((ServiceEndPoint)networkComponent).getGatewayPort() :
-                        ((Node)networkComponent).getLanPort();
-                client = new CloudClient(host, port);
-                NetService.getInstance().registerConsumer(client);
-            } catch (Exception ex) {
-                throw new HCJFRuntimeException("Unable to connect with service: %s", ex, networkComponent.getName());
-            }
-            try {
-                if (client.waitForConnect()) {
-                    ResponseListener responseListener = new ResponseListener(networkComponent, timeout);
-                    registerListener(message, responseListener);
-                    try {
-                        try {
-                            Log.d(System.getProperty(SystemProperties.Cloud.LOG_TAG),
-                                    "Sending to %s invoke service message: '%s' %s",
-                                    networkComponent.getName(),
-                                    message.getClass().getName(),
-                                    message.getId().toString());
-                            client.send(message);
-                        } catch (Exception ex) {
-                            throw new HCJFRuntimeException("Unable to send message to %s", ex, networkComponent.getName());
-                        }
-                        result = responseListener.getResponse(message);
-                    } finally {
-                        destroyListener(message);
-                    }
-                } else {
-                    throw new HCJFRuntimeException("Connection timeout with service: %s", networkComponent.getName());
+            String host = networkComponent instanceof ServiceEndPoint ?
+                    ((ServiceEndPoint)networkComponent).getGatewayAddress() :
+                    ((Node)networkComponent).getLanAddress();
+            Integer port = networkComponent instanceof ServiceEndPoint ?
+                    ((ServiceEndPoint)networkComponent).getGatewayPort() :
+                    ((Node)networkComponent).getLanPort();
+            if(SystemProperties.getBoolean(SystemProperties.Cloud.Orchestrator.ConnectionPool.ENABLED)) {
+                //The message is sent over a persistent connection shared with other invocations.
+                CloudClientPool.Connection connection;
+                try {
+                    connection = clientPool.acquire(host, port);
+                } catch (Exception ex) {
+                    throw new HCJFRuntimeException("Unable to connect with service: %s", ex, networkComponent.getName());
                 }
-            } finally {
+                boolean failed = true;
                 try {
-                    client.disconnect();
-                } catch (Exception ex){}
+                    result = sendAndWait(connection.getClient(), networkComponent, message, timeout);
+                    failed = false;
+                } catch (HCJFRemoteException ex) {
+                    //The remote exceptions are responses of a healthy connection.
+                    failed = false;
+                    throw ex;
+                } finally {
+                    clientPool.release(connection, failed);
+                }
+            } else {
+                CloudClient client;
+                try {
+                    client = new CloudClient(host, port);
+                    NetService.getInstance().registerConsumer(client);
+                } catch (Exception ex) {
+                    throw new HCJFRuntimeException("Unable to connect with service: %s", ex, networkComponent.getName());
+                }
+                try {
+                    if (client.waitForConnect()) {
+                        result = sendAndWait(client, networkComponent, message, timeout);
+                    } else {
+                        throw new HCJFRuntimeException("Connection timeout with service: %s", networkComponent.getName());
+                    }
+                } finally {
+                    try {
+                        client.disconnect();
+                    } catch (Exception ex){}
+                }
             }
         } else {
             throw new HCJFRuntimeException("Service end point not found (%s)", networkComponent.getId());
@@ -829,6 +907,43 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
         return result;
     }
 
+    /**
+     * Sends the message using the client and waits for the response, the response is correlated with the
+     * message using the id of the message.
+     * @param client Connected client.
+     * @param networkComponent Destination of the message.
+     * @param message Message to send.
+     * @param timeout Max time to wait for the response.
+     * @return Value of the response.
+     */
+    private Object sendAndWait(CloudClient client, NetworkComponent networkComponent, Message message, Long timeout) {
+        Object result;
+        ResponseListener responseListener = new ResponseListener(networkComponent, timeout);
+        registerListener(message, responseListener);
+        try {
+            try {
+                Log.d(System.getProperty(SystemProperties.Cloud.LOG_TAG),
+                        "Sending to %s invoke service message: '%s' %s",
+                        networkComponent.getName(),
+                        message.getClass().getName(),
+                        message.getId().toString());
+                //The thread is not blocked by the write, if the write fails then the listener is released
+                //without wait the timeout.
+                client.sendAsync(message).whenComplete((netPackage, throwable) -> {
+                    if(throwable != null) {
+                        responseListener.setSendFailure(throwable);
+                    }
+                });
+            } catch (Exception ex) {
+                throw new HCJFRuntimeException("Unable to send message to %s", ex, networkComponent.getName());
+            }
+            result = responseListener.getResponse(message);
+        } finally {
+            destroyListener(message);
+        }
+        return result;
+    }
+
     private Message populateOriginData(Message message) {
         if(message instanceof MessageCollection) {
             for(Message innerMessage : ((MessageCollection)message).getMessages()) {
@@ -853,11 +968,13 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
         responseListeners.remove(message.getId());
     }
 
-    private DistributedLock getDistributedLock(Object... path) {
+    DistributedLock getDistributedLock(Object... path) {
         DistributedLock distributedLock;
         synchronized (sharedStore) {
             distributedLock = (DistributedLock) sharedStore.getInstance(path);
             if (distributedLock == null) {
+                //The path of the lock could be published before this node joins the cluster.
+                addPath(Arrays.copyOf(path, path.length - 1));
                 distributedLock = new DistributedLock();
                 distributedLock.setStatus(DistributedLock.Status.UNLOCKED);
                 addLocalObject(distributedLock, List.of(thisNode.getId()), List.of(), System.currentTimeMillis(), path);
@@ -866,10 +983,19 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
         return distributedLock;
     }
 
+    /**
+     * Acquires the distributed lock for the path. The local threads request the lock in fifo order and
+     * the lock request is sent in parallel to all the nodes, the lock is acquired when the majority of the
+     * nodes grants the lease and accepts the fencing token of the lease. If the quorum is not reached then
+     * the granted leases are returned and the thread waits until some lease is released before retry.
+     * @param path Path of the lock.
+     */
     public void lock(Object... path) {
+        long startTime = System.currentTimeMillis();
         DistributedLock distributedLock = getDistributedLock(path);
         synchronized (distributedLock) {
-            while (!distributedLock.getStatus().equals(DistributedLock.Status.UNLOCKED)) {
+            long ticket = distributedLock.takeTicket();
+            while (!distributedLock.isTurn(ticket)) {
                 try {
                     distributedLock.wait();
                 } catch (InterruptedException e) {
@@ -878,66 +1004,515 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
             distributedLock.setStatus(DistributedLock.Status.LOCKING);
         }
 
-        LockMessage lockMessage = new LockMessage(UUID.randomUUID());
-        lockMessage.setPath(path);
-        lockMessage.setTimestamp(distributedLock.getTimestamp());
-        boolean locked;
+        UUID requestId = UUID.randomUUID();
+        Long leaseDuration = SystemProperties.getLong(SystemProperties.Cloud.Orchestrator.Lock.LEASE_DURATION);
+        Map<Node, Long> grantedNodes = new HashMap<>();
+        long releases;
+        boolean localGrant;
+        long fencingToken;
         while (!distributedLock.getStatus().equals(DistributedLock.Status.LOCKED)) {
-            lockMessage.setNanos(distributedLock.getNanos());
-            locked = true;
-            List<Node> nodeList = new ArrayList<>(nodesByLanId.values());
-            for (Node node : nodeList) {
-                try {
-                    if (!(locked = locked & (boolean) invokeNetworkComponent(node, lockMessage))) {
-                        break;
-                    }
-                } catch (Exception ex){
-                    Log.w(System.getProperty(SystemProperties.Cloud.LOG_TAG),
-                            "Unable to send lock message to session: ", node.getId());
-                }
+            releases = distributedLock.getReleases();
+            grantedNodes.clear();
+            synchronized (distributedLock) {
+                localGrant = distributedLock.vote(requestId, startTime, leaseDuration);
+                fencingToken = localGrant ? distributedLock.getFencingToken() : 0;
+            }
+            int grants = voteLock(requestId, startTime, leaseDuration, null, grantedNodes, path) + (localGrant ? 1 : 0);
+            for (Long grantedToken : grantedNodes.values()) {
+                fencingToken = Math.max(fencingToken, grantedToken);
             }
-            if (locked) {
+            if (grants >= getLockQuorum() && commitLockLease(distributedLock, requestId, startTime, fencingToken, path)) {
+                distributedLock.hold(requestId, fencingToken);
                 distributedLock.setStatus(DistributedLock.Status.LOCKED);
+                long heldFencingToken = fencingToken;
+                fork(() -> renewLockLease(distributedLock, requestId, startTime, heldFencingToken, path));
             } else {
+                //The granted leases are returned in order to avoid deadlocks between the requests.
+                lockContentions.incrementAndGet();
+                if (localGrant) {
+                    distributedLock.release(requestId, true);
+                }
+                releaseLock(new ArrayList<>(grantedNodes.keySet()), requestId, true, path);
                 distributedLock.setStatus(DistributedLock.Status.WAITING);
-                try {
-                    synchronized (distributedLock) {
-                        distributedLock.wait(5000);
+                synchronized (distributedLock) {
+                    if (releases == distributedLock.getReleases()) {
+                        try {
+                            distributedLock.wait(SystemProperties.getLong(SystemProperties.Cloud.Orchestrator.Lock.RETRY_TIMEOUT));
+                        } catch (InterruptedException e) { }
+                    }
+                }
+            }
+        }
+
+        long acquisitionTime = System.currentTimeMillis() - startTime;
+        lockAcquisitions.incrementAndGet();
+        lockAcquisitionTime.addAndGet(acquisitionTime);
+        lockMaxAcquisitionTime.accumulateAndGet(acquisitionTime, Math::max);
+    }
+
+    /**
+     * Verify if the lease of the lock held by this node is still valid. The lease is lost when some renewal
+     * doesn't reach the quorum, in this case the other nodes could grant the lock to other request.
+     * @param path Path of the lock.
+     * @return True if the lease is valid.
+     */
+    public boolean isLockLeaseValid(Object... path) {
+        return getDistributedLock(path).isLeaseValid();
+    }
+
+    /**
+     * Returns the fencing token of the lock held by this node. The tokens of the successive holders of the lock
+     * are increasing, then the writes protected by the lock must send the token to reject the writes of the
+     * holders that lost the lease.
+     * @param path Path of the lock.
+     * @return Fencing token or null if this node doesn't hold a valid lease.
+     */
+    public Long getLockFencingToken(Object... path) {
+        return getDistributedLock(path).getHeldFencingToken();
+    }
+
+    /**
+     * Verify the fencing token of a write protected by the lock into this node.
+     * @param fencingToken Fencing token of the writer.
+     * @param path Path of the lock.
+     * @return True if there are not newer leases of the lock.
+     */
+    private boolean validateFencingToken(Long fencingToken, Object... path) {
+        return getDistributedLock(path).validateFencingToken(fencingToken);
+    }
+
+    /**
+     * Returns the number of grants needed to acquire a lock, that is the majority of the nodes of the cluster.
+     * @return Number of grants.
+     */
+    private int getLockQuorum() {
+        return (nodesByLanId.size() + 1) / 2 + 1;
+    }
+
+    /**
+     * Sends the lock request to all the nodes in parallel and waits for the votes.
+     * @param requestId Id of the request.
+     * @param timestamp Timestamp of the first attempt of the request.
+     * @param leaseDuration Duration of the lease.
+     * @param fencingToken If this parameter is not null then the nodes only renew the lease if the request
+     *                     is the owner and commit the fencing token.
+     * @param grantedNodes Map to store the nodes that granted the lease and the fencing token of each node.
+     * @param path Path of the lock.
+     * @return Number of grants.
+     */
+    private int voteLock(UUID requestId, Long timestamp, Long leaseDuration, Long fencingToken,
+                         Map<Node, Long> grantedNodes, Object... path) {
+        int result = 0;
+        Long voteTimeout = SystemProperties.getLong(SystemProperties.Cloud.Orchestrator.Lock.VOTE_TIMEOUT);
+        Map<Node, Future<Object>> votes = new HashMap<>();
+        for (Node node : new ArrayList<>(nodesByLanId.values())) {
+            LockMessage lockMessage = new LockMessage(UUID.randomUUID());
+            lockMessage.setPath(path);
+            lockMessage.setRequestId(requestId);
+            lockMessage.setTimestamp(timestamp);
+            lockMessage.setLeaseDuration(leaseDuration);
+            lockMessage.setRenewal(fencingToken != null);
+            lockMessage.setFencingToken(fencingToken);
+            votes.put(node, fork(() -> invokeNetworkComponent(node, lockMessage, voteTimeout)));
+        }
+
+        for (Node node : votes.keySet()) {
+            try {
+                Object vote = votes.get(node).get();
+                if (vote instanceof Number) {
+                    grantedNodes.put(node, ((Number) vote).longValue());
+                    result++;
+                }
+            } catch (Exception ex) {
+                Log.w(System.getProperty(SystemProperties.Cloud.LOG_TAG),
+                        "Unable to send lock message to node: %s", node.getId());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Renews the lease of the lock into all the nodes and commits the fencing token.
+     * @param distributedLock Distributed lock instance.
+     * @param requestId Id of the request that holds the lock.
+     * @param timestamp Timestamp of the first attempt of the request.
+     * @param fencingToken Fencing token of the lease.
+     * @param path Path of the lock.
+     * @return True if the majority of the nodes renewed the lease.
+     */
+    private boolean commitLockLease(DistributedLock distributedLock, UUID requestId, Long timestamp,
+                                    long fencingToken, Object... path) {
+        Long leaseDuration = SystemProperties.getLong(SystemProperties.Cloud.Orchestrator.Lock.LEASE_DURATION);
+        //The lease of the voters starts after this time, then the deadline is conservative.
+        long renewalTime = System.currentTimeMillis();
+        boolean localRenewal;
+        synchronized (distributedLock) {
+            localRenewal = distributedLock.renew(requestId, leaseDuration);
+            if (localRenewal) {
+                distributedLock.fence(fencingToken);
+            }
+        }
+        int grants = voteLock(requestId, timestamp, leaseDuration, fencingToken, new HashMap<>(), path) +
+                (localRenewal ? 1 : 0);
+        boolean result = grants >= getLockQuorum();
+        if (result) {
+            distributedLock.extendLease(renewalTime + leaseDuration);
+        }
+        return result;
+    }
+
+    /**
+     * Renews the lease of the lock periodically while the request holds the lock. If some renewal doesn't reach
+     * the quorum then the lease is marked as lost and the renewals stop, because the nodes could grant the lease
+     * to other request.
+     * @param distributedLock Distributed lock instance.
+     * @param requestId Id of the request that holds the lock.
+     * @param timestamp Timestamp of the first attempt of the request.
+     * @param fencingToken Fencing token of the lease.
+     * @param path Path of the lock.
+     */
+    private void renewLockLease(DistributedLock distributedLock, UUID requestId, Long timestamp,
+                                long fencingToken, Object... path) {
+        Long leaseDuration = SystemProperties.getLong(SystemProperties.Cloud.Orchestrator.Lock.LEASE_DURATION);
+        while (!Thread.currentThread().isInterrupted()) {
+            long nextRenewal = System.currentTimeMillis() + leaseDuration / 3;
+            synchronized (distributedLock) {
+                long now;
+                while (requestId.equals(distributedLock.getRequestId()) &&
+                        (now = System.currentTimeMillis()) < nextRenewal) {
+                    try {
+                        distributedLock.wait(nextRenewal - now);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!requestId.equals(distributedLock.getRequestId())) {
+                    break;
+                }
+            }
+
+            if (!commitLockLease(distributedLock, requestId, timestamp, fencingToken, path)) {
+                synchronized (distributedLock) {
+                    if (requestId.equals(distributedLock.getRequestId())) {
+                        distributedLock.setStatus(DistributedLock.Status.LOST);
+                        lostLockLeases.incrementAndGet();
+                        Log.w(System.getProperty(SystemProperties.Cloud.LOG_TAG),
+                                "Unable to renew the lease of the lock: %s", Arrays.toString(path));
                     }
-                } catch (InterruptedException e) { }
+                }
+                break;
             }
         }
     }
 
-    private boolean distributedLock(Long timestamp, Long nanos, Object... path) {
-        boolean result;
+    private Long distributedLock(UUID requestId, Long timestamp, Long leaseDuration, Boolean renewal,
+                                 Long fencingToken, Object... path) {
+        Long result = null;
         DistributedLock distributedLock = getDistributedLock(path);
         synchronized (distributedLock) {
-            result = distributedLock.getStatus().equals(DistributedLock.Status.UNLOCKED) ||
-                    (distributedLock.getTimestamp() > timestamp && distributedLock.getNanos() > nanos);
+            if (renewal != null && renewal) {
+                if (distributedLock.renew(requestId, leaseDuration)) {
+                    if (fencingToken != null) {
+                        distributedLock.fence(fencingToken);
+                    }
+                    result = distributedLock.getFencingToken();
+                }
+            } else if (distributedLock.vote(requestId, timestamp, leaseDuration)) {
+                result = distributedLock.getFencingToken();
+            }
         }
         return result;
     }
 
-    public void unlock(Object... path) {
+    /**
+     * Releases the distributed lock for the path, the lease is released into all the nodes before
+     * give the turn to the next local thread. If the lease was lost before the unlock then the
+     * lock is released anyway and the result notifies to the caller that the work done holding
+     * the lock was not protected.
+     * @param path Path of the lock.
+     * @return True if the lease was valid until the unlock and false if the lease was lost.
+     */
+    public boolean unlock(Object... path) {
         DistributedLock distributedLock = getDistributedLock(path);
+        UUID requestId = distributedLock.getRequestId();
+        boolean leaseLost = requestId != null && !distributedLock.isLeaseValid();
+        if (requestId != null) {
+            distributedLock.setRequestId(null);
+            distributedLock.release(requestId, false);
+            releaseLock(new ArrayList<>(nodesByLanId.values()), requestId, false, path);
+        }
+
         synchronized (distributedLock) {
             distributedLock.setStatus(DistributedLock.Status.UNLOCKED);
+            if (requestId != null) {
+                distributedLock.nextTurn();
+            }
             distributedLock.notifyAll();
         }
 
-        UnlockMessage unlockMessage = new UnlockMessage(UUID.randomUUID());
-        unlockMessage.setPath(path);
-        nodeBroadcasting(unlockMessage);
+        return !leaseLost;
+    }
+
+    /**
+     * Releases the lease of the request into the nodes in parallel and waits for all the confirmations.
+     * @param nodes Nodes that grant the lease.
+     * @param requestId Id of the request.
+     * @param keepWaiting If this parameter is true then the request keeps its place into the queue of the nodes.
+     * @param path Path of the lock.
+     */
+    private void releaseLock(List<Node> nodes, UUID requestId, boolean keepWaiting, Object... path) {
+        Long voteTimeout = SystemProperties.getLong(SystemProperties.Cloud.Orchestrator.Lock.VOTE_TIMEOUT);
+        List<Future<Object>> releases = new ArrayList<>();
+        for (Node node : nodes) {
+            UnlockMessage unlockMessage = new UnlockMessage(UUID.randomUUID());
+            unlockMessage.setPath(path);
+            unlockMessage.setRequestId(requestId);
+            unlockMessage.setKeepWaiting(keepWaiting);
+            releases.add(fork(() -> invokeNetworkComponent(node, unlockMessage, voteTimeout)));
+        }
+        for (Future<Object> release : releases) {
+            try {
+                release.get();
+            } catch (Exception ex) {
+                Log.w(System.getProperty(SystemProperties.Cloud.LOG_TAG),
+                        "Unable to send unlock message: %s", Arrays.toString(path));
+            }
+        }
     }
 
-    private synchronized void distributedUnlock(Object... path) {
+    private void distributedUnlock(UUID requestId, Boolean keepWaiting, Object... path) {
         DistributedLock distributedLock = getDistributedLock(path);
+        if (requestId != null) {
+            distributedLock.release(requestId, keepWaiting != null && keepWaiting);
+        }
         synchronized (distributedLock) {
             distributedLock.notifyAll();
         }
     }
 
+    /**
+     * Returns the state of the counter into this node, the first counter starts the gossip of the counters.
+     * @param name Name of the counter.
+     * @return Distributed counter instance.
+     */
+    private DistributedCounter getDistributedCounter(String name) {
+        DistributedCounter result = counters.get(name);
+        if(result == null) {
+            synchronized (counters) {
+                result = counters.get(name);
+                if(result == null) {
+                    if(counters.isEmpty()) {
+                        fork(this::gossipCounters);
+                    }
+                    result = new DistributedCounter(UUID.nameUUIDFromBytes(String.format("%s:%d",
+                            thisNode.getId(), thisNode.getStartupDate().getTime()).getBytes()));
+                    counters.put(name, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds the delta to the shard of this node, the other nodes receive the delta with the next gossip.
+     * @param name Name of the counter.
+     * @param delta Positive or negative delta.
+     */
+    public void addCounter(String name, Long delta) {
+        getDistributedCounter(name).add(delta);
+    }
+
+    /**
+     * Returns the value of the counter known by this node.
+     * @param name Name of the counter.
+     * @return Value of the counter.
+     */
+    public Long getCounterValue(String name) {
+        return getDistributedCounter(name).getValue();
+    }
+
+    /**
+     * Takes the next unique values of the counter. The values are taken from the block reserved by this node
+     * and only when the block is exhausted a new block is reserved over the cloud, holding the reservation
+     * lock of the counter.
+     * @param name Name of the counter.
+     * @param offset Number of values to take.
+     * @return First value taken.
+     */
+    public Long getAndAddCounter(String name, Long offset) {
+        if(offset == null || offset < 1) {
+            throw new HCJFRuntimeException("The offset of the counter must be greater than zero: %s", offset);
+        }
+
+        DistributedCounter distributedCounter = getDistributedCounter(name);
+        Long result = distributedCounter.takeFromBlock(offset);
+        while(result == null) {
+            lock(Counter.class.getName(), name, COUNTER_RESERVATION_LOCK_NAME);
+            try {
+                //Other local thread could reserve a new block while this thread was waiting for the lock.
+                result = distributedCounter.takeFromBlock(offset);
+                if(result == null) {
+                    reserveCounterBlock(distributedCounter, name, offset);
+                    result = distributedCounter.takeFromBlock(offset);
+                }
+            } finally {
+                //The reservations are fenced, then a block reserved before lose the lease is valid and
+                //the values taken from it are not discarded, and the failures of the reservation
+                //are not replaced by the lost lease.
+                if(!unlock(Counter.class.getName(), name, COUNTER_RESERVATION_LOCK_NAME)) {
+                    Log.d(System.getProperty(SystemProperties.Cloud.LOG_TAG),
+                            "The reservation lock of the counter %s was lost before unlock", name);
+                }
+            }
+        }
+        distributedCounter.add(offset);
+        counterOperations.incrementAndGet();
+        return result;
+    }
+
+    /**
+     * Reserves a new block of values for this node, the caller must hold the reservation lock of the counter.
+     * The end of the last reserved block is read from the majority of the nodes and the new end is stored
+     * into the majority of the nodes before use the block, then two nodes never take the same values.
+     * The reservation is sent with the fencing token of the lock, then if the lease of the lock was lost and
+     * other node holds the lock the majority of the nodes rejects the reservation.
+     * @param distributedCounter Distributed counter instance.
+     * @param name Name of the counter.
+     * @param offset Number of values requested.
+     */
+    private void reserveCounterBlock(DistributedCounter distributedCounter, String name, Long offset) {
+        Long fencingToken = getLockFencingToken(Counter.class.getName(), name, COUNTER_RESERVATION_LOCK_NAME);
+        if(fencingToken == null) {
+            throw new HCJFRuntimeException("The reservation lock of the counter %s was lost", name);
+        }
+        long blockSize = Math.max(SystemProperties.getLong(SystemProperties.Cloud.Orchestrator.Counter.BLOCK_SIZE), offset);
+        long start = sendCounterReservation(name, null, fencingToken);
+        long end = start + blockSize;
+        sendCounterReservation(name, end, fencingToken);
+        distributedCounter.setBlock(start, end);
+        counterReservations.incrementAndGet();
+    }
+
+    /**
+     * Stores the reservation into this node only if the fencing token is the token of the last holder
+     * of the reservation lock known by this node.
+     * @param name Name of the counter.
+     * @param reservation End of the new block or null to read only.
+     * @param fencingToken Fencing token of the reservation lock.
+     * @return End of the last reserved block or null if the reservation is rejected.
+     */
+    Long reserveCounter(String name, Long reservation, Long fencingToken) {
+        Long result = null;
+        DistributedLock distributedLock = getDistributedLock(Counter.class.getName(), name, COUNTER_RESERVATION_LOCK_NAME);
+        synchronized (distributedLock) {
+            if(distributedLock.validateFencingToken(fencingToken)) {
+                result = getDistributedCounter(name).reserve(reservation);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sends the reservation to this node and to all the nodes in parallel and waits for the end of the last
+     * block reserved into each node.
+     * @param name Name of the counter.
+     * @param reservation End of the new block or null to read only.
+     * @param fencingToken Fencing token of the reservation lock.
+     * @return Maximum end of the reserved blocks.
+     */
+    private long sendCounterReservation(String name, Long reservation, Long fencingToken) {
+        long result = 0;
+        int responses = 0;
+        Long voteTimeout = SystemProperties.getLong(SystemProperties.Cloud.Orchestrator.Lock.VOTE_TIMEOUT);
+        Map<Node, Future<Object>> futures = new HashMap<>();
+        for (Node node : new ArrayList<>(nodesByLanId.values())) {
+            CounterReservationMessage counterReservationMessage = new CounterReservationMessage(UUID.randomUUID());
+            counterReservationMessage.setName(name);
+            counterReservationMessage.setReservation(reservation);
+            counterReservationMessage.setFencingToken(fencingToken);
+            futures.put(node, fork(() -> invokeNetworkComponent(node, counterReservationMessage, voteTimeout)));
+        }
+
+        Long localReservation = reserveCounter(name, reservation, fencingToken);
+        if (localReservation != null) {
+            result = localReservation;
+            responses++;
+        }
+
+        for (Node node : futures.keySet()) {
+            try {
+                Object response = futures.get(node).get();
+                if (response instanceof Number) {
+                    result = Math.max(result, ((Number) response).longValue());
+                    responses++;
+                }
+            } catch (Exception ex) {
+                Log.w(System.getProperty(SystemProperties.Cloud.LOG_TAG),
+                        "Unable to send counter reservation to node: %s", node.getId());
+            }
+        }
+
+        if (responses < getLockQuorum()) {
+            throw new HCJFRuntimeException("Unable to reserve a block of the counter %s", name);
+        }
+        return result;
+    }
+
+    /**
+     * Sends periodically to all the connected nodes all the known shards of the counters that changed since
+     * the last gossip, the shard of this node and the last totals known of the other shards. If some node
+     * doesn't receive the message then the shards are sent again with the next gossip.
+     */
+    private void gossipCounters() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(SystemProperties.getLong(SystemProperties.Cloud.Orchestrator.Counter.GOSSIP_PERIOD));
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            List<CounterShard> shards = new ArrayList<>();
+            List<DistributedCounter> gossipedCounters = new ArrayList<>();
+            for(Map.Entry<String, DistributedCounter> entry : counters.entrySet()) {
+                Map<UUID, DistributedCounter.Shard> counterShards = entry.getValue().takeGossip();
+                if(counterShards != null) {
+                    for(Map.Entry<UUID, DistributedCounter.Shard> shardEntry : counterShards.entrySet()) {
+                        shards.add(new CounterShard(entry.getKey(), shardEntry.getKey(),
+                                shardEntry.getValue().getIncrements(), shardEntry.getValue().getDecrements()));
+                    }
+                    gossipedCounters.add(entry.getValue());
+                }
+            }
+
+            if(!shards.isEmpty()) {
+                List<Future<Object>> futures = new ArrayList<>();
+                for (Node node : new ArrayList<>(nodesByLanId.values())) {
+                    if(Node.Status.CONNECTED.equals(node.getStatus())) {
+                        CounterGossipMessage counterGossipMessage = new CounterGossipMessage(UUID.randomUUID());
+                        counterGossipMessage.setNodeId(thisNode.getId());
+                        counterGossipMessage.setShards(shards);
+                        futures.add(fork(() -> invokeNetworkComponent(node, counterGossipMessage)));
+                    }
+                }
+
+                boolean delivered = true;
+                for(Future<Object> future : futures) {
+                    try {
+                        delivered &= Boolean.TRUE.equals(future.get());
+                    } catch (Exception ex) {
+                        delivered = false;
+                    }
+                }
+                counterGossipMessages.addAndGet(futures.size());
+                if(!delivered) {
+                    for(DistributedCounter distributedCounter : gossipedCounters) {
+                        distributedCounter.resetGossip();
+                    }
+                }
+            }
+        }
+    }
+
     public void signal(String lockName, String conditionName) {
         SignalMessage signalMessage = new SignalMessage(UUID.randomUUID());
         signalMessage.setLockName(lockName);
@@ -1214,11 +1789,114 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
 
         if(result) {
             node.setStatus(status);
+            if(currentStatus.equals(Node.Status.CONNECTED) || status.equals(Node.Status.CONNECTED)) {
+                updateRing();
+            }
         }
 
         return result;
     }
 
+    /**
+     * Creates a new hash ring with this node and all the connected nodes, if the members of the
+     * ring changed then the local leaves are rebalanced in background.
+     */
+    private void updateRing() {
+        List<Node> members = new ArrayList<>();
+        members.add(thisNode);
+        for(Node node : new ArrayList<>(nodesByLanId.values())) {
+            if(Node.Status.CONNECTED.equals(node.getStatus())) {
+                members.add(node);
+            }
+        }
+        ConsistentHashRing newRing = new ConsistentHashRing(members,
+                SystemProperties.getInteger(SystemProperties.Cloud.Orchestrator.VIRTUAL_NODES));
+        if(!newRing.getNodeIds().equals(ring.getNodeIds())) {
+            ring = newRing;
+            //The new nodes need the totals of all the counters.
+            for(DistributedCounter distributedCounter : counters.values()) {
+                distributedCounter.resetGossip();
+            }
+            fork(() -> rebalance(newRing));
+        }
+    }
+
+    /**
+     * Moves the local leaves whose owners changed with the new ring. Only one of the current holders
+     * of each leaf (the holder with the lowest id that is still into the ring) sends the value to the
+     * owners and the ownership announcement to the rest of the nodes, then the leaves with the
+     * same owners are not touched. The holders of the local leaf change (and the leaf is replaced by a
+     * remote leaf if this node stops being an owner) only when all the new owners acknowledge the value.
+     * @param ring New hash ring.
+     */
+    private void rebalance(ConsistentHashRing ring) {
+        int replicationFactor = SystemProperties.getInteger(SystemProperties.Cloud.Orchestrator.REPLICATION_FACTOR);
+        List<DistributedTree.Entry> entries;
+        synchronized (sharedStore) {
+            entries = sharedStore.filter(LocalLeaf.class);
+        }
+
+        int movedLeaves = 0;
+        for(DistributedTree.Entry entry : entries) {
+            if(this.ring != ring) {
+                //There is a newer ring with its own rebalancing.
+                break;
+            }
+
+            LocalLeaf leaf = (LocalLeaf) entry.getValue();
+            if(leaf.getInstance() instanceof DistributedLock || leaf.getInstance() instanceof DistributedLayer) {
+                //The state of the locks and layers belongs to this node and is never moved.
+                continue;
+            }
+            List<Node> owners = ring.getOwners(entry.getPath(), replicationFactor);
+            List<UUID> ownerIds = new ArrayList<>();
+            for(Node owner : owners) {
+                ownerIds.add(owner.getId());
+            }
+
+            Set<UUID> holders;
+            Object instance;
+            Long timestamp;
+            synchronized (sharedStore) {
+                holders = new HashSet<>(leaf.getNodes());
+                instance = leaf.getInstance();
+                timestamp = leaf.getLastUpdate();
+            }
+            if(thisNode.getId().equals(ring.getRebalanceCoordinator(thisNode.getId(), holders, ownerIds))) {
+                //This node keeps the holders of its copy until all the new owners acknowledge the value,
+                //in the otherwise the leaf is moved again with the next rebalance.
+                Map<UUID, Future<Boolean>> deliveries = sendPublication(instance, timestamp, ownerIds, owners, entry.getPath());
+                boolean acknowledged = true;
+                for(UUID newOwner : ConsistentHashRing.getNewOwners(holders, ownerIds)) {
+                    try {
+                        acknowledged &= deliveries.containsKey(newOwner) && deliveries.get(newOwner).get();
+                    } catch (Exception ex) {
+                        acknowledged = false;
+                    }
+                }
+                if(acknowledged) {
+                    synchronized (sharedStore) {
+                        //Other publication could replace the leaf while this node was waiting.
+                        if(sharedStore.getObject(entry.getPath()) == leaf && timestamp.equals(leaf.getLastUpdate())) {
+                            if(owners.contains(thisNode)) {
+                                leaf.getNodes().clear();
+                                leaf.getNodes().addAll(ownerIds);
+                            } else {
+                                addRemoteObject(null, ownerIds, List.of(), timestamp, entry.getPath());
+                            }
+                        }
+                    }
+                    movedLeaves++;
+                } else {
+                    Log.w(System.getProperty(SystemProperties.Cloud.LOG_TAG),
+                            "Unable to move %s, the new owners didn't acknowledge the value", Arrays.toString(entry.getPath()));
+                }
+            }
+        }
+        Log.d(System.getProperty(SystemProperties.Cloud.LOG_TAG), "Rebalancing finished, %d leaves moved, %d nodes into the ring",
+                movedLeaves, ring.size());
+    }
+
     public void publishPath(Object... path) {
         synchronized (sharedStore) {
             addPath(path);
@@ -1228,39 +1906,67 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
         }
     }
 
+    /**
+     * Publishes the object into the path. The owners of the path are selected using the consistent hash ring,
+     * the value is sent only to the owners and the rest of the nodes receive only the ownership of the path.
+     * If this node is not an owner then the value is maintained as a remote leaf until other publication
+     * of the same path.
+     * @param object Object to publish.
+     * @param timestamp Timestamp of the publication.
+     * @param path Path of the object.
+     */
     public void publishObject(Object object, Long timestamp, Object... path) {
+        List<Node> owners = ring.getOwners(path,
+                SystemProperties.getInteger(SystemProperties.Cloud.Orchestrator.REPLICATION_FACTOR));
         List<UUID> nodeIds = new ArrayList<>();
-        nodeIds.add(thisNode.getId());
-
-        List < Node > nodes = getSortedNodes();
-
-        int replicationFactor = SystemProperties.getInteger(
-                SystemProperties.Cloud.Orchestrator.REPLICATION_FACTOR);
-
-        for (int i = 0; i < (replicationFactor - 1) && !nodes.isEmpty(); i++) {
-            nodeIds.add(nodes.get(i).getId());
+        for(Node owner : owners) {
+            nodeIds.add(owner.getId());
         }
 
-        addLocalObject(object, nodeIds, List.of(), timestamp, path);
+        invalidateNearCache(path);
+        if(owners.contains(thisNode)) {
+            addLocalObject(object, nodeIds, List.of(), timestamp, path);
+        } else {
+            addRemoteObject(object, nodeIds, List.of(), timestamp, path);
+        }
+        sendPublication(object, timestamp, nodeIds, owners, path);
+    }
 
-        PublishObjectMessage.Path pathObject = new PublishObjectMessage.Path(path, nodeIds);
-        fork(() -> {
-            if(!nodes.isEmpty()) {
-                int counter = 0;
-                for (Node node : nodes) {
-                    PublishObjectMessage publishObjectMessage = new PublishObjectMessage(UUID.randomUUID());
-                    publishObjectMessage.getPaths().add(pathObject);
-                    publishObjectMessage.setTimestamp(timestamp);
-                    if(counter < replicationFactor) {
-                        pathObject.setValue(object);
-                    } else {
-                        pathObject.setValue(null);
-                    }
-                    invokeNetworkComponent(node, publishObjectMessage);
-                    counter++;
+    /**
+     * Sends in parallel the value of the path to the owners and the ownership announcement to the rest of the nodes.
+     * @param object Object to publish.
+     * @param timestamp Timestamp of the publication.
+     * @param nodeIds Ids of the owners.
+     * @param owners Owners of the path.
+     * @param path Path of the object.
+     * @return Deliveries to the owners by node id, each delivery is true if the owner acknowledged the value.
+     */
+    private Map<UUID, Future<Boolean>> sendPublication(Object object, Long timestamp, List<UUID> nodeIds,
+                                                       List<Node> owners, Object... path) {
+        Map<UUID, Future<Boolean>> result = new HashMap<>();
+        for(Node node : new ArrayList<>(nodesByLanId.values())) {
+            PublishObjectMessage publishObjectMessage = new PublishObjectMessage(UUID.randomUUID());
+            publishObjectMessage.setTimestamp(timestamp);
+            if(owners.contains(node)) {
+                publishObjectMessage.getPaths().add(new PublishObjectMessage.Path(path, object, nodeIds));
+            } else {
+                publishObjectMessage.getPaths().add(new PublishObjectMessage.Path(path, nodeIds));
+            }
+            Future<Boolean> delivery = fork(() -> {
+                boolean delivered = false;
+                try {
+                    delivered = Boolean.TRUE.equals(invokeNetworkComponent(node, publishObjectMessage));
+                } catch (Exception ex) {
+                    Log.w(System.getProperty(SystemProperties.Cloud.LOG_TAG),
+                            "Unable to publish %s into node %s", ex, Arrays.toString(path), node.getId());
                 }
+                return delivered;
+            });
+            if(owners.contains(node)) {
+                result.put(node.getId(), delivery);
             }
-        });
+        }
+        return result;
     }
 
     public void hidePath(Object... path) {
@@ -1270,28 +1976,201 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
         nodeBroadcasting(hidePathMessage);
     }
 
+    /**
+     * Returns the instance stored into the path, if the path is a remote leaf then the value is obtained from
+     * the near cache or from one of the nodes that owns the leaf.
+     * @param path Path of the instance.
+     * @param <O> Expected instance type.
+     * @return Instance or null if the path doesn't exists.
+     */
     public <O extends Object> O invokeNode(Object... path) {
         O result = (O) sharedStore.getInstance(path);
         if(result instanceof RemoteLeaf) {
-            InvokeMessage getMessage = new InvokeMessage(UUID.randomUUID());
-            getMessage.setPath(path);
-            Iterator<UUID> ids = ((RemoteLeaf)result).getNodes().iterator();
-            Node node = null;
-            while (ids.hasNext() && node == null) {
-                node = nodes.get(ids.next());
+            RemoteLeaf leaf = (RemoteLeaf) result;
+            Object cachedValue = getNearCacheValue(leaf.getLastUpdate(), path);
+            if(cachedValue != null) {
+                result = (O) cachedValue;
+            } else {
+                Node node = getLeafNode(leaf);
+                if(node != null) {
+                    InvokeMessage getMessage = new InvokeMessage(UUID.randomUUID());
+                    getMessage.setPath(path);
+                    getMessage.setVersioned(true);
+                    result = (O) putNearCacheEntry(invokeNetworkComponent(node, getMessage), leaf.getLastUpdate(), path);
+                } else {
+                    result = null;
+                }
             }
+        }
+        return result;
+    }
 
-            if(node != null) {
-                result = (O) invokeNetworkComponent(node, getMessage);
+    /**
+     * Returns the instances stored into the keys of the path. The values of the remote leaves that are not into the
+     * near cache are obtained using only one message for each owner node, and all the messages are sent in parallel.
+     * @param path Path that contains the keys.
+     * @param keys Keys to invoke.
+     * @return Map with the instance of each key, in the same order that the keys. The keys whose value can't
+     * be obtained are not contained into the map.
+     */
+    public Map<Object,Object> invokeNodes(Object[] path, Collection<?> keys) {
+        Map<Object,Object> result = new LinkedHashMap<>();
+        Map<Node,List<Object>> keysByNode = new HashMap<>();
+        Map<Object,Long> versions = new HashMap<>();
+        for(Object key : keys) {
+            Object[] keyPath = appendKey(path, key);
+            Object instance = sharedStore.getInstance(keyPath);
+            result.put(key, null);
+            if(instance instanceof RemoteLeaf) {
+                RemoteLeaf leaf = (RemoteLeaf) instance;
+                Object cachedValue = getNearCacheValue(leaf.getLastUpdate(), keyPath);
+                if(cachedValue != null) {
+                    result.put(key, cachedValue);
+                } else {
+                    Node node = getLeafNode(leaf);
+                    if(node != null) {
+                        keysByNode.computeIfAbsent(node, N -> new ArrayList<>()).add(key);
+                        versions.put(key, leaf.getLastUpdate());
+                    }
+                }
             } else {
-                result = null;
+                result.put(key, instance);
+            }
+        }
+
+        Map<Node,Future<Object>> responses = new HashMap<>();
+        for(Node node : keysByNode.keySet()) {
+            BatchInvokeMessage batchInvokeMessage = new BatchInvokeMessage(UUID.randomUUID());
+            batchInvokeMessage.setPath(path);
+            batchInvokeMessage.setKeys(keysByNode.get(node));
+            responses.put(node, fork(() -> invokeNetworkComponent(node, batchInvokeMessage)));
+        }
+
+        for(Node node : responses.keySet()) {
+            List<Object> values;
+            try {
+                values = (List<Object>) responses.get(node).get();
+            } catch (Exception ex) {
+                throw new HCJFRuntimeException("Unable to invoke node: %s", ex, node.getId());
+            }
+            List<Object> nodeKeys = keysByNode.get(node);
+            for (int i = 0; i < nodeKeys.size(); i++) {
+                Object key = nodeKeys.get(i);
+                result.put(key, putNearCacheEntry(values.get(i), versions.get(key), appendKey(path, key)));
             }
         }
+        //The keys without reachable owners or without value into the owner are not part of the result.
+        result.values().removeIf(Objects::isNull);
+        return result;
+    }
+
+    /**
+     * Returns the first known node of the leaf.
+     * @param leaf Remote leaf.
+     * @return Node instance or null if there are not known nodes.
+     */
+    private Node getLeafNode(RemoteLeaf leaf) {
+        Iterator<UUID> ids = leaf.getNodes().iterator();
+        Node result = null;
+        while (ids.hasNext() && result == null) {
+            result = nodes.get(ids.next());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the values of the keys of the path with the timestamp of the last publication of each one.
+     * @param store Store of the node.
+     * @param path Path that contains the keys.
+     * @param keys Keys of the path.
+     * @return List of versioned values in the same order that the keys.
+     */
+    static List<VersionedValue> getVersionedValues(DistributedTree store, Object[] path, List<Object> keys) {
+        List<VersionedValue> result = new ArrayList<>();
+        for(Object key : keys) {
+            result.add(getVersionedValue(store, appendKey(path, key)));
+        }
         return result;
     }
 
+    /**
+     * Returns the value of the local leaf with the timestamp of the last publication.
+     * @param store Store of the node.
+     * @param path Path of the leaf.
+     * @return Versioned value, the value is null if the leaf is not a local leaf.
+     */
+    static VersionedValue getVersionedValue(DistributedTree store, Object... path) {
+        VersionedValue result;
+        DistributedObject object = store.getObject(path);
+        if(object instanceof DistributedLeaf) {
+            Object instance = object.getInstance();
+            result = new VersionedValue(instance instanceof RemoteLeaf ? null : instance,
+                    ((DistributedLeaf) object).getLastUpdate());
+        } else {
+            result = new VersionedValue();
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new path adding the key at the end of the path.
+     * @param path Base path.
+     * @param key Key to add.
+     * @return New path.
+     */
+    private static Object[] appendKey(Object[] path, Object key) {
+        Object[] result = Arrays.copyOf(path, path.length + 1);
+        result[path.length] = key;
+        return result;
+    }
+
+    /**
+     * Returns a copy of the value stored into the near cache only if the entry is as newer as the local
+     * version of the leaf.
+     * @param version Timestamp of the local remote leaf.
+     * @param path Path of the leaf.
+     * @return Copy of the value or null if the cache is disabled or it doesn't contains a valid entry.
+     */
+    private Object getNearCacheValue(Long version, Object... path) {
+        Object result = null;
+        if(SystemProperties.getBoolean(SystemProperties.Cloud.Orchestrator.NearCache.ENABLED)) {
+            result = nearCache.get(version, path);
+        }
+        return result;
+    }
+
+    /**
+     * Stores the response of an owner into the near cache if the cache is enabled.
+     * @param response Response of the owner.
+     * @param version Timestamp of the local remote leaf.
+     * @param path Path of the leaf.
+     * @return Value of the response.
+     */
+    private Object putNearCacheEntry(Object response, Long version, Object... path) {
+        Object result;
+        if(SystemProperties.getBoolean(SystemProperties.Cloud.Orchestrator.NearCache.ENABLED)) {
+            result = nearCache.put(response, version, path);
+        } else {
+            result = response instanceof VersionedValue ? ((VersionedValue) response).getValue() : response;
+        }
+        return result;
+    }
+
+    /**
+     * Removes the entry of the leaf from the near cache.
+     * @param path Path to invalidate.
+     */
+    private void invalidateNearCache(Object... path) {
+        nearCache.invalidate(path);
+    }
+
     private void removePath(Object... path) {
-        sharedStore.remove(path);
+        DistributedObject removed = sharedStore.remove(path);
+        if(removed instanceof DistributedTree) {
+            nearCache.invalidatePath(path);
+        } else {
+            invalidateNearCache(path);
+        }
     }
 
     private boolean addPath(Object... path) {
@@ -1336,6 +2215,7 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
         private final Long timeout;
         private final NetworkComponent destination;
         private ResponseMessage responseMessage;
+        private Throwable sendFailure;
 
         public ResponseListener(NetworkComponent destination, Long timeout) {
             this.destination = destination;
@@ -1345,7 +2225,7 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
         public Object getResponse(Message message) {
             Object result;
             synchronized (this) {
-                if (responseMessage == null) {
+                if (responseMessage == null && sendFailure == null) {
                     Log.d(System.getProperty(SystemProperties.Cloud.LOG_TAG),
                             "Response listener waiting for id: %s", message.getId().toString());
                     try {
@@ -1355,7 +2235,9 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
                 }
             }
 
-            if (responseMessage != null) {
+            if (responseMessage == null && sendFailure != null) {
+                throw new HCJFRuntimeException("Unable to send message to %s", sendFailure, destination.getName());
+            } else if (responseMessage != null) {
                 if (responseMessage.getThrowable() != null) {
                     throw new HCJFRemoteException("Remote exception from %s",
                             responseMessage.getThrowable(), destination.getName());
@@ -1369,7 +2251,14 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
             return result;
         }
 
-        public void setMessage(ResponseMessage message) {
+        public void setSendFailure(Throwable throwable) {
+            synchronized (this) {
+                sendFailure = throwable;
+                this.notifyAll();
+            }
+        }
+
+                public void setMessage(ResponseMessage message) {
             synchronized (this) {
                 Log.d(System.getProperty(SystemProperties.Cloud.LOG_TAG),
                         "Response listener notified with id: %s", message.getId().toString());
@@ -1421,6 +2310,147 @@ public final class CloudOrchestrator extends Service<NetworkComponent> {
         }
     }
 
+    public interface LockAgentMBean {
+
+        Long getAcquisitions();
+        Long getContentions();
+        Long getAverageAcquisitionTime();
+        Long getMaxAcquisitionTime();
+        Long getLostLeases();
+
+    }
+
+    private final class LockAgent extends Agent implements LockAgentMBean {
+
+        private static final String NAME = "DistributedLocks";
+
+        public LockAgent() {
+            super(NAME, CloudOrchestrator.class.getPackageName());
+        }
+
+        @Override
+        public Long getAcquisitions() {
+            return lockAcquisitions.get();
+        }
+
+        @Override
+        public Long getContentions() {
+            return lockContentions.get();
+        }
+
+        @Override
+        public Long getAverageAcquisitionTime() {
+            long acquisitions = lockAcquisitions.get();
+            return acquisitions == 0 ? 0L : lockAcquisitionTime.get() / acquisitions;
+        }
+
+        @Override
+        public Long getMaxAcquisitionTime() {
+            return lockMaxAcquisitionTime.get();
+        }
+
+        @Override
+        public Long getLostLeases() {
+            return lostLockLeases.get();
+        }
+    }
+
+    public interface NearCacheAgentMBean {
+
+        Integer getSize();
+        Integer getMaxSize();
+        Long getHits();
+        Long getMisses();
+        Double getHitRate();
+        Long getInvalidations();
+
+    }
+
+    private final class NearCacheAgent extends Agent implements NearCacheAgentMBean {
+
+        private static final String NAME = "NearCache";
+
+        public NearCacheAgent() {
+            super(NAME, CloudOrchestrator.class.getPackageName());
+        }
+
+        @Override
+        public Integer getSize() {
+            return nearCache.getSize();
+        }
+
+        @Override
+        public Integer getMaxSize() {
+            return nearCache.getMaxSize();
+        }
+
+        @Override
+        public Long getHits() {
+            return nearCache.getHits();
+        }
+
+        @Override
+        public Long getMisses() {
+            return nearCache.getMisses();
+        }
+
+        @Override
+        public Double getHitRate() {
+            long hits = nearCache.getHits();
+            long total = hits + nearCache.getMisses();
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public Long getInvalidations() {
+            return nearCache.getInvalidations();
+        }
+    }
+
+    public interface CounterAgentMBean {
+
+        Integer getCounters();
+        Long getOperations();
+        Long getBlockReservations();
+        Long getGossipMessages();
+        Long getMergedShards();
+
+    }
+
+    private final class CounterAgent extends Agent implements CounterAgentMBean {
+
+        private static final String NAME = "DistributedCounters";
+
+        public CounterAgent() {
+            super(NAME, CloudOrchestrator.class.getPackageName());
+        }
+
+        @Override
+        public Integer getCounters() {
+            return counters.size();
+        }
+
+        @Override
+        public Long getOperations() {
+            return counterOperations.get();
+        }
+
+        @Override
+        public Long getBlockReservations() {
+            return counterReservations.get();
+        }
+
+        @Override
+        public Long getGossipMessages() {
+            return counterGossipMessages.get();
+        }
+
+        @Override
+        public Long getMergedShards() {
+            return counterMergedShards.get();
+        }
+    }
+
     private enum ReorganizationAction {
 
         CONNECT,
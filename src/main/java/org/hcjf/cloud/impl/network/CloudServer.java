@@ -39,6 +39,6 @@ public class CloudServer extends MessagesServer<CloudSession> {
 
     @Override
     protected void onRead(CloudSession session, Message message) {
-        CloudOrchestrator.getInstance().incomingMessage(session, message);
+        CloudOrchestrator.getInstance().dispatchIncomingMessage(session, message);
     }
 }
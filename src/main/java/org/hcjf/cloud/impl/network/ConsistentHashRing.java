@@ -0,0 +1,141 @@
+package org.hcjf.cloud.impl.network;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Immutable consistent hash ring of nodes. Each node is placed into the ring many times (virtual nodes)
+ * in order to distribute the paths uniformly, and the owners of a path are the first distinct nodes
+ * found walking the ring from the hash of the path. When a node is added or removed only the paths
+ * near to its virtual nodes change of owners.
+ * All the nodes of the cluster build the same ring for the same set of nodes.
+ * @author javaito
+ */
+public final class ConsistentHashRing {
+
+    private final NavigableMap<Long, Node> ring;
+    private final Map<UUID, Node> nodes;
+
+    public ConsistentHashRing(Collection<Node> nodes, Integer virtualNodes) {
+        this.ring = new TreeMap<>();
+        this.nodes = new HashMap<>();
+        for(Node node : nodes) {
+            if(node.getId() != null && !this.nodes.containsKey(node.getId())) {
+                this.nodes.put(node.getId(), node);
+                for (int i = 0; i < virtualNodes; i++) {
+                    ring.put(hash(node.getId().toString() + "#" + i), node);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the owners of the path, the first owner is the primary owner and the rest are the replicas.
+     * @param path Path of the object.
+     * @param replicationFactor Number of owners.
+     * @return List of distinct owners, the size of the list is the replication factor or the number of nodes
+     * if the ring has less nodes than the replication factor.
+     */
+    public List<Node> getOwners(Object[] path, Integer replicationFactor) {
+        List<Node> result = new ArrayList<>();
+        if(!ring.isEmpty()) {
+            int size = Math.min(replicationFactor, nodes.size());
+            long pathHash = hash(Arrays.toString(path));
+            Iterator<Node> iterator = ring.tailMap(pathHash, true).values().iterator();
+            boolean wrapped = false;
+            while(result.size() < size) {
+                if(!iterator.hasNext()) {
+                    if(wrapped) {
+                        break;
+                    }
+                    iterator = ring.values().iterator();
+                    wrapped = true;
+                }
+                Node node = iterator.next();
+                if(!result.contains(node)) {
+                    result.add(node);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the node that must move a leaf to its owners into this ring, that is the holder with the lowest id
+     * that is still into the ring, then only one of the holders sends the leaf.
+     * @param nodeId Id of the node that evaluates the leaf, this node is a holder of the leaf.
+     * @param holders Current holders of the leaf.
+     * @param ownerIds Owners of the leaf into this ring.
+     * @return Id of the coordinator or null if the holders are the owners and the leaf doesn't move.
+     */
+    public UUID getRebalanceCoordinator(UUID nodeId, Collection<UUID> holders, Collection<UUID> ownerIds) {
+        UUID result = null;
+        if(!new HashSet<>(holders).equals(new HashSet<>(ownerIds))) {
+            result = nodeId;
+            for(UUID holder : holders) {
+                if(contains(holder) && holder.compareTo(result) < 0) {
+                    result = holder;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the owners that don't hold the leaf yet, the coordinator of the rebalance keeps its copy
+     * of the leaf until all of them acknowledge the value.
+     * @param holders Current holders of the leaf.
+     * @param ownerIds Owners of the leaf into this ring.
+     * @return Ids of the new owners.
+     */
+    public static List<UUID> getNewOwners(Collection<UUID> holders, Collection<UUID> ownerIds) {
+        List<UUID> result = new ArrayList<>(ownerIds);
+        result.removeAll(holders);
+        return result;
+    }
+
+    /**
+     * Verify if the node is a member of the ring.
+     * @param id Id of the node.
+     * @return True if the node is a member of the ring.
+     */
+    public boolean contains(UUID id) {
+        return nodes.containsKey(id);
+    }
+
+    /**
+     * Returns the ids of the nodes of the ring.
+     * @return Set of ids.
+     */
+    public Set<UUID> getNodeIds() {
+        return Collections.unmodifiableSet(nodes.keySet());
+    }
+
+    /**
+     * Returns the number of distinct nodes of the ring.
+     * @return Number of nodes.
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Creates a 64 bits hash of the value (FNV-1a with the murmur finalizer to spread the bits),
+     * the hash doesn't depends of the jvm then all the nodes obtain the same value.
+     * @param value Value to hash.
+     * @return Hash of the value.
+     */
+    private static long hash(String value) {
+        long result = 0xcbf29ce484222325L;
+        for(byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            result ^= (b & 0xff);
+            result *= 0x100000001b3L;
+        }
+        result ^= result >>> 33;
+        result *= 0xff51afd7ed558ccdL;
+        result ^= result >>> 33;
+        result *= 0xc4ceb9fe1a85ec53L;
+        result ^= result >>> 33;
+        return result;
+    }
+}
@@ -0,0 +1,149 @@
+package org.hcjf.cloud.impl.network;
+
+import org.hcjf.bson.BsonDecoder;
+import org.hcjf.bson.BsonEncoder;
+import org.hcjf.cloud.impl.messages.VersionedValue;
+import org.hcjf.utils.ConcurrentLruMap;
+import org.hcjf.utils.bson.BsonParcelable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the values of the remote leaves obtained from its owners. Each entry is stored with the timestamp
+ * of the publication that created the value, and it is valid only while the timestamp is as newer as the
+ * local version of the leaf. The values are stored encoded as bson, then each hit returns a new copy of the
+ * value in the same way that each invocation of the owner returns a new instance, and the changes over the
+ * returned instances are not visible for the other callers.
+ * @author javaito
+ */
+public final class NearCache {
+
+    private final ConcurrentLruMap<List<Object>, Entry> entries;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong invalidations;
+
+    public NearCache(Integer size) {
+        this.entries = new ConcurrentLruMap<>(size);
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.invalidations = new AtomicLong();
+    }
+
+    /**
+     * Returns a copy of the cached value only if the entry is as newer as the local version of the leaf.
+     * @param version Timestamp of the local remote leaf.
+     * @param path Path of the leaf.
+     * @return Copy of the value or null if the cache doesn't contains a valid entry.
+     */
+    public Object get(Long version, Object... path) {
+        Object result = null;
+        if(version != null) {
+            Entry entry = entries.get(Arrays.asList(path));
+            if(entry != null && entry.timestamp >= version) {
+                VersionedValue versionedValue = BsonParcelable.Builder.create(BsonDecoder.decode(entry.value));
+                result = versionedValue.getValue();
+            }
+            if(result == null) {
+                misses.incrementAndGet();
+            } else {
+                hits.incrementAndGet();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stores the response of an owner, the value is stored only if the version of the owner is as newer as
+     * the local version of the leaf, in the otherwise the owner has not received the last publication.
+     * @param response Response of the owner.
+     * @param version Timestamp of the local remote leaf.
+     * @param path Path of the leaf.
+     * @return Value of the response.
+     */
+    public Object put(Object response, Long version, Object... path) {
+        Object result = response;
+        if(response instanceof VersionedValue) {
+            VersionedValue versionedValue = (VersionedValue) response;
+            result = versionedValue.getValue();
+            if(result != null && version != null && versionedValue.getTimestamp() != null &&
+                    versionedValue.getTimestamp() >= version) {
+                byte[] value;
+                try {
+                    value = BsonEncoder.encode(versionedValue.toBson());
+                } catch (Exception ex) {
+                    //The values that can't be encoded are not cached.
+                    value = null;
+                }
+                if(value != null) {
+                    entries.put(Arrays.asList(Arrays.copyOf(path, path.length)),
+                            new Entry(value, versionedValue.getTimestamp()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes the entry of the leaf.
+     * @param path Path to invalidate.
+     */
+    public void invalidate(Object... path) {
+        if(entries.remove(Arrays.asList(path)) != null) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes all the entries into the path.
+     * @param path Path to invalidate.
+     */
+    public void invalidatePath(Object... path) {
+        List<Object> prefix = Arrays.asList(path);
+        Iterator<List<Object>> iterator = entries.keySet().iterator();
+        while(iterator.hasNext()) {
+            List<Object> key = iterator.next();
+            if(key.size() >= prefix.size() && key.subList(0, prefix.size()).equals(prefix)) {
+                iterator.remove();
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public Integer getSize() {
+        return entries.size();
+    }
+
+    public Integer getMaxSize() {
+        return entries.getMaxSize();
+    }
+
+    public Long getHits() {
+        return hits.get();
+    }
+
+    public Long getMisses() {
+        return misses.get();
+    }
+
+    public Long getInvalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * Encoded value with the timestamp of the publication.
+     */
+    private static final class Entry {
+
+        private final byte[] value;
+        private final long timestamp;
+
+        private Entry(byte[] value, long timestamp) {
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+    }
+}
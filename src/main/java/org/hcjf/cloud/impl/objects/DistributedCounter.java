@@ -0,0 +1,180 @@
+package org.hcjf.cloud.impl.objects;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class contains the state of a distributed counter into the node. The value of the counter is
+ * a PN-counter: each node accumulates its own increments and decrements without locks and the totals
+ * of the other nodes are merged keeping the maximum of each one, then the merge is idempotent and
+ * the order of the gossip messages doesn't matter. Each shard is identified by the node and its startup
+ * date, then the totals of a node before a restart are kept into their own shard. The gossip contains all
+ * the known shards, then the nodes that join later receive the totals of all the nodes.
+ * The unique values of the counter are taken from blocks reserved over the cloud, then only the
+ * request that exhausts the block needs to talk with the other nodes.
+ * @author javaito
+ */
+public class DistributedCounter {
+
+    private final UUID shardId;
+    private final LongAdder increments;
+    private final LongAdder decrements;
+    private final Map<UUID, Shard> shards;
+    private final AtomicLong reservation;
+    private Map<UUID, Shard> gossipedShards;
+    private long blockNext;
+    private long blockEnd;
+
+    public DistributedCounter(UUID shardId) {
+        this.shardId = shardId;
+        this.increments = new LongAdder();
+        this.decrements = new LongAdder();
+        this.shards = new ConcurrentHashMap<>();
+        this.reservation = new AtomicLong();
+    }
+
+    /**
+     * Adds the delta to the shard of this node.
+     * @param delta Positive or negative delta.
+     */
+    public final void add(long delta) {
+        if(delta >= 0) {
+            increments.add(delta);
+        } else {
+            decrements.add(-delta);
+        }
+    }
+
+    /**
+     * Returns the value of the counter, that is the sum of the shard of this node and the last
+     * known totals of the other nodes.
+     * @return Value of the counter.
+     */
+    public final long getValue() {
+        Shard shard = getShard();
+        long result = shard.increments - shard.decrements;
+        for(Shard nodeShard : shards.values()) {
+            result += nodeShard.increments - nodeShard.decrements;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the totals of the shard of this node.
+     * @return Shard of this node.
+     */
+    private Shard getShard() {
+        return new Shard(increments.sum(), decrements.sum());
+    }
+
+    /**
+     * Merges the totals of other shard into the counter, the shard of this node is never replaced
+     * because this node is the only one that changes it.
+     * @param shardId Id of the shard.
+     * @param increments Total of increments of the shard.
+     * @param decrements Total of decrements of the shard.
+     */
+    public final void merge(UUID shardId, long increments, long decrements) {
+        if(!this.shardId.equals(shardId)) {
+            shards.merge(shardId, new Shard(increments, decrements), (current, shard) ->
+                    new Shard(Math.max(current.increments, shard.increments), Math.max(current.decrements, shard.decrements)));
+        }
+    }
+
+    /**
+     * Returns all the known shards, including the shard of this node, if some of them changed
+     * since the last gossip.
+     * @return Shards by id or null if there are not changes.
+     */
+    public final synchronized Map<UUID, Shard> takeGossip() {
+        Map<UUID, Shard> result = new HashMap<>(shards);
+        result.put(shardId, getShard());
+        if(result.equals(gossipedShards)) {
+            result = null;
+        } else {
+            gossipedShards = result;
+        }
+        return result;
+    }
+
+    /**
+     * Forces to send all the known shards into the next gossip.
+     */
+    public final synchronized void resetGossip() {
+        gossipedShards = null;
+    }
+
+    /**
+     * Takes the next values of the reserved block.
+     * @param offset Number of values.
+     * @return First value taken or null if the block has not enough values.
+     */
+    public final synchronized Long takeFromBlock(long offset) {
+        Long result = null;
+        if(blockEnd - blockNext >= offset) {
+            result = blockNext;
+            blockNext += offset;
+        }
+        return result;
+    }
+
+    /**
+     * Sets a new block of values reserved for this node.
+     * @param start First value of the block.
+     * @param end End of the block (exclusive).
+     */
+    public final synchronized void setBlock(long start, long end) {
+        blockNext = start;
+        blockEnd = end;
+    }
+
+    /**
+     * Returns the end of the last block reserved into the cloud that this node knows, if the
+     * reservation is not null then the reservation is stored before.
+     * @param reservation End of a new reserved block or null.
+     * @return End of the last reserved block.
+     */
+    public final long reserve(Long reservation) {
+        return reservation == null ? this.reservation.get() : this.reservation.accumulateAndGet(reservation, Math::max);
+    }
+
+    /**
+     * Last totals known of a shard.
+     */
+    public static final class Shard {
+
+        private final long increments;
+        private final long decrements;
+
+        private Shard(long increments, long decrements) {
+            this.increments = increments;
+            this.decrements = decrements;
+        }
+
+        public long getIncrements() {
+            return increments;
+        }
+
+        public long getDecrements() {
+            return decrements;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            boolean result = false;
+            if(other instanceof Shard) {
+                result = increments == ((Shard) other).increments && decrements == ((Shard) other).decrements;
+            }
+            return result;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(increments) * 31 + Long.hashCode(decrements);
+        }
+    }
+}
@@ -1,6 +1,19 @@
 package org.hcjf.cloud.impl.objects;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
 /**
+ * This class contains the state of a distributed lock into the node. The node acts as requester
+ * for the local threads and as voter for the requests of all the nodes of the cluster.
+ * The voter grants a lease only to the oldest request waiting for the lock, then all the voters
+ * grants the lock in the same order.
+ * Each voter counts the leases granted for the lock, the holder takes the greatest count of the quorum
+ * as fencing token and commits it into the voters with the first renewal, then the token of each new
+ * holder is greater than the token of the previous holders and the protected writes can reject the
+ * writes of a holder that lost its lease.
  * @author javaito
  */
 public class DistributedLock{
@@ -8,11 +21,22 @@ public class DistributedLock{
     private Long timestamp;
     private Long nanos;
     private Status status;
+    private long nextTicket;
+    private long servingTicket;
+    private UUID requestId;
+    private long releases;
+    private UUID leaseOwner;
+    private long leaseExpiration;
+    private long fencingToken;
+    private long heldFencingToken;
+    private long leaseDeadline;
+    private final Map<UUID, Waiter> waiters;
 
     public DistributedLock() {
         status = Status.UNLOCKED;
         this.timestamp = Long.MAX_VALUE;
         this.nanos = Long.MAX_VALUE;
+        this.waiters = new HashMap<>();
     }
 
     public final Status getStatus() {
@@ -33,6 +57,226 @@ public class DistributedLock{
         return nanos;
     }
 
+    /**
+     * Returns the ticket that indicates the turn of the local thread to request the lock.
+     * @return Ticket number.
+     */
+    public final synchronized long takeTicket() {
+        return nextTicket++;
+    }
+
+    /**
+     * Verify if the ticket is the current turn.
+     * @param ticket Ticket number.
+     * @return True if it is the turn of the ticket.
+     */
+    public final synchronized boolean isTurn(long ticket) {
+        return servingTicket == ticket;
+    }
+
+    /**
+     * Moves the turn to the next local thread.
+     */
+    public final synchronized void nextTurn() {
+        servingTicket++;
+    }
+
+    /**
+     * Returns the id of the request that holds the lock into this node.
+     * @return Request id or null if the lock is not held.
+     */
+    public final synchronized UUID getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * Set the id of the request that holds the lock into this node.
+     * @param requestId Request id.
+     */
+    public final synchronized void setRequestId(UUID requestId) {
+        this.requestId = requestId;
+    }
+
+    /**
+     * Stores the lease held by the local request.
+     * @param requestId Id of the request that holds the lock.
+     * @param fencingToken Fencing token of the lease.
+     */
+    public final synchronized void hold(UUID requestId, long fencingToken) {
+        this.requestId = requestId;
+        this.heldFencingToken = fencingToken;
+    }
+
+    /**
+     * Extends the lease held by the local request after a renewal accepted by the majority of the voters.
+     * @param leaseDeadline Time until the lease is valid for the majority of the voters.
+     */
+    public final synchronized void extendLease(long leaseDeadline) {
+        this.leaseDeadline = leaseDeadline;
+    }
+
+    /**
+     * Verify if the lease held by the local request is still valid, the lease is not valid if some renewal
+     * didn't reach the quorum or the last successful renewal is older than the lease duration.
+     * @return True if the lease is valid.
+     */
+    public final synchronized boolean isLeaseValid() {
+        return requestId != null && status == Status.LOCKED && System.currentTimeMillis() < leaseDeadline;
+    }
+
+    /**
+     * Returns the fencing token of the lease held by the local request.
+     * @return Fencing token or null if the lease is not valid.
+     */
+    public final synchronized Long getHeldFencingToken() {
+        return isLeaseValid() ? heldFencingToken : null;
+    }
+
+    /**
+     * Returns the greatest fencing token granted or committed into this voter.
+     * @return Fencing token.
+     */
+    public final synchronized long getFencingToken() {
+        return fencingToken;
+    }
+
+    /**
+     * Commits the fencing token of the holder into this voter.
+     * @param fencingToken Fencing token of the holder.
+     */
+    public final synchronized void fence(long fencingToken) {
+        this.fencingToken = Math.max(this.fencingToken, fencingToken);
+    }
+
+    /**
+     * Verify the fencing token of a protected write, the write is accepted only if there are not
+     * newer leases granted or committed into this voter.
+     * @param fencingToken Fencing token of the writer.
+     * @return True if the write is accepted.
+     */
+    public final synchronized boolean validateFencingToken(Long fencingToken) {
+        boolean result = false;
+        if(fencingToken != null && fencingToken >= this.fencingToken) {
+            this.fencingToken = fencingToken;
+            result = true;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of leases released by this voter.
+     * @return Number of releases.
+     */
+    public final synchronized long getReleases() {
+        return releases;
+    }
+
+    /**
+     * Votes a lock request. If the request is the owner of the lease then the lease is renewed, in the
+     * otherwise the request is queued and the lease is granted only if there are not a valid lease and
+     * the request is the oldest request of the queue.
+     * @param requestId Id of the request.
+     * @param timestamp Timestamp of the first attempt of the request.
+     * @param leaseDuration Duration of the lease.
+     * @return True if the lease is granted or renewed.
+     */
+    public final synchronized boolean vote(UUID requestId, Long timestamp, Long leaseDuration) {
+        boolean result = false;
+        long now = System.currentTimeMillis();
+        Iterator<Waiter> iterator = waiters.values().iterator();
+        while(iterator.hasNext()) {
+            if(iterator.next().expiration < now) {
+                iterator.remove();
+            }
+        }
+        if(leaseOwner != null && leaseExpiration < now) {
+            leaseOwner = null;
+            releases++;
+        }
+
+        if(requestId.equals(leaseOwner)) {
+            leaseExpiration = now + leaseDuration;
+            result = true;
+        } else {
+            waiters.put(requestId, new Waiter(requestId, timestamp, now + leaseDuration));
+            if(leaseOwner == null) {
+                Waiter first = null;
+                for(Waiter waiter : waiters.values()) {
+                    if(first == null || waiter.compareTo(first) < 0) {
+                        first = waiter;
+                    }
+                }
+                if(first.requestId.equals(requestId)) {
+                    leaseOwner = requestId;
+                    fencingToken++;
+                    leaseExpiration = now + leaseDuration;
+                    result = true;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Renews the lease only if the request is the owner of a valid lease.
+     * @param requestId Id of the request.
+     * @param leaseDuration Duration of the lease.
+     * @return True if the lease is renewed.
+     */
+    public final synchronized boolean renew(UUID requestId, Long leaseDuration) {
+        boolean result = false;
+        long now = System.currentTimeMillis();
+        if(requestId.equals(leaseOwner) && leaseExpiration >= now) {
+            leaseExpiration = now + leaseDuration;
+            result = true;
+        }
+        return result;
+    }
+
+    /**
+     * Releases the lease if the request is the owner.
+     * @param requestId Id of the request.
+     * @param keepWaiting If this parameter is true then the request keeps its place into the queue.
+     * @return True if the lease was released.
+     */
+    public final synchronized boolean release(UUID requestId, boolean keepWaiting) {
+        boolean result = false;
+        if(!keepWaiting) {
+            waiters.remove(requestId);
+        }
+        if(requestId.equals(leaseOwner)) {
+            leaseOwner = null;
+            releases++;
+            result = true;
+        }
+        return result;
+    }
+
+    /**
+     * Request waiting for the lease.
+     */
+    private static final class Waiter implements Comparable<Waiter> {
+
+        private final UUID requestId;
+        private final Long timestamp;
+        private final long expiration;
+
+        private Waiter(UUID requestId, Long timestamp, long expiration) {
+            this.requestId = requestId;
+            this.timestamp = timestamp;
+            this.expiration = expiration;
+        }
+
+        @Override
+        public int compareTo(Waiter waiter) {
+            int result = timestamp.compareTo(waiter.timestamp);
+            if(result == 0) {
+                result = requestId.compareTo(waiter.requestId);
+            }
+            return result;
+        }
+    }
+
     public enum Status {
 
         UNLOCKED,
@@ -41,7 +285,9 @@ public class DistributedLock{
 
         LOCKED,
 
-        WAITING
+        WAITING,
+
+        LOST
 
     }
 }
@@ -83,29 +83,30 @@ public class DistributedTree implements DistributedObject {
         if(instance instanceof DistributedTree) {
             Object key = path[path.length-1];
             result = new LocalLeaf(key);
-            result.setLastUpdate(lastUpdate);
+            result.setLastUpdate(timestamp);
             result.setInstance(object);
             result.getNodes().addAll(nodes);
             result.getServiceEndPoints().addAll(serviceEndPoints);
 
-            DistributedLeaf leaf = (DistributedLeaf) branches.get(key);
+            DistributedObject current = ((DistributedTree) instance).branches.get(key);
+            DistributedLeaf leaf = current instanceof DistributedLeaf ? (DistributedLeaf) current : null;
             if(leaf != null) {
-                if(leaf.getLastUpdate() < timestamp) {
+                //The leaf is replaced only by a publication with the same or a newer timestamp,
+                //the nodes of the publication are the current holders of the leaf.
+                if(leaf.getLastUpdate() <= timestamp) {
                     if(leaf instanceof LocalLeaf) {
                         result = (LocalLeaf) leaf;
                         result.setLastUpdate(timestamp);
+                        result.getNodes().clear();
                         result.getNodes().addAll(nodes);
                         result.getServiceEndPoints().addAll(serviceEndPoints);
                         result.setInstance(object);
                     } else {
                         ((DistributedTree) instance).branches.put(key, result);
                     }
-                } else {
-                    if(leaf instanceof LocalLeaf) {
-                        result = (LocalLeaf) branches.get(key);
-                        result.getNodes().addAll(nodes);
-                        result.getServiceEndPoints().addAll(serviceEndPoints);
-                    }
+                } else if(leaf instanceof LocalLeaf) {
+                    //The holders of an older publication are obsolete.
+                    result = (LocalLeaf) leaf;
                 }
             } else {
                 ((DistributedTree) instance).branches.put(key, result);
@@ -123,29 +124,30 @@ public class DistributedTree implements DistributedObject {
         if(instance instanceof DistributedTree) {
             Object key = path[path.length-1];
             result = new RemoteLeaf(key);
-            result.setLastUpdate(lastUpdate);
+            result.setLastUpdate(timestamp);
             result.setInstance(object);
             result.getNodes().addAll(nodes);
             result.getServiceEndPoints().addAll(serviceEndPoints);
 
-            DistributedLeaf leaf = (DistributedLeaf) branches.get(key);
+            DistributedObject current = ((DistributedTree) instance).branches.get(key);
+            DistributedLeaf leaf = current instanceof DistributedLeaf ? (DistributedLeaf) current : null;
             if(leaf != null) {
-                if(leaf.getLastUpdate() < timestamp) {
+                //The leaf is replaced only by a publication with the same or a newer timestamp,
+                //the nodes of the publication are the current holders of the leaf.
+                if(leaf.getLastUpdate() <= timestamp) {
                     if(leaf instanceof RemoteLeaf) {
                         result = (RemoteLeaf) leaf;
                         result.setLastUpdate(timestamp);
+                        result.getNodes().clear();
                         result.getNodes().addAll(nodes);
                         result.getServiceEndPoints().addAll(serviceEndPoints);
                         result.setInstance(object);
                     } else {
                         ((DistributedTree) instance).branches.put(key, result);
                     }
-                } else {
-                    if(leaf instanceof RemoteLeaf) {
-                        result = (RemoteLeaf) branches.get(key);
-                        result.getNodes().addAll(nodes);
-                        result.getServiceEndPoints().addAll(serviceEndPoints);
-                    }
+                } else if(leaf instanceof RemoteLeaf) {
+                    //The holders of an older publication are obsolete.
+                    result = (RemoteLeaf) leaf;
                 }
             } else {
                 ((DistributedTree) instance).branches.put(key, result);
@@ -197,6 +199,19 @@ public class DistributedTree implements DistributedObject {
         return getInstance(0, path.length, path);
     }
 
+    /**
+     * Returns the distributed object stored into the path, this method doesn't resolve the instance of the leaves.
+     * @param path Path of the object.
+     * @return Distributed object or null if the path doesn't exists.
+     */
+    public synchronized DistributedObject getObject(Object... path) {
+        DistributedObject result = branches.get(path[0]);
+        for (int i = 1; i < path.length && result != null; i++) {
+            result = result instanceof DistributedTree ? ((DistributedTree) result).branches.get(path[i]) : null;
+        }
+        return result;
+    }
+
     private Object getInstance(int index, int length, Object... path) {
         Object result = null;
         DistributedObject distributedObject = branches.get(path[index++]);
@@ -1,9 +1,11 @@
 package org.hcjf.events;
 
+import org.hcjf.properties.SystemProperties;
 import org.hcjf.service.ServiceConsumer;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.List;
 
 /**
  * This class resolve the interface to receive events of the instance.
@@ -32,4 +34,40 @@ public interface EventListener<E extends Event> extends ServiceConsumer {
         return (Class<E>) ((ParameterizedType)superInterface).getActualTypeArguments()[0];
     }
 
+    /**
+     * When a batch of events is received, this method is called only for the ordered listeners.
+     * By default each event of the batch is delivered using the method {@link EventListener#onEventReceived(Event)}.
+     * @param events Batch of received events, in the same order that the events was sent.
+     */
+    default void onEventsReceived(List<E> events) {
+        for(E event : events) {
+            onEventReceived(event);
+        }
+    }
+
+    /**
+     * If this method returns true then the events are stored into a mailbox of the listener and the events
+     * are delivered in batches, in the same order that the events was sent and one batch at time.
+     * @return True if the listener is ordered.
+     */
+    default boolean isOrdered() {
+        return false;
+    }
+
+    /**
+     * Returns the max number of events into the mailbox of the ordered listener.
+     * @return Mailbox capacity.
+     */
+    default Integer getMailboxCapacity() {
+        return SystemProperties.getInteger(SystemProperties.Event.MAILBOX_CAPACITY);
+    }
+
+    /**
+     * Returns the policy applied when the mailbox of the ordered listener is full.
+     * @return Overflow policy.
+     */
+    default Events.OverflowPolicy getOverflowPolicy() {
+        return Events.OverflowPolicy.valueOf(SystemProperties.get(SystemProperties.Event.MAILBOX_OVERFLOW_POLICY));
+    }
+
 }
@@ -4,12 +4,16 @@ import org.hcjf.cloud.Cloud;
 import org.hcjf.errors.Errors;
 import org.hcjf.errors.HCJFRuntimeException;
 import org.hcjf.log.Log;
+import org.hcjf.log.debug.Agent;
+import org.hcjf.log.debug.Agents;
 import org.hcjf.properties.SystemProperties;
 import org.hcjf.service.Service;
 import org.hcjf.service.ServiceSession;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -25,11 +29,17 @@ public final class Events extends Service<EventListener> {
     }
 
     public final List<EventListener> listeners;
+    private volatile Registry registry;
+    private final Map<EventListener, Mailbox> mailboxes;
+    private final Map<Class, EventTypeCounters> countersByEventType;
 
     private Events() {
         super(SystemProperties.get(SystemProperties.Event.SERVICE_NAME),
                 SystemProperties.getInteger(SystemProperties.Event.SERVICE_PRIORITY));
-        listeners = new ArrayList<>();
+        listeners = new CopyOnWriteArrayList<>();
+        registry = new Registry(List.of());
+        mailboxes = new ConcurrentHashMap<>();
+        countersByEventType = new ConcurrentHashMap<>();
     }
 
     /**
@@ -44,6 +54,7 @@ public final class Events extends Service<EventListener> {
 
         synchronized (listeners) {
             listeners.add(consumer);
+            registry = new Registry(new ArrayList<>(listeners));
         }
     }
 
@@ -59,24 +70,32 @@ public final class Events extends Service<EventListener> {
 
         synchronized (listeners) {
             listeners.remove(consumer);
+            registry = new Registry(new ArrayList<>(listeners));
         }
+        mailboxes.remove(consumer);
     }
 
     /**
-     * Return all the listeners to be able of process the specific event.
+     * Return all the listeners to be able of process the specific event. The listeners are
+     * resolved only one time for each event class until the listeners change.
      * @param event Event to dispatch.
      * @return List of listeners.
      */
     private List<EventListener> getListeners(Event event) {
-        List<EventListener> result = new ArrayList<>();
-        synchronized (listeners) {
-            for(EventListener listener : listeners) {
-                if(listener.getEventType().isAssignableFrom(event.getClass())) {
-                    result.add(listener);
-                }
-            }
-        }
-        return result;
+        return registry.getListeners(event.getClass());
+    }
+
+    /**
+     * Returns the counters of the specific event type, the first time the counters are registered as agent.
+     * @param eventType Event type.
+     * @return Counters instance.
+     */
+    private EventTypeCounters getCounters(Class eventType) {
+        return countersByEventType.computeIfAbsent(eventType, key -> {
+            EventTypeCounters result = new EventTypeCounters(key);
+            Agents.register(result);
+            return result;
+        });
     }
 
     /**
@@ -96,9 +115,19 @@ public final class Events extends Service<EventListener> {
     }
 
     private void dispatchLocalEvent(Event event) {
+        EventTypeCounters counters = getCounters(event.getClass());
+        counters.dispatched.incrementAndGet();
         for (EventListener listener : getListeners(event)) {
             try {
-                run(() -> listener.onEventReceived(event), ServiceSession.getCurrentIdentity());
+                ServiceSession session = ServiceSession.getCurrentIdentity();
+                if(listener.isOrdered()) {
+                    mailboxes.computeIfAbsent(listener, Mailbox::new).offer(event, session, counters);
+                } else {
+                    run(() -> {
+                        listener.onEventReceived(event);
+                        counters.delivered.incrementAndGet();
+                    }, session);
+                }
             } catch(Exception ex){
                 Log.e(SystemProperties.get(SystemProperties.Event.LOG_TAG), "Unable to dispatch event", ex);
             }
@@ -181,7 +210,7 @@ public final class Events extends Service<EventListener> {
 
     public static <E extends Event> E waitForEvent(Class<E> eventClass, long timeout) throws InterruptedException {
         AtomicReference<E> result = new AtomicReference<>();
-        addEventListener(new EventListener<E>(){
+        EventListener<E> listener = new EventListener<E>(){
             @Override
             public void onEventReceived(E event) {
                 result.set(event);
@@ -193,9 +222,16 @@ public final class Events extends Service<EventListener> {
             public Class<E> getEventType() {
                 return eventClass;
             }
-        });
-        synchronized (result) {
-            result.wait(timeout);
+        };
+        addEventListener(listener);
+        try {
+            synchronized (result) {
+                if(result.get() == null) {
+                    result.wait(timeout);
+                }
+            }
+        } finally {
+            removeEventListener(listener);
         }
         return result.get();
     }
@@ -213,4 +249,224 @@ public final class Events extends Service<EventListener> {
         <O extends Object> O collect(E event);
 
     }
+
+    /**
+     * Policies applied when the mailbox of an ordered listener is full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * The thread that sends the event waits until the mailbox has space.
+         */
+        BLOCK,
+
+        /**
+         * The new event is discarded.
+         */
+        DROP_NEWEST,
+
+        /**
+         * The oldest event of the mailbox is discarded.
+         */
+        DROP_OLDEST
+
+    }
+
+    /**
+     * Immutable snapshot of the listeners with a cache of the listeners for each event class.
+     */
+    private static final class Registry {
+
+        private final List<EventListener> listeners;
+        private final Map<Class, List<EventListener>> listenersByEventClass;
+
+        private Registry(List<EventListener> listeners) {
+            this.listeners = listeners;
+            this.listenersByEventClass = new ConcurrentHashMap<>();
+        }
+
+        private List<EventListener> getListeners(Class eventClass) {
+            return listenersByEventClass.computeIfAbsent(eventClass, key -> {
+                List<EventListener> result = new ArrayList<>();
+                for(EventListener listener : listeners) {
+                    if(listener.getEventType().isAssignableFrom(key)) {
+                        result.add(listener);
+                    }
+                }
+                return Collections.unmodifiableList(result);
+            });
+        }
+    }
+
+    /**
+     * Queue of events for an ordered listener, only one batch of events is delivered at time.
+     * The consecutive events sent with the same session are delivered into the same batch.
+     */
+    private static final class Mailbox {
+
+        private final EventListener listener;
+        private final Deque<Letter> letters;
+        private final int capacity;
+        private final OverflowPolicy overflowPolicy;
+        private boolean scheduled;
+
+        private Mailbox(EventListener listener) {
+            this.listener = listener;
+            this.letters = new ArrayDeque<>();
+            this.capacity = listener.getMailboxCapacity();
+            this.overflowPolicy = listener.getOverflowPolicy();
+        }
+
+        /**
+         * Stores the event into the mailbox applying the overflow policy if the mailbox is full.
+         * @param event Event instance.
+         * @param session Session of the thread that sends the event.
+         * @param counters Counters of the event type.
+         */
+        private synchronized void offer(Event event, ServiceSession session, EventTypeCounters counters) {
+            boolean accepted = true;
+            if(letters.size() >= capacity) {
+                switch (overflowPolicy) {
+                    case BLOCK: {
+                        counters.blocked.incrementAndGet();
+                        while(letters.size() >= capacity) {
+                            try {
+                                wait();
+                            } catch (InterruptedException ex) {
+                                Thread.currentThread().interrupt();
+                                break;
+                            }
+                        }
+                        accepted = letters.size() < capacity;
+                        break;
+                    }
+                    case DROP_OLDEST: {
+                        letters.pollFirst().counters.dropped.incrementAndGet();
+                        break;
+                    }
+                    default: {
+                        accepted = false;
+                    }
+                }
+            }
+
+            if(accepted) {
+                letters.offerLast(new Letter(event, session, counters));
+                if(!scheduled) {
+                    scheduled = true;
+                    run(this::deliver, session);
+                }
+            } else {
+                counters.dropped.incrementAndGet();
+            }
+        }
+
+        /**
+         * Delivers the next batch of events and schedules the following batch if there are more events.
+         */
+        private void deliver() {
+            List<Event> batch = new ArrayList<>();
+            List<Letter> batchLetters = new ArrayList<>();
+            synchronized (this) {
+                int batchSize = SystemProperties.getInteger(SystemProperties.Event.MAILBOX_BATCH_SIZE);
+                Letter first = letters.peekFirst();
+                while(!letters.isEmpty() && batch.size() < batchSize &&
+                        letters.peekFirst().session == first.session) {
+                    Letter letter = letters.pollFirst();
+                    batch.add(letter.event);
+                    batchLetters.add(letter);
+                }
+                notifyAll();
+            }
+
+            try {
+                listener.onEventsReceived(batch);
+                batchLetters.forEach(L -> L.counters.delivered.incrementAndGet());
+            } catch (Exception ex) {
+                Log.e(SystemProperties.get(SystemProperties.Event.LOG_TAG), "Unable to deliver events", ex);
+            } finally {
+                synchronized (this) {
+                    if(letters.isEmpty()) {
+                        scheduled = false;
+                    } else {
+                        run(this::deliver, letters.peekFirst().session);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Event stored into a mailbox.
+     */
+    private static final class Letter {
+
+        private final Event event;
+        private final ServiceSession session;
+        private final EventTypeCounters counters;
+
+        private Letter(Event event, ServiceSession session, EventTypeCounters counters) {
+            this.event = event;
+            this.session = session;
+            this.counters = counters;
+        }
+    }
+
+    public interface EventTypeAgentMBean {
+
+        String getEventType();
+        Long getDispatched();
+        Long getDelivered();
+        Long getDropped();
+        Long getBlocked();
+
+    }
+
+    /**
+     * Counters of the events dispatched for each event type.
+     */
+    private static final class EventTypeCounters extends Agent implements EventTypeAgentMBean {
+
+        private static final String PACKAGE_NAME = Events.class.getPackageName();
+
+        private final Class eventType;
+        private final AtomicLong dispatched;
+        private final AtomicLong delivered;
+        private final AtomicLong dropped;
+        private final AtomicLong blocked;
+
+        private EventTypeCounters(Class eventType) {
+            super(eventType.getName(), PACKAGE_NAME);
+            this.eventType = eventType;
+            this.dispatched = new AtomicLong();
+            this.delivered = new AtomicLong();
+            this.dropped = new AtomicLong();
+            this.blocked = new AtomicLong();
+        }
+
+        @Override
+        public String getEventType() {
+            return eventType.getName();
+        }
+
+        @Override
+        public Long getDispatched() {
+            return dispatched.get();
+        }
+
+        @Override
+        public Long getDelivered() {
+            return delivered.get();
+        }
+
+        @Override
+        public Long getDropped() {
+            return dropped.get();
+        }
+
+        @Override
+        public Long getBlocked() {
+            return blocked.get();
+        }
+    }
 }
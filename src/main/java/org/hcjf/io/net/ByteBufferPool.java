@@ -0,0 +1,116 @@
+package org.hcjf.io.net;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of byte buffers with the same capacity. Each thread keeps a small cache of free buffers
+ * in order to acquire and release buffers without contention, and the buffers released over a full
+ * thread cache are stored into a shared queue that is used by all the threads.
+ * @author javaito
+ */
+public class ByteBufferPool {
+
+    private final int bufferSize;
+    private final boolean direct;
+    private final int threadCacheSize;
+    private final int maxSize;
+    private final ThreadLocal<Deque<ByteBuffer>> threadCache;
+    private final Queue<ByteBuffer> sharedBuffers;
+    private final AtomicInteger sharedSize;
+    private final AtomicLong allocations;
+    private final AtomicLong reuses;
+
+    /**
+     * Constructor.
+     * @param bufferSize Capacity of each buffer of the pool.
+     * @param direct If this parameter is true then the buffers are allocated out of the heap.
+     * @param threadCacheSize Max number of free buffers by thread.
+     * @param maxSize Max number of free buffers into the shared queue.
+     */
+    public ByteBufferPool(int bufferSize, boolean direct, int threadCacheSize, int maxSize) {
+        if(bufferSize <= 0) {
+            throw new IllegalArgumentException("The size of the buffers must be greater than zero");
+        }
+        this.bufferSize = bufferSize;
+        this.direct = direct;
+        this.threadCacheSize = threadCacheSize;
+        this.maxSize = maxSize;
+        this.threadCache = ThreadLocal.withInitial(ArrayDeque::new);
+        this.sharedBuffers = new ConcurrentLinkedQueue<>();
+        this.sharedSize = new AtomicInteger();
+        this.allocations = new AtomicLong();
+        this.reuses = new AtomicLong();
+    }
+
+    /**
+     * Returns the capacity of each buffer of the pool.
+     * @return Buffer capacity.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Returns the number of buffers allocated by the pool.
+     * @return Number of allocations.
+     */
+    public long getAllocations() {
+        return allocations.get();
+    }
+
+    /**
+     * Returns the number of times that a released buffer was reused.
+     * @return Number of reuses.
+     */
+    public long getReuses() {
+        return reuses.get();
+    }
+
+    /**
+     * Returns a clean buffer, taken from the cache of the current thread, from the shared queue or
+     * allocated if there are not free buffers.
+     * @return Clean buffer.
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer result = threadCache.get().pollFirst();
+        if(result == null) {
+            result = sharedBuffers.poll();
+            if(result != null) {
+                sharedSize.decrementAndGet();
+            }
+        }
+
+        if(result == null) {
+            allocations.incrementAndGet();
+            result = direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+        } else {
+            reuses.incrementAndGet();
+            result.clear();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the buffer to the pool, the buffers with a different capacity are discarded.
+     * The buffer must not be used after this call.
+     * @param buffer Buffer to release.
+     */
+    public void release(ByteBuffer buffer) {
+        if(buffer != null && buffer.capacity() == bufferSize && buffer.isDirect() == direct) {
+            Deque<ByteBuffer> cache = threadCache.get();
+            if(cache.size() < threadCacheSize) {
+                cache.offerFirst(buffer);
+            } else if(sharedSize.incrementAndGet() <= maxSize) {
+                sharedBuffers.offer(buffer);
+            } else {
+                sharedSize.decrementAndGet();
+            }
+        }
+    }
+}
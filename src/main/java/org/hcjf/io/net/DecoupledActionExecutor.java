@@ -0,0 +1,361 @@
+package org.hcjf.io.net;
+
+import org.hcjf.log.Log;
+import org.hcjf.log.debug.Agent;
+import org.hcjf.log.debug.Agents;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.service.Service;
+import org.hcjf.service.ServiceSession;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This executor runs the decoupled actions of a consumer. The actions of the same session are stored into
+ * a lane and are executed in order, only one worker at time executes the actions of a lane.
+ * Each worker has its own queue of ready lanes and the idle workers steal lanes from the queues
+ * of the other workers. When a lane is full the read operation of the session is paused until the lane drains.
+ * @author javaito
+ */
+public final class DecoupledActionExecutor {
+
+    private final NetServiceConsumer consumer;
+    private final Integer laneCapacity;
+    private final Map<ServiceSession, Lane> lanes;
+    private final Worker[] workers;
+    private final AtomicInteger nextWorker;
+    private final AtomicLong pendingActions;
+    private final AtomicLong executedActions;
+    private final AtomicLong waitingTime;
+    private final AtomicLong maxWaitingTime;
+    private final AtomicLong stolenLanes;
+    private final AtomicLong pausedReads;
+    private final AtomicInteger pausedLanes;
+
+    public DecoupledActionExecutor(NetServiceConsumer consumer, Integer laneCapacity, Integer workersNumber) {
+        this.consumer = consumer;
+        this.laneCapacity = laneCapacity;
+        this.lanes = new ConcurrentHashMap<>();
+        this.workers = new Worker[workersNumber];
+        this.nextWorker = new AtomicInteger();
+        this.pendingActions = new AtomicLong();
+        this.executedActions = new AtomicLong();
+        this.waitingTime = new AtomicLong();
+        this.maxWaitingTime = new AtomicLong();
+        this.stolenLanes = new AtomicLong();
+        this.pausedReads = new AtomicLong();
+        this.pausedLanes = new AtomicInteger();
+        for (int i = 0; i < workersNumber; i++) {
+            workers[i] = new Worker(i);
+        }
+        for(Worker worker : workers) {
+            Service.run(worker, ServiceSession.getSystemSession());
+        }
+        Agents.register(new DecoupledActionExecutorAgent(this));
+    }
+
+    /**
+     * Adds the action into the lane of its session, if the lane is not scheduled then the lane is
+     * pushed into the queue of a worker.
+     * @param action Decoupled action instance.
+     */
+    public void execute(NetServiceConsumer.DecoupledAction action) {
+        ServiceSession session = action.getServiceSession();
+        Lane[] scheduledLane = new Lane[1];
+        Lane lane = lanes.compute(session, (key, current) -> {
+            Lane result = current == null ? new Lane(session) : current;
+            result.actions.offer(new PendingAction(action));
+            result.size.incrementAndGet();
+            if(!result.scheduled) {
+                result.scheduled = true;
+                scheduledLane[0] = result;
+            }
+            return result;
+        });
+        pendingActions.incrementAndGet();
+
+        if(session instanceof NetSession && lane.size.get() >= laneCapacity && !lane.readPaused) {
+            synchronized (lane) {
+                if(!lane.readPaused) {
+                    //The flag is set before check the size again, then a worker that drains the lane
+                    //in this moment sees the flag and resumes the read, or this thread sees the drained lane.
+                    lane.readPaused = true;
+                    if(lane.size.get() >= laneCapacity) {
+                        pausedReads.incrementAndGet();
+                        pausedLanes.incrementAndGet();
+                        consumer.getService().pauseRead((NetSession) session);
+                    } else {
+                        lane.readPaused = false;
+                    }
+                }
+            }
+        }
+
+        if(scheduledLane[0] != null) {
+            schedule(scheduledLane[0], workers[Math.floorMod(nextWorker.getAndIncrement(), workers.length)]);
+        }
+    }
+
+    /**
+     * Pushes the lane into the queue of the worker and wakes up an idle worker.
+     * @param lane Lane to schedule.
+     * @param worker Preferred worker.
+     */
+    private void schedule(Lane lane, Worker worker) {
+        worker.lanes.offerLast(lane);
+        if(worker.idle) {
+            LockSupport.unpark(worker.thread);
+        } else {
+            for(Worker idleWorker : workers) {
+                if(idleWorker.idle) {
+                    LockSupport.unpark(idleWorker.thread);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes a batch of actions of the lane, if the lane has more actions then the lane is scheduled again
+     * in the otherwise the lane is removed.
+     * @param lane Lane to execute.
+     * @param worker Current worker.
+     */
+    private void execute(Lane lane, Worker worker) {
+        int batchSize = SystemProperties.getInteger(SystemProperties.Net.DECOUPLED_IO_ACTION_BATCH_SIZE);
+        for (int i = 0; i < batchSize; i++) {
+            PendingAction pendingAction = lane.actions.poll();
+            if(pendingAction == null) {
+                break;
+            }
+            pendingActions.decrementAndGet();
+            long waitingTime = System.currentTimeMillis() - pendingAction.time;
+            this.waitingTime.addAndGet(waitingTime);
+            maxWaitingTime.accumulateAndGet(waitingTime, Math::max);
+            try {
+                ServiceSession.runAs(pendingAction.action::onAction, lane.session.currentIdentity());
+            } catch (Throwable throwable) {
+                Log.w(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Decoupled action error", throwable);
+            }
+            executedActions.incrementAndGet();
+
+            if(lane.size.decrementAndGet() <= laneCapacity / 2 && lane.readPaused) {
+                resumeRead(lane);
+            }
+        }
+
+        Lane result = lanes.compute(lane.session, (key, current) -> {
+            Lane computedLane = current;
+            if(lane.actions.isEmpty()) {
+                lane.scheduled = false;
+                computedLane = null;
+            }
+            return computedLane;
+        });
+        if(result != null) {
+            schedule(lane, worker);
+        } else if(lane.readPaused) {
+            //The removed lane never is executed again then the read must not remain paused.
+            resumeRead(lane);
+        }
+    }
+
+    /**
+     * Restores the read of the lane session if the lane has drained.
+     * @param lane Lane with the read paused.
+     */
+    private void resumeRead(Lane lane) {
+        synchronized (lane) {
+            if(lane.readPaused && lane.size.get() <= laneCapacity / 2) {
+                lane.readPaused = false;
+                pausedLanes.decrementAndGet();
+                consumer.getService().resumeRead((NetSession) lane.session);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of actions waiting to be executed.
+     * @return Number of pending actions.
+     */
+    public Long getPendingActions() {
+        return pendingActions.get();
+    }
+
+    /**
+     * Returns the number of lanes with the read of the session paused.
+     * @return Number of paused lanes.
+     */
+    public Integer getPausedLanes() {
+        return pausedLanes.get();
+    }
+
+    /**
+     * Worker with its own queue of ready lanes.
+     */
+    private final class Worker implements Runnable {
+
+        private final int index;
+        private final ConcurrentLinkedDeque<Lane> lanes;
+        private volatile Thread thread;
+        private volatile boolean idle;
+
+        private Worker(int index) {
+            this.index = index;
+            this.lanes = new ConcurrentLinkedDeque<>();
+        }
+
+        /**
+         * Returns the next lane of the own queue or a lane stolen from other worker.
+         * @return Lane instance or null if there are not ready lanes.
+         */
+        private Lane nextLane() {
+            Lane result = lanes.pollFirst();
+            for (int i = 1; result == null && i < workers.length; i++) {
+                result = workers[(index + i) % workers.length].lanes.pollLast();
+                if(result != null) {
+                    stolenLanes.incrementAndGet();
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            while(!Thread.currentThread().isInterrupted()) {
+                Lane lane = nextLane();
+                if(lane != null) {
+                    execute(lane, this);
+                } else {
+                    idle = true;
+                    lane = nextLane();
+                    if(lane == null) {
+                        LockSupport.parkNanos(SystemProperties.getLong(
+                                SystemProperties.Net.DECOUPLED_IO_ACTION_IDLE_TIMEOUT) * 1000000);
+                        idle = false;
+                    } else {
+                        idle = false;
+                        execute(lane, this);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Actions of a session.
+     */
+    private static final class Lane {
+
+        private final ServiceSession session;
+        private final Queue<PendingAction> actions;
+        private final AtomicInteger size;
+        private boolean scheduled;
+        private volatile boolean readPaused;
+
+        private Lane(ServiceSession session) {
+            this.session = session;
+            this.actions = new ConcurrentLinkedQueue<>();
+            this.size = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Action with the time when it was added.
+     */
+    private static final class PendingAction {
+
+        private final NetServiceConsumer.DecoupledAction action;
+        private final long time;
+
+        private PendingAction(NetServiceConsumer.DecoupledAction action) {
+            this.action = action;
+            this.time = System.currentTimeMillis();
+        }
+    }
+
+    public interface DecoupledActionExecutorAgentMBean {
+
+        String getConsumerName();
+        Integer getWorkers();
+        Integer getLanes();
+        Long getPendingActions();
+        Long getExecutedActions();
+        Long getAverageWaitingTime();
+        Long getMaxWaitingTime();
+        Long getStolenLanes();
+        Long getPausedReads();
+        Integer getPausedLanes();
+
+    }
+
+    private static final class DecoupledActionExecutorAgent extends Agent implements DecoupledActionExecutorAgentMBean {
+
+        private static final String PACKAGE_NAME = DecoupledActionExecutor.class.getPackageName();
+
+        private final DecoupledActionExecutor executor;
+
+        public DecoupledActionExecutorAgent(DecoupledActionExecutor executor) {
+            super(executor.consumer.getName(), PACKAGE_NAME);
+            this.executor = executor;
+        }
+
+        @Override
+        public String getConsumerName() {
+            return executor.consumer.getName();
+        }
+
+        @Override
+        public Integer getWorkers() {
+            return executor.workers.length;
+        }
+
+        @Override
+        public Integer getLanes() {
+            return executor.lanes.size();
+        }
+
+        @Override
+        public Long getPendingActions() {
+            return executor.pendingActions.get();
+        }
+
+        @Override
+        public Long getExecutedActions() {
+            return executor.executedActions.get();
+        }
+
+        @Override
+        public Long getAverageWaitingTime() {
+            long executedActions = executor.executedActions.get();
+            return executedActions == 0 ? 0 : executor.waitingTime.get() / executedActions;
+        }
+
+        @Override
+        public Long getMaxWaitingTime() {
+            return executor.maxWaitingTime.get();
+        }
+
+        @Override
+        public Long getStolenLanes() {
+            return executor.stolenLanes.get();
+        }
+
+        @Override
+        public Long getPausedReads() {
+            return executor.pausedReads.get();
+        }
+
+        @Override
+        public Integer getPausedLanes() {
+            return executor.pausedLanes.get();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.hcjf.io.net;
 
+import java.nio.ByteBuffer;
 import java.util.Date;
 
 /**
@@ -13,7 +14,10 @@ public class DefaultNetPackage extends NetPackage {
     private final String remoteAddress;
     private final int remotePort;
     private final int localPort;
-    private final byte[] payload;
+    private byte[] payload;
+    private ByteBuffer[] payloadBuffers;
+    private ByteBuffer pooledBuffer;
+    private ByteBufferPool pool;
     private final Date date;
     private final ActionEvent actionEvent;
     private PackageStatus packageStatus;
@@ -31,6 +35,42 @@ public class DefaultNetPackage extends NetPackage {
         this.packageStatus = PackageStatus.WAITING;
     }
 
+    /**
+     * Creates a package whose payload is the sequence of the remaining bytes of the buffers,
+     * the buffers are not copied.
+     * @param remoteHost Remote host.
+     * @param remoteAddress Remote address.
+     * @param remotePort Remote port.
+     * @param localPort Local port.
+     * @param payloadBuffers Payload buffers.
+     * @param actionEvent Action event.
+     */
+    public DefaultNetPackage(String remoteHost, String remoteAddress,
+                             int remotePort, int localPort, ByteBuffer[] payloadBuffers,
+                             ActionEvent actionEvent) {
+        this(remoteHost, remoteAddress, remotePort, localPort, (byte[]) null, actionEvent);
+        this.payloadBuffers = payloadBuffers;
+    }
+
+    /**
+     * Creates a package whose payload is a slice of a pooled buffer, the buffer is returned to the pool
+     * when the package is released.
+     * @param remoteHost Remote host.
+     * @param remoteAddress Remote address.
+     * @param remotePort Remote port.
+     * @param localPort Local port.
+     * @param pooledBuffer Pooled buffer, flipped to be read.
+     * @param pool Pool of the buffer.
+     * @param actionEvent Action event.
+     */
+    public DefaultNetPackage(String remoteHost, String remoteAddress,
+                             int remotePort, int localPort, ByteBuffer pooledBuffer, ByteBufferPool pool,
+                             ActionEvent actionEvent) {
+        this(remoteHost, remoteAddress, remotePort, localPort, new ByteBuffer[]{pooledBuffer.slice()}, actionEvent);
+        this.pooledBuffer = pooledBuffer;
+        this.pool = pool;
+    }
+
     /**
      * Return the net session of the package.
      * @return Net session.
@@ -51,10 +91,115 @@ public class DefaultNetPackage extends NetPackage {
      * Return the payload of the package.
      * @return Payload of the package.
      */
-    public byte[] getPayload() {
+    public synchronized byte[] getPayload() {
+        if(payload == null && payloadBuffers != null) {
+            int size = 0;
+            for(ByteBuffer buffer : payloadBuffers) {
+                size += buffer.remaining();
+            }
+            payload = new byte[size];
+            int offset = 0;
+            for(ByteBuffer buffer : payloadBuffers) {
+                int length = buffer.remaining();
+                buffer.duplicate().get(payload, offset, length);
+                offset += length;
+            }
+        }
         return payload;
     }
 
+    /**
+     * Returns a read only view of the payload without copy it if the payload is a single buffer. If the payload
+     * is a pooled buffer then the payload is copied because the view could be used after the release of the package.
+     * @return Payload buffer.
+     */
+    @Override
+    public synchronized ByteBuffer getPayloadBuffer() {
+        ByteBuffer result;
+        if(pooledBuffer == null && payload == null && payloadBuffers != null && payloadBuffers.length == 1) {
+            result = payloadBuffers[0].asReadOnlyBuffer();
+        } else {
+            result = super.getPayloadBuffer();
+        }
+        return result;
+    }
+
+    /**
+     * Returns a read only view of the payload without copy it, even if the payload is a pooled buffer.
+     * @return Payload buffer.
+     */
+    @Override
+    public synchronized ByteBuffer getTransientPayloadBuffer() {
+        ByteBuffer result;
+        if(payload == null && payloadBuffers != null && payloadBuffers.length == 1) {
+            result = payloadBuffers[0].asReadOnlyBuffer();
+        } else {
+            result = super.getTransientPayloadBuffer();
+        }
+        return result;
+    }
+
+    /**
+     * Returns views of the payload buffers, or the payload array wrapped if the package was
+     * created with an array or with a pooled buffer.
+     * @return Array of payload buffers.
+     */
+    @Override
+    public synchronized ByteBuffer[] getPayloadBuffers() {
+        ByteBuffer[] result;
+        if(pooledBuffer == null && payloadBuffers != null) {
+            result = new ByteBuffer[payloadBuffers.length];
+            for (int i = 0; i < payloadBuffers.length; i++) {
+                result[i] = payloadBuffers[i].duplicate();
+            }
+        } else {
+            result = super.getPayloadBuffers();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the size of the payload without materialize the array.
+     * @return Payload size.
+     */
+    @Override
+    public synchronized int getPayloadSize() {
+        int result;
+        if(payload == null && payloadBuffers != null) {
+            result = 0;
+            for(ByteBuffer buffer : payloadBuffers) {
+                result += buffer.remaining();
+            }
+        } else {
+            result = super.getPayloadSize();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the pooled buffer to its pool.
+     */
+    @Override
+    public synchronized void release() {
+        if(pooledBuffer != null) {
+            payloadBuffers = null;
+            pool.release(pooledBuffer);
+            pooledBuffer = null;
+            pool = null;
+        }
+    }
+
+    /**
+     * This method is called by the service when the package leaves the io thread, if the package was not released
+     * yet then the payload is copied and the pooled buffer is released.
+     */
+    synchronized void detach() {
+        if(pooledBuffer != null) {
+            getPayload();
+            release();
+        }
+    }
+
     /**
      * Return the remote ip address.
      * @return Remote ip address.
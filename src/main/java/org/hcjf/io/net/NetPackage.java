@@ -1,7 +1,10 @@
 package org.hcjf.io.net;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Date;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class represents a package of information over IP protocol.
@@ -10,9 +13,11 @@ import java.util.UUID;
 public abstract class NetPackage {
 
     private final UUID id;
+    private final CompletableFuture<NetPackage> future;
 
     public NetPackage() {
         this.id = UUID.randomUUID();
+        this.future = new CompletableFuture<>();
     }
 
     /**
@@ -23,6 +28,43 @@ public abstract class NetPackage {
         return id;
     }
 
+    /**
+     * Returns the future that is completed when the net service finish to process the package.
+     * The future is completed by the io threads, then the dependent actions must not block.
+     * @return Future of the package.
+     */
+    public final CompletableFuture<NetPackage> getFuture() {
+        return future;
+    }
+
+    /**
+     * Completes the future of the package according to the status of the package, if the status is
+     * an error status then the future is completed exceptionally with an io exception.
+     */
+    final void complete() {
+        switch (getPackageStatus()) {
+            case CONNECTION_CLOSE: {
+                future.completeExceptionally(new IOException("Connection Close"));
+                break;
+            }
+            case IO_ERROR: {
+                future.completeExceptionally(new IOException("IO Error"));
+                break;
+            }
+            case REJECTED_SESSION_LOCK: {
+                future.completeExceptionally(new IOException("Session locked"));
+                break;
+            }
+            case UNKNOWN_SESSION: {
+                future.completeExceptionally(new IOException("Unknown session"));
+                break;
+            }
+            default: {
+                future.complete(this);
+            }
+        }
+    }
+
     /**
      * Return the net session of the package.
      * @return Net session.
@@ -41,6 +83,52 @@ public abstract class NetPackage {
      */
     public abstract byte[] getPayload();
 
+    /**
+     * Returns a read only view of the payload, the view is valid while the package exists.
+     * @return Payload buffer or null if the package has not payload.
+     */
+    public ByteBuffer getPayloadBuffer() {
+        byte[] payload = getPayload();
+        return payload == null ? null : ByteBuffer.wrap(payload).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a read only view of the payload without copy it, the view must be consumed by the current thread
+     * and it must not be used after the release of the package, because the memory of the view could be reused
+     * by the service. The consumers that decode the payload into the io thread use this view and then release
+     * the package in order to avoid the copy of the payload.
+     * @return Payload buffer or null if the package has not payload.
+     */
+    public ByteBuffer getTransientPayloadBuffer() {
+        return getPayloadBuffer();
+    }
+
+    /**
+     * Returns the buffers that contains the payload in order to be written using a gathering operation,
+     * each call returns new views with independent positions.
+     * @return Array of payload buffers.
+     */
+    public ByteBuffer[] getPayloadBuffers() {
+        byte[] payload = getPayload();
+        return new ByteBuffer[]{ByteBuffer.wrap(payload == null ? new byte[0] : payload)};
+    }
+
+    /**
+     * Returns the number of bytes of the payload.
+     * @return Payload size.
+     */
+    public int getPayloadSize() {
+        byte[] payload = getPayload();
+        return payload == null ? 0 : payload.length;
+    }
+
+    /**
+     * Releases the resources associated to the payload, after this call the payload buffer can be reused
+     * by the service and only the payload array obtained before the release is available.
+     */
+    public void release() {
+    }
+
     /**
      * Return the remote ip address.
      * @return Remote ip address.
@@ -3,6 +3,8 @@ package org.hcjf.io.net;
 import org.hcjf.errors.HCJFRuntimeException;
 import org.hcjf.io.net.ssl.SslClient;
 import org.hcjf.log.Log;
+import org.hcjf.log.debug.Agent;
+import org.hcjf.log.debug.Agents;
 import org.hcjf.properties.SystemProperties;
 import org.hcjf.service.Service;
 import org.hcjf.service.ServiceThread;
@@ -20,6 +22,7 @@ import java.nio.channels.*;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class implements a service that provide an
@@ -44,8 +47,16 @@ public final class NetService extends Service<NetServiceConsumer> {
     private Map<SocketAddress, NetSession> sessionsByAddress;
     private Map<SelectableChannel, Long> lastWrite;
     private Map<SelectableChannel, Queue<NetPackage>> outputQueue;
+    private Map<SelectableChannel, PendingWrite> pendingWrites;
+    private Map<SelectableChannel, OutboundBytes> outboundBytes;
+    private ByteBufferPool inputBufferPool;
     private Map<NetServiceConsumer,SelectorRunnable> selectors;
     private Map<NetServiceConsumer,Future> tasks;
+    private List<SelectorRunnable> reactors;
+    private Map<SelectorRunnable,Future> reactorTasks;
+    private Map<SelectableChannel,SelectorRunnable> reactorsByChannel;
+    private Set<SelectableChannel> pausedReadChannels;
+    private AtomicInteger reactorIndex;
     private SelectorHealthChecker selectorHealthChecker;
     private Timer timer;
     private boolean creationTimeoutAvailable;
@@ -74,6 +85,11 @@ public final class NetService extends Service<NetServiceConsumer> {
         this.timer = new Timer();
         selectors = new HashMap<>();
         tasks = new HashMap<>();
+        reactors = new ArrayList<>();
+        reactorTasks = new ConcurrentHashMap<>();
+        reactorsByChannel = new ConcurrentHashMap<>();
+        pausedReadChannels = ConcurrentHashMap.newKeySet();
+        reactorIndex = new AtomicInteger();
 
         this.creationTimeoutAvailable = SystemProperties.getBoolean(SystemProperties.Net.CONNECTION_TIMEOUT_AVAILABLE);
         this.creationTimeout = SystemProperties.getLong(SystemProperties.Net.CONNECTION_TIMEOUT);
@@ -83,6 +99,13 @@ public final class NetService extends Service<NetServiceConsumer> {
 
         lastWrite = Collections.synchronizedMap(new HashMap<>());
         outputQueue = Collections.synchronizedMap(new HashMap<>());
+        pendingWrites = new ConcurrentHashMap<>();
+        outboundBytes = new ConcurrentHashMap<>();
+        inputBufferPool = new ByteBufferPool(
+                SystemProperties.getInteger(SystemProperties.Net.DEFAULT_INPUT_BUFFER_SIZE),
+                SystemProperties.getBoolean(SystemProperties.Net.IO_THREAD_DIRECT_ALLOCATE_MEMORY),
+                SystemProperties.getInteger(SystemProperties.Net.BUFFER_POOL_THREAD_CACHE_SIZE),
+                SystemProperties.getInteger(SystemProperties.Net.BUFFER_POOL_MAX_SIZE));
         serverSocketChannelMap = Collections.synchronizedMap(new HashMap<>());
         channels = Collections.synchronizedMap(new TreeMap<>());
         sessionsByChannel = Collections.synchronizedMap(new HashMap<>());
@@ -104,6 +127,11 @@ public final class NetService extends Service<NetServiceConsumer> {
         for(SelectorRunnable selectorRunnable : selectors.values()) {
             selectorRunnable.shutdown(stage);
         }
+        synchronized (reactors) {
+            for (SelectorRunnable reactor : reactors) {
+                reactor.shutdown(stage);
+            }
+        }
     }
 
     /**
@@ -121,6 +149,10 @@ public final class NetService extends Service<NetServiceConsumer> {
             throw new NullPointerException("Net consumer null");
         }
 
+        //The service is set before the registration because the shared reactors could dispatch
+        //the connection event of the consumer before this method returns.
+        consumer.setService(this);
+
         boolean illegal = false;
         try {
             switch (consumer.getProtocol()) {
@@ -153,8 +185,6 @@ public final class NetService extends Service<NetServiceConsumer> {
         if (illegal) {
             throw new IllegalArgumentException("Is not a legal consumer.");
         }
-
-        consumer.setService(this);
     }
 
     @Override
@@ -176,14 +206,22 @@ public final class NetService extends Service<NetServiceConsumer> {
     }
 
     /**
-     * This method registers a TCP client service.
+     * This method registers a TCP client service. The channel of the client is attended by one of the shared
+     * reactors, then the idle clients don't keep their own selector and io threads. Only if the size of the
+     * reactors pool is zero the client has its own selector runnable.
      * @param client TCP Client.
      */
     private void registerTCPNetClient(NetClient client) throws IOException {
         final SocketChannel channel = SocketChannel.open();
         channel.configureBlocking(false);
         channel.connect(new InetSocketAddress(client.getHost(), client.getPort()));
-        registerChannel(client, channel, SelectionKey.OP_CONNECT | SelectionKey.OP_READ, client);
+        SelectorRunnable reactor = nextReactor();
+        if (reactor == null) {
+            registerChannel(client, channel, SelectionKey.OP_CONNECT | SelectionKey.OP_READ, client);
+        } else {
+            reactorsByChannel.put(channel, reactor);
+            reactor.registerChannel(channel, SelectionKey.OP_CONNECT | SelectionKey.OP_READ, client);
+        }
     }
 
     /**
@@ -277,6 +315,57 @@ public final class NetService extends Service<NetServiceConsumer> {
         selectors.get(consumer).registerChannel(channel, operation, attach);
     }
 
+    /**
+     * Returns the selector runnable that attends the channel, it could be one of the shared reactors
+     * or the selector runnable of the consumer.
+     * @param channel Channel instance.
+     * @param consumer Consumer of the channel.
+     * @return Selector runnable instance.
+     */
+    private SelectorRunnable getSelectorRunnable(SelectableChannel channel, NetServiceConsumer consumer) {
+        SelectorRunnable result = reactorsByChannel.get(channel);
+        if (result == null) {
+            result = selectors.get(consumer);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the reactor that will attend a new accepted channel or a new client channel, the reactors are
+     * created the first time that this method is called. If the size of the reactors pool is zero then the
+     * channel is attended by the selector runnable of the consumer.
+     * @return Selector runnable instance or null if the size of the reactors pool is zero.
+     */
+    private SelectorRunnable nextReactor() {
+        SelectorRunnable result;
+        synchronized (reactors) {
+            if (reactors.isEmpty()) {
+                int size = SystemProperties.getInteger(SystemProperties.Net.REACTOR_POOL_SIZE);
+                for (int i = 0; i < size; i++) {
+                    SelectorRunnable reactor = new SelectorRunnable(String.format(
+                            SystemProperties.get(SystemProperties.Net.REACTOR_NAME), i));
+                    reactors.add(reactor);
+                    reactorTasks.put(reactor, fork(reactor));
+                    Agents.register(new ReactorAgent(reactor));
+                }
+            }
+
+            if (reactors.isEmpty()) {
+                result = null;
+            } else if (SystemProperties.get(SystemProperties.Net.REACTOR_BALANCE_STRATEGY).equals(ReactorBalanceStrategy.LEAST_LOADED.toString())) {
+                result = reactors.get(0);
+                for (SelectorRunnable reactor : reactors) {
+                    if (reactor.getRegisteredChannels() < result.getRegisteredChannels()) {
+                        result = reactor;
+                    }
+                }
+            } else {
+                result = reactors.get(Math.floorMod(reactorIndex.getAndIncrement(), reactors.size()));
+            }
+        }
+        return result;
+    }
+
     /**
      * Creates a internal package of data.
      * @param channel Socket channel.
@@ -285,6 +374,20 @@ public final class NetService extends Service<NetServiceConsumer> {
      * @return Returns the instance of net package.
      */
     private NetPackage createPackage(SelectableChannel channel, byte[] data, NetPackage.ActionEvent event) {
+        return createPackage(channel, data, null, null, event);
+    }
+
+    /**
+     * Creates a internal package of data, the payload is the array of data or the buffers if the array is null.
+     * @param channel Socket channel.
+     * @param data Payload.
+     * @param buffers Payload buffers, if the pool is not null then the buffer is a pooled buffer.
+     * @param pool Pool of the buffer.
+     * @param event Action event.
+     * @return Returns the instance of net package.
+     */
+    private NetPackage createPackage(SelectableChannel channel, byte[] data, ByteBuffer[] buffers,
+                                     ByteBufferPool pool, NetPackage.ActionEvent event) {
         NetPackage netPackage;
         String remoteHost;
         String remoteAddress;
@@ -320,8 +423,16 @@ public final class NetService extends Service<NetServiceConsumer> {
             throw new IllegalArgumentException("Unknown channel type");
         }
 
-        netPackage = new DefaultNetPackage(remoteHost, remoteAddress, remotePort,
-                localPort, data, event);
+        if(data != null || buffers == null) {
+            netPackage = new DefaultNetPackage(remoteHost, remoteAddress, remotePort,
+                    localPort, data, event);
+        } else if(pool != null) {
+            netPackage = new DefaultNetPackage(remoteHost, remoteAddress, remotePort,
+                    localPort, buffers[0], pool, event);
+        } else {
+            netPackage = new DefaultNetPackage(remoteHost, remoteAddress, remotePort,
+                    localPort, buffers, event);
+        }
 
         return netPackage;
     }
@@ -330,10 +441,20 @@ public final class NetService extends Service<NetServiceConsumer> {
      * This method notify to all the writer and put into the output buffer some package.
      * @param channel Channel to write the package.
      * @param netPackage Package.
+     * @return True if the package was queued and false if the channel was destroyed, in this case the
+     * package is completed with the status CONNECTION_CLOSE.
      */
-    private void writeWakeup(SelectableChannel channel, NetPackage netPackage) {
-        SelectorRunnable selectorRunnable = selectors.get(netPackage.getSession().getConsumer());
-        selectorRunnable.writeWakeup(channel, netPackage);
+    private boolean writeWakeup(SelectableChannel channel, NetPackage netPackage) {
+        boolean result;
+        SelectorRunnable selectorRunnable = getSelectorRunnable(channel, netPackage.getSession().getConsumer());
+        if (selectorRunnable != null) {
+            result = selectorRunnable.writeWakeup(channel, netPackage);
+        } else {
+            netPackage.setPackageStatus(NetPackage.PackageStatus.CONNECTION_CLOSE);
+            netPackage.complete();
+            result = false;
+        }
+        return result;
     }
 
     /**
@@ -342,7 +463,7 @@ public final class NetService extends Service<NetServiceConsumer> {
      * @param session Net session instance.
      */
     private void readWakeup(SelectableChannel channel, NetSession session) {
-        SelectorRunnable selectorRunnable = selectors.get(session.getConsumer());
+        SelectorRunnable selectorRunnable = getSelectorRunnable(channel, session.getConsumer());
         selectorRunnable.readWakeup(channel);
     }
 
@@ -355,12 +476,42 @@ public final class NetService extends Service<NetServiceConsumer> {
      * @throws IOException Exception to the write operation.
      */
     public final NetPackage writeData(NetSession session, byte[] data) throws IOException {
+        return writeData(session, data, null);
+    }
+
+    /**
+     * This method put a net package on the output queue of the session, the payload of the package
+     * is the sequence of the remaining bytes of all the buffers, and it is written using a gathering
+     * operation without copy the buffers, for example to write a header and a body.
+     * The buffers must not be modified until the package is written.
+     *
+     * @param session Net session.
+     * @param buffers Buffers to create the package.
+     * @return Return the id of the created package.
+     * @throws IOException Exception to the write operation.
+     */
+    public final NetPackage writeData(NetSession session, ByteBuffer... buffers) throws IOException {
+        return writeData(session, null, buffers);
+    }
+
+    /**
+     * This method put a net package on the output queue of the session.
+     * @param session Net session.
+     * @param data Data to create the package.
+     * @param buffers Buffers to create the package, used only if the data is null.
+     * @return Return the id of the created package.
+     * @throws IOException Exception to the write operation.
+     */
+    private NetPackage writeData(NetSession session, byte[] data, ByteBuffer[] buffers) throws IOException {
         NetPackage netPackage;
         SelectableChannel channel = channels.get(session);
         if (channel != null) {
-            netPackage = createPackage(channel, data, NetPackage.ActionEvent.WRITE);
+            netPackage = createPackage(channel, data, buffers, null, NetPackage.ActionEvent.WRITE);
             netPackage.setSession(session);
-            writeWakeup(channel, netPackage);
+            acquireOutboundBytes(channel, netPackage);
+            if (!writeWakeup(channel, netPackage)) {
+                throw new IOException("Connection Close");
+            }
         } else {
             throw new IOException("Unknown session");
         }
@@ -368,6 +519,132 @@ public final class NetService extends Service<NetServiceConsumer> {
         return netPackage;
     }
 
+    /**
+     * Adds the size of the package to the pending outbound bytes of the channel. If the channel has more
+     * pending bytes than the limit then the producer thread waits until the io threads write the pending
+     * packages, the io threads never wait because they are the threads that drain the output queues.
+     * @param channel Channel to write the package.
+     * @param netPackage Package to write.
+     * @throws IOException If the pending bytes are over the limit after the waiting time.
+     */
+    private void acquireOutboundBytes(SelectableChannel channel, NetPackage netPackage) throws IOException {
+        OutboundBytes counter = outboundBytes.get(channel);
+        if (counter != null) {
+            boolean force = Thread.currentThread() instanceof NetIOThread;
+            try {
+                if (!counter.acquire(netPackage.getPayloadSize(),
+                        SystemProperties.getLong(SystemProperties.Net.MAX_PENDING_OUTBOUND_BYTES),
+                        SystemProperties.getLong(SystemProperties.Net.PENDING_OUTBOUND_WAIT_TIMEOUT), force)) {
+                    throw new IOException("Pending outbound bytes limit exceeded");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Write interrupted", ex);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes queued and not written yet for the session.
+     * @param session Net session.
+     * @return Number of pending bytes.
+     */
+    public final long getPendingOutboundBytes(NetSession session) {
+        long result = 0;
+        SelectableChannel channel = channels.get(session);
+        if (channel != null) {
+            OutboundBytes counter = outboundBytes.get(channel);
+            if (counter != null) {
+                result = counter.get();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes the read interest of the session channel, then the channel is not read until the
+     * method {@link NetService#resumeRead(NetSession)} is called. Only the tcp channels are paused
+     * because the udp channel is shared by all the sessions.
+     * @param session Session instance.
+     */
+    public final void pauseRead(NetSession session) {
+        SelectableChannel channel = channels.get(session);
+        if(channel instanceof SocketChannel) {
+            SelectionKey key = getKey(channel, session.getConsumer());
+            if(key != null) {
+                synchronized (key) {
+                    if(pausedReadChannels.add(channel)) {
+                        updateInterestOps(key, 0, SelectionKey.OP_READ);
+                    }
+                }
+            } else {
+                pausedReadChannels.add(channel);
+            }
+        }
+    }
+
+    /**
+     * Restores the read interest of the session channel.
+     * @param session Session instance.
+     */
+    public final void resumeRead(NetSession session) {
+        SelectableChannel channel = channels.get(session);
+        if(channel != null) {
+            SelectionKey key = getKey(channel, session.getConsumer());
+            if(key != null) {
+                boolean resumed;
+                synchronized (key) {
+                    resumed = pausedReadChannels.remove(channel) && key.isValid();
+                    if(resumed) {
+                        updateInterestOps(key, SelectionKey.OP_READ, 0);
+                    }
+                }
+                if(resumed) {
+                    getSelectorRunnable(channel, session.getConsumer()).wakeup();
+                }
+            } else {
+                pausedReadChannels.remove(channel);
+            }
+        }
+    }
+
+    /**
+     * Returns the selection key of the channel into the selector that attends it.
+     * @param channel Channel instance.
+     * @param consumer Consumer of the channel.
+     * @return Selection key or null if the channel is not registered.
+     */
+    private SelectionKey getKey(SelectableChannel channel, NetServiceConsumer consumer) {
+        SelectorRunnable selectorRunnable = getSelectorRunnable(channel, consumer);
+        return selectorRunnable == null ? null : channel.keyFor(selectorRunnable.getSelector());
+    }
+
+    /**
+     * Updates the interest operations of the key. All the changes of the interest operations are done
+     * with the lock of the key, because the read interest is changed by the workers that pause and resume
+     * the reads, the write interest is changed by the writers and the selector threads, and each one only
+     * changes its own operation without overwrite the others.
+     * @param key Selection key.
+     * @param add Operations to add.
+     * @param remove Operations to remove.
+     */
+    private void updateInterestOps(SelectionKey key, int add, int remove) {
+        synchronized (key) {
+            if(key.isValid()) {
+                key.interestOps((key.interestOps() & ~remove) | add);
+            }
+        }
+    }
+
+    /**
+     * Returns the read interest of the channel, if the reads of the channel are paused then the interest is zero.
+     * @param channel Channel instance.
+     * @return Read interest.
+     */
+    private int getReadInterest(SelectableChannel channel) {
+        return pausedReadChannels.contains(channel) ? 0 : SelectionKey.OP_READ;
+    }
+
     /**
      * This method force the selector wakeup in order to read information from channel.
      * @param session Session instance.
@@ -410,7 +687,28 @@ public final class NetService extends Service<NetServiceConsumer> {
         synchronized (channel) {
             NetSession session = sessionsByChannel.remove(channel);
             lastWrite.remove(channel);
-            outputQueue.remove(channel);
+            Queue<NetPackage> queue = outputQueue.remove(channel);
+            SelectorRunnable reactor = reactorsByChannel.remove(channel);
+            pausedReadChannels.remove(channel);
+            OutboundBytes counter = outboundBytes.remove(channel);
+            if (counter != null) {
+                counter.close();
+            }
+            PendingWrite pendingWrite = pendingWrites.remove(channel);
+            if (pendingWrite != null) {
+                for (NetPackage netPackage : pendingWrite.getNetPackages()) {
+                    netPackage.setPackageStatus(NetPackage.PackageStatus.CONNECTION_CLOSE);
+                    onAction(netPackage, netPackage.getSession().getConsumer());
+                }
+            }
+            if (queue != null) {
+                //The packages that never was written are completed without notify the consumer.
+                NetPackage netPackage;
+                while ((netPackage = queue.poll()) != null) {
+                    netPackage.setPackageStatus(NetPackage.PackageStatus.CONNECTION_CLOSE);
+                    netPackage.complete();
+                }
+            }
             List<NetSession> removedSessions = new ArrayList<>();
 
             try {
@@ -426,7 +724,7 @@ public final class NetService extends Service<NetServiceConsumer> {
                     }
 
                     channels.remove(session);
-                    selectors.get(session.getConsumer()).removeSession(session);
+                    (reactor == null ? selectors.get(session.getConsumer()) : reactor).removeSession(session);
                     if (session.getConsumer() instanceof NetServer) {
                         NetServer server = (NetServer) session.getConsumer();
                         if (server.isDisconnectAndRemove()) {
@@ -439,14 +737,14 @@ public final class NetService extends Service<NetServiceConsumer> {
                         session.getConsumer().onDisconnect(session, null);
                     }
 
-                    if(session.getConsumer() instanceof NetClient) {
-                        SelectorRunnable selectorRunnable = selectors.remove(session.getConsumer());
-                        selectorRunnable.shutdown(ShutdownStage.START);
-                        selectorRunnable.shutdown(ShutdownStage.END);
+                    if(reactor == null && session.getConsumer() instanceof NetClient) {
+                        //The clients attended by the shared reactors don't have their own selector.
+                        releaseClientSelector(channel, (NetClient) session.getConsumer());
                     }
                 }
 
-                if (channel.isConnected()) {
+                if (channel.isConnected() || (reactor != null && channel.isOpen())) {
+                    //The channels of the shared reactors are closed in order to release their keys.
                     channel.close();
                 }
             } catch (Exception ex) {
@@ -476,7 +774,24 @@ public final class NetService extends Service<NetServiceConsumer> {
 
         sessionsByChannel.put(newChannel, session);
         outputQueue.put(newChannel, outputQueue.remove(oldChannel));
+        outboundBytes.put(newChannel, outboundBytes.remove(oldChannel));
         lastWrite.put(newChannel, lastWrite.remove(oldChannel));
+        SelectorRunnable reactor = reactorsByChannel.remove(oldChannel);
+        if (reactor != null) {
+            reactorsByChannel.put(newChannel, reactor);
+        }
+        if (pausedReadChannels.remove(oldChannel)) {
+            pausedReadChannels.add(newChannel);
+        }
+
+        //The partial write of the old channel can't continue over the new channel.
+        PendingWrite pendingWrite = pendingWrites.remove(oldChannel);
+        if (pendingWrite != null) {
+            for (NetPackage netPackage : pendingWrite.getNetPackages()) {
+                netPackage.setPackageStatus(NetPackage.PackageStatus.CONNECTION_CLOSE);
+                onWriteCompleted(newChannel, netPackage, netPackage.getSession().getConsumer());
+            }
+        }
     }
 
     /**
@@ -669,6 +984,7 @@ public final class NetService extends Service<NetServiceConsumer> {
     private class SelectorRunnable implements Runnable {
 
         private final NetServiceConsumer consumer;
+        private final String name;
         private Selector selector;
         private final Object monitor;
         private Boolean blocking;
@@ -678,9 +994,28 @@ public final class NetService extends Service<NetServiceConsumer> {
         private final ThreadPoolExecutor readIoExecutor;
         private final ThreadPoolExecutor writeIoExecutor;
         private Boolean rogueState;
+        private final AtomicLong selections;
+        private final AtomicLong readableEvents;
+        private final AtomicLong writableEvents;
 
         private SelectorRunnable(NetServiceConsumer consumer) {
+            this(consumer, consumer.getName());
+        }
+
+        /**
+         * Creates a selector runnable shared by all the servers to attend the accepted channels.
+         * @param name Name of the reactor.
+         */
+        private SelectorRunnable(String name) {
+            this(null, name);
+        }
+
+        private SelectorRunnable(NetServiceConsumer consumer, String name) {
             this.consumer = consumer;
+            this.name = name;
+            this.selections = new AtomicLong();
+            this.readableEvents = new AtomicLong();
+            this.writableEvents = new AtomicLong();
             this.monitor = new Object();
             this.blocking = false;
             this.sessions = new TreeSet<>();
@@ -691,8 +1026,8 @@ public final class NetService extends Service<NetServiceConsumer> {
                 throw new HCJFRuntimeException("Unable to create selector", ex);
             }
 
-            readableKeys = new ArrayBlockingQueue<>(SystemProperties.getInteger(SystemProperties.Net.IO_QUEUE_SIZE));
-            writableKeys = new ArrayBlockingQueue<>(SystemProperties.getInteger(SystemProperties.Net.IO_QUEUE_SIZE));
+            readableKeys = new LinkedBlockingQueue<>(SystemProperties.getInteger(SystemProperties.Net.IO_QUEUE_SIZE));
+            writableKeys = new LinkedBlockingQueue<>(SystemProperties.getInteger(SystemProperties.Net.IO_QUEUE_SIZE));
 
             readIoExecutor = (ThreadPoolExecutor) Executors.newCachedThreadPool(new NetIOThreadFactory());
             readIoExecutor.setKeepAliveTime(SystemProperties.getInteger(SystemProperties.Net.IO_THREAD_POOL_KEEP_ALIVE_TIME), TimeUnit.SECONDS);
@@ -702,6 +1037,15 @@ public final class NetService extends Service<NetServiceConsumer> {
             fork(new Writer(), SystemProperties.get(SystemProperties.Net.IO_THREAD_POOL_NAME), writeIoExecutor);
         }
 
+        /**
+         * Returns the number of channels registered into the selector.
+         * @return Number of registered channels.
+         */
+        private int getRegisteredChannels() {
+            Selector selector = getSelector();
+            return selector == null ? 0 : selector.keys().size();
+        }
+
         /**
          * Set the rogue state into the selector.
          */
@@ -785,18 +1129,34 @@ public final class NetService extends Service<NetServiceConsumer> {
             writableKeys.notifyAll();
         }
 
-        private void writeWakeup(SelectableChannel channel, NetPackage netPackage) {
-            outputQueue.get(channel).add(netPackage);
+        private boolean writeWakeup(SelectableChannel channel, NetPackage netPackage) {
+            boolean result;
+            //The package is queued with the channel lock in order to avoid that the channel is destroyed
+            //after the queue was drained and before the package is added.
+            synchronized (channel) {
+                Queue<NetPackage> queue = outputQueue.get(channel);
+                OutboundBytes counter = outboundBytes.get(channel);
+                result = queue != null && (counter == null || !counter.isClosed());
+                if (result) {
+                    queue.add(netPackage);
+                }
+            }
 
-            SelectionKey key = channel.keyFor(getSelector());
-            synchronized (writableKeys) {
-                if (key.isValid() && !writableKeys.contains(key)) {
-                    if (!writableKeys.offer(key)) {
-                        Log.d(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Unable to add writable key!!!!");
+            if (result) {
+                SelectionKey key = channel.keyFor(getSelector());
+                synchronized (writableKeys) {
+                    if (key != null && key.isValid() && !writableKeys.contains(key)) {
+                        if (!writableKeys.offer(key)) {
+                            Log.d(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Unable to add writable key!!!!");
+                        }
                     }
+                    writableKeys.notifyAll();
                 }
-                writableKeys.notifyAll();
+            } else {
+                netPackage.setPackageStatus(NetPackage.PackageStatus.CONNECTION_CLOSE);
+                netPackage.complete();
             }
+            return result;
         }
 
         /**
@@ -820,7 +1180,10 @@ public final class NetService extends Service<NetServiceConsumer> {
                         disconnect(session, "");
                     }
 
-                    tasks.remove(consumer).cancel(true);
+                    Future task = consumer == null ? reactorTasks.remove(this) : tasks.remove(consumer);
+                    if (task != null) {
+                        task.cancel(true);
+                    }
                     wakeup();
                     break;
                 }
@@ -906,7 +1269,7 @@ public final class NetService extends Service<NetServiceConsumer> {
         }
 
         private String getDescription() {
-            return consumer.getName();
+            return name;
         }
 
         /**
@@ -928,12 +1291,13 @@ public final class NetService extends Service<NetServiceConsumer> {
                 while (!Thread.currentThread().isInterrupted()) {
                     //Select the next schedule key or sleep if the aren't any key to select.
                     selectionSize = select();
+                    selections.incrementAndGet();
 
                     if(rogueState) {
                         String action = SystemProperties.get(SystemProperties.Net.NIO_SELECTOR_HEALTH_CHECKER_DANGEROUS_ACTION);
                         Log.d(SystemProperties.get(SystemProperties.Net.LOG_TAG),
                                 "Executing action %s for rogue state in server %s", action, getDescription());
-                        if(consumer instanceof NetServer) {
+                        if(consumer == null || consumer instanceof NetServer) {
                             switch (action) {
                                 case SelectorHealthChecker.Actions.SHUTDOWN: {System.exit(1); break;}
                                 case SelectorHealthChecker.Actions.RECREATE_SELECTOR: {createSelector(); break;}
@@ -962,23 +1326,32 @@ public final class NetService extends Service<NetServiceConsumer> {
                                             accept(key.channel(), (NetServer) consumer);
                                         } else if (key.isConnectable()) {
                                             connect(key.channel(), (NetClient) consumer);
-                                        } else if (key.isReadable()) {
-                                            synchronized (readableKeys) {
-                                                if (key.isValid() && !readableKeys.contains(key)) {
-                                                    if (!readableKeys.offer(key)) {
-                                                        Log.d(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Unable to add readable key!!!!");
+                                        } else {
+                                            //A channel with a pending write is registered for both operations,
+                                            //then the readable and writable states are dispatched independently.
+                                            if (key.isReadable()) {
+                                                readableEvents.incrementAndGet();
+                                                synchronized (readableKeys) {
+                                                    if (key.isValid() && !readableKeys.contains(key)) {
+                                                        if (!readableKeys.offer(key)) {
+                                                            Log.d(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Unable to add readable key!!!!");
+                                                        }
                                                     }
+                                                    readableKeys.notifyAll();
                                                 }
-                                                readableKeys.notifyAll();
                                             }
-                                        } else if (key.isWritable()) {
-                                            synchronized (writableKeys) {
-                                                if (key.isValid() && !writableKeys.contains(key)) {
-                                                    if (!writableKeys.offer(key)) {
-                                                        Log.d(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Unable to add writable key!!!!");
+                                            if (key.isValid() && key.isWritable()) {
+                                                //The writable interest is removed until the writer needs it again.
+                                                updateInterestOps(key, 0, SelectionKey.OP_WRITE);
+                                                writableEvents.incrementAndGet();
+                                                synchronized (writableKeys) {
+                                                    if (key.isValid() && !writableKeys.contains(key)) {
+                                                        if (!writableKeys.offer(key)) {
+                                                            Log.d(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Unable to add writable key!!!!");
+                                                        }
                                                     }
+                                                    writableKeys.notifyAll();
                                                 }
-                                                writableKeys.notifyAll();
                                             }
                                         }
                                     } else {
@@ -1001,7 +1374,7 @@ public final class NetService extends Service<NetServiceConsumer> {
                 }
 
                 //Close all the servers.
-                if(NetServer.class.isAssignableFrom(consumer.getClass())) {
+                if(consumer != null && NetServer.class.isAssignableFrom(consumer.getClass())) {
                     ServerSocketChannel channel = serverSocketChannelMap.get(consumer);
                     try {
                         channel.close();
@@ -1009,7 +1382,9 @@ public final class NetService extends Service<NetServiceConsumer> {
                         Log.d(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Closing channel...", ex);
                     }
                 }
-                selectors.remove(consumer);
+                if(consumer != null) {
+                    selectors.remove(consumer);
+                }
             } catch (Exception ex) {
                 Log.e(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Unexpected error", ex);
             }
@@ -1152,10 +1527,11 @@ public final class NetService extends Service<NetServiceConsumer> {
                         createPackage(channel, null, NetPackage.ActionEvent.CONNECT),
                         (SocketChannel) keyChannel);
                 if(session != null) {
-                    selectors.get(client).addSession(session);
+                    getSelectorRunnable(channel, client).addSession(session);
                     sessionsByChannel.put(channel, session);
                     channels.put(session, channel);
                     outputQueue.put(channel, new LinkedBlockingQueue<>());
+                    outboundBytes.put(channel, new OutboundBytes());
                     lastWrite.put(channel, System.currentTimeMillis());
 
                     if (client.getProtocol().equals(TransportLayerProtocol.TCP_SSL)) {
@@ -1168,15 +1544,33 @@ public final class NetService extends Service<NetServiceConsumer> {
                     Log.w(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Rejected connection, session null");
                     channel.close();
                     client.onConnectFail();
-                    SelectorRunnable selectorRunnable = selectors.remove(client);
-                    selectorRunnable.shutdown(ShutdownStage.START);
-                    selectorRunnable.shutdown(ShutdownStage.END);
+                    releaseClientSelector(keyChannel, client);
                 }
             } catch (Exception ex) {
                 Log.w(SystemProperties.get(SystemProperties.Net.LOG_TAG),
                         "Error creating new client connection, %s:%d", ex, client.getHost(), client.getPort());
                 client.onConnectFail();
-                SelectorRunnable selectorRunnable = selectors.remove(client);
+                try {
+                    keyChannel.close();
+                } catch (IOException ioException) {
+                    Log.d(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Closing channel...", ioException);
+                }
+                releaseClientSelector(keyChannel, client);
+            }
+        }
+    }
+
+    /**
+     * Releases the selector that attends the channel of the client. If the channel is attended by a shared reactor
+     * then the channel is only removed from the reactor, in the otherwise the selector runnable of the client is
+     * shutdown.
+     * @param channel Channel of the client.
+     * @param client Net client.
+     */
+    private void releaseClientSelector(SelectableChannel channel, NetClient client) {
+        if (reactorsByChannel.remove(channel) == null) {
+            SelectorRunnable selectorRunnable = selectors.remove(client);
+            if (selectorRunnable != null) {
                 selectorRunnable.shutdown(ShutdownStage.START);
                 selectorRunnable.shutdown(ShutdownStage.END);
             }
@@ -1209,6 +1603,7 @@ public final class NetService extends Service<NetServiceConsumer> {
                     } else {
                         sessionsByChannel.put(socketChannel, session);
                         outputQueue.put(socketChannel, new LinkedBlockingQueue<>());
+                        outboundBytes.put(socketChannel, new OutboundBytes());
                         lastWrite.put(socketChannel, System.currentTimeMillis());
                         channels.put(session, socketChannel);
                         selectors.get(server).addSession(session);
@@ -1218,8 +1613,19 @@ public final class NetService extends Service<NetServiceConsumer> {
                         server.getSslPeer().init(socketChannel);
                     }
 
-                    //A new readable key is created associated to the channel.
-                    socketChannel.register(selectors.get(server).getSelector(), SelectionKey.OP_READ, server);
+                    //A new readable key is created associated to the channel, into one of the reactors
+                    //in order to separate the acceptor of the io selection. The updated channels keep the reactor
+                    //of the old channel.
+                    SelectorRunnable reactor = reactorsByChannel.get(socketChannel);
+                    if (reactor == null) {
+                        reactor = nextReactor();
+                    }
+                    if (reactor != null) {
+                        reactorsByChannel.put(socketChannel, reactor);
+                        reactor.registerChannel(socketChannel, getReadInterest(socketChannel), server);
+                    } else {
+                        socketChannel.register(selectors.get(server).getSelector(), getReadInterest(socketChannel), server);
+                    }
 
                     if (isCreationTimeoutAvailable() && server.isCreationTimeoutAvailable()) {
                         getTimer().schedule(new ConnectionTimeout(socketChannel), getCreationTimeout());
@@ -1245,15 +1651,12 @@ public final class NetService extends Service<NetServiceConsumer> {
             if (keyChannel instanceof SocketChannel) {
                 SocketChannel channel = (SocketChannel) keyChannel;
 
-                //Ger the instance of the current IO thread.
-                NetIOThread ioThread = (NetIOThread) Thread.currentThread();
-
+                //The data is read into a pooled buffer that is carried by the package without copy.
+                ByteBuffer inputBuffer = inputBufferPool.acquire();
+                DefaultNetPackage netPackage = null;
                 try  {
                     int readSize;
                     int totalSize = 0;
-                    ByteBuffer inputBuffer = ioThread.getInputBuffer();
-                    inputBuffer.clear();
-                    inputBuffer.rewind();
                     try {
                         if (consumer.getProtocol().equals(TransportLayerProtocol.TCP_SSL)) {
                             totalSize = consumer.getSslPeer().read(channel, inputBuffer);
@@ -1271,11 +1674,12 @@ public final class NetService extends Service<NetServiceConsumer> {
                     if (totalSize == -1) {
                         destroyChannel(channel);
                     } else if (totalSize > 0) {
-                        Log.d(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Total size read: %d", totalSize);
-                        byte[] data = new byte[inputBuffer.position()];
-                        inputBuffer.rewind();
-                        inputBuffer.get(data);
-                        NetPackage netPackage = createPackage(channel, data, NetPackage.ActionEvent.READ);
+                        if(Log.isEnabled(Log.LogGroup.DEBUG)) {
+                            Log.d(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Total size read: %d", totalSize);
+                        }
+                        inputBuffer.flip();
+                        netPackage = (DefaultNetPackage) createPackage(channel, null,
+                                new ByteBuffer[]{inputBuffer}, inputBufferPool, NetPackage.ActionEvent.READ);
 
                         NetSession session = sessionsByChannel.get(channel);
                         //Here the session is linked with the current thread
@@ -1287,6 +1691,14 @@ public final class NetService extends Service<NetServiceConsumer> {
                 } catch (Exception ex) {
                     Log.e(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Net service read exception, on TCP context", ex);
                     destroyChannel(channel);
+                } finally {
+                    if (netPackage != null) {
+                        //If the consumer didn't release the package then the payload is copied
+                        //before return the buffer to the pool.
+                        netPackage.detach();
+                    } else {
+                        inputBufferPool.release(inputBuffer);
+                    }
                 }
             } else if (keyChannel instanceof DatagramChannel) {
                 DatagramChannel channel = (DatagramChannel) keyChannel;
@@ -1359,8 +1771,15 @@ public final class NetService extends Service<NetServiceConsumer> {
                 lastWrite.put(channel, System.currentTimeMillis());
                 boolean stop = false;
 
-                while (!queue.isEmpty() && !stop) {
-                    NetPackage netPackage = queue.poll();
+                //The packages partially written in the last write operation are the first to be written.
+                PendingWrite pendingWrite = pendingWrites.remove(channel);
+                while ((pendingWrite != null || !queue.isEmpty()) && !stop) {
+                    NetPackage netPackage;
+                    if (pendingWrite != null) {
+                        netPackage = pendingWrite.getNetPackages()[0];
+                    } else {
+                        netPackage = queue.poll();
+                    }
                     if (netPackage == null) {
                         break;
                     }
@@ -1369,55 +1788,82 @@ public final class NetService extends Service<NetServiceConsumer> {
 
                     switch (netPackage.getActionEvent()) {
                         case WRITE: {
-                            try {
-                                byte[] byteData = netPackage.getPayload();
-                                if (consumer.getProtocol().equals(TransportLayerProtocol.TCP_SSL)) {
-                                    consumer.getSslPeer().write((SocketChannel) channel, ByteBuffer.wrap(byteData));
-                                } else {
-                                    if(byteData != null){
-                                        if (byteData.length == 0) {
-                                            Log.d(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Empty write data");
-                                        }
-                                        int begin = 0;
-                                        int length = Math.min((byteData.length - begin), ioThread.getOutputBufferSize());
-
-                                        while (begin < byteData.length) {
-                                            ioThread.getOutputBuffer().limit(length);
-                                            ioThread.getOutputBuffer().put(byteData, begin, length);
-                                            ioThread.getOutputBuffer().rewind();
-
-                                            if (channel instanceof SocketChannel) {
-                                                int writtenData = 0;
-                                                while (writtenData < length) {
-                                                    writtenData += ((SocketChannel) channel).write(ioThread.getOutputBuffer());
-                                                }
-                                            } else if (channel instanceof DatagramChannel) {
+                            boolean completed = true;
+                            if (channel instanceof SocketChannel &&
+                                    !consumer.getProtocol().equals(TransportLayerProtocol.TCP_SSL)) {
+                                if (pendingWrite == null) {
+                                    pendingWrite = coalesce(netPackage, queue);
+                                }
+
+                                //Gathering write of all the buffers, if the socket doesn't accept all the data
+                                //then the rest is written when the channel is writable again.
+                                try {
+                                    ((SocketChannel) channel).write(pendingWrite.getBuffers());
+                                } catch (Exception ex) {
+                                    for (NetPackage writtenPackage : pendingWrite.getNetPackages()) {
+                                        writtenPackage.setPackageStatus(NetPackage.PackageStatus.IO_ERROR);
+                                        onWriteCompleted(channel, writtenPackage, consumer);
+                                    }
+                                    throw ex;
+                                }
+
+                                pendingWrite = completeWrittenPackages(channel, pendingWrite, consumer);
+                                if (pendingWrite != null) {
+                                    pendingWrites.put(channel, pendingWrite);
+                                    pendingWrite = null;
+                                    completed = false;
+                                }
+                            } else {
+                                try {
+                                    if (consumer.getProtocol().equals(TransportLayerProtocol.TCP_SSL)) {
+                                        consumer.getSslPeer().write((SocketChannel) channel, netPackage.getPayloadBuffer());
+                                    } else if (channel instanceof DatagramChannel) {
+                                        byte[] byteData = netPackage.getPayload();
+                                        if(byteData != null){
+                                            if (byteData.length == 0) {
+                                                Log.d(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Empty write data");
+                                            }
+                                            int begin = 0;
+                                            int length = Math.min((byteData.length - begin), ioThread.getOutputBufferSize());
+
+                                            while (begin < byteData.length) {
+                                                ioThread.getOutputBuffer().limit(length);
+                                                ioThread.getOutputBuffer().put(byteData, begin, length);
+                                                ioThread.getOutputBuffer().rewind();
+
                                                 SocketAddress address = addresses.get(netPackage.getSession());
                                                 if (sessionsByAddress.get(address).equals(netPackage.getSession())) {
                                                     ((DatagramChannel) channel).send(ioThread.getOutputBuffer(), address);
                                                 }
-                                            }
 
-                                            ioThread.getOutputBuffer().rewind();
-                                            begin += length;
-                                            length = Math.min((byteData.length - begin), ioThread.getOutputBufferSize());
+                                                ioThread.getOutputBuffer().rewind();
+                                                begin += length;
+                                                length = Math.min((byteData.length - begin), ioThread.getOutputBufferSize());
+                                            }
                                         }
                                     }
-                                }
-
-                                if (netPackage != null) {
                                     netPackage.setPackageStatus(NetPackage.PackageStatus.OK);
+                                } catch (Exception ex) {
+                                    netPackage.setPackageStatus(NetPackage.PackageStatus.IO_ERROR);
+                                    throw ex;
+                                } finally {
+                                    onWriteCompleted(channel, netPackage, consumer);
                                 }
-                            } catch (Exception ex) {
-                                netPackage.setPackageStatus(NetPackage.PackageStatus.IO_ERROR);
-                                throw ex;
-                            } finally {
-                                onAction(netPackage, consumer);
                             }
 
                             try {
-                                //Change the key operation to finish write loop
-                                channel.keyFor(selectors.get(consumer).getSelector()).interestOps(SelectionKey.OP_READ);
+                                if (completed) {
+                                    //Change the key operation to finish write loop, the read interest is not changed
+                                    //because it belongs to the pause and resume of the reads.
+                                    updateInterestOps(getKey(channel, consumer), 0,
+                                            SelectionKey.OP_WRITE | SelectionKey.OP_CONNECT);
+                                } else {
+                                    //The write operation is resumed when the selector reports the channel as writable,
+                                    //then the thread is released instead of wait for the socket.
+                                    stop = true;
+                                    updateInterestOps(getKey(channel, consumer), SelectionKey.OP_WRITE, 0);
+                                    getSelectorRunnable(channel, consumer).wakeup();
+                                }
                             } catch (Exception ex) {
                                 Log.e(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Write error", ex);
                             }
@@ -1454,6 +1900,92 @@ public final class NetService extends Service<NetServiceConsumer> {
         }
     }
 
+    /**
+     * Creates the write operation of the package adding the consecutive small packages of the queue,
+     * then all the packages are written using only one gathering operation.
+     * @param netPackage First package to write.
+     * @param queue Output queue of the channel.
+     * @return Pending write with all the packages.
+     */
+    private PendingWrite coalesce(NetPackage netPackage, Queue<NetPackage> queue) {
+        int maxSize = SystemProperties.getInteger(SystemProperties.Net.WRITE_COALESCING_MAX_SIZE);
+        int maxPackages = SystemProperties.getInteger(SystemProperties.Net.WRITE_COALESCING_MAX_PACKAGES);
+        List<NetPackage> netPackages = new ArrayList<>();
+        List<ByteBuffer[]> buffers = new ArrayList<>();
+        int size = netPackage.getPayloadSize();
+        netPackages.add(netPackage);
+        buffers.add(netPackage.getPayloadBuffers());
+        if (size == 0) {
+            Log.d(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Empty write data");
+        }
+
+        NetPackage nextPackage;
+        while (netPackages.size() < maxPackages && (nextPackage = queue.peek()) != null &&
+                nextPackage.getActionEvent().equals(NetPackage.ActionEvent.WRITE) &&
+                size + nextPackage.getPayloadSize() <= maxSize) {
+            //Only the io thread that holds the channel polls the queue, then the peeked package is the polled package.
+            queue.poll();
+            size += nextPackage.getPayloadSize();
+            netPackages.add(nextPackage);
+            buffers.add(nextPackage.getPayloadBuffers());
+        }
+        return new PendingWrite(netPackages.toArray(new NetPackage[0]), buffers.toArray(new ByteBuffer[0][]));
+    }
+
+    /**
+     * Completes all the packages of the pending write whose buffers was written.
+     * @param channel Channel of the packages.
+     * @param pendingWrite Pending write.
+     * @param consumer Net service consumer.
+     * @return Pending write with the packages not completely written or null if all the packages was written.
+     */
+    private PendingWrite completeWrittenPackages(SelectableChannel channel, PendingWrite pendingWrite, NetServiceConsumer consumer) {
+        PendingWrite result = null;
+        NetPackage[] netPackages = pendingWrite.getNetPackages();
+        ByteBuffer[][] buffers = pendingWrite.getPackageBuffers();
+        int index = 0;
+        while (index < netPackages.length && !hasRemaining(buffers[index])) {
+            netPackages[index].setPackageStatus(NetPackage.PackageStatus.OK);
+            onWriteCompleted(channel, netPackages[index], consumer);
+            index++;
+        }
+        if (index < netPackages.length) {
+            result = new PendingWrite(Arrays.copyOfRange(netPackages, index, netPackages.length),
+                    Arrays.copyOfRange(buffers, index, buffers.length));
+        }
+        return result;
+    }
+
+    /**
+     * Releases the outbound bytes of the package and notify the consumer.
+     * @param channel Channel of the package.
+     * @param netPackage Written package.
+     * @param consumer Net service consumer.
+     */
+    private void onWriteCompleted(SelectableChannel channel, NetPackage netPackage, NetServiceConsumer consumer) {
+        OutboundBytes counter = outboundBytes.get(channel);
+        if (counter != null) {
+            counter.release(netPackage.getPayloadSize());
+        }
+        onAction(netPackage, consumer);
+    }
+
+    /**
+     * Verify if some of the buffers has remaining bytes.
+     * @param buffers Array of buffers.
+     * @return True if some buffer has remaining bytes and false in the otherwise.
+     */
+    private boolean hasRemaining(ByteBuffer[] buffers) {
+        boolean result = false;
+        for (ByteBuffer buffer : buffers) {
+            if (buffer.hasRemaining()) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
     /**
      * This method put all the action events in a queue by session and then start a
      * new thread to notify all the consumers
@@ -1472,14 +2004,14 @@ public final class NetService extends Service<NetServiceConsumer> {
                         consumer.onDisconnect(netPackage);
                         break;
                     case READ:
-                        if(netPackage.getSession() != null && netPackage.getPayload() != null) {
-                            netPackage.getSession().addIngressPackage(netPackage.getPayload().length);
+                        if(netPackage.getSession() != null) {
+                            netPackage.getSession().addIngressPackage(netPackage.getPayloadSize());
                         }
                         consumer.onRead(netPackage);
                         break;
                     case WRITE:
-                        if(netPackage.getSession() != null && netPackage.getPayload() != null) {
-                            netPackage.getSession().addEgressPackage(netPackage.getPayload().length);
+                        if(netPackage.getSession() != null) {
+                            netPackage.getSession().addEgressPackage(netPackage.getPayloadSize());
                         }
                         consumer.onWrite(netPackage);
                         break;
@@ -1587,6 +2119,197 @@ public final class NetService extends Service<NetServiceConsumer> {
 
     }
 
+    /**
+     * This class contains a package partially written and the buffers with the rest of the data.
+     */
+    private static class PendingWrite {
+
+        private final NetPackage[] netPackages;
+        private final ByteBuffer[][] packageBuffers;
+        private final ByteBuffer[] buffers;
+
+        public PendingWrite(NetPackage[] netPackages, ByteBuffer[][] packageBuffers) {
+            this.netPackages = netPackages;
+            this.packageBuffers = packageBuffers;
+            int length = 0;
+            for (ByteBuffer[] buffers : packageBuffers) {
+                length += buffers.length;
+            }
+            this.buffers = new ByteBuffer[length];
+            int index = 0;
+            for (ByteBuffer[] buffers : packageBuffers) {
+                System.arraycopy(buffers, 0, this.buffers, index, buffers.length);
+                index += buffers.length;
+            }
+        }
+
+        /**
+         * Returns the packages partially written, in the same order that are written.
+         * @return Net packages.
+         */
+        public NetPackage[] getNetPackages() {
+            return netPackages;
+        }
+
+        /**
+         * Returns the buffers of each package.
+         * @return Buffers of the packages.
+         */
+        public ByteBuffer[][] getPackageBuffers() {
+            return packageBuffers;
+        }
+
+        /**
+         * Returns the buffers of all the packages in order to be written using a gathering operation.
+         * @return Pending buffers.
+         */
+        public ByteBuffer[] getBuffers() {
+            return buffers;
+        }
+    }
+
+    /**
+     * Bytes queued into the output queue of a channel and not written yet.
+     */
+    private static class OutboundBytes {
+
+        private long bytes;
+        private boolean closed;
+
+        /**
+         * Adds the bytes to the counter, if the counter is over the limit then the current thread waits
+         * until the io threads write the pending bytes. A package is always accepted if there are not
+         * pending bytes in order to accept packages bigger than the limit.
+         * @param size Number of bytes.
+         * @param limit Max number of pending bytes.
+         * @param timeout Max time to wait.
+         * @param force If this parameter is true then the bytes are added without wait.
+         * @return True if the bytes was added and false if the limit was exceeded after the timeout.
+         * @throws InterruptedException If the thread is interrupted while waiting.
+         */
+        public synchronized boolean acquire(long size, long limit, long timeout, boolean force) throws InterruptedException {
+            boolean result;
+            if (force) {
+                result = true;
+            } else {
+                long deadline = System.currentTimeMillis() + timeout;
+                long remaining = timeout;
+                while (!closed && bytes > 0 && bytes + size > limit && remaining > 0) {
+                    wait(remaining);
+                    remaining = deadline - System.currentTimeMillis();
+                }
+                result = closed || bytes == 0 || bytes + size <= limit;
+            }
+            if (result) {
+                bytes += size;
+            }
+            return result;
+        }
+
+        /**
+         * Removes the written bytes from the counter and notify the waiting threads.
+         * @param size Number of bytes.
+         */
+        public synchronized void release(long size) {
+            bytes -= size;
+            notifyAll();
+        }
+
+        /**
+         * Releases all the waiting threads because the channel was closed.
+         */
+        public synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+
+        /**
+         * Returns true if the channel of the counter was closed.
+         * @return Closed flag.
+         */
+        public synchronized boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * Returns the number of pending bytes.
+         * @return Pending bytes.
+         */
+        public synchronized long get() {
+            return bytes;
+        }
+    }
+
+    /**
+     * Strategies to select the reactor that attends a new accepted channel.
+     */
+    public enum ReactorBalanceStrategy {
+
+        ROUND_ROBIN,
+
+        LEAST_LOADED
+
+    }
+
+    public interface ReactorAgentMBean {
+
+        String getReactorName();
+        Integer getRegisteredChannels();
+        Long getSelections();
+        Long getReadableEvents();
+        Long getWritableEvents();
+        Integer getPendingReadableKeys();
+        Integer getPendingWritableKeys();
+
+    }
+
+    private static final class ReactorAgent extends Agent implements ReactorAgentMBean {
+
+        private static final String PACKAGE_NAME = NetService.class.getPackageName();
+
+        private final SelectorRunnable reactor;
+
+        public ReactorAgent(SelectorRunnable reactor) {
+            super(reactor.getDescription(), PACKAGE_NAME);
+            this.reactor = reactor;
+        }
+
+        @Override
+        public String getReactorName() {
+            return reactor.getDescription();
+        }
+
+        @Override
+        public Integer getRegisteredChannels() {
+            return reactor.getRegisteredChannels();
+        }
+
+        @Override
+        public Long getSelections() {
+            return reactor.selections.get();
+        }
+
+        @Override
+        public Long getReadableEvents() {
+            return reactor.readableEvents.get();
+        }
+
+        @Override
+        public Long getWritableEvents() {
+            return reactor.writableEvents.get();
+        }
+
+        @Override
+        public Integer getPendingReadableKeys() {
+            return reactor.readableKeys.size();
+        }
+
+        @Override
+        public Integer getPendingWritableKeys() {
+            return reactor.writableKeys.size();
+        }
+    }
+
     /**
      * Transport layer protocols.
      */
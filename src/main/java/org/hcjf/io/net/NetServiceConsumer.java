@@ -4,7 +4,6 @@ import org.hcjf.errors.HCJFRuntimeException;
 import org.hcjf.io.net.ssl.SslPeer;
 import org.hcjf.log.Log;
 import org.hcjf.properties.SystemProperties;
-import org.hcjf.service.Service;
 import org.hcjf.service.ServiceConsumer;
 import org.hcjf.service.ServiceSession;
 
@@ -12,8 +11,10 @@ import javax.net.ssl.SSLEngine;
 import java.io.IOException;
 import java.net.SocketOption;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * This consumer provide an interface for the net service.
@@ -29,7 +30,7 @@ public abstract class NetServiceConsumer<S extends NetSession, D extends Object>
     private NetService service;
     private long writeWaitForTimeout;
     private Boolean decoupledIoAction;
-    private Queue<DecoupledAction> actionsQueue;
+    private DecoupledActionExecutor actionExecutor;
 
     public NetServiceConsumer(Integer port, NetService.TransportLayerProtocol protocol) {
         this.port = port;
@@ -44,8 +45,10 @@ public abstract class NetServiceConsumer<S extends NetSession, D extends Object>
     }
 
     /**
-     * This method activate the decoupled io actions.
-     * @param actionQueueSize Size of the actions queue.
+     * This method activate the decoupled io actions. The actions of each session are executed in order and
+     * when the session has more actions than the queue size then the read operation of the session is
+     * paused until the half of the actions are executed.
+     * @param actionQueueSize Size of the actions queue of each session.
      * @param workersNumber Number of workers to execute the actions.
      */
     public final void decoupleIoAction(Integer actionQueueSize, Integer workersNumber) {
@@ -59,33 +62,7 @@ public abstract class NetServiceConsumer<S extends NetSession, D extends Object>
         }
 
         decoupledIoAction = true;
-        actionsQueue = new ArrayBlockingQueue<>(actionQueueSize);
-        for (int i = 0; i < workersNumber; i++) {
-            Service.run(() -> {
-                DecoupledAction decoupledAction;
-                while (!Thread.currentThread().isInterrupted()) {
-                    synchronized (actionsQueue) {
-                        decoupledAction = actionsQueue.poll();
-                    }
-
-                    if(decoupledAction != null) {
-                        try {
-                            ServiceSession.runAs(decoupledAction::onAction, decoupledAction.getServiceSession().currentIdentity());
-                        } catch (Throwable throwable) {
-                            Log.w(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Decoupled action error", throwable);
-                        }
-                    } else {
-                        try {
-                            synchronized (actionsQueue) {
-                                actionsQueue.wait();
-                            }
-                        } catch (Exception ex) {
-                            break;
-                        }
-                    }
-                }
-            }, ServiceSession.getSystemSession());
-        }
+        actionExecutor = new DecoupledActionExecutor(this, actionQueueSize, workersNumber);
     }
 
     /**
@@ -94,10 +71,7 @@ public abstract class NetServiceConsumer<S extends NetSession, D extends Object>
      */
     protected final void addDecoupledAction(DecoupledAction decoupledAction) {
         if(isDecoupledIoAction()) {
-            synchronized (actionsQueue) {
-                actionsQueue.add(decoupledAction);
-                actionsQueue.notifyAll();
-            }
+            actionExecutor.execute(decoupledAction);
         } else {
             decoupledAction.onAction();
         }
@@ -235,33 +209,40 @@ public abstract class NetServiceConsumer<S extends NetSession, D extends Object>
      * @throws IOException Exception for io operations
      */
     protected final void write(S session, D payLoad, boolean waitFor) throws IOException {
+        NetPackage netPackage = service.writeData(session, encode(payLoad));
         if(waitFor) {
-            NetPackage netPackage = service.writeData(session, encode(payLoad));
-            synchronized (netPackage) {
-                try {
-                    netPackage.wait(getWriteWaitForTimeout());
-                } catch (InterruptedException e) {
-                    Log.w(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Write wait for interrupted", e);
+            try {
+                netPackage.getFuture().get(getWriteWaitForTimeout(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException ex) {
+                if(ex.getCause() instanceof IOException) {
+                    throw (IOException) ex.getCause();
                 }
+                throw new IOException(ex.getCause());
+            } catch (TimeoutException ex) {
+                //The package is still waiting into the output queue.
+            } catch (InterruptedException e) {
+                Log.w(SystemProperties.get(SystemProperties.Net.LOG_TAG), "Write wait for interrupted", e);
             }
+        }
+    }
 
-            switch (netPackage.getPackageStatus()) {
-                case CONNECTION_CLOSE: {
-                    throw new IOException("Connection Close");
-                }
-                case IO_ERROR: {
-                    throw new IOException("IO Error");
-                }
-                case REJECTED_SESSION_LOCK: {
-                    throw new IOException("Session locked");
-                }
-                case UNKNOWN_SESSION: {
-                    throw new IOException("Unknown session");
-                }
-            }
-        } else {
-            NetPackage netPackage = service.writeData(session, encode(payLoad));
+    /**
+     * This method writes some data over the session indicated without blocking the current thread.
+     * The future is completed by the net service when the data was written over the communication
+     * channel or completed exceptionally if the write operation fails, also if the session was
+     * disconnected before the package was queued.
+     * @param session Net session.
+     * @param payLoad Data to be written.
+     * @return Future of the written package.
+     */
+    protected final CompletableFuture<NetPackage> writeAsync(S session, D payLoad) {
+        CompletableFuture<NetPackage> result;
+        try {
+            result = service.writeData(session, encode(payLoad)).getFuture();
+        } catch (IOException | RuntimeException ex) {
+            result = CompletableFuture.failedFuture(ex);
         }
+        return result;
     }
 
     /**
@@ -285,9 +266,7 @@ public abstract class NetServiceConsumer<S extends NetSession, D extends Object>
      * @param netPackage Disconnection package.
      */
     public final void onDisconnect(NetPackage netPackage) {
-        synchronized (netPackage) {
-            netPackage.notify();
-        }
+        netPackage.complete();
 
         onDisconnect((S) netPackage.getSession(), netPackage);
     }
@@ -346,9 +325,7 @@ public abstract class NetServiceConsumer<S extends NetSession, D extends Object>
      * @param netPackage Net package.
      */
     public final void onWrite(NetPackage netPackage) {
-        synchronized (netPackage) {
-            netPackage.notify();
-        }
+        netPackage.complete();
         onWrite((S)netPackage.getSession(), netPackage);
     }
 
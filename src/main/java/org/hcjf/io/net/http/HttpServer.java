@@ -429,7 +429,7 @@ public class HttpServer extends NetServer<HttpSession, HttpPackage>  {
                     disconnect(session, "Http request end.");
                 }, ServiceSession.getCurrentIdentity());
             } else {
-                write(session, response, false);
+                writeResponse(session, response);
             }
 
             if (SystemProperties.getBoolean(SystemProperties.Net.Http.OUTPUT_LOG_ENABLED)) {
@@ -447,6 +447,21 @@ public class HttpServer extends NetServer<HttpSession, HttpPackage>  {
         }
     }
 
+    /**
+     * Writes the response without blocking the current thread. If the response can't be written then the
+     * session is disconnected, in the otherwise the client of a keep alive connection never gets the answer.
+     * @param session Http session.
+     * @param response Http response.
+     */
+    private void writeResponse(HttpSession session, HttpResponse response) {
+        writeAsync(session, response).whenComplete((netPackage, throwable) -> {
+            if(throwable != null) {
+                Log.w(SystemProperties.get(SystemProperties.Net.Http.LOG_TAG), "Http response write fail", throwable);
+                disconnect(session, "Http response write fail.");
+            }
+        });
+    }
+
     /**
      * Check if the request contains origin header then add the same header into the response.
      * @param request Request instance.
@@ -503,7 +518,7 @@ public class HttpServer extends NetServer<HttpSession, HttpPackage>  {
         HttpResponse response = contextMatcher.getContext().onError(request, exception);
         String logTag = SystemProperties.get(SystemProperties.Net.Http.LOG_TAG);
         try {
-            write(session, response, false);
+            writeResponse(session, response);
         }catch (Throwable throwable) {
             Log.e(logTag, "Http server error on check session error.", throwable);
         } finally {
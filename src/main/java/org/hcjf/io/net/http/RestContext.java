@@ -5,6 +5,7 @@ import org.hcjf.encoding.MimeType;
 import org.hcjf.errors.HCJFRuntimeException;
 import org.hcjf.io.net.http.datasources.DataSourceService;
 import org.hcjf.io.net.http.datasources.DataSourceServiceConsumer;
+import org.hcjf.io.net.http.pipeline.ChunkedHttpPipelineResponse;
 import org.hcjf.layers.Layers;
 import org.hcjf.layers.crud.CreateLayerInterface;
 import org.hcjf.layers.crud.DeleteLayerInterface;
@@ -13,6 +14,8 @@ import org.hcjf.layers.crud.UpdateLayerInterface;
 import org.hcjf.layers.crud.command.CommandRequestModel;
 import org.hcjf.layers.crud.command.CommandUpdateLayerInterface;
 import org.hcjf.layers.query.*;
+import org.hcjf.layers.query.compilers.QueryPlanCache;
+import org.hcjf.log.Log;
 import org.hcjf.properties.SystemProperties;
 import org.hcjf.service.Service;
 import org.hcjf.utils.Introspection;
@@ -70,7 +73,8 @@ public class RestContext extends Context {
     public HttpResponse onContext(HttpRequest request) {
         HttpMethod method = request.getMethod();
         Gson gson = new GsonBuilder().setDateFormat(SystemProperties.get(SystemProperties.HCJF_DEFAULT_DATE_FORMAT)).create();
-        JsonElement jsonElement;
+        JsonElement jsonElement = null;
+        HttpResponse streamingResponse = null;
         Collection<HttpHeader> headers = new ArrayList<>();
 
         String lastPart = request.getPathParts().get(request.getPathParts().size() -1);
@@ -87,20 +91,26 @@ public class RestContext extends Context {
         if(method.equals(HttpMethod.GET)) {
             if(id == null) {
                 if (request.hasParameter(DEFAULT_QUERY_PARAMETER)) {
-                    Queryable queryable = Query.compile(request.getParameter(DEFAULT_QUERY_PARAMETER));
-                    Collection<JoinableMap> queryResult = queryable.evaluate(getDataSource());
-                    if(queryResult instanceof ResultSet) {
-                        ResultSet<JoinableMap> resultSet = (ResultSet<JoinableMap>) queryResult;
-                        headers.add(new HttpHeader(HttpHeader.X_HCJF_QUERY_TOTAL_TIME, resultSet.getTotalTime().toString()));
-                        headers.add(new HttpHeader(HttpHeader.X_HCJF_QUERY_TIME_COMPILING, resultSet.getTimeCompilingQuery().toString()));
-                        headers.add(new HttpHeader(HttpHeader.X_HCJF_QUERY_TIME_COLLECTING_DATA, resultSet.getTimeCollectingData().toString()));
-                        headers.add(new HttpHeader(HttpHeader.X_HCJF_QUERY_TIME_EVALUATING_CONDITIONS, resultSet.getTimeEvaluatingConditions().toString()));
-                        headers.add(new HttpHeader(HttpHeader.X_HCJF_QUERY_AVERAGE_TIME_EVALUATING_CONDITIONS, resultSet.getAverageTimeFormattingDataByRow().toString()));
-                        headers.add(new HttpHeader(HttpHeader.X_HCJF_QUERY_TIME_FORMATTING_DATA, resultSet.getTimeFormattingData().toString()));
-                        headers.add(new HttpHeader(HttpHeader.X_HCJF_QUERY_AVERAGE_TIME_FORMATTING_DATA, resultSet.getAverageTimeFormattingDataByRow().toString()));
-                        headers.add(new HttpHeader(HttpHeader.X_HCJF_QUERY_PRESENT_FIELDS, Strings.join(resultSet.getPresentFields(), Strings.ARGUMENT_SEPARATOR)));
+                    Queryable queryable = QueryPlanCache.compile(request.getParameter(DEFAULT_QUERY_PARAMETER));
+                    if(SystemProperties.getBoolean(SystemProperties.Net.Rest.QUERY_STREAMING_ENABLED) &&
+                            queryable.getQuery().isStreamable()) {
+                        //The rows of the query are written into the response while the query is evaluated.
+                        streamingResponse = new QueryStreamingResponse(queryable.iterate(getDataSource()), gson);
+                    } else {
+                        Collection<JoinableMap> queryResult = queryable.evaluate(getDataSource());
+                        if(queryResult instanceof ResultSet) {
+                            ResultSet<JoinableMap> resultSet = (ResultSet<JoinableMap>) queryResult;
+                            headers.add(new HttpHeader(HttpHeader.X_HCJF_QUERY_TOTAL_TIME, resultSet.getTotalTime().toString()));
+                            headers.add(new HttpHeader(HttpHeader.X_HCJF_QUERY_TIME_COMPILING, resultSet.getTimeCompilingQuery().toString()));
+                            headers.add(new HttpHeader(HttpHeader.X_HCJF_QUERY_TIME_COLLECTING_DATA, resultSet.getTimeCollectingData().toString()));
+                            headers.add(new HttpHeader(HttpHeader.X_HCJF_QUERY_TIME_EVALUATING_CONDITIONS, resultSet.getTimeEvaluatingConditions().toString()));
+                            headers.add(new HttpHeader(HttpHeader.X_HCJF_QUERY_AVERAGE_TIME_EVALUATING_CONDITIONS, resultSet.getAverageTimeFormattingDataByRow().toString()));
+                            headers.add(new HttpHeader(HttpHeader.X_HCJF_QUERY_TIME_FORMATTING_DATA, resultSet.getTimeFormattingData().toString()));
+                            headers.add(new HttpHeader(HttpHeader.X_HCJF_QUERY_AVERAGE_TIME_FORMATTING_DATA, resultSet.getAverageTimeFormattingDataByRow().toString()));
+                            headers.add(new HttpHeader(HttpHeader.X_HCJF_QUERY_PRESENT_FIELDS, Strings.join(resultSet.getPresentFields(), Strings.ARGUMENT_SEPARATOR)));
+                        }
+                        jsonElement = gson.toJsonTree(queryResult);
                     }
-                    jsonElement = gson.toJsonTree(queryResult);
                 } else {
                     ReadLayerInterface readLayerInterface = Layers.get(ReadLayerInterface.class, resourceName);
                     jsonElement = gson.toJsonTree(readLayerInterface.read());
@@ -192,14 +202,20 @@ public class RestContext extends Context {
             throw new HCJFRuntimeException("Unsupported http method: %s", method.toString());
         }
 
-        HttpResponse response = new HttpResponse();
-        response.addHeader(new HttpHeader(HttpHeader.CONTENT_TYPE, MimeType.APPLICATION_JSON.toString()));
-        byte[] body = jsonElement.toString().getBytes();
-        response.addHeader(new HttpHeader(HttpHeader.CONTENT_LENGTH, Integer.toString(body.length)));
-        for(HttpHeader header : headers) {
-            response.addHeader(header);
+        HttpResponse response;
+        if(streamingResponse != null) {
+            response = streamingResponse;
+            response.addHeader(new HttpHeader(HttpHeader.CONTENT_TYPE, MimeType.APPLICATION_JSON.toString()));
+        } else {
+            response = new HttpResponse();
+            response.addHeader(new HttpHeader(HttpHeader.CONTENT_TYPE, MimeType.APPLICATION_JSON.toString()));
+            byte[] body = jsonElement.toString().getBytes();
+            response.addHeader(new HttpHeader(HttpHeader.CONTENT_LENGTH, Integer.toString(body.length)));
+            for (HttpHeader header : headers) {
+                response.addHeader(header);
+            }
+            response.setBody(body);
         }
-        response.setBody(body);
 
         return response;
     }
@@ -272,6 +288,88 @@ public class RestContext extends Context {
         return new Queryable.ReadableDataSource();
     }
 
+    /**
+     * This pipeline writes the json array with the result of a query while the rows are produced
+     * by the query iterator.
+     */
+    private static class QueryStreamingResponse extends ChunkedHttpPipelineResponse {
+
+        private static final byte[] START_ARRAY = "[".getBytes();
+        private static final byte[] END_ARRAY = "]".getBytes();
+        private static final String ELEMENT_SEPARATOR = ",";
+
+        private final Iterator<JoinableMap> iterator;
+        private final Gson gson;
+        private byte[] pending;
+        private int pendingOffset;
+        private boolean started;
+        private boolean empty;
+        private boolean ended;
+
+        public QueryStreamingResponse(Iterator<JoinableMap> iterator, Gson gson) {
+            super(SystemProperties.getInteger(SystemProperties.Net.Rest.QUERY_STREAMING_BUFFER_SIZE));
+            this.iterator = iterator;
+            this.gson = gson;
+            this.empty = true;
+        }
+
+        /**
+         * Fills the package with the json representation of the next rows of the query.
+         * @param streamingPackage Buffer to put all the read bytes.
+         * @return Number of bytes read or -1 if the json array is complete.
+         */
+        @Override
+        protected int readPipeline(StreamingPackage streamingPackage) {
+            byte[] buffer = streamingPackage.getBuffer();
+            int size = 0;
+            int length;
+            try {
+                while (size < buffer.length) {
+                    if (pending == null || pendingOffset == pending.length) {
+                        pending = next();
+                        pendingOffset = 0;
+                        if (pending == null) {
+                            break;
+                        }
+                    }
+                    length = Math.min(buffer.length - size, pending.length - pendingOffset);
+                    System.arraycopy(pending, pendingOffset, buffer, size, length);
+                    pendingOffset += length;
+                    size += length;
+                }
+            } catch (Throwable throwable) {
+                //The headers of the response are already sent, then the only way to notify the
+                //error is closing the stream with an incomplete json array.
+                Log.e(SystemProperties.get(SystemProperties.Net.Http.LOG_TAG), "Query streaming fail", throwable);
+                pending = null;
+                ended = true;
+            }
+            return size == 0 ? -1 : size;
+        }
+
+        /**
+         * Returns the bytes of the next element of the json array.
+         * @return Bytes of the next element or null if the array is complete.
+         */
+        private byte[] next() {
+            byte[] result = null;
+            if (!started) {
+                started = true;
+                result = START_ARRAY;
+            } else if (!ended) {
+                if (iterator.hasNext()) {
+                    String element = gson.toJson(iterator.next());
+                    result = (empty ? element : ELEMENT_SEPARATOR + element).getBytes();
+                    empty = false;
+                } else {
+                    ended = true;
+                    result = END_ARRAY;
+                }
+            }
+            return result;
+        }
+    }
+
     /**
      * This inner class contains the necessary methods to parse the request body in order to call
      * the specific layer implementation.
@@ -393,7 +491,7 @@ public class RestContext extends Context {
                 if(value.startsWith(Fields.POINTER_PREFIX)) {
                     result = value.substring(Fields.POINTER_PREFIX.length());
                 } else {
-                    result = Query.compile(element.getAsString());
+                    result = QueryPlanCache.compile(element.getAsString());
                 }
             }
             return result;
@@ -2,23 +2,35 @@ package org.hcjf.io.net.messages;
 
 import org.hcjf.bson.BsonDecoder;
 import org.hcjf.bson.BsonEncoder;
+import org.hcjf.errors.HCJFRuntimeException;
+import org.hcjf.properties.SystemProperties;
 import org.hcjf.utils.bson.BsonParcelable;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 /**
+ * This buffer accumulates the fragments incoming from the net without copy them and
+ * slices the complete bson frames using the length prefix of each frame.
+ * Each time that some data is appended, all the complete frames are decoded.
  * @author javaito.
  */
 public final class MessageBuffer {
 
-    private List<Message> messages;
+    private static final int LENGTH_PREFIX_SIZE = 4;
+    private static final int MIN_FRAME_SIZE = 5;
+
+    private final List<Message> messages;
+    private final Deque<ByteBuffer> fragments;
+    private int available;
     private ByteBuffer buffer;
-    private MessageBuffer leftover;
 
     public MessageBuffer() {
         this.messages = new ArrayList<>();
+        this.fragments = new ArrayDeque<>();
     }
 
     /**
@@ -35,47 +47,114 @@ public final class MessageBuffer {
      * @param data Data to append.
      */
     public synchronized void append(byte[] data) {
-        if(messages.isEmpty()) {
-            if (buffer == null) {
-                buffer = ByteBuffer.wrap(data);
-                buffer.rewind();
-            } else {
-                ByteBuffer newBuffer = ByteBuffer.allocate(buffer.capacity() + data.length);
-                buffer.rewind();
-                newBuffer.put(buffer);
-                newBuffer.put(data);
-                buffer = newBuffer;
-                buffer.rewind();
-            }
+        if(data != null) {
+            append(ByteBuffer.wrap(data));
+        }
+    }
+
+    /**
+     * Appends the remaining data of the byte buffer into the buffer, the data is not copied,
+     * then the byte buffer must not be modified after this call.
+     * @param data Data to append.
+     */
+    public synchronized void append(ByteBuffer data) {
+        if(data != null && data.hasRemaining()) {
+            fragments.addLast(data.slice());
+            available += data.remaining();
+            decodeFrames();
+        }
+    }
 
-            if(buffer.capacity() > 4) {
-                int bsonObjectSize = buffer.getInt();
-                if (bsonObjectSize == buffer.capacity()) {
-                    buffer.rewind();
-                    messages.add(BsonParcelable.Builder.create(BsonDecoder.decode(buffer.array())));
-                } else if (bsonObjectSize < buffer.capacity()) {
-                    byte[] bsonObjectBody = new byte[bsonObjectSize];
-                    byte[] leftOverBody = new byte[buffer.capacity() - bsonObjectSize];
-                    buffer.rewind();
-                    buffer.get(bsonObjectBody);
-                    messages.add(BsonParcelable.Builder.create(BsonDecoder.decode(buffer.array())));
-                    buffer.get(leftOverBody);
-                    MessageBuffer leftover = new MessageBuffer();
-                    leftover.append(leftOverBody);
-                    if(leftover.isComplete()) {
-                        messages.addAll(leftover.getMessages());
-                        this.leftover = leftover.getLeftover();
-                    } else {
-                        this.leftover = leftover;
-                    }
+    /**
+     * Appends the remaining data of a byte buffer that is valid only during this call, the complete frames
+     * are decoded directly from the byte buffer and only the bytes of the incomplete frame are copied.
+     * @param data Data to append.
+     */
+    public synchronized void appendTransient(ByteBuffer data) {
+        if(data != null && data.hasRemaining()) {
+            ByteBuffer fragment = data.slice();
+            fragments.addLast(fragment);
+            available += fragment.remaining();
+            try {
+                decodeFrames();
+            } finally {
+                if(fragments.peekLast() == fragment) {
+                    fragments.pollLast();
+                    ByteBuffer copy = ByteBuffer.allocate(fragment.remaining());
+                    copy.put(fragment).flip();
+                    fragments.addLast(copy);
                 }
             }
+        }
+    }
+
+    /**
+     * Decodes all the complete frames contained into the accumulated fragments.
+     */
+    private void decodeFrames() {
+        while(available >= LENGTH_PREFIX_SIZE) {
+            int frameSize = peekFrameSize();
+            if(frameSize < MIN_FRAME_SIZE ||
+                    frameSize > SystemProperties.getInteger(SystemProperties.Net.Messages.MAX_FRAME_SIZE)) {
+                fragments.clear();
+                available = 0;
+                throw new HCJFRuntimeException("Invalid frame size: %d", frameSize);
+            }
+
+            if(frameSize > available) {
+                break;
+            }
+
+            messages.add(BsonParcelable.Builder.create(BsonDecoder.decode(pollFrame(frameSize))));
+        }
+    }
+
+    /**
+     * Reads the length prefix of the next frame, the prefix could be split between many fragments.
+     * @return Size of the next frame.
+     */
+    private int peekFrameSize() {
+        int result = 0;
+        int count = 0;
+        for(ByteBuffer fragment : fragments) {
+            for (int i = fragment.position(); i < fragment.limit() && count < LENGTH_PREFIX_SIZE; i++, count++) {
+                result = (result << 8) | (fragment.get(i) & 0xFF);
+            }
+            if(count == LENGTH_PREFIX_SIZE) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes the next frame from the fragments. If the frame is exactly the backing array of the first
+     * fragment then the array is returned without copy, in the otherwise the frame is copied only one time.
+     * @param frameSize Size of the frame.
+     * @return Frame data.
+     */
+    private byte[] pollFrame(int frameSize) {
+        byte[] result;
+        ByteBuffer first = fragments.peekFirst();
+        if(first.remaining() == frameSize && first.hasArray() && first.arrayOffset() == 0 &&
+                first.position() == 0 && first.array().length == frameSize) {
+            result = first.array();
+            fragments.pollFirst();
         } else {
-            if(leftover == null) {
-                leftover = new MessageBuffer();
+            result = new byte[frameSize];
+            int offset = 0;
+            while(offset < frameSize) {
+                ByteBuffer fragment = fragments.peekFirst();
+                int length = Math.min(fragment.remaining(), frameSize - offset);
+                fragment.get(result, offset, length);
+                offset += length;
+                if(!fragment.hasRemaining()) {
+                    fragments.pollFirst();
+                }
             }
-            leftover.append(data);
         }
+        available -= frameSize;
+        return result;
     }
 
     /**
@@ -90,7 +169,7 @@ public final class MessageBuffer {
      * Returns the messages decoded contained into the buffer.
      * @return List of decoded messages.
      */
-    public List<Message> getMessages() {
+    public synchronized List<Message> getMessages() {
         List<Message> result = new ArrayList<>();
         result.addAll(messages);
         messages.clear();
@@ -98,11 +177,20 @@ public final class MessageBuffer {
     }
 
     /**
-     * Returns the left over data that is a incomplete message.
-     * @return Left over data.
+     * Returns the left over data that is a incomplete message, the pending fragments are moved
+     * to the new buffer.
+     * @return Left over data or null if there are not pending data.
      */
-    public MessageBuffer getLeftover() {
-        return leftover;
+    public synchronized MessageBuffer getLeftover() {
+        MessageBuffer result = null;
+        if(available > 0) {
+            result = new MessageBuffer();
+            result.fragments.addAll(fragments);
+            result.available = available;
+            fragments.clear();
+            available = 0;
+        }
+        return result;
     }
 
     /**
@@ -13,6 +13,7 @@ import org.hcjf.utils.Cryptography;
 import org.hcjf.utils.bson.BsonParcelable;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class provides the base to implements a message node.
@@ -62,7 +63,9 @@ public abstract class MessagesNode<S extends NetSession> extends NetClient<S, Me
         if(messageBuffer == null) {
             messageBuffer = new MessageBuffer();
         }
-        messageBuffer.append(netPackage.getPayload());
+        //The payload is decoded into the io thread, then the package is released to avoid the copy of the payload.
+        messageBuffer.appendTransient(netPackage.getTransientPayloadBuffer());
+        netPackage.release();
         return messageBuffer;
     }
 
@@ -77,6 +80,17 @@ public abstract class MessagesNode<S extends NetSession> extends NetClient<S, Me
         write(getSession(), buffer, false);
     }
 
+    /**
+     * Send a message to the server without blocking the current thread.
+     * @param message Message instance.
+     * @return Future completed when the message was written or completed exceptionally if the write fails.
+     */
+    public final CompletableFuture<NetPackage> sendAsync(Message message) {
+        MessageBuffer buffer = new MessageBuffer();
+        buffer.append(isEncrypted() ? encrypt(message) : message);
+        return writeAsync(getSession(), buffer);
+    }
+
     /**
      * Wait until the node is connected with the server.
      * @return Connection status, if the result is true then the node connection was successful but if the
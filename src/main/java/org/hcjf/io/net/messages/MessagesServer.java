@@ -14,6 +14,7 @@ import org.hcjf.utils.bson.BsonParcelable;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This implementation provides the base to work with messages into the network.
@@ -71,7 +72,9 @@ public abstract class MessagesServer<S extends NetSession> extends NetServer<S,
         if(messageBuffer == null) {
             messageBuffer = new MessageBuffer();
         }
-        messageBuffer.append(netPackage.getPayload());
+        //The payload is decoded into the io thread, then the package is released to avoid the copy of the payload.
+        messageBuffer.appendTransient(netPackage.getTransientPayloadBuffer());
+        netPackage.release();
 
         if(messageBuffer.isComplete()) {
             buffersBySession.put((S) netPackage.getSession(), messageBuffer.getLeftover());
@@ -94,6 +97,18 @@ public abstract class MessagesServer<S extends NetSession> extends NetServer<S,
         write(session, buffer, false);
     }
 
+    /**
+     * Send message to the net without blocking the current thread.
+     * @param session Session that indicate the remote host.
+     * @param message Message to transfer.
+     * @return Future completed when the message was written or completed exceptionally if the write fails.
+     */
+    public final CompletableFuture<NetPackage> sendAsync(S session, Message message) {
+        MessageBuffer buffer = new MessageBuffer();
+        buffer.append(isEncrypted() ? encrypt(message) : message);
+        return writeAsync(session, buffer);
+    }
+
     /**
      * This method destroy the buffer for the specific session.
      * @param session Net session to be destroyed
@@ -1,9 +1,11 @@
 package org.hcjf.layers;
 
+import org.hcjf.errors.HCJFRuntimeException;
 import org.hcjf.errors.HCJFSecurityException;
 import org.hcjf.layers.plugins.PluginLayer;
 import org.hcjf.log.debug.Agent;
 import org.hcjf.log.debug.Agents;
+import org.hcjf.properties.SystemProperties;
 import org.hcjf.service.Service;
 import org.hcjf.service.ServiceSession;
 import org.hcjf.service.ServiceThread;
@@ -11,8 +13,15 @@ import org.hcjf.service.security.Permission;
 import org.hcjf.service.security.SecurityPermissions;
 import org.hcjf.utils.SynchronizedCountOperation;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * All the layer implementation extends this class, and this class is a proxy
@@ -21,11 +30,21 @@ import java.util.Set;
  */
 public abstract class Layer implements LayerInterface {
 
+    private static final ClassValue<Map<Method, InvocationMetadata>> invocationMetadataCache = new ClassValue<>() {
+        @Override
+        protected Map<Method, InvocationMetadata> computeValue(Class<?> targetClass) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     private final String implName;
     private final boolean stateful;
     private final SynchronizedCountOperation invocationMean;
     private final SynchronizedCountOperation executionTimeMean;
     private final SynchronizedCountOperation errorMean;
+    private final AtomicLong metadataResolutions;
+    private final AtomicLong threadHops;
+    private final AtomicLong callerThreadInvocations;
 
     /**
      * This is the end point for all the layers constructor.
@@ -41,6 +60,9 @@ public abstract class Layer implements LayerInterface {
                 SynchronizedCountOperation.getMeanOperation(), 1000L);
         this.errorMean = new SynchronizedCountOperation(
                 SynchronizedCountOperation.getMeanOperation(), 1000L);
+        this.metadataResolutions = new AtomicLong();
+        this.threadHops = new AtomicLong();
+        this.callerThreadInvocations = new AtomicLong();
         Agents.register(new LayerAgent(this));
     }
 
@@ -156,9 +178,19 @@ public abstract class Layer implements LayerInterface {
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
         Object result;
-        if (!(Thread.currentThread() instanceof ServiceThread)) {
+        InvocationMetadata metadata = getInvocationMetadata(method);
+        if (Thread.currentThread() instanceof ServiceThread) {
+            result = invoke(metadata, args, (ServiceThread) Thread.currentThread());
+        } else if (metadata.isCallerThreadAllowed() &&
+                SystemProperties.getBoolean(SystemProperties.Layer.CALLER_THREAD_INVOCATION_ENABLED)) {
+            //The method doesn't require any permission then is executed over the caller thread
+            //using the guest session as context, without any thread hop.
+            callerThreadInvocations.incrementAndGet();
+            result = invoke(metadata, args, null);
+        } else {
             //If the current thread is not a service thread instance then
             //this method is called again but using a service thread with a guest session.
+            threadHops.incrementAndGet();
             result = Service.call(()-> {
                 try {
                     return invoke(proxy, method, args);
@@ -166,64 +198,100 @@ public abstract class Layer implements LayerInterface {
                     throw new RuntimeException(throwable);
                 }
             }, ServiceSession.getGuestSession());
-        } else {
-            //Add one into the executions counter.
-            invocationMean.add(1);
+        }
+        return result;
+    }
 
-            //Store the start time of the execution.
-            Long startTime = System.currentTimeMillis();
+    /**
+     * Executes the invocation described by the metadata instance.
+     * @param metadata Invocation metadata.
+     * @param args Invocation arguments.
+     * @param serviceThread Current service thread or null if the invocation runs over the caller thread.
+     * @return Return the value returned for the implementation method.
+     * @throws Throwable Throw all the generated exceptions.
+     */
+    private Object invoke(InvocationMetadata metadata, Object[] args, ServiceThread serviceThread) throws Throwable {
+        Object result;
 
-            try {
+        //Add one into the executions counter.
+        invocationMean.add(1);
+
+        //Store the start time of the execution.
+        Long startTime = System.currentTimeMillis();
+
+        try {
+            if (serviceThread != null) {
                 analyzeThread();
+            }
 
-                Access access = checkAccess();
+            Access access = checkAccess();
 
-                if (access == null) {
-                    throw new HCJFSecurityException("Access null");
-                }
-                if (!access.granted) {
-                    if (access.message != null && access.getThrowable() != null) {
-                        throw new HCJFSecurityException(access.getMessage(), access.getThrowable());
-                    } else if (access.getMessage() != null) {
-                        throw new HCJFSecurityException(access.getMessage());
-                    } else if (access.getThrowable() != null) {
-                        throw new HCJFSecurityException("Empty message", access.getThrowable());
-                    }
+            if (access == null) {
+                throw new HCJFSecurityException("Access null");
+            }
+            if (!access.granted) {
+                if (access.message != null && access.getThrowable() != null) {
+                    throw new HCJFSecurityException(access.getMessage(), access.getThrowable());
+                } else if (access.getMessage() != null) {
+                    throw new HCJFSecurityException(access.getMessage());
+                } else if (access.getThrowable() != null) {
+                    throw new HCJFSecurityException("Empty message", access.getThrowable());
                 }
+            }
 
-                ServiceThread serviceThread = (ServiceThread) Thread.currentThread();
+            if (serviceThread != null) {
                 serviceThread.putLayer(new ServiceSession.LayerStackElement(
                         getClass(), getImplName(), isPlugin(), isStateful()));
+            }
 
-                if (!method.getDeclaringClass().equals(LayerInterface.class)) {
-                    Method implementationMethod = getTarget().getClass().getMethod(method.getName(), method.getParameterTypes());
-                    for (Permission permission : implementationMethod.getDeclaredAnnotationsByType(Permission.class)) {
-                        SecurityPermissions.checkPermission(getTarget().getClass(), permission.value());
-                    }
-                }
+            for (String permission : metadata.getPermissions()) {
+                SecurityPermissions.checkPermission(getTarget().getClass(), permission);
+            }
 
-                try {
-                    Object[] newArgs = AdaptableLayer.class.isAssignableFrom(getClass()) ?
-                            ((AdaptableLayer)this).adaptArguments(method, args) : args;
-                    LayerProxy.ProxyInterceptor interceptor = getProxy().onBeforeInvoke(method, newArgs);
-                    if (interceptor == null || !interceptor.isCached()) {
-                        result = method.invoke(getTarget(), newArgs);
-                    } else {
-                        result = interceptor.getResult();
-                    }
-                    getProxy().onAfterInvoke(method, result, newArgs);
-                } catch (Throwable throwable) {
-                    //Add one to the error mean counter.
-                    errorMean.add(1);
-                    throw throwable;
-                } finally {
-                    if (serviceThread != null) {
-                        serviceThread.removeLayer();
-                    }
+            try {
+                Method method = metadata.getMethod();
+                Object[] newArgs = this instanceof AdaptableLayer ?
+                        ((AdaptableLayer)this).adaptArguments(method, args) : args;
+                LayerProxy.ProxyInterceptor interceptor = getProxy().onBeforeInvoke(method, newArgs);
+                if (interceptor == null || !interceptor.isCached()) {
+                    result = metadata.invoke(getTarget(), newArgs);
+                } else {
+                    result = interceptor.getResult();
                 }
+                getProxy().onAfterInvoke(method, result, newArgs);
+            } catch (Throwable throwable) {
+                //Add one to the error mean counter.
+                errorMean.add(1);
+                throw throwable;
             } finally {
-                //Add the invocation time int the layer counter.
-                executionTimeMean.add(System.currentTimeMillis() - startTime);
+                if (serviceThread != null) {
+                    serviceThread.removeLayer();
+                }
+            }
+        } finally {
+            //Add the invocation time int the layer counter.
+            executionTimeMean.add(System.currentTimeMillis() - startTime);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the invocation metadata associated to the method, the metadata is resolved only the first time
+     * that the method is invoked over the class of the target, then all the instances of the layer share the
+     * metadata.
+     * @param method Invoked method.
+     * @return Invocation metadata.
+     */
+    private InvocationMetadata getInvocationMetadata(Method method) {
+        Class<?> targetClass = getTarget().getClass();
+        Map<Method, InvocationMetadata> metadataByMethod = invocationMetadataCache.get(targetClass);
+        InvocationMetadata result = metadataByMethod.get(method);
+        if (result == null) {
+            metadataResolutions.incrementAndGet();
+            result = new InvocationMetadata(targetClass, method);
+            InvocationMetadata current = metadataByMethod.putIfAbsent(method, result);
+            if (current != null) {
+                result = current;
             }
         }
         return result;
@@ -242,7 +310,126 @@ public abstract class Layer implements LayerInterface {
      * @return Service session.
      */
     protected final ServiceSession getSession() {
-        return ((ServiceThread)Thread.currentThread()).getSession();
+        ServiceSession result;
+        if (Thread.currentThread() instanceof ServiceThread) {
+            result = ((ServiceThread) Thread.currentThread()).getSession();
+        } else {
+            //The invocations over the caller thread use the guest session as context.
+            result = ServiceSession.getGuestSession();
+        }
+        return result;
+    }
+
+    /**
+     * This class contains all the information about a method of the layer that can be resolved only once:
+     * the implementation method, the permissions declared by the implementation and
+     * the method handle used to invoke the implementation.
+     */
+    private static final class InvocationMetadata {
+
+        private final Method method;
+        private final Class<?>[] parameterTypes;
+        private final Class<?>[] argumentTypes;
+        private final String[] permissions;
+        private final MethodHandle handle;
+
+        private InvocationMetadata(Class<?> targetClass, Method method) {
+            this.method = method;
+            this.parameterTypes = method.getParameterTypes();
+            this.argumentTypes = new Class<?>[parameterTypes.length];
+            for (int i = 0; i < argumentTypes.length; i++) {
+                argumentTypes[i] = MethodType.methodType(parameterTypes[i]).wrap().returnType();
+            }
+            if (!method.getDeclaringClass().equals(LayerInterface.class)) {
+                Method implementationMethod;
+                try {
+                    implementationMethod = targetClass.getMethod(method.getName(), method.getParameterTypes());
+                } catch (NoSuchMethodException ex) {
+                    throw new HCJFRuntimeException("Layer implementation method not found: %s", ex, method.getName());
+                }
+                Permission[] declaredPermissions = implementationMethod.getDeclaredAnnotationsByType(Permission.class);
+                this.permissions = new String[declaredPermissions.length];
+                for (int i = 0; i < declaredPermissions.length; i++) {
+                    this.permissions[i] = declaredPermissions[i].value();
+                }
+            } else {
+                this.permissions = new String[0];
+            }
+
+            MethodHandle handle;
+            try {
+                handle = MethodHandles.publicLookup().unreflect(method).asFixedArity()
+                        .asSpreader(Object[].class, method.getParameterCount())
+                        .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+            } catch (Exception ex) {
+                //The method is not accessible using method handles then the reflection invocation is used.
+                handle = null;
+            }
+            this.handle = handle;
+        }
+
+        /**
+         * Returns the invoked method.
+         * @return Invoked method.
+         */
+        private Method getMethod() {
+            return method;
+        }
+
+        /**
+         * Returns the names of the permissions declared by the implementation method.
+         * @return Permissions names.
+         */
+        private String[] getPermissions() {
+            return permissions;
+        }
+
+        /**
+         * Returns true if the method can be invoked over the caller thread, only the methods without
+         * permissions can be invoked out of a service thread because the permissions depends of the session.
+         * @return Caller thread status.
+         */
+        private boolean isCallerThreadAllowed() {
+            return permissions.length == 0;
+        }
+
+        /**
+         * Invokes the method over the target instance.
+         * @param target Target instance.
+         * @param args Invocation arguments.
+         * @return Invocation result.
+         * @throws Throwable Throw all the generated exceptions.
+         */
+        private Object invoke(Object target, Object[] args) throws Throwable {
+            Object result;
+            if (handle != null && isExactInvocation(target, args)) {
+                try {
+                    result = (Object) handle.invokeExact(target, args);
+                } catch (Throwable throwable) {
+                    //The exception is wrapped in the same way that the reflection invocation does.
+                    throw new InvocationTargetException(throwable);
+                }
+            } else {
+                result = method.invoke(target, args);
+            }
+            return result;
+        }
+
+        /**
+         * Verify if the target and the arguments match exactly with the method, in the otherwise the
+         * invocation uses reflection in order to obtain the same conversions and errors.
+         * @param target Target instance.
+         * @param args Invocation arguments.
+         * @return True if the method handle can be used.
+         */
+        private boolean isExactInvocation(Object target, Object[] args) {
+            boolean result = method.getDeclaringClass().isInstance(target) &&
+                    (args == null ? argumentTypes.length == 0 : args.length == argumentTypes.length);
+            for (int i = 0; result && i < argumentTypes.length; i++) {
+                result = args[i] == null ? !parameterTypes[i].isPrimitive() : argumentTypes[i].isInstance(args[i]);
+            }
+            return result;
+        }
     }
 
     /**
@@ -301,6 +488,9 @@ public abstract class Layer implements LayerInterface {
         Double getInvocationMean();
         Double getErrorMean();
         Double getExecutionTimeMean();
+        Long getMetadataResolutions();
+        Long getThreadHops();
+        Long getCallerThreadInvocations();
 
     }
 
@@ -335,5 +525,20 @@ public abstract class Layer implements LayerInterface {
         public Double getExecutionTimeMean() {
             return layer.executionTimeMean.getCurrentValue();
         }
+
+        @Override
+        public Long getMetadataResolutions() {
+            return layer.metadataResolutions.get();
+        }
+
+        @Override
+        public Long getThreadHops() {
+            return layer.threadHops.get();
+        }
+
+        @Override
+        public Long getCallerThreadInvocations() {
+            return layer.callerThreadInvocations.get();
+        }
     }
 }
@@ -32,6 +32,7 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
@@ -77,6 +78,7 @@ public final class Layers {
     private final Map<String, Layer> pluginCache;
     private final Set<Resource> resources;
     private final List<Plugin> plugins;
+    private final AtomicLong version;
 
     private Layers() {
         initialInstances = new HashMap<>();
@@ -92,6 +94,16 @@ public final class Layers {
         pluginCache = new HashMap<>();
         resources = new HashSet<>();
         plugins = new ArrayList<>();
+        version = new AtomicLong();
+    }
+
+    /**
+     * Returns the version of the layers registry, this version changes each time that a layer
+     * or plugin is published and it is useful to invalidate the layer instances resolved previously.
+     * @return Version of the registry.
+     */
+    public static long getVersion() {
+        return instance.version.get();
     }
 
     /**
@@ -466,6 +478,7 @@ public final class Layers {
             classToIntrospect = classToIntrospect.getSuperclass();
         }
 
+        instance.version.incrementAndGet();
         return implName;
     }
 
@@ -603,6 +616,7 @@ public final class Layers {
             Log.d(SystemProperties.get(SystemProperties.Layer.LOG_TAG), "Plugin deployment fail %s.%s", ex, pluginGroupName, pluginName);
         }
 
+        instance.version.incrementAndGet();
         return result;
     }
 
@@ -5,6 +5,7 @@ import org.hcjf.layers.query.JoinableMap;
 import org.hcjf.layers.query.Queryable;
 
 import java.util.Collection;
+import java.util.Iterator;
 
 /**
  * @author javaito
@@ -21,4 +22,15 @@ public interface ReadRowsLayerInterface extends LayerInterface {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * This method implements the read operation using the filters specified in the query and
+     * return an iterator of maps, by default the iterator is created from the collection returned
+     * by the read rows method.
+     * @param queryable Instance that contains all the information to evaluate a query.
+     * @return Return the iterator with the instances founded.
+     */
+    default Iterator<JoinableMap> readRowsIterator(Queryable queryable) {
+        return readRows(queryable).iterator();
+    }
+
 }
@@ -106,6 +106,14 @@ public class JoinableMap implements Joinable, Groupable, Enlarged, BsonParcelabl
         }
     }
 
+    /**
+     * Returns a copy of the fields that remain after purge the instance, the instance is not modified.
+     * @return Map with the fields.
+     */
+    Map<String, Object> purgedCopy() {
+        return new HashMap<>(staticFieldsMap != null ? staticFieldsMap : this);
+    }
+
     /**
      * Clone the joinable map instance.
      * @return Joinalbe map clone.
@@ -152,6 +152,40 @@ public class ParameterizedQuery implements Queryable {
         return result;
     }
 
+    /**
+     * This method returns an iterator that evaluates the query row by row while the iterator is consumed.
+     * @param dataSource Data source to evaluate the query.
+     * @param <O> Kind of instances of the data collection.
+     * @return Iterator with the filtered objects.
+     */
+    @Override
+    public final <O extends Object> Iterator<O> iterate(Queryable.DataSource<O> dataSource) {
+        return iterate(dataSource, new Queryable.IntrospectionConsumer<>());
+    }
+
+    /**
+     * This method returns an iterator that evaluates the query row by row while the iterator is consumed.
+     * The iterator keeps a copy of the current parameters because the evaluation continues after this
+     * method returns.
+     * @param dataSource Data source to evaluate the query.
+     * @param consumer Data source consumer.
+     * @param <O> Kind of instances of the data collection.
+     * @return Iterator with the filtered objects.
+     */
+    @Override
+    public final <O extends Object> Iterator<O> iterate(Queryable.DataSource<O> dataSource, Queryable.Consumer<O> consumer) {
+        Iterator<O> result;
+        if(query.isStreamable()) {
+            ParameterizedQuery parameterizedQuery = new ParameterizedQuery(query);
+            parameterizedQuery.parameters.addAll(parameters);
+            result = query.iterate(dataSource, parameterizedQuery.new ParameterizedConsumer(consumer));
+            parameters.clear();
+        } else {
+            result = evaluate(dataSource, consumer).iterator();
+        }
+        return result;
+    }
+
     @Override
     public BsonDocument toBson() {
         BsonDocument document = new BsonDocument();
@@ -17,11 +17,12 @@ import org.hcjf.service.Service;
 import org.hcjf.service.ServiceSession;
 import org.hcjf.service.ServiceThread;
 import org.hcjf.utils.Introspection;
-import org.hcjf.utils.LruMap;
 import org.hcjf.utils.NamedUuid;
 import org.hcjf.utils.bson.BsonParcelable;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -33,7 +34,6 @@ public class Query extends EvaluatorCollection implements Queryable {
 
     public static final String QUERY_BSON_FIELD_NAME = "__query__";
     public static final String DISJOINT_RESULT_SET = "disjointResultSet";
-    private static final LruMap<String,Query> cache;
 
     private final QueryId id;
     private final QueryResource resource;
@@ -53,8 +53,6 @@ public class Query extends EvaluatorCollection implements Queryable {
     private Map<String,List<QueryReturnFunction>> underlyingFunctions;
 
     static {
-        //Init query compiler cache
-        cache = new LruMap<>(SystemProperties.getInteger(SystemProperties.Query.COMPILER_CACHE_SIZE));
 
         //Publishing compilers
         Layers.publishLayer(SQLCompiler.class);
@@ -585,59 +583,13 @@ public class Query extends EvaluatorCollection implements Queryable {
             //query are valid into the platform evaluation environment.
             initializeEvaluatorsCache();
 
-            //Creating result data collection.
-            if (orderParameters.size() > 0) {
-                //If the query has order fields then creates a tree set with
-                //a comparator using the order fields.
-                result = new TreeSet<>((o1, o2) -> {
-                    int compareResult = 0;
-
-                    Comparable<Object> comparable1;
-                    Comparable<Object> comparable2;
-                    for (QueryOrderParameter orderField : orderParameters) {
-                        try {
-                            if (orderField instanceof QueryOrderFunction) {
-                                comparable1 = consumer.resolveFunction(((QueryOrderFunction) orderField), o1, dataSource);
-                                comparable2 = consumer.resolveFunction(((QueryOrderFunction) orderField), o2, dataSource);
-                            } else {
-                                comparable1 = consumer.get(o1, (QueryParameter) orderField, dataSource);
-                                comparable2 = consumer.get(o2, (QueryParameter) orderField, dataSource);
-                            }
-                        } catch (ClassCastException ex) {
-                            throw new HCJFRuntimeException("Order field must be comparable");
-                        }
-
-                        if (comparable1 == null ^ comparable2 == null) {
-                            compareResult = (comparable1 == null) ? -1 : 1;
-                        } else if (comparable1 == null && comparable2 == null) {
-                            compareResult = 0;
-                        } else {
-                            compareResult = comparable1.compareTo(comparable2) * (orderField.isDesc() ? -1 : 1);
-                        }
-
-                        if (compareResult != 0) {
-                            break;
-                        }
-                    }
-
-                    if (compareResult == 0) {
-                        compareResult = o1.hashCode() - o2.hashCode();
-                    }
-
-                    return compareResult;
-                });
-            } else {
-                //If the query has not ordered fields then creates a linked hash set to
-                //maintain the natural order of the data.
-                result = new ArrayList<>();
-            }
+            //Creating result data collection, if the query has order fields then the
+            //objects are collected by a sorter instance.
+            result = new ArrayList<>();
+            QuerySorter<O> sorter = null;
 
             Long timeCollectingData = System.currentTimeMillis();
-            Integer evaluatingCount = 0;
-            Integer formattingCount = 0;
-            Long timeEvaluatingConditions = 0L;
-            Long timeFormattingData = 0L;
-            Set<String> presentFields = new TreeSet<>();
+            EvaluationStats stats = new EvaluationStats(new TreeSet<>());
 
             //Getting data from data source.
             Collection<O> data;
@@ -655,29 +607,11 @@ public class Query extends EvaluatorCollection implements Queryable {
                     } else if(getResource() instanceof QueryJsonResource) {
                         data = (Collection<O>) ((QueryJsonResource)getResource()).getResourceValues();
                     } else {
-                        //Creates the first query for the original resource.
-                        Query resolveQuery = new Query(getResource());
-                        resolveQuery.setEnvironment(getEnvironment());
-                        resolveQuery.returnAll = true;
-
-                        resolveQuery.setLimit(getLimit());
-                        resolveQuery.setUnderlyingLimit(getUnderlyingLimit());
-                        resolveQuery.setStart(getStart());
-                        resolveQuery.setUnderlyingStart(getUnderlyingStart());
-                        resolveQuery.setUnderlyingFunctions(getUnderlyingFunctions(getResourceName()));
-                        for(QueryOrderParameter orderParameter : getOrderParameters()) {
-                            resolveQuery.addOrderParameter(orderParameter);
-                        }
-
-                        copyEvaluators(resolveQuery, this);
-                        data = dataSource.getResourceData(verifyInstance(resolveQuery, consumer));
+                        data = dataSource.getResourceData(verifyInstance(createResolveQuery(), consumer));
                     }
                 }
                 timeCollectingData = System.currentTimeMillis() - timeCollectingData;
 
-                //Filtering data
-                boolean add;
-
                 //Collect all the aggregate functions into the array list.
                 List<String> returnParametersAsArray = new ArrayList<>();
                 for (QueryReturnParameter returnParameter : getReturnParameters()) {
@@ -687,7 +621,13 @@ public class Query extends EvaluatorCollection implements Queryable {
                     returnParametersAsArray.add(returnParameter.getAlias());
                 }
 
-                StringBuilder hashCode;
+                if (orderParameters.size() > 0) {
+                    //The sorter can apply the start and limit values only if the result is not
+                    //modified after the sort process.
+                    sorter = new QuerySorter<>(orderParameters, getStart(), getLimit(),
+                            aggregateFunctions.isEmpty() && !isDisjoint(), dataSource, consumer);
+                }
+
                 if (!groupParameters.isEmpty()) {
                     if(isDisjoint()) {
                         disjointResultSets = new HashMap<>();
@@ -696,91 +636,46 @@ public class Query extends EvaluatorCollection implements Queryable {
                     }
                 }
 
-                for (O object : data) {
-                    Long timeEvaluating = System.currentTimeMillis();
-                    add = verifyCondition(object, dataSource, consumer);
-                    timeEvaluating = System.currentTimeMillis() - timeEvaluating;
-                    timeEvaluatingConditions += timeEvaluating;
-                    evaluatingCount++;
-                    if (add) {
-                        Long timeFormatting = System.currentTimeMillis();
-                        if (object instanceof Enlarged || object instanceof Map) {
-                            Enlarged enlargedObject;
-                            if(object instanceof Enlarged) {
-                                if (returnAll) {
-                                    enlargedObject = ((Enlarged) object).clone();
-                                    presentFields.addAll(enlargedObject.keySet());
-                                } else {
-                                    enlargedObject = ((Enlarged) object).clone(returnParametersAsArray.toArray(new String[]{}));
-                                }
-                            } else {
-                                if (returnAll) {
-                                    enlargedObject = (new JoinableMap((Map<String, Object>) object)).clone();
-                                    presentFields.addAll(enlargedObject.keySet());
-                                } else {
-                                    enlargedObject = (new JoinableMap((Map<String, Object>) object)).clone(returnParametersAsArray.toArray(new String[]{}));
-                                }
-                            }
-                            object = (O) enlargedObject;
-                            for (QueryReturnParameter returnParameter : getReturnParameters()) {
-                                Map.Entry<String,Object> entry =
-                                        consumer.resolveQueryReturnParameter(returnParameter, object, dataSource);
-                                if(entry != null && !entry.getKey().isBlank()) {
-                                    presentFields.add(entry.getKey());
-                                    enlargedObject.put(entry.getKey(), entry.getValue());
-                                }
-                            }
-                        }
-
-                        if (!groupParameters.isEmpty() && (object instanceof Groupable || isDisjoint())) {
-                            hashCode = new StringBuilder();
-                            Object groupValue;
-                            Map<String,Object> groupKeyValues = new HashMap<>();
-                            for (QueryReturnParameter returnParameter : groupParameters) {
-                                if (returnParameter instanceof QueryReturnField) {
-                                    groupValue = consumer.get(object, ((QueryReturnField) returnParameter), dataSource);
-                                } else {
-                                    groupValue = consumer.resolveFunction(((QueryReturnFunction) returnParameter), object, dataSource);
-                                }
-                                groupKeyValues.put(returnParameter.getAlias(), groupValue);
-                                hashCode.append(groupValue);
-                            }
-                            if(isDisjoint()) {
-                                Collection<Object> resultSet;
-                                if(disjointResultSets.containsKey(hashCode.toString())) {
-                                    resultSet = Introspection.resolve(disjointResultSets, hashCode.toString(), DISJOINT_RESULT_SET);
-                                } else {
-                                    resultSet = new ArrayList<>();
-                                    JoinableMap disjointMap = new JoinableMap();
-                                    disjointMap.putAll(groupKeyValues);
-                                    disjointMap.put(DISJOINT_RESULT_SET, resultSet);
-                                    disjointResultSets.put(hashCode.toString(), disjointMap);
-                                }
-                                if(object instanceof Enlarged && !returnAll) {
-                                    ((Enlarged)object).purge();
-                                }
-                                resultSet.add(object);
-                            } else {
-                                if (groupables.containsKey(hashCode.toString())) {
-                                    groupables.get(hashCode.toString()).group((Groupable) object);
-                                } else {
-                                    groupables.put(hashCode.toString(), (Groupable) object);
-                                }
-                            }
-                        } else {
-                            result.add(object);
-                        }
-                        timeFormatting = System.currentTimeMillis() - timeFormatting;
-                        formattingCount++;
-                        timeFormattingData += timeFormatting;
+                //The rows are merged in the same order that they are returned by the data source,
+                //then the result is the same when the data is evaluated in parallel.
+                final Collection<O> collector = result;
+                final QuerySorter<O> rowSorter = sorter;
+                final Map<String, Groupable> rowGroupables = groupables;
+                final Map<String, Map<String,Object>> rowDisjointResultSets = disjointResultSets;
+                RowSink<O> sink = (object, groupKey, groupKeyValues) -> mergeRow(object, groupKey, groupKeyValues,
+                        collector, rowSorter, rowGroupables, rowDisjointResultSets);
+                if(isParallelizable(data)) {
+                    List<O> dataList = data instanceof List ? (List<O>) data : new ArrayList<>(data);
+                    List<PartitionResult<O>> partitionResults = evaluatePartitions(dataList, partition -> {
+                        PartitionResult<O> partitionResult = new PartitionResult<>();
+                        evaluateRows(partition, returnParametersAsArray, partitionResult.getStats(),
+                                partitionResult, dataSource, consumer);
+                        return partitionResult;
+                    });
+                    for(PartitionResult<O> partitionResult : partitionResults) {
+                        partitionResult.replay(sink);
+                        stats.add(partitionResult.getStats());
                     }
+                } else {
+                    evaluateRows(data, returnParametersAsArray, stats, sink, dataSource, consumer);
                 }
 
                 if(groupables != null) {
-                    result.addAll((Collection<? extends O>) groupables.values());
+                    if(sorter != null) {
+                        sorter.addAll((Collection<? extends O>) groupables.values());
+                    } else {
+                        result.addAll((Collection<? extends O>) groupables.values());
+                    }
                 }
                 if(disjointResultSets != null) {
-                    result.addAll((Collection<? extends O>) disjointResultSets.values());
+                    if(sorter != null) {
+                        sorter.addAll((Collection<? extends O>) disjointResultSets.values());
+                    } else {
+                        result.addAll((Collection<? extends O>) disjointResultSets.values());
+                    }
+                }
+                if(sorter != null) {
+                    result = sorter.getResult();
                 }
             } finally {
                 clearEvaluatorsCache();
@@ -789,7 +684,7 @@ public class Query extends EvaluatorCollection implements Queryable {
             Long timeAggregatingData = System.currentTimeMillis();
             if(aggregateFunctions.size() > 0) {
                 for (QueryReturnFunction function : aggregateFunctions) {
-                    result = consumer.resolveFunction(function, result, dataSource);
+                    result = resolveAggregateFunction(function, result, dataSource, consumer);
                 }
             }
 
@@ -798,7 +693,7 @@ public class Query extends EvaluatorCollection implements Queryable {
                 result.forEach(O -> ((Enlarged)O).purge());
             }
 
-            if(getStart() != 0 || getLimit() != null) {
+            if((sorter == null || !sorter.isWindowed()) && (getStart() != 0 || getLimit() != null)) {
                 if (getLimit() != null) {
                     result = result.stream().skip(getStart()).limit(getLimit()).collect(Collectors.toList());
                 } else {
@@ -809,23 +704,149 @@ public class Query extends EvaluatorCollection implements Queryable {
             totalTime = System.currentTimeMillis() - totalTime;
 
             ResultSet<O> resultSet = new ResultSet<>(totalTime, timeCollectingData,
-                    timeEvaluatingConditions,
-                    evaluatingCount == 0 ? 0 :timeEvaluatingConditions / evaluatingCount,
-                    timeFormattingData,
-                    formattingCount == 0 ? 0 :timeFormattingData / formattingCount,
+                    stats.timeEvaluatingConditions,
+                    stats.evaluatingCount == 0 ? 0 : stats.timeEvaluatingConditions / stats.evaluatingCount,
+                    stats.timeFormattingData,
+                    stats.formattingCount == 0 ? 0 : stats.timeFormattingData / stats.formattingCount,
                     timeAggregatingData,
-                    presentFields,
+                    stats.presentFields,
                     result);
             result = resultSet;
 
-            for(Queryable queryable : unions) {
-                result.addAll(queryable.evaluate(dataSource, consumer));
+            if(sorter != null && !unions.isEmpty() && getStart() == 0 && getLimit() == null) {
+                //If the result is not limited then the objects of the unions are sorted
+                //together with the objects of this query.
+                QuerySorter<O> unionSorter = new QuerySorter<>(orderParameters, 0, null, false, dataSource, consumer);
+                unionSorter.addAll(resultSet);
+                for(Queryable queryable : unions) {
+                    unionSorter.addAll(queryable.evaluate(dataSource, consumer));
+                }
+                resultSet.clear();
+                resultSet.addAll(unionSorter.getResult());
+            } else {
+                for (Queryable queryable : unions) {
+                    result.addAll(queryable.evaluate(dataSource, consumer));
+                }
             }
         }
 
         return result;
     }
 
+    /**
+     * This method returns an iterator that evaluates the query row by row while the iterator is consumed.
+     * @param dataSource Data source to evaluate the query.
+     * @param <O> Kind of instances of the data collection.
+     * @return Iterator with the filtered objects.
+     */
+    @Override
+    public final <O extends Object> Iterator<O> iterate(Queryable.DataSource<O> dataSource) {
+        return iterate(dataSource, new Queryable.IntrospectionConsumer<>());
+    }
+
+    /**
+     * This method returns an iterator that evaluates the query row by row while the iterator is consumed,
+     * the start and limit values are applied over the filtered objects and the iterator stops to read the data
+     * source when the limit is reached. If the query is not streamable then the result is evaluated completely
+     * before to return the iterator.
+     * @param dataSource Data source to evaluate the query.
+     * @param consumer Data source consumer.
+     * @param <O> Kind of instances of the data collection.
+     * @return Iterator with the filtered objects.
+     */
+    @Override
+    public final <O extends Object> Iterator<O> iterate(Queryable.DataSource<O> dataSource, Queryable.Consumer<O> consumer) {
+        Iterator<O> result;
+        if(isStreamable()) {
+            result = new QueryIterator<>(dataSource, consumer);
+        } else {
+            result = evaluate(dataSource, consumer).iterator();
+        }
+        return result;
+    }
+
+    /**
+     * Verify if the query can be evaluated row by row, this is possible only if the query has not joins, unions,
+     * order or group parameters, aggregate functions and it's not disjoint.
+     * @return Returns true if the query is streamable and false in the otherwise.
+     */
+    public final boolean isStreamable() {
+        boolean result = joins.isEmpty() && unions.isEmpty() && orderParameters.isEmpty() &&
+                groupParameters.isEmpty() && !isDisjoint();
+        for (int i = 0; i < returnParameters.size() && result; i++) {
+            result = !(returnParameters.get(i) instanceof QueryReturnFunction &&
+                    ((QueryReturnFunction) returnParameters.get(i)).isAggregate());
+        }
+        return result;
+    }
+
+    /**
+     * Creates the query to obtain the data of the original resource from the data source.
+     * @return Query to resolve the data.
+     */
+    private Query createResolveQuery() {
+        //Creates the first query for the original resource.
+        Query resolveQuery = new Query(getResource());
+        resolveQuery.setEnvironment(getEnvironment());
+        resolveQuery.returnAll = true;
+
+        resolveQuery.setLimit(getLimit());
+        resolveQuery.setUnderlyingLimit(getUnderlyingLimit());
+        resolveQuery.setStart(getStart());
+        resolveQuery.setUnderlyingStart(getUnderlyingStart());
+        resolveQuery.setUnderlyingFunctions(getUnderlyingFunctions(getResourceName()));
+        for(QueryOrderParameter orderParameter : getOrderParameters()) {
+            resolveQuery.addOrderParameter(orderParameter);
+        }
+
+        copyEvaluators(resolveQuery, this);
+        return resolveQuery;
+    }
+
+    /**
+     * Creates the instance to return for each object that verifies the conditions of the query, the new instance
+     * contains the return parameters of the query.
+     * @param object Object that verifies the conditions.
+     * @param returnParametersAsArray Aliases of the return parameters.
+     * @param presentFields Set to collect the name of the fields present into the result.
+     * @param dataSource Data source of the query.
+     * @param consumer Data source consumer.
+     * @param <O> Kind of instances of the data collection.
+     * @return Formatted object.
+     */
+    private <O extends Object> O format(O object, List<String> returnParametersAsArray, Set<String> presentFields,
+                                        Queryable.DataSource<O> dataSource, Queryable.Consumer<O> consumer) {
+        O result = object;
+        if (object instanceof Enlarged || object instanceof Map) {
+            Enlarged enlargedObject;
+            if(object instanceof Enlarged) {
+                if (returnAll) {
+                    enlargedObject = ((Enlarged) object).clone();
+                    presentFields.addAll(enlargedObject.keySet());
+                } else {
+                    enlargedObject = ((Enlarged) object).clone(returnParametersAsArray.toArray(new String[]{}));
+                }
+            } else {
+                if (returnAll) {
+                    enlargedObject = (new JoinableMap((Map<String, Object>) object)).clone();
+                    presentFields.addAll(enlargedObject.keySet());
+                } else {
+                    enlargedObject = (new JoinableMap((Map<String, Object>) object)).clone(returnParametersAsArray.toArray(new String[]{}));
+                }
+            }
+            result = (O) enlargedObject;
+            for (QueryReturnParameter returnParameter : getReturnParameters()) {
+                Map.Entry<String,Object> entry =
+                        consumer.resolveQueryReturnParameter(returnParameter, result, dataSource);
+                if(entry != null && !entry.getKey().isBlank()) {
+                    presentFields.add(entry.getKey());
+                    enlargedObject.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Resolves dynamic resource and returns a collection with enlarged objects.
      * @param resource Dynamic resource instance.
@@ -953,14 +974,22 @@ public class Query extends EvaluatorCollection implements Queryable {
      * Initialize the evaluators cache into the current session.
      */
     private void initializeEvaluatorsCache() {
+        setEvaluatorsCache(new ArrayList<>(), new HashMap<>(), new HashMap<>());
+    }
+
+    /**
+     * Put the evaluators cache instances into the current session.
+     * @param evaluatorsCache List of the evaluators done.
+     * @param leftValuesCache Processed left values for each evaluator.
+     * @param rightValuesCache Processed right values for each evaluator.
+     */
+    private void setEvaluatorsCache(List<Evaluator> evaluatorsCache, Map<Evaluator,Object> leftValuesCache,
+                                    Map<Evaluator,Object> rightValuesCache) {
         ServiceSession session = ServiceSession.getCurrentIdentity();
         if(session != null) {
-            session.put(SystemProperties.get(SystemProperties.Query.EVALUATORS_CACHE_NAME),
-                    new ArrayList<Evaluator>());
-            session.put(SystemProperties.get(SystemProperties.Query.EVALUATOR_LEFT_VALUES_CACHE_NAME),
-                    new HashMap<Evaluator, Object>());
-            session.put(SystemProperties.get(SystemProperties.Query.EVALUATOR_RIGHT_VALUES_CACHE_NAME),
-                    new HashMap<Evaluator, Object>());
+            session.put(SystemProperties.get(SystemProperties.Query.EVALUATORS_CACHE_NAME), evaluatorsCache);
+            session.put(SystemProperties.get(SystemProperties.Query.EVALUATOR_LEFT_VALUES_CACHE_NAME), leftValuesCache);
+            session.put(SystemProperties.get(SystemProperties.Query.EVALUATOR_RIGHT_VALUES_CACHE_NAME), rightValuesCache);
         }
     }
 
@@ -976,6 +1005,223 @@ public class Query extends EvaluatorCollection implements Queryable {
         }
     }
 
+    /**
+     * Evaluates the conditions over each row and sends the formatted rows to the sink with the group key
+     * of the row, the group key is null if the row is not grouped.
+     * @param data Rows to evaluate.
+     * @param returnParametersAsArray Aliases of the return parameters.
+     * @param stats Evaluation statistics.
+     * @param sink Sink of the accepted rows.
+     * @param dataSource Data source.
+     * @param consumer Data source consumer.
+     * @param <O> Kind of instances of the data collection.
+     */
+    private <O extends Object> void evaluateRows(Collection<O> data, List<String> returnParametersAsArray,
+                                                 EvaluationStats stats, RowSink<O> sink,
+                                                 Queryable.DataSource<O> dataSource, Queryable.Consumer<O> consumer) {
+        boolean add;
+        StringBuilder hashCode;
+        for (O object : data) {
+            Long timeEvaluating = System.currentTimeMillis();
+            add = verifyCondition(object, dataSource, consumer);
+            timeEvaluating = System.currentTimeMillis() - timeEvaluating;
+            stats.timeEvaluatingConditions += timeEvaluating;
+            stats.evaluatingCount++;
+            if (add) {
+                Long timeFormatting = System.currentTimeMillis();
+                object = format(object, returnParametersAsArray, stats.presentFields, dataSource, consumer);
+
+                if (!groupParameters.isEmpty() && (object instanceof Groupable || isDisjoint())) {
+                    hashCode = new StringBuilder();
+                    Object groupValue;
+                    Map<String,Object> groupKeyValues = new HashMap<>();
+                    for (QueryReturnParameter returnParameter : groupParameters) {
+                        if (returnParameter instanceof QueryReturnField) {
+                            groupValue = consumer.get(object, ((QueryReturnField) returnParameter), dataSource);
+                        } else {
+                            groupValue = consumer.resolveFunction(((QueryReturnFunction) returnParameter), object, dataSource);
+                        }
+                        groupKeyValues.put(returnParameter.getAlias(), groupValue);
+                        hashCode.append(groupValue);
+                    }
+                    if(isDisjoint() && object instanceof Enlarged && !returnAll) {
+                        ((Enlarged)object).purge();
+                    }
+                    sink.accept(object, hashCode.toString(), groupKeyValues);
+                } else {
+                    sink.accept(object, null, null);
+                }
+                timeFormatting = System.currentTimeMillis() - timeFormatting;
+                stats.formattingCount++;
+                stats.timeFormattingData += timeFormatting;
+            }
+        }
+    }
+
+    /**
+     * Merges an accepted row into the result of the query.
+     * @param object Formatted row.
+     * @param groupKey Group key of the row or null if the row is not grouped.
+     * @param groupKeyValues Values of the group parameters.
+     * @param result Result collection.
+     * @param sorter Sorter instance or null if the query has not order parameters.
+     * @param groupables Groups indexed by group key.
+     * @param disjointResultSets Disjoint result sets indexed by group key.
+     * @param <O> Kind of instances of the data collection.
+     */
+    private <O extends Object> void mergeRow(O object, String groupKey, Map<String,Object> groupKeyValues,
+                                             Collection<O> result, QuerySorter<O> sorter,
+                                             Map<String, Groupable> groupables,
+                                             Map<String, Map<String,Object>> disjointResultSets) {
+        if(groupKey != null) {
+            if(isDisjoint()) {
+                Collection<Object> resultSet;
+                if(disjointResultSets.containsKey(groupKey)) {
+                    resultSet = Introspection.resolve(disjointResultSets, groupKey, DISJOINT_RESULT_SET);
+                } else {
+                    resultSet = new ArrayList<>();
+                    JoinableMap disjointMap = new JoinableMap();
+                    disjointMap.putAll(groupKeyValues);
+                    disjointMap.put(DISJOINT_RESULT_SET, resultSet);
+                    disjointResultSets.put(groupKey, disjointMap);
+                }
+                resultSet.add(object);
+            } else {
+                if (groupables.containsKey(groupKey)) {
+                    groupables.get(groupKey).group((Groupable) object);
+                } else {
+                    groupables.put(groupKey, (Groupable) object);
+                }
+            }
+        } else if(sorter != null) {
+            sorter.add(object);
+        } else {
+            result.add(object);
+        }
+    }
+
+    /**
+     * Resolves the aggregate function over the result set, if the result set is big enough and the function
+     * is combinable then the function is evaluated in parallel over partitions of the result set.
+     * @param function Aggregate function.
+     * @param resultSet Result set.
+     * @param dataSource Data source.
+     * @param consumer Data source consumer.
+     * @param <O> Kind of instances of the data collection.
+     * @return Function result.
+     */
+    private <O extends Object> Collection<O> resolveAggregateFunction(QueryReturnFunction function, Collection<O> resultSet,
+                                                                      Queryable.DataSource<O> dataSource, Queryable.Consumer<O> consumer) {
+        Collection<O> result = null;
+        if(isParallelizable(resultSet)) {
+            QueryAggregateFunctionLayerInterface.Accumulator accumulator =
+                    consumer.resolveAggregateAccumulator(function, resultSet, dataSource);
+            if(accumulator != null) {
+                List<O> resultList = resultSet instanceof List ? (List<O>) resultSet : new ArrayList<>(resultSet);
+                Object state = null;
+                boolean first = true;
+                for(Object partialState : evaluatePartitions(resultList, accumulator::accumulate)) {
+                    state = first ? partialState : accumulator.combine(state, partialState);
+                    first = false;
+                }
+                result = accumulator.finish(resultList, state);
+            }
+        }
+        if(result == null) {
+            result = consumer.resolveFunction(function, resultSet, dataSource);
+        }
+        return result;
+    }
+
+    /**
+     * Verify if the collection must be evaluated in parallel, this is possible only if the parallel evaluation
+     * is enabled and the size of the collection is greater or equals than the configured threshold.
+     * @param data Collection to evaluate.
+     * @return Returns true if the collection must be evaluated in parallel.
+     */
+    private boolean isParallelizable(Collection data) {
+        return SystemProperties.getBoolean(SystemProperties.Query.PARALLEL_ENABLED) &&
+                SystemProperties.getInteger(SystemProperties.Query.PARALLELISM) > 1 &&
+                data.size() >= SystemProperties.getInteger(SystemProperties.Query.PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Splits the data into consecutive partitions and applies the task over each partition using the service
+     * threads, the first partition is evaluated by the current thread. Each thread evaluates its partition with
+     * its own copy of the evaluators cache. If the service executor doesn't accept a partition then
+     * the partition is evaluated by the current thread. If the current thread is not a service thread or
+     * it has not an identity to propagate then all the data is evaluated by the current thread.
+     * @param data Data to split.
+     * @param task Task to apply over each partition.
+     * @param <P> Kind of the data elements.
+     * @param <R> Kind of the partition result.
+     * @return List with the results of the partitions in the same order that the partitions.
+     */
+    private <P extends Object, R extends Object> List<R> evaluatePartitions(List<P> data, Function<List<P>, R> task) {
+        int partitions = Math.max(1, Math.min(SystemProperties.getInteger(SystemProperties.Query.PARALLELISM), data.size()));
+        int partitionSize = (data.size() + partitions - 1) / partitions;
+
+        if(!(Thread.currentThread() instanceof ServiceThread) || ServiceSession.getCurrentIdentity() == null) {
+            List<R> result = new ArrayList<>();
+            result.add(task.apply(data));
+            return result;
+        }
+
+        ServiceSession session = ServiceSession.getCurrentSession();
+        List<Evaluator> evaluatorsCache = null;
+        Map<Evaluator,Object> leftValuesCache = null;
+        Map<Evaluator,Object> rightValuesCache = null;
+        if(session != null) {
+            evaluatorsCache = (List<Evaluator>) session.getProperties().get(
+                    SystemProperties.get(SystemProperties.Query.EVALUATORS_CACHE_NAME));
+            leftValuesCache = (Map<Evaluator, Object>) session.getProperties().get(
+                    SystemProperties.get(SystemProperties.Query.EVALUATOR_LEFT_VALUES_CACHE_NAME));
+            rightValuesCache = (Map<Evaluator, Object>) session.getProperties().get(
+                    SystemProperties.get(SystemProperties.Query.EVALUATOR_RIGHT_VALUES_CACHE_NAME));
+        }
+        List<Evaluator> evaluatorsCacheSnapshot = evaluatorsCache == null ? List.of() : new ArrayList<>(evaluatorsCache);
+        Map<Evaluator,Object> leftValuesSnapshot = leftValuesCache == null ? Map.of() : new HashMap<>(leftValuesCache);
+        Map<Evaluator,Object> rightValuesSnapshot = rightValuesCache == null ? Map.of() : new HashMap<>(rightValuesCache);
+
+        List<Future<R>> futures = new ArrayList<>();
+        for (int i = partitionSize; i < data.size(); i += partitionSize) {
+            List<P> partition = data.subList(i, Math.min(i + partitionSize, data.size()));
+            Callable<R> callable = () -> {
+                setEvaluatorsCache(new ArrayList<>(evaluatorsCacheSnapshot),
+                        new HashMap<>(leftValuesSnapshot), new HashMap<>(rightValuesSnapshot));
+                try {
+                    return task.apply(partition);
+                } finally {
+                    clearEvaluatorsCache();
+                }
+            };
+            Future<R> future;
+            try {
+                future = Service.submit(callable, ServiceSession.getCurrentIdentity());
+            } catch (RejectedExecutionException ex) {
+                future = CompletableFuture.completedFuture(task.apply(partition));
+            }
+            futures.add(future);
+        }
+
+        List<R> result = new ArrayList<>();
+        result.add(task.apply(data.subList(0, Math.min(partitionSize, data.size()))));
+        for(Future<R> future : futures) {
+            try {
+                result.add(future.get());
+            } catch (ExecutionException ex) {
+                if(ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new HCJFRuntimeException("Parallel query evaluation fail", ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new HCJFRuntimeException("Parallel query evaluation interrupted", ex);
+            }
+        }
+        return result;
+    }
+
     /**
      * This method add into the current session an instance that must be skipped of the
      * platform evaluation process.
@@ -1106,38 +1352,27 @@ public class Query extends EvaluatorCollection implements Queryable {
                 join.getType().equals(Join.JoinType.INNER) ||
                 join.getType().equals(Join.JoinType.LEFT)) {
             if(join.getEvaluators().size() == 1) {
-                if(join.getEvaluators().stream().findFirst().get() instanceof Equals) {
-                    //the join was identified with only one equality (...ON resource1.field = resource2.field)
-                    Equals equals = (Equals) join.getEvaluators().stream().findFirst().get();
-                    if(equals.getLeftValue() instanceof QueryField && equals.getRightValue() instanceof QueryField) {
-                        QueryField foreignKey = null;
-                        QueryField key = null;
-                        if (!((QueryField) equals.getLeftValue()).getResource().equals(join.getResource()) &&
-                                ((QueryField) equals.getRightValue()).getResource().equals(join.getResource())) {
-                            foreignKey = (QueryField) equals.getLeftValue();
-                            key = getQueryField(join, (QueryField) equals.getRightValue());
-                        } else if (!((QueryField) equals.getRightValue()).getResource().equals(join.getResource()) &&
-                                ((QueryField) equals.getLeftValue()).getResource().equals(join.getResource())) {
-                            foreignKey = (QueryField) equals.getRightValue();
-                            key = getQueryField(join,(QueryField) equals.getLeftValue());
-                        }
-                        if(foreignKey != null && key != null) {
-                            Collection<Object> reducerList = new HashSet<>();
-                            for(Joinable currentObject : leftData) {
-                                Object foreignKeyValue = getFieldValue(currentObject, foreignKey);
-                                if(foreignKeyValue != null) {
-                                    reducerList.add(foreignKeyValue);
-                                }
-                            }
-                            In inEvaluator;
-                            if(join.getResource() instanceof QueryDynamicResource) {
-                                QueryField queryField = new QueryField(key.getContainer(), key.getFieldPath());
-                                inEvaluator = new In(queryField, reducerList);
-                            } else {
-                                inEvaluator = new In(key, reducerList);
+                //the join was identified with only one equality (...ON resource1.field = resource2.field)
+                QueryField[] equiJoinFields = getEquiJoinFields(join);
+                if(equiJoinFields != null) {
+                    QueryField foreignKey = equiJoinFields[0];
+                    QueryField key = getQueryField(join, equiJoinFields[1]);
+                    if(foreignKey != null && key != null) {
+                        Collection<Object> reducerList = new HashSet<>();
+                        for(Joinable currentObject : leftData) {
+                            Object foreignKeyValue = getFieldValue(currentObject, foreignKey);
+                            if(foreignKeyValue != null) {
+                                reducerList.add(foreignKeyValue);
                             }
-                            result.add(inEvaluator);
                         }
+                        In inEvaluator;
+                        if(join.getResource() instanceof QueryDynamicResource) {
+                            QueryField queryField = new QueryField(key.getContainer(), key.getFieldPath());
+                            inEvaluator = new In(queryField, reducerList);
+                        } else {
+                            inEvaluator = new In(key, reducerList);
+                        }
+                        result.add(inEvaluator);
                     }
                 }
             }
@@ -1178,6 +1413,9 @@ public class Query extends EvaluatorCollection implements Queryable {
 
     /**
      * Evaluates the join and creates the product of the intersection between the first resource and the second resource.
+     * If the join contains an equality between one field of each side (...ON resource1.field = resource2.field) then
+     * the product is resolved using a sort-merge strategy when both sides are ordered by the join key or a hash
+     * strategy in the otherwise, for any other kind of join the product is resolved using a nested loop.
      * @param left Left data to the product.
      * @param right Right data to the product.
      * @param join Join object to evaluate the kind and the evaluators of the product.
@@ -1187,84 +1425,372 @@ public class Query extends EvaluatorCollection implements Queryable {
      */
     private Collection<Joinable> product(Collection<? extends Joinable> left, Collection<? extends Joinable> right, Join join,
                                          Queryable.DataSource<? extends Joinable> dataSource, Queryable.Consumer<? extends Joinable> consumer) {
+        List<Joinable> leftList = new ArrayList<>(left);
+        List<Joinable> rightList = new ArrayList<>(right);
+        BitSet leftMatches = new BitSet(leftList.size());
+        BitSet rightMatches = new BitSet(rightList.size());
+        Collection<Joinable> result = new ArrayList<>();
 
-        Collection<Joinable> leftCopy = null;
-        Collection<Joinable> rightCopy = null;
-        switch (join.getType()) {
-            case LEFT: {
-                leftCopy = new ArrayList<>();
-                leftCopy.addAll(left);
-                break;
+        Object[] leftKeys = null;
+        Object[] rightKeys = null;
+        QueryField[] equiJoinFields = getEquiJoinFields(leftList, rightList, join);
+        if(equiJoinFields != null) {
+            leftKeys = getJoinKeys(leftList, equiJoinFields[0], join, true, dataSource, consumer);
+            if(leftKeys != null) {
+                rightKeys = getJoinKeys(rightList, equiJoinFields[1], join, false, dataSource, consumer);
             }
-            case RIGHT: {
-                rightCopy = new ArrayList<>();
-                rightCopy.addAll(right);
-                break;
+        }
+
+        if(leftKeys == null || rightKeys == null) {
+            nestedLoopProduct(leftList, rightList, join, dataSource, consumer, result, leftMatches, rightMatches);
+        } else if(isSortedByJoinKey(leftKeys) && isSortedByJoinKey(rightKeys)) {
+            mergeProduct(leftList, rightList, leftKeys, rightKeys, join, dataSource, consumer, result, leftMatches, rightMatches);
+        } else {
+            hashProduct(leftList, rightList, leftKeys, rightKeys, join, dataSource, consumer, result, leftMatches, rightMatches);
+        }
+
+        if(join.getType().equals(Join.JoinType.LEFT) || join.getType().equals(Join.JoinType.FULL)) {
+            for (int i = leftMatches.nextClearBit(0); i < leftList.size(); i = leftMatches.nextClearBit(i + 1)) {
+                result.add(leftList.get(i));
+            }
+        }
+        if(join.getType().equals(Join.JoinType.RIGHT) || join.getType().equals(Join.JoinType.FULL)) {
+            for (int i = rightMatches.nextClearBit(0); i < rightList.size(); i = rightMatches.nextClearBit(i + 1)) {
+                result.add(rightList.get(i));
             }
-            case FULL: {
-                leftCopy = new ArrayList<>();
-                leftCopy.addAll(left);
-                rightCopy = new ArrayList<>();
-                rightCopy.addAll(right);
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolves the product evaluating all the join evaluators for each pair of rows.
+     * @param left Left data to the product.
+     * @param right Right data to the product.
+     * @param join Join object to evaluate the kind and the evaluators of the product.
+     * @param dataSource Datasource instance.
+     * @param consumer Consumer instance.
+     * @param result Collection to store the joined rows.
+     * @param leftMatches Set of the left indexes that has at least one match.
+     * @param rightMatches Set of the right indexes that has at least one match.
+     */
+    private void nestedLoopProduct(List<Joinable> left, List<Joinable> right, Join join,
+                                   Queryable.DataSource<? extends Joinable> dataSource, Queryable.Consumer<? extends Joinable> consumer,
+                                   Collection<Joinable> result, BitSet leftMatches, BitSet rightMatches) {
+        for (int i = 0; i < left.size(); i++) {
+            for (int j = 0; j < right.size(); j++) {
+                joinRow(left, right, i, j, join, dataSource, consumer, result, leftMatches, rightMatches);
+            }
+        }
+    }
+
+    /**
+     * Resolves the product building a hash table with the keys of the smaller side and probing it with the keys
+     * of the other side. The rows are added into the result in the same order that the nested loop does it.
+     * @param left Left data to the product.
+     * @param right Right data to the product.
+     * @param leftKeys Join keys of the left data.
+     * @param rightKeys Join keys of the right data.
+     * @param join Join object to evaluate the kind and the evaluators of the product.
+     * @param dataSource Datasource instance.
+     * @param consumer Consumer instance.
+     * @param result Collection to store the joined rows.
+     * @param leftMatches Set of the left indexes that has at least one match.
+     * @param rightMatches Set of the right indexes that has at least one match.
+     */
+    private void hashProduct(List<Joinable> left, List<Joinable> right, Object[] leftKeys, Object[] rightKeys, Join join,
+                             Queryable.DataSource<? extends Joinable> dataSource, Queryable.Consumer<? extends Joinable> consumer,
+                             Collection<Joinable> result, BitSet leftMatches, BitSet rightMatches) {
+        boolean buildLeft = left.size() < right.size();
+        Object[] buildKeys = buildLeft ? leftKeys : rightKeys;
+        Object[] probeKeys = buildLeft ? rightKeys : leftKeys;
+
+        Map<Object,List<Integer>> table = new HashMap<>();
+        for (int i = 0; i < buildKeys.length; i++) {
+            table.computeIfAbsent(buildKeys[i], K -> new ArrayList<>()).add(i);
+        }
+
+        if(buildLeft) {
+            //The matches are collected for each left row in order to maintain the order of the nested loop.
+            List<Integer>[] matchesByLeft = new List[left.size()];
+            List<Integer> candidates;
+            for (int j = 0; j < probeKeys.length; j++) {
+                candidates = table.get(probeKeys[j]);
+                if(candidates != null) {
+                    for(Integer i : candidates) {
+                        if(matchesByLeft[i] == null) {
+                            matchesByLeft[i] = new ArrayList<>();
+                        }
+                        matchesByLeft[i].add(j);
+                    }
+                }
+            }
+            for (int i = 0; i < matchesByLeft.length; i++) {
+                if(matchesByLeft[i] != null) {
+                    for(Integer j : matchesByLeft[i]) {
+                        joinRow(left, right, i, j, join, dataSource, consumer, result, leftMatches, rightMatches);
+                    }
+                }
+            }
+        } else {
+            List<Integer> candidates;
+            for (int i = 0; i < probeKeys.length; i++) {
+                candidates = table.get(probeKeys[i]);
+                if(candidates != null) {
+                    for(Integer j : candidates) {
+                        joinRow(left, right, i, j, join, dataSource, consumer, result, leftMatches, rightMatches);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves the product walking both sides at the same time, this strategy is only valid if both sides are
+     * ordered by the join key.
+     * @param left Left data to the product.
+     * @param right Right data to the product.
+     * @param leftKeys Join keys of the left data.
+     * @param rightKeys Join keys of the right data.
+     * @param join Join object to evaluate the kind and the evaluators of the product.
+     * @param dataSource Datasource instance.
+     * @param consumer Consumer instance.
+     * @param result Collection to store the joined rows.
+     * @param leftMatches Set of the left indexes that has at least one match.
+     * @param rightMatches Set of the right indexes that has at least one match.
+     */
+    private void mergeProduct(List<Joinable> left, List<Joinable> right, Object[] leftKeys, Object[] rightKeys, Join join,
+                              Queryable.DataSource<? extends Joinable> dataSource, Queryable.Consumer<? extends Joinable> consumer,
+                              Collection<Joinable> result, BitSet leftMatches, BitSet rightMatches) {
+        int i = 0;
+        int j = 0;
+        int compareResult;
+        int rightRunEnd;
+        while(i < leftKeys.length && j < rightKeys.length) {
+            compareResult = compareJoinKeys(leftKeys[i], rightKeys[j]);
+            if(compareResult < 0) {
+                i++;
+            } else if(compareResult > 0) {
+                j++;
+            } else {
+                rightRunEnd = j;
+                while(rightRunEnd < rightKeys.length && compareJoinKeys(leftKeys[i], rightKeys[rightRunEnd]) == 0) {
+                    rightRunEnd++;
+                }
+                do {
+                    for (int k = j; k < rightRunEnd; k++) {
+                        joinRow(left, right, i, k, join, dataSource, consumer, result, leftMatches, rightMatches);
+                    }
+                    i++;
+                } while(i < leftKeys.length && compareJoinKeys(leftKeys[i], rightKeys[j]) == 0);
+                j = rightRunEnd;
+            }
+        }
+    }
+
+    /**
+     * Joins the rows indicated by the indexes and evaluates the join evaluators over the joined row, if the evaluation
+     * is true then the joined row is added into the result collection.
+     * @param left Left data to the product.
+     * @param right Right data to the product.
+     * @param leftIndex Index of the left row.
+     * @param rightIndex Index of the right row.
+     * @param join Join object to evaluate the kind and the evaluators of the product.
+     * @param dataSource Datasource instance.
+     * @param consumer Consumer instance.
+     * @param result Collection to store the joined rows.
+     * @param leftMatches Set of the left indexes that has at least one match.
+     * @param rightMatches Set of the right indexes that has at least one match.
+     */
+    private void joinRow(List<Joinable> left, List<Joinable> right, int leftIndex, int rightIndex, Join join,
+                         Queryable.DataSource<? extends Joinable> dataSource, Queryable.Consumer<? extends Joinable> consumer,
+                         Collection<Joinable> result, BitSet leftMatches, BitSet rightMatches) {
+        Joinable row = left.get(leftIndex).join(getResourceName(), join.getResourceName(), right.get(rightIndex));
+        boolean rowEvaluation = false;
+
+        for(Evaluator evaluator : join.getEvaluators()) {
+            if(!(rowEvaluation = evaluator.evaluate(row, dataSource, consumer))) {
                 break;
             }
         }
 
-        Collection<Joinable> result = new ArrayList<>();
-        Joinable row;
-        Boolean rowEvaluation;
-        for(Joinable leftJoinable : left) {
-            for(Joinable rightJoinable : right) {
-                row = leftJoinable.join(getResourceName(), join.getResourceName(), rightJoinable);
-                rowEvaluation = false;
-
-                for(Evaluator evaluator : join.getEvaluators()) {
-                    if(!(rowEvaluation = evaluator.evaluate(row, dataSource, consumer))) {
+        if(join.getOuter()) {
+            rowEvaluation = !rowEvaluation;
+        }
+
+        if(rowEvaluation) {
+            result.add(row);
+            leftMatches.set(leftIndex);
+            rightMatches.set(rightIndex);
+        }
+    }
+
+    /**
+     * Returns the pair of fields of the first equality between one field of each side of the join
+     * (...ON resource1.field = resource2.field).
+     * @param join Join structure.
+     * @return Returns an array where the first element is the field of the left side and the second element
+     * is the field of the right side of the join or null if the join has not an equality with this shape.
+     */
+    private QueryField[] getEquiJoinFields(Join join) {
+        QueryField[] result = null;
+        for(Evaluator evaluator : join.getEvaluators()) {
+            if(evaluator instanceof Equals) {
+                Equals equals = (Equals) evaluator;
+                if(equals.getLeftValue() instanceof QueryField && equals.getRightValue() instanceof QueryField) {
+                    QueryField leftField = (QueryField) equals.getLeftValue();
+                    QueryField rightField = (QueryField) equals.getRightValue();
+                    if (!leftField.getResource().equals(join.getResource()) && rightField.getResource().equals(join.getResource())) {
+                        result = new QueryField[]{leftField, rightField};
+                    } else if (!rightField.getResource().equals(join.getResource()) && leftField.getResource().equals(join.getResource())) {
+                        result = new QueryField[]{rightField, leftField};
+                    }
+                    if(result != null) {
                         break;
                     }
                 }
+            }
+        }
+        return result;
+    }
 
-                if(join.getOuter()) {
-                    rowEvaluation = !rowEvaluation;
+    /**
+     * Verify if the product between the left data and the right data can be resolved using the join keys, this is
+     * possible only if the join has an equality between fields of each side, the join is not an outer join and all
+     * the rows are joinable maps.
+     * @param left Left data to the product.
+     * @param right Right data to the product.
+     * @param join Join structure.
+     * @return Returns the pair of fields used to create the join keys or null if the product must be resolved
+     * using the nested loop.
+     */
+    private QueryField[] getEquiJoinFields(List<Joinable> left, List<Joinable> right, Join join) {
+        QueryField[] result = null;
+        if(!join.getOuter()) {
+            result = getEquiJoinFields(join);
+            if(result != null) {
+                for(QueryField field : result) {
+                    if(field.isUnderlying() || field.getResource().equals(QueryResource.ANY)) {
+                        result = null;
+                        break;
+                    }
                 }
-
-                if(rowEvaluation) {
-                    result.add(row);
-                    switch (join.getType()) {
-                        case LEFT: {
-                            leftCopy.remove(leftJoinable);
-                            break;
-                        }
-                        case RIGHT: {
-                            rightCopy.remove(rightJoinable);
-                            break;
-                        }
-                        case FULL: {
-                            leftCopy.remove(leftJoinable);
-                            rightCopy.remove(rightJoinable);
-                            break;
-                        }
+            }
+            if(result != null) {
+                for(Joinable joinable : left) {
+                    if(!(joinable instanceof JoinableMap)) {
+                        result = null;
+                        break;
+                    }
+                }
+            }
+            if(result != null) {
+                for(Joinable joinable : right) {
+                    if(!(joinable instanceof JoinableMap)) {
+                        result = null;
+                        break;
                     }
                 }
             }
         }
+        return result;
+    }
 
-        switch (join.getType()) {
-            case LEFT: {
-                result.addAll(leftCopy);
-                break;
+    /**
+     * Creates the join keys for each row of one side of the join. The field is resolved over a joined row with an
+     * empty counterpart in order to resolve the same value that the join evaluator resolves over the real joined row.
+     * @param rows Rows of one side of the join.
+     * @param field Field to create the key.
+     * @param join Join structure.
+     * @param leftSide True if the rows are the left side of the join.
+     * @param dataSource Datasource instance.
+     * @param consumer Consumer instance.
+     * @return Array with the normalized key for each row or null if some key is a number that can't be normalized.
+     */
+    private Object[] getJoinKeys(List<Joinable> rows, QueryField field, Join join, boolean leftSide,
+                                 Queryable.DataSource dataSource, Queryable.Consumer consumer) {
+        Object[] result = new Object[rows.size()];
+        Joinable row;
+        for (int i = 0; i < rows.size(); i++) {
+            if(leftSide) {
+                row = rows.get(i).join(getResourceName(), join.getResourceName(), new JoinableMap());
+            } else {
+                row = new JoinableMap().join(getResourceName(), join.getResourceName(), rows.get(i));
             }
-            case RIGHT: {
-                result.addAll(rightCopy);
+            result[i] = normalizeJoinKey(consumer.get(row, field, dataSource));
+            if(result[i] instanceof Number && !(result[i] instanceof Long) && !(result[i] instanceof Double)) {
+                //Numbers like big decimals are compared by the evaluator in a way that can't be hashed.
+                result = null;
                 break;
             }
-            case FULL: {
-                result.addAll(leftCopy);
-                result.addAll(rightCopy);
-                break;
+        }
+        return result;
+    }
+
+    /**
+     * Normalize the join key in order to obtain the same hash code for all the values that the {@link Equals}
+     * evaluator considers equals.
+     * @param value Value to normalize.
+     * @return Normalized value.
+     */
+    private Object normalizeJoinKey(Object value) {
+        Object result = value;
+        if(value instanceof Double || value instanceof Float) {
+            double doubleValue = ((Number) value).doubleValue();
+            if(doubleValue == Math.rint(doubleValue) && !Double.isInfinite(doubleValue) &&
+                    doubleValue >= Long.MIN_VALUE && doubleValue <= Long.MAX_VALUE) {
+                result = (long) doubleValue;
+            } else {
+                result = doubleValue;
             }
+        } else if(value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long) {
+            result = ((Number) value).longValue();
+        } else if(value instanceof Enum) {
+            result = value.toString();
         }
+        return result;
+    }
 
+    /**
+     * Verify if the keys are ordered in order to use the sort-merge strategy.
+     * @param keys Normalized keys.
+     * @return Returns true if all the keys are comparable and are ordered.
+     */
+    private boolean isSortedByJoinKey(Object[] keys) {
+        boolean result = true;
+        for (int i = 0; i < keys.length && result; i++) {
+            if(keys[i] instanceof Number) {
+                result = !(keys[i] instanceof Double) || !((Double)keys[i]).isNaN();
+            } else {
+                result = keys[i] instanceof String;
+            }
+            if(result && i > 0) {
+                result = (keys[i] instanceof String) == (keys[i - 1] instanceof String) &&
+                        compareJoinKeys(keys[i - 1], keys[i]) <= 0;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compare two normalized keys, both keys must be numbers or strings.
+     * @param key1 First key.
+     * @param key2 Second key.
+     * @return Comparison result.
+     */
+    private int compareJoinKeys(Object key1, Object key2) {
+        int result;
+        if(key1 instanceof Number && key2 instanceof Number) {
+            if(key1 instanceof Long && key2 instanceof Long) {
+                result = ((Long) key1).compareTo((Long) key2);
+            } else {
+                result = Double.compare(((Number) key1).doubleValue(), ((Number) key2).doubleValue());
+            }
+        } else if(key1 instanceof String && key2 instanceof String) {
+            result = ((String) key1).compareTo((String) key2);
+        } else {
+            result = key1 instanceof Number ? -1 : 1;
+        }
         return result;
     }
 
@@ -1338,6 +1864,47 @@ public class Query extends EvaluatorCollection implements Queryable {
     }
 
 
+    /**
+     * Returns a copy of this query with its own instances of field evaluators, the copy shares with this query the
+     * parameters, joins and unions because these objects are not modified during the evaluation.
+     * @return Copy of the query.
+     */
+    public final Query copy() {
+        Query copy = new Query(this);
+        copyCollection(copy, this);
+        copy.underlyingLimit = this.underlyingLimit;
+        copy.underlyingStart = this.underlyingStart;
+        copy.disjoint = this.disjoint;
+        if(this.environment != null) {
+            copy.environment = new HashMap<>(this.environment);
+        }
+        if(this.underlyingFunctions != null) {
+            copy.underlyingFunctions = new HashMap<>(this.underlyingFunctions);
+        }
+        return copy;
+    }
+
+    /**
+     * Copy recursively all the evaluators of the source collection into the destiny collection.
+     * @param dest Destiny collection.
+     * @param src Source collection.
+     */
+    private void copyCollection(EvaluatorCollection dest, EvaluatorCollection src) {
+        for(Evaluator evaluator : src.getEvaluators()) {
+            if(evaluator instanceof Not) {
+                dest.addEvaluator(new Not(((Not) evaluator).getLeftValue()));
+            } else if(evaluator instanceof FieldEvaluator) {
+                dest.addEvaluator(((FieldEvaluator) evaluator).copy());
+            } else if(evaluator instanceof And) {
+                copyCollection(dest.and(), (EvaluatorCollection) evaluator);
+            } else if(evaluator instanceof Or) {
+                copyCollection(dest.or(), (EvaluatorCollection) evaluator);
+            } else {
+                dest.addEvaluator(evaluator);
+            }
+        }
+    }
+
     public final Query reduceFieldEvaluator(String fieldName, Class<? extends FieldEvaluator>... evaluatorType) {
         return reduce(getFieldEvaluators(fieldName, evaluatorType));
     }
@@ -1458,4 +2025,225 @@ public class Query extends EvaluatorCollection implements Queryable {
         return (obj instanceof Query) && obj.toString().equals(toString());
     }
 
+    /**
+     * Receives the rows accepted by the evaluation process.
+     * @param <O> Kind of the rows.
+     */
+    private interface RowSink<O extends Object> {
+
+        /**
+         * Accepts a formatted row.
+         * @param object Formatted row.
+         * @param groupKey Group key of the row or null if the row is not grouped.
+         * @param groupKeyValues Values of the group parameters or null if the row is not grouped.
+         */
+        void accept(O object, String groupKey, Map<String,Object> groupKeyValues);
+
+    }
+
+    /**
+     * Statistics of the evaluation process.
+     */
+    private static final class EvaluationStats {
+
+        private final Set<String> presentFields;
+        private Integer evaluatingCount;
+        private Integer formattingCount;
+        private Long timeEvaluatingConditions;
+        private Long timeFormattingData;
+
+        private EvaluationStats(Set<String> presentFields) {
+            this.presentFields = presentFields;
+            this.evaluatingCount = 0;
+            this.formattingCount = 0;
+            this.timeEvaluatingConditions = 0L;
+            this.timeFormattingData = 0L;
+        }
+
+        /**
+         * Adds the statistics of other evaluation into this instance.
+         * @param stats Statistics to add.
+         */
+        private void add(EvaluationStats stats) {
+            presentFields.addAll(stats.presentFields);
+            evaluatingCount += stats.evaluatingCount;
+            formattingCount += stats.formattingCount;
+            timeEvaluatingConditions += stats.timeEvaluatingConditions;
+            timeFormattingData += stats.timeFormattingData;
+        }
+    }
+
+    /**
+     * Collects the rows accepted in a partition in order to merge them into the result
+     * of the query after the evaluation of all the partitions.
+     * @param <O> Kind of the rows.
+     */
+    private static final class PartitionResult<O extends Object> implements RowSink<O> {
+
+        private final EvaluationStats stats;
+        private final List<O> objects;
+        private final List<String> groupKeys;
+        private final List<Map<String,Object>> groupKeyValues;
+
+        private PartitionResult() {
+            this.stats = new EvaluationStats(new TreeSet<>());
+            this.objects = new ArrayList<>();
+            this.groupKeys = new ArrayList<>();
+            this.groupKeyValues = new ArrayList<>();
+        }
+
+        @Override
+        public void accept(O object, String groupKey, Map<String, Object> groupKeyValues) {
+            this.objects.add(object);
+            this.groupKeys.add(groupKey);
+            this.groupKeyValues.add(groupKeyValues);
+        }
+
+        /**
+         * Returns the statistics of the partition.
+         * @return Statistics of the partition.
+         */
+        private EvaluationStats getStats() {
+            return stats;
+        }
+
+        /**
+         * Sends all the collected rows to other sink in the same order that they was collected.
+         * @param sink Destination sink.
+         */
+        private void replay(RowSink<O> sink) {
+            for (int i = 0; i < objects.size(); i++) {
+                sink.accept(objects.get(i), groupKeys.get(i), groupKeyValues.get(i));
+            }
+        }
+    }
+
+    /**
+     * This iterator evaluates the conditions of the query over each object of the data source while the
+     * iterator is consumed. The evaluators cache of the query is kept by the iterator and it is put into the
+     * session only while the iterator is reading the data source.
+     * @param <O> Kind of instances of the data collection.
+     */
+    private final class QueryIterator<O extends Object> implements Iterator<O> {
+
+        private final Queryable.DataSource<O> dataSource;
+        private final Queryable.Consumer<O> consumer;
+        private final ServiceSession session;
+        private final List<Evaluator> evaluatorsCache;
+        private final Map<Evaluator,Object> leftValuesCache;
+        private final Map<Evaluator,Object> rightValuesCache;
+        private final List<String> returnParametersAsArray;
+        private final Set<String> presentFields;
+        private Iterator<O> data;
+        private O next;
+        private int skipped;
+        private int returned;
+        private boolean done;
+
+        public QueryIterator(Queryable.DataSource<O> dataSource, Queryable.Consumer<O> consumer) {
+            this.dataSource = dataSource;
+            this.consumer = consumer;
+            if(Thread.currentThread() instanceof ServiceThread) {
+                this.session = ServiceSession.getCurrentIdentity();
+            } else {
+                this.session = ServiceSession.getGuestSession();
+            }
+            this.evaluatorsCache = new ArrayList<>();
+            this.leftValuesCache = new HashMap<>();
+            this.rightValuesCache = new HashMap<>();
+            this.returnParametersAsArray = new ArrayList<>();
+            for (QueryReturnParameter returnParameter : getReturnParameters()) {
+                returnParametersAsArray.add(returnParameter.getAlias());
+            }
+            this.presentFields = new TreeSet<>();
+        }
+
+        /**
+         * Verify if there are more objects that verify the conditions of the query, reading the data
+         * source until the next object is found.
+         * @return Returns true if there are more objects and false in the otherwise.
+         */
+        @Override
+        public boolean hasNext() {
+            if(next == null && !done) {
+                if(Thread.currentThread() instanceof ServiceThread) {
+                    advance();
+                } else {
+                    //If the current thread is not a service thread then we call this
+                    //method again using a service thread.
+                    Service.call(() -> {
+                        advance();
+                        return null;
+                    }, session);
+                }
+            }
+            return next != null;
+        }
+
+        /**
+         * Returns the next object that verifies the conditions of the query.
+         * @return Next object.
+         */
+        @Override
+        public O next() {
+            if(!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            O result = next;
+            next = null;
+            return result;
+        }
+
+        /**
+         * Reads the data source until the next object that verifies the conditions is found, the start
+         * and limit values of the query are applied over the filtered objects.
+         */
+        private void advance() {
+            setEvaluatorsCache(evaluatorsCache, leftValuesCache, rightValuesCache);
+            try {
+                if(data == null) {
+                    data = getData();
+                }
+                O object;
+                while (next == null && (getLimit() == null || returned < getLimit()) && data.hasNext()) {
+                    object = data.next();
+                    if(verifyCondition(object, dataSource, consumer)) {
+                        if(skipped < getStart()) {
+                            skipped++;
+                        } else {
+                            object = format(object, returnParametersAsArray, presentFields, dataSource, consumer);
+                            if(object instanceof Enlarged && !returnAll) {
+                                ((Enlarged)object).purge();
+                            }
+                            next = object;
+                            returned++;
+                        }
+                    }
+                }
+                done = next == null;
+            } finally {
+                clearEvaluatorsCache();
+            }
+        }
+
+        /**
+         * Creates the iterator over the data of the query resource.
+         * @return Data iterator.
+         */
+        private Iterator<O> getData() {
+            Iterator<O> result;
+            if(getResource() instanceof QueryDynamicResource) {
+                Query dynamicResourceQuery =  ((QueryDynamicResource)getResource()).getQuery();
+                dynamicResourceQuery.setUnderlyingFunctions(getUnderlyingFunctionsAndChangeName(getResourceName(), dynamicResourceQuery.getResourceName()));
+                result = ((Collection<O>) resolveDynamicResource((QueryDynamicResource) getResource(),
+                        (DataSource<Joinable>) dataSource, (Consumer<Joinable>) consumer)).iterator();
+            } else if(getResource() instanceof QueryJsonResource) {
+                result = ((Collection<O>) ((QueryJsonResource)getResource()).getResourceValues()).iterator();
+            } else {
+                result = dataSource.getResourceIterator(verifyInstance(createResolveQuery(), consumer));
+            }
+            return result;
+        }
+    }
+
 }
@@ -0,0 +1,484 @@
+package org.hcjf.layers.query;
+
+import org.hcjf.bson.BsonDecoder;
+import org.hcjf.bson.BsonDocument;
+import org.hcjf.bson.BsonEncoder;
+import org.hcjf.errors.HCJFRuntimeException;
+import org.hcjf.layers.query.model.QueryOrderFunction;
+import org.hcjf.layers.query.model.QueryOrderParameter;
+import org.hcjf.layers.query.model.QueryParameter;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * This class sorts the objects of a query result using the order parameters of the query. The values of the order
+ * parameters are resolved only once for each object, when the object is added into the sorter. If the query has a
+ * limit then the sorter only retains the first rows of the result and if the result exceeds the memory budget then
+ * the sorted rows are spilled into temporal files and merged at the end.
+ * @param <O> Kind of the objects to sort.
+ * @author javaito
+ */
+public final class QuerySorter<O extends Object> {
+
+    private static final String SPILL_FILE_PREFIX = "hcjf-query-sort";
+    private static final String SPILL_FILE_SUFFIX = ".tmp";
+    private static final String KEYS_FIELD = "k";
+    private static final String HASH_FIELD = "h";
+    private static final String SEQUENCE_FIELD = "s";
+    private static final String VALUE_FIELD = "v";
+
+    private final List<QueryOrderParameter> orderParameters;
+    private final Queryable.DataSource<O> dataSource;
+    private final Queryable.Consumer<O> consumer;
+    private final int start;
+    private final Integer limit;
+    private final boolean windowed;
+    private final int memoryBudget;
+    private final Comparator<Entry<O>> comparator;
+    private final TreeSet<Entry<O>> topEntries;
+    private final List<Entry<O>> entries;
+    private final List<File> runs;
+    private boolean spillable;
+    private long sequence;
+
+    /**
+     * Creates a sorter instance using the memory budget configured into the system properties.
+     * @param orderParameters Order parameters of the query.
+     * @param start Number of rows to skip, this value is used only if the sorter is windowed.
+     * @param limit Max number of rows, this value is used only if the sorter is windowed.
+     * @param windowed True if the sorter can apply the start and limit values over the result.
+     * @param dataSource Data source of the query.
+     * @param consumer Consumer of the query.
+     */
+    public QuerySorter(List<QueryOrderParameter> orderParameters, Integer start, Integer limit, boolean windowed,
+                       Queryable.DataSource<O> dataSource, Queryable.Consumer<O> consumer) {
+        this(orderParameters, start, limit, windowed, dataSource, consumer,
+                SystemProperties.getInteger(SystemProperties.Query.ORDER_MEMORY_BUDGET));
+    }
+
+    /**
+     * Creates a sorter instance.
+     * @param orderParameters Order parameters of the query.
+     * @param start Number of rows to skip, this value is used only if the sorter is windowed.
+     * @param limit Max number of rows, this value is used only if the sorter is windowed.
+     * @param windowed True if the sorter can apply the start and limit values over the result.
+     * @param dataSource Data source of the query.
+     * @param consumer Consumer of the query.
+     * @param memoryBudget Max number of rows retained into the memory before spill the rows into a file.
+     */
+    public QuerySorter(List<QueryOrderParameter> orderParameters, Integer start, Integer limit, boolean windowed,
+                       Queryable.DataSource<O> dataSource, Queryable.Consumer<O> consumer, int memoryBudget) {
+        this.orderParameters = orderParameters;
+        this.dataSource = dataSource;
+        this.consumer = consumer;
+        this.start = start == null ? 0 : start;
+        this.limit = limit;
+        this.windowed = windowed;
+        this.memoryBudget = memoryBudget;
+        this.comparator = this::compare;
+        if(windowed && limit != null && ((long)this.start + limit) <= memoryBudget) {
+            this.topEntries = new TreeSet<>(comparator);
+            this.entries = null;
+        } else {
+            this.topEntries = null;
+            this.entries = new ArrayList<>();
+        }
+        this.runs = new ArrayList<>();
+        this.spillable = windowed;
+    }
+
+    /**
+     * Returns true if the result of the sorter contains only the rows indicated by the start and limit values.
+     * @return Windowed value.
+     */
+    public boolean isWindowed() {
+        return windowed;
+    }
+
+    /**
+     * Adds an object into the sorter, in this moment all the values of the order parameters are resolved for
+     * the object.
+     * @param object Object to add.
+     */
+    public void add(O object) {
+        Object[] keys = new Object[orderParameters.size()];
+        int index = 0;
+        for (QueryOrderParameter orderField : orderParameters) {
+            if (orderField instanceof QueryOrderFunction) {
+                keys[index++] = consumer.resolveFunction(((QueryOrderFunction) orderField), object, dataSource);
+            } else {
+                keys[index++] = consumer.get(object, (QueryParameter) orderField, dataSource);
+            }
+        }
+        Entry<O> entry = new Entry<>(keys, object.hashCode(), sequence++, object);
+
+        if(topEntries != null) {
+            int size = start + limit;
+            if(topEntries.size() < size) {
+                topEntries.add(entry);
+            } else if(size > 0 && comparator.compare(entry, topEntries.last()) < 0) {
+                if(topEntries.add(entry)) {
+                    topEntries.pollLast();
+                }
+            }
+        } else {
+            entries.add(entry);
+            if(spillable && entries.size() > memoryBudget) {
+                spill();
+            }
+        }
+    }
+
+    /**
+     * Adds all the objects of the collection into the sorter.
+     * @param objects Objects to add.
+     */
+    public void addAll(Collection<? extends O> objects) {
+        for(O object : objects) {
+            add(object);
+        }
+    }
+
+    /**
+     * Returns the sorted list of objects, if the sorter is windowed then the list contains only the objects
+     * between the start and limit values.
+     * @return Sorted list.
+     */
+    public List<O> getResult() {
+        List<O> result = new ArrayList<>();
+        if(topEntries != null) {
+            int index = 0;
+            for(Entry<O> entry : topEntries) {
+                if(index++ >= start) {
+                    result.add(entry.getObject());
+                }
+            }
+        } else if(runs.isEmpty()) {
+            entries.sort(comparator);
+            Entry<O> last = null;
+            int index = 0;
+            for(Entry<O> entry : entries) {
+                //The entries with the same order values and hash code are the same object for the sorter.
+                if(last == null || comparator.compare(last, entry) != 0) {
+                    if(!windowed || (index >= start && (limit == null || result.size() < limit))) {
+                        result.add(entry.getObject());
+                    }
+                    index++;
+                }
+                last = entry;
+            }
+        } else {
+            if(spillable) {
+                spill();
+            }
+            result = merge();
+        }
+        return result;
+    }
+
+    /**
+     * Sorts the entries into the memory and writes all of them into a new temporal file.
+     */
+    private void spill() {
+        List<byte[]> encodedEntries = new ArrayList<>();
+        try {
+            entries.sort(comparator);
+            for(Entry<O> entry : entries) {
+                if(!(entry.getObject() instanceof JoinableMap)) {
+                    throw new IllegalArgumentException("Only joinable maps can be spilled");
+                }
+                encodedEntries.add(BsonEncoder.encode(entry.toBson()));
+            }
+        } catch (Exception ex) {
+            //If some entry can't be encoded then all the entries are retained into the memory.
+            spillable = false;
+            encodedEntries = null;
+        }
+
+        if(encodedEntries != null) {
+            File run = null;
+            try {
+                run = File.createTempFile(SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX);
+                run.deleteOnExit();
+                try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run)))) {
+                    for (byte[] encodedEntry : encodedEntries) {
+                        outputStream.writeInt(encodedEntry.length);
+                        outputStream.write(encodedEntry);
+                    }
+                }
+                runs.add(run);
+                entries.clear();
+            } catch (IOException ex) {
+                Log.w(SystemProperties.get(SystemProperties.Query.LOG_TAG), "Unable to spill the sorted rows", ex);
+                if(run != null) {
+                    run.delete();
+                }
+                spillable = false;
+            }
+        }
+    }
+
+    /**
+     * Merges all the sorted files and the entries retained into the memory, and returns the objects
+     * between the start and limit values.
+     * @return Sorted list.
+     */
+    private List<O> merge() {
+        List<O> result = new ArrayList<>();
+        List<Run<O>> readers = new ArrayList<>();
+        PriorityQueue<Run<O>> queue = new PriorityQueue<>((R1, R2) -> {
+            int compareResult = comparator.compare(R1.getCurrent(), R2.getCurrent());
+            if(compareResult == 0) {
+                compareResult = Long.compare(R1.getCurrent().getSequence(), R2.getCurrent().getSequence());
+            }
+            return compareResult;
+        });
+        try {
+            for(File run : runs) {
+                RunReader<O> reader = new RunReader<>(run);
+                readers.add(reader);
+                if(reader.next()) {
+                    queue.add(reader);
+                }
+            }
+
+            //The entries that could not be spilled are merged as one more run.
+            if(!entries.isEmpty()) {
+                entries.sort(comparator);
+                MemoryRun<O> memoryRun = new MemoryRun<>(entries);
+                readers.add(memoryRun);
+                if(memoryRun.next()) {
+                    queue.add(memoryRun);
+                }
+            }
+
+            //Merges entries from the queue entries, removing all the entries that are the same object for the sorter.
+            Entry<O> last = null;
+            int index = 0;
+            Run<O> reader;
+            while(!queue.isEmpty() && (limit == null || result.size() < limit)) {
+                reader = queue.poll();
+                if(last == null || comparator.compare(last, reader.getCurrent()) != 0) {
+                    if(index++ >= start) {
+                        result.add(reader.getCurrent().getObject());
+                    }
+                    last = reader.getCurrent();
+                }
+                if(reader.next()) {
+                    queue.add(reader);
+                }
+            }
+        } catch (IOException ex) {
+            throw new HCJFRuntimeException("Unable to merge the sorted rows", ex);
+        } finally {
+            for(Run<O> reader : readers) {
+                reader.close();
+            }
+            for(File run : runs) {
+                run.delete();
+            }
+            runs.clear();
+        }
+        return result;
+    }
+
+    /**
+     * Compares two entries using the order values and the hash code of the objects.
+     * @param entry1 First entry.
+     * @param entry2 Second entry.
+     * @return Compare result.
+     */
+    private int compare(Entry<O> entry1, Entry<O> entry2) {
+        int compareResult = 0;
+        Comparable<Object> comparable1;
+        Comparable<Object> comparable2;
+        for (int i = 0; i < orderParameters.size(); i++) {
+            try {
+                comparable1 = (Comparable<Object>) entry1.getKeys()[i];
+                comparable2 = (Comparable<Object>) entry2.getKeys()[i];
+            } catch (ClassCastException ex) {
+                throw new HCJFRuntimeException("Order field must be comparable");
+            }
+
+            if (comparable1 == null ^ comparable2 == null) {
+                compareResult = (comparable1 == null) ? -1 : 1;
+            } else if (comparable1 == null && comparable2 == null) {
+                compareResult = 0;
+            } else {
+                compareResult = comparable1.compareTo(comparable2) * (orderParameters.get(i).isDesc() ? -1 : 1);
+            }
+
+            if (compareResult != 0) {
+                break;
+            }
+        }
+
+        if (compareResult == 0) {
+            compareResult = Integer.compare(entry1.getHash(), entry2.getHash());
+        }
+
+        return compareResult;
+    }
+
+    /**
+     * Object added into the sorter with the values of the order parameters.
+     * @param <O> Kind of the object.
+     */
+    private static final class Entry<O extends Object> {
+
+        private final Object[] keys;
+        private final int hash;
+        private final long sequence;
+        private final O object;
+
+        public Entry(Object[] keys, int hash, long sequence, O object) {
+            this.keys = keys;
+            this.hash = hash;
+            this.sequence = sequence;
+            this.object = object;
+        }
+
+        public Object[] getKeys() {
+            return keys;
+        }
+
+        public int getHash() {
+            return hash;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public O getObject() {
+            return object;
+        }
+
+        /**
+         * Creates a bson document with all the information of the entry.
+         * @return Bson document.
+         */
+        public BsonDocument toBson() {
+            Map<String,Object> entryMap = new HashMap<>();
+            entryMap.put(KEYS_FIELD, Arrays.asList(keys));
+            entryMap.put(HASH_FIELD, hash);
+            entryMap.put(SEQUENCE_FIELD, sequence);
+            entryMap.put(VALUE_FIELD, ((JoinableMap) object).purgedCopy());
+            return new BsonDocument(entryMap);
+        }
+
+        /**
+         * Creates an entry from the bson document.
+         * @param document Bson document.
+         * @param <O> Kind of the object.
+         * @return Entry instance.
+         */
+        public static <O extends Object> Entry<O> fromBson(BsonDocument document) {
+            Map<String,Object> entryMap = document.toMap();
+            List<Object> keys = (List<Object>) entryMap.get(KEYS_FIELD);
+            return new Entry<>(keys.toArray(), ((Number) entryMap.get(HASH_FIELD)).intValue(),
+                    ((Number) entryMap.get(SEQUENCE_FIELD)).longValue(),
+                    (O) new JoinableMap((Map<String, Object>) entryMap.get(VALUE_FIELD)));
+        }
+    }
+
+    /**
+     * Sequential reader of sorted entries.
+     * @param <O> Kind of the objects.
+     */
+    private interface Run<O extends Object> {
+
+        Entry<O> getCurrent();
+
+        boolean next() throws IOException;
+
+        void close();
+
+    }
+
+    /**
+     * Sequential reader of the sorted entries retained into the memory.
+     * @param <O> Kind of the objects.
+     */
+    private static final class MemoryRun<O extends Object> implements Run<O> {
+
+        private final Iterator<Entry<O>> iterator;
+        private Entry<O> current;
+
+        public MemoryRun(List<Entry<O>> entries) {
+            this.iterator = entries.iterator();
+        }
+
+        @Override
+        public Entry<O> getCurrent() {
+            return current;
+        }
+
+        @Override
+        public boolean next() {
+            current = iterator.hasNext() ? iterator.next() : null;
+            return current != null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Sequential reader of a sorted file.
+     * @param <O> Kind of the objects.
+     */
+    private static final class RunReader<O extends Object> implements Run<O> {
+
+        private final DataInputStream inputStream;
+        private Entry<O> current;
+
+        public RunReader(File run) throws IOException {
+            this.inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(run)));
+        }
+
+        /**
+         * Returns the current entry of the reader.
+         * @return Current entry.
+         */
+        @Override
+        public Entry<O> getCurrent() {
+            return current;
+        }
+
+        /**
+         * Reads the next entry of the file.
+         * @return Returns false if the file has not more entries.
+         * @throws IOException Io exception.
+         */
+        @Override
+        public boolean next() throws IOException {
+            boolean result;
+            try {
+                byte[] encodedEntry = new byte[inputStream.readInt()];
+                inputStream.readFully(encodedEntry);
+                current = Entry.fromBson(BsonDecoder.decode(encodedEntry));
+                result = true;
+            } catch (EOFException ex) {
+                current = null;
+                result = false;
+            }
+            return result;
+        }
+
+        /**
+         * Closes the file.
+         */
+        @Override
+        public void close() {
+            try {
+                inputStream.close();
+            } catch (IOException ex) {
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.hcjf.layers.query;
 
 import org.hcjf.errors.HCJFRuntimeException;
+import org.hcjf.layers.LayerInterface;
 import org.hcjf.layers.Layers;
 import org.hcjf.layers.crud.ReadRowsLayerInterface;
 import org.hcjf.layers.query.evaluators.BaseEvaluator;
@@ -82,6 +83,31 @@ public interface Queryable extends BsonParcelable {
      */
     <O extends Object> Collection<O> evaluate(DataSource<O> dataSource, Consumer<O> consumer);
 
+    /**
+     * This method returns an iterator that evaluates the query row by row while the iterator is consumed.
+     * The default implementation evaluates the complete result set and returns its iterator.
+     * @param dataSource Data source to evaluate the query.
+     * @param <O> Kind of instances of the data collection.
+     * @return Iterator with the filtered objects.
+     */
+    default <O extends Object> Iterator<O> iterate(DataSource<O> dataSource) {
+        return evaluate(dataSource).iterator();
+    }
+
+    /**
+     * This method returns an iterator that evaluates the query row by row while the iterator is consumed.
+     * If the query contains joins, unions, order or group parameters or aggregate functions then the
+     * result is evaluated completely before to return the iterator.
+     * The default implementation evaluates the complete result set and returns its iterator.
+     * @param dataSource Data source to evaluate the query.
+     * @param consumer Data source consumer.
+     * @param <O> Kind of instances of the data collection.
+     * @return Iterator with the filtered objects.
+     */
+    default <O extends Object> Iterator<O> iterate(DataSource<O> dataSource, Consumer<O> consumer) {
+        return evaluate(dataSource, consumer).iterator();
+    }
+
     /**
      * This class provides an interface to consume a
      * different collection of naming data to be useful in evaluation
@@ -110,6 +136,20 @@ public interface Queryable extends BsonParcelable {
          */
         <R extends Object> R resolveFunction(QueryFunction function, Object instance, DataSource<O> dataSource);
 
+        /**
+         * This method returns an accumulator to evaluate the aggregate function over partitions of the result set.
+         * The default implementation returns null, that means that the function must be resolved over the complete
+         * result set using the method resolveFunction.
+         * @param function Aggregate function.
+         * @param resultSet Complete result set.
+         * @param dataSource Data source.
+         * @return Accumulator instance or null if the function is not combinable.
+         */
+        default QueryAggregateFunctionLayerInterface.Accumulator resolveAggregateAccumulator(
+                QueryReturnFunction function, Collection resultSet, DataSource<O> dataSource) {
+            return null;
+        }
+
         /**
          * This method must returns the parameter for the place indicated as parameter.
          * @param place Place value.
@@ -200,6 +240,17 @@ public interface Queryable extends BsonParcelable {
          */
         Collection<O> getResourceData(Queryable queryable);
 
+        /**
+         * This method returns an iterator over the data of the resource, the implementations that can produce
+         * the data lazily should override this method in order to avoid read all the data when the consumer
+         * of the iterator doesn't need all the rows.
+         * @param queryable Query object.
+         * @return Data iterator from the resource.
+         */
+        default Iterator<O> getResourceIterator(Queryable queryable) {
+            return getResourceData(queryable).iterator();
+        }
+
     }
 
     abstract class DefaultConsumer <O extends Object> implements Consumer<O> {
@@ -212,15 +263,137 @@ public interface Queryable extends BsonParcelable {
          */
         @Override
         public <R extends Object> R resolveFunction(QueryFunction function, Object instance, DataSource<O> dataSource) {
-            List<Object> parameterValues = new ArrayList<>();
+            QueryFunction.Binding binding = getBinding(function);
+
+            R result;
+            if(isAggregate(function)) {
+                Object[] parameterValues = resolveFunctionParameters(function, instance, dataSource,
+                        new Object[binding.getArgumentsSize()]);
+                QueryAggregateFunctionLayerInterface queryAggregateFunctionLayerInterface = getFunctionLayer(function, binding);
+                String alias = getAggregateFunctionAlias((QueryReturnFunction) function);
+                result = (R) queryAggregateFunctionLayerInterface.evaluate(alias, (Collection) instance, parameterValues);
+            } else {
+                Object[] parameterValues = resolveFunctionParameters(function, instance, dataSource,
+                        new Object[binding.getArgumentsSize()]);
+                QueryFunctionLayerInterface queryFunctionLayerInterface = getFunctionLayer(function, binding);
+                result = (R) queryFunctionLayerInterface.evaluate(function.getFunctionName(), parameterValues);
+            }
+            return result;
+        }
+
+        /**
+         * Resolves the parameters of the aggregate function and creates the accumulator using the function layer.
+         * @param function Aggregate function.
+         * @param resultSet Complete result set.
+         * @param dataSource Data source.
+         * @return Accumulator instance or null if the function is not combinable.
+         */
+        @Override
+        public QueryAggregateFunctionLayerInterface.Accumulator resolveAggregateAccumulator(
+                QueryReturnFunction function, Collection resultSet, DataSource<O> dataSource) {
+            QueryFunction.Binding binding = getBinding(function);
+            Object[] parameterValues = resolveFunctionParameters(function, resultSet, dataSource,
+                    new Object[binding.getArgumentsSize()]);
+            QueryAggregateFunctionLayerInterface queryAggregateFunctionLayerInterface = getFunctionLayer(function, binding);
+            return queryAggregateFunctionLayerInterface.createAccumulator(getAggregateFunctionAlias(function), parameterValues);
+        }
+
+        /**
+         * Returns the binding of the function, if the function is not bound yet or the layers registry changed since
+         * the function was bound then the function is bound again. The layer instance is stored into the binding only
+         * if the layer is stateful, otherwise the layer is resolved for each evaluation.
+         * @param function Query function.
+         * @return Binding instance.
+         */
+        private QueryFunction.Binding getBinding(QueryFunction function) {
+            QueryFunction.Binding result = function.getBinding();
+            long version = Layers.getVersion();
+            if(result == null || result.getVersion() != version) {
+                LayerInterface layer = resolveFunctionLayer(function);
+                int argumentsSize = 0;
+                for(Object parameter : function.getParameters()) {
+                    if(parameter != null) {
+                        argumentsSize++;
+                    }
+                }
+                result = new QueryFunction.Binding(layer.isStateful() ? layer : null, version, argumentsSize);
+                function.setBinding(result);
+            }
+            return result;
+        }
+
+        /**
+         * Returns the layer implementation of the function using the binding if it's possible.
+         * @param function Query function.
+         * @param binding Binding of the function.
+         * @param <L> Expected layer interface.
+         * @return Layer implementation.
+         */
+        private <L extends LayerInterface> L getFunctionLayer(QueryFunction function, QueryFunction.Binding binding) {
+            L result = (L) binding.getLayer();
+            if(result == null) {
+                result = resolveFunctionLayer(function);
+            }
+            return result;
+        }
+
+        /**
+         * Resolves the layer implementation of the function using the layers registry.
+         * @param function Query function.
+         * @param <L> Expected layer interface.
+         * @return Layer implementation.
+         */
+        private <L extends LayerInterface> L resolveFunctionLayer(QueryFunction function) {
+            L result;
+            String implName = SystemProperties.get(SystemProperties.Query.Function.NAME_PREFIX) + function.getFunctionName();
+            if(isAggregate(function)) {
+                result = (L) Layers.get(QueryAggregateFunctionLayerInterface.class, implName);
+            } else {
+                result = (L) Layers.get(QueryFunctionLayerInterface.class, implName);
+            }
+            return result;
+        }
+
+        /**
+         * Verify if the function is an aggregate function.
+         * @param function Query function.
+         * @return Returns true if the function is an aggregate function and false in otherwise.
+         */
+        private boolean isAggregate(QueryFunction function) {
+            return function instanceof QueryReturnFunction && ((QueryReturnFunction)function).isAggregate();
+        }
+
+        /**
+         * Returns the alias of the aggregate function, if the function has not alias then the alias is the
+         * string representation of the function.
+         * @param function Aggregate function.
+         * @return Alias of the function.
+         */
+        private String getAggregateFunctionAlias(QueryReturnFunction function) {
+            return function.getAlias() == null ? function.toString() : function.getAlias();
+        }
+
+        /**
+         * Resolves the values of the function parameters, the parameters of the aggregate functions are not
+         * resolved because the functions resolve it for each row of the result set.
+         * @param function Query function.
+         * @param instance Data object instance or result set for the aggregate functions.
+         * @param dataSource Data source.
+         * @param parameterValues Array to store the parameter values.
+         * @return Array with the parameter values.
+         */
+        private Object[] resolveFunctionParameters(QueryFunction function, Object instance, DataSource<O> dataSource,
+                                                   Object[] parameterValues) {
+            boolean aggregate = isAggregate(function);
+            int index = 0;
             Object currentParameter;
             Object value;
             for (int i = 0; i < function.getParameters().size(); i++) {
                 currentParameter = function.getParameters().get(i);
                 if(currentParameter != null) {
                     if (currentParameter instanceof QueryFunction) {
-                        if(function instanceof QueryReturnFunction && ((QueryReturnFunction)function).isAggregate()) {
-                            parameterValues.add(currentParameter);
+                        if(aggregate) {
+                            value = currentParameter;
                         } else {
                             QueryFunction innerFunction = (QueryFunction) currentParameter;
                             try {
@@ -228,47 +401,32 @@ public interface Queryable extends BsonParcelable {
                             } catch (Exception ex) {
                                 value = ex;
                             }
-                            parameterValues.add(value);
                         }
                     } else if (currentParameter instanceof QueryParameter) {
-                        if(function instanceof QueryReturnFunction && ((QueryReturnFunction)function).isAggregate()) {
-                           parameterValues.add(currentParameter);
+                        if(aggregate) {
+                            value = currentParameter;
                         } else {
                             value = get((O) instance, ((QueryParameter) currentParameter), dataSource);
                             if(value != null && value.equals(Strings.ALL)) {
                                 Map<String,Object> copy = new HashMap<>();
                                 copy.putAll(Introspection.toMap(instance));
-                                parameterValues.add(copy);
-                            } else{
-                                parameterValues.add(value);
+                                value = copy;
                             }
                         }
                     } else if (currentParameter instanceof FieldEvaluator.UnprocessedValue) {
                         DataSource currentDataSource = dataSource;
-                        if (currentParameter instanceof BaseEvaluator.QueryValue &&
-                                function instanceof QueryReturnFunction && ((QueryReturnFunction)function).isAggregate()) {
+                        if (currentParameter instanceof BaseEvaluator.QueryValue && aggregate) {
                             currentDataSource = queryable -> (Collection) Introspection.deepCopy(instance);
                         }
-                        parameterValues.add(((FieldEvaluator.UnprocessedValue) currentParameter).
-                                process(currentDataSource, this));
+                        value = ((FieldEvaluator.UnprocessedValue) currentParameter).process(currentDataSource, this);
                     } else {
-                        parameterValues.add(currentParameter);
+                        value = currentParameter;
                     }
+                    parameterValues[index++] = value;
                 }
             }
 
-            R result;
-            if(function instanceof QueryReturnFunction && ((QueryReturnFunction)function).isAggregate()) {
-                QueryAggregateFunctionLayerInterface queryAggregateFunctionLayerInterface = Layers.get(QueryAggregateFunctionLayerInterface.class,
-                        SystemProperties.get(SystemProperties.Query.Function.NAME_PREFIX) + function.getFunctionName());
-                String alias = ((QueryReturnFunction) function).getAlias() == null ? function.toString() : ((QueryReturnFunction) function).getAlias();
-                result = (R) queryAggregateFunctionLayerInterface.evaluate(alias, (Collection) instance, parameterValues.toArray());
-            } else {
-                QueryFunctionLayerInterface queryFunctionLayerInterface = Layers.get(QueryFunctionLayerInterface.class,
-                        SystemProperties.get(SystemProperties.Query.Function.NAME_PREFIX) + function.getFunctionName());
-                result = (R) queryFunctionLayerInterface.evaluate(function.getFunctionName(), parameterValues.toArray());
-            }
-            return result;
+            return parameterValues;
         }
 
     }
@@ -326,5 +484,15 @@ public interface Queryable extends BsonParcelable {
             return Layers.get(ReadRowsLayerInterface.class, queryable.getResourceName()).readRows(queryable);
         }
 
+        /**
+         * Return the iterator of data as query response.
+         * @param queryable Query object.
+         * @return Iterator of data.
+         */
+        @Override
+        public Iterator<JoinableMap> getResourceIterator(Queryable queryable) {
+            return Layers.get(ReadRowsLayerInterface.class, queryable.getResourceName()).readRowsIterator(queryable);
+        }
+
     }
 }
@@ -0,0 +1,444 @@
+package org.hcjf.layers.query.compilers;
+
+import org.hcjf.layers.query.Join;
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.query.Queryable;
+import org.hcjf.layers.query.ParameterizedQuery;
+import org.hcjf.layers.query.evaluators.*;
+import org.hcjf.layers.query.model.QueryDynamicResource;
+import org.hcjf.log.debug.Agent;
+import org.hcjf.log.debug.Agents;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.ConcurrentLruMap;
+import org.hcjf.utils.Strings;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class is a bounded cache of compiled queries in front of the query compilers. The literals used as values
+ * of the conditions are replaced by replaceable values in order to share the same compiled query between all the
+ * expressions with the same shape, and the values of the literals are bound as parameters of a
+ * {@link ParameterizedQuery} instance.
+ * @author javaito
+ */
+public final class QueryPlanCache {
+
+    private static final String KEY_TEMPLATE = "%s:%s";
+    private static final String LITERAL_GROUP = "literal";
+    private static final String LIST_GROUP = "list";
+    private static final String LITERAL_REGEX = "'" + Strings.REPLACEABLE_RICH_TEXT + "[0-9]+" + Strings.END_GROUP_NAME + "'|-?[0-9]+(?:\\.[0-9]+)?";
+    private static final String END_OF_VALUE_REGEX = "(?=\\s*$|\\s*;|\\s*\\)|\\s(?i:and|or|limit|start|order|group|disjoint|underlying|union|join|inner|left|right|full|where)\\s)";
+    private static final Pattern CONDITION_LITERAL_PATTERN = Pattern.compile(
+            "(?:=|<>|!=|>=|<=|>|<|\\s(?i:like)\\s)\\s*(?<literal>" + LITERAL_REGEX + ")" + END_OF_VALUE_REGEX);
+    private static final Pattern CONDITION_LIST_PATTERN = Pattern.compile(
+            "\\s(?i:in)\\s*\\((?<list>\\s*(?:" + LITERAL_REGEX + ")(?:\\s*,\\s*(?:" + LITERAL_REGEX + "))*\\s*)\\)");
+    private static final Pattern LITERAL_PATTERN = Pattern.compile(LITERAL_REGEX);
+
+    private static final ConcurrentLruMap<String,Plan> cache;
+    private static final AtomicLong hits;
+    private static final AtomicLong misses;
+    private static final AtomicLong evictions;
+    private static final AtomicLong bypasses;
+
+    static {
+        cache = new ConcurrentLruMap<>(SystemProperties.getInteger(SystemProperties.Query.COMPILER_CACHE_SIZE));
+        hits = new AtomicLong();
+        misses = new AtomicLong();
+        evictions = new AtomicLong();
+        bypasses = new AtomicLong();
+        cache.addRemoveOverflowListener((K, V) -> evictions.incrementAndGet());
+        Agents.register(new QueryPlanCacheAgent());
+    }
+
+    private QueryPlanCache() {
+    }
+
+    /**
+     * Returns a queryable instance from the expression using the default compiler.
+     * @param queryExpression Expression that represents a query.
+     * @return Queryable instance, if the expression contains literals then the instance is a parameterized query
+     * with the literals as parameters.
+     */
+    public static Queryable compile(String queryExpression) {
+        return compile(queryExpression, SystemProperties.get(SystemProperties.Query.DEFAULT_COMPILER));
+    }
+
+    /**
+     * Returns a queryable instance from the expression using the specific compiler. The compiled query is stored
+     * into the cache using the normalized expression as key, and the result is a copy of the cached query bound
+     * to the literals of the expression.
+     * @param queryExpression Expression that represents a query.
+     * @param compilerName Name of the compiler.
+     * @return Queryable instance, if the expression contains literals then the instance is a parameterized query
+     * with the literals as parameters.
+     */
+    public static Queryable compile(String queryExpression, String compilerName) {
+        Queryable result;
+        if(SystemProperties.getBoolean(SystemProperties.Query.COMPILER_CACHE_ENABLED)) {
+            List<Object> parameters = new ArrayList<>();
+            String normalizedExpression = queryExpression;
+            if(compilerName.equals(SQLCompiler.NAME)) {
+                normalizedExpression = normalize(queryExpression, parameters);
+            }
+            String key = String.format(KEY_TEMPLATE, compilerName, normalizedExpression);
+
+            Plan plan = cache.get(key);
+            if(plan == null) {
+                misses.incrementAndGet();
+                plan = createPlan(queryExpression, normalizedExpression, parameters, compilerName);
+                cache.put(key, plan);
+            } else {
+                hits.incrementAndGet();
+            }
+
+            if(plan.getQuery() == null) {
+                bypasses.incrementAndGet();
+                result = Query.compile(queryExpression, compilerName);
+            } else if(parameters.isEmpty()) {
+                result = plan.getQuery().copy();
+            } else {
+                ParameterizedQuery parameterizedQuery = plan.getQuery().copy().getParameterizedQuery();
+                for(Object parameter : parameters) {
+                    parameterizedQuery.add(parameter);
+                }
+                result = parameterizedQuery;
+            }
+        } else {
+            result = Query.compile(queryExpression, compilerName);
+        }
+        return result;
+    }
+
+    /**
+     * Removes all the plans stored into the cache.
+     */
+    public static void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Returns the number of expressions resolved using a cached plan.
+     * @return Number of hits.
+     */
+    public static long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of expressions that needed to be compiled to create a plan.
+     * @return Number of misses.
+     */
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of plans removed from the cache because of its size.
+     * @return Number of evictions.
+     */
+    public static long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Returns the number of expressions compiled without cache because its shape can't be shared.
+     * @return Number of bypasses.
+     */
+    public static long getBypasses() {
+        return bypasses.get();
+    }
+
+    /**
+     * Returns the number of plans stored into the cache.
+     * @return Size of the cache.
+     */
+    public static int getSize() {
+        return cache.size();
+    }
+
+    /**
+     * Replace all the literals used as values of the conditions with the replaceable value reserved word and
+     * store the literal values into the parameters list in the same order that the compiler creates the places.
+     * If the expression contains replaceable values then the expression is not normalized.
+     * @param queryExpression Expression to normalize.
+     * @param parameters List to store the literal values.
+     * @return Normalized expression.
+     */
+    private static String normalize(String queryExpression, List<Object> parameters) {
+        String result = queryExpression;
+        List<String> richTexts = Strings.groupRichText(queryExpression);
+        String groupedExpression = richTexts.get(richTexts.size() - 1);
+        if(!groupedExpression.contains(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE))) {
+            List<int[]> literalBounds = new ArrayList<>();
+            Matcher matcher = CONDITION_LITERAL_PATTERN.matcher(groupedExpression);
+            while(matcher.find()) {
+                literalBounds.add(new int[]{matcher.start(LITERAL_GROUP), matcher.end(LITERAL_GROUP)});
+            }
+            matcher = CONDITION_LIST_PATTERN.matcher(groupedExpression);
+            while(matcher.find()) {
+                Matcher literalMatcher = LITERAL_PATTERN.matcher(matcher.group(LIST_GROUP));
+                while(literalMatcher.find()) {
+                    literalBounds.add(new int[]{matcher.start(LIST_GROUP) + literalMatcher.start(),
+                            matcher.start(LIST_GROUP) + literalMatcher.end()});
+                }
+            }
+            literalBounds.sort((B1, B2) -> Integer.compare(B1[0], B2[0]));
+
+            StringBuilder builder = new StringBuilder();
+            int index = 0;
+            for(int[] bounds : literalBounds) {
+                builder.append(groupedExpression, index, bounds[0]);
+                builder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE));
+                parameters.add(createLiteral(groupedExpression.substring(bounds[0], bounds[1]), richTexts));
+                index = bounds[1];
+            }
+            builder.append(groupedExpression.substring(index));
+            result = builder.toString();
+
+            if(richTexts.size() > 1) {
+                //Restores the strings that are not replaced.
+                for (int i = 0; i < richTexts.size() - 1; i++) {
+                    result = result.replace(Strings.REPLACEABLE_RICH_TEXT + i + Strings.END_GROUP_NAME, richTexts.get(i));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates the literal value using the same criteria that the sql compiler uses.
+     * @param literal String representation of the literal.
+     * @param richTexts Strings of the expression.
+     * @return Literal value.
+     */
+    private static Object createLiteral(String literal, List<String> richTexts) {
+        Object result;
+        if(literal.startsWith(SystemProperties.get(SystemProperties.Query.ReservedWord.STRING_DELIMITER))) {
+            String value = richTexts.get(Strings.getGroupIndexAsNumber(literal.substring(1, literal.length() - 1), Strings.REPLACEABLE_RICH_TEXT));
+            value = value.replace(Strings.RICH_TEXT_SKIP_CHARACTER + Strings.RICH_TEXT_SEPARATOR, Strings.RICH_TEXT_SEPARATOR);
+            try {
+                result = SystemProperties.getDateFormat(SystemProperties.Query.DATE_FORMAT).parse(value);
+            } catch (Exception ex) {
+                result = value;
+            }
+        } else if(literal.matches(SystemProperties.get(SystemProperties.HCJF_INTEGER_NUMBER_REGEX))) {
+            try {
+                result = Long.parseLong(literal);
+            } catch (Exception ex) {
+                result = literal;
+            }
+        } else {
+            try {
+                result = SystemProperties.getDecimalFormat(SystemProperties.Query.DECIMAL_FORMAT).parse(literal);
+            } catch (ParseException ex) {
+                result = literal;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates the plan for the normalized expression. The plan is only valid if the compiled query with the
+     * parameters bound is equivalent to the query compiled from the original expression and if the query doesn't
+     * contains sub-queries, in the otherwise the plan is created without query in order to compile all the
+     * expressions with this shape.
+     * @param queryExpression Original expression.
+     * @param normalizedExpression Normalized expression.
+     * @param parameters Literal values of the original expression.
+     * @param compilerName Name of the compiler.
+     * @return Plan instance.
+     */
+    private static Plan createPlan(String queryExpression, String normalizedExpression, List<Object> parameters, String compilerName) {
+        Query query = null;
+        try {
+            Query normalizedQuery = Query.compile(normalizedExpression, compilerName);
+            List<Integer> places = new ArrayList<>();
+            if(collectPlaces(normalizedQuery, places) && places.size() == parameters.size()) {
+                boolean valid = true;
+                for (int i = 0; i < places.size() && valid; i++) {
+                    valid = places.get(i) == i;
+                }
+                if(valid && (parameters.isEmpty() ||
+                        bind(normalizedQuery.toString(), parameters).equals(Query.compile(queryExpression, compilerName).toString()))) {
+                    query = normalizedQuery;
+                }
+            }
+        } catch (Exception ex) {
+            //If the normalized expression is not valid then the expression is compiled each time.
+        }
+        return new Plan(query);
+    }
+
+    /**
+     * Collects all the places of the replaceable values of the query in order.
+     * @param query Query instance.
+     * @param places List to store the places.
+     * @return Returns false if the query contains structures that can't be shared between copies.
+     */
+    private static boolean collectPlaces(Query query, List<Integer> places) {
+        boolean result = !(query.getResource() instanceof QueryDynamicResource);
+        for (int i = 0; i < query.getJoins().size() && result; i++) {
+            Join join = query.getJoins().get(i);
+            result = !(join.getResource() instanceof QueryDynamicResource) && collectPlaces(join, places);
+        }
+        result = result && collectPlaces((EvaluatorCollection) query, places);
+        for (int i = 0; i < query.getUnions().size() && result; i++) {
+            result = query.getUnions().get(i) instanceof Query && collectPlaces((Query) query.getUnions().get(i), places);
+        }
+        return result;
+    }
+
+    /**
+     * Collects all the places of the replaceable values of the evaluator collection in order.
+     * @param collection Evaluator collection.
+     * @param places List to store the places.
+     * @return Returns false if the collection contains structures that can't be shared between copies.
+     */
+    private static boolean collectPlaces(EvaluatorCollection collection, List<Integer> places) {
+        boolean result = true;
+        for(Evaluator evaluator : collection.getEvaluators()) {
+            if(evaluator instanceof FieldEvaluator) {
+                result = collectPlaces(((FieldEvaluator) evaluator).getLeftValue(), places) &&
+                        collectPlaces(((FieldEvaluator) evaluator).getRightValue(), places);
+            } else if(evaluator instanceof EvaluatorCollection) {
+                result = collectPlaces((EvaluatorCollection) evaluator, places);
+            }
+            if(!result) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Collects the places of the replaceable values contained into the value.
+     * @param value Evaluator value.
+     * @param places List to store the places.
+     * @return Returns false if the value is a sub-query.
+     */
+    private static boolean collectPlaces(Object value, List<Integer> places) {
+        boolean result = true;
+        if(value instanceof BaseEvaluator.ReplaceableValue) {
+            places.add(((BaseEvaluator.ReplaceableValue) value).getPlace());
+        } else if(value instanceof BaseEvaluator.QueryValue) {
+            result = false;
+        } else if(value instanceof Collection) {
+            for(Object collectionValue : (Collection) value) {
+                result = collectPlaces(collectionValue, places);
+                if(!result) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replace the replaceable values of the string representation of the query with the string representation
+     * of each parameter.
+     * @param query String representation of the query.
+     * @param parameters Parameters to bind.
+     * @return String representation of the query with the parameters.
+     */
+    private static String bind(String query, List<Object> parameters) {
+        StringBuilder result = new StringBuilder();
+        String stringDelimiter = SystemProperties.get(SystemProperties.Query.ReservedWord.STRING_DELIMITER);
+        String replaceableValue = SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE);
+        boolean string = false;
+        int parameterIndex = 0;
+        Object parameter;
+        for (int i = 0; i < query.length(); i++) {
+            if(query.startsWith(stringDelimiter, i) && (i == 0 || !query.startsWith(Strings.RICH_TEXT_SKIP_CHARACTER, i - 1))) {
+                string = !string;
+            }
+            if(!string && query.startsWith(replaceableValue, i) && parameterIndex < parameters.size()) {
+                parameter = parameters.get(parameterIndex++);
+                if(parameter instanceof String) {
+                    result.append(stringDelimiter).append(parameter).append(stringDelimiter);
+                } else if(parameter instanceof Date) {
+                    result.append(stringDelimiter);
+                    result.append(SystemProperties.getDateFormat(SystemProperties.Query.DATE_FORMAT).format((Date) parameter));
+                    result.append(stringDelimiter);
+                } else {
+                    result.append(parameter);
+                }
+                i += replaceableValue.length() - 1;
+            } else {
+                result.append(query.charAt(i));
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Compiled query shared by all the expressions with the same shape.
+     */
+    private static final class Plan {
+
+        private final Query query;
+
+        public Plan(Query query) {
+            this.query = query;
+        }
+
+        /**
+         * Returns the compiled query or null if the expressions with this shape can't be shared.
+         * @return Compiled query.
+         */
+        public Query getQuery() {
+            return query;
+        }
+    }
+
+    public interface QueryPlanCacheAgentMBean {
+
+        long getHits();
+        long getMisses();
+        long getEvictions();
+        long getBypasses();
+        int getSize();
+
+    }
+
+    public static final class QueryPlanCacheAgent extends Agent implements QueryPlanCacheAgentMBean {
+
+        private static final String PACKAGE_NAME = QueryPlanCache.class.getPackageName();
+        private static final String NAME = QueryPlanCache.class.getSimpleName();
+
+        public QueryPlanCacheAgent() {
+            super(NAME, PACKAGE_NAME);
+        }
+
+        @Override
+        public long getHits() {
+            return QueryPlanCache.getHits();
+        }
+
+        @Override
+        public long getMisses() {
+            return QueryPlanCache.getMisses();
+        }
+
+        @Override
+        public long getEvictions() {
+            return QueryPlanCache.getEvictions();
+        }
+
+        @Override
+        public long getBypasses() {
+            return QueryPlanCache.getBypasses();
+        }
+
+        @Override
+        public int getSize() {
+            return QueryPlanCache.getSize();
+        }
+    }
+}
@@ -19,7 +19,7 @@ import java.util.stream.Collectors;
 
 public final class SQLCompiler extends Layer implements QueryCompiler {
 
-    private static final String NAME = "SQL";
+    public static final String NAME = "SQL";
 
     @Override
     public String getImplName() {
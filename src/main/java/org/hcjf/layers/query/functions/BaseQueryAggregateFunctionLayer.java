@@ -6,6 +6,8 @@ import org.hcjf.layers.query.model.QueryReturnField;
 import org.hcjf.layers.query.model.QueryReturnFunction;
 import org.hcjf.properties.SystemProperties;
 
+import java.util.Collection;
+
 /**
  * @author javaito
  */
@@ -26,4 +28,32 @@ public abstract class BaseQueryAggregateFunctionLayer extends BaseFunctionLayer
         }
         return (O) result;
     }
+
+    /**
+     * Creates an accumulator for the functions that only use the values of each row to write the result
+     * into the same row, in this case the partitions are evaluated independently and there is not state to combine.
+     * @param alias Alias of the function.
+     * @param parameters Function's parameters.
+     * @return Accumulator instance.
+     */
+    protected Accumulator<Object> createRowAccumulator(String alias, Object... parameters) {
+        return new Accumulator<>() {
+
+            @Override
+            public Object accumulate(Collection partition) {
+                evaluate(alias, partition, parameters);
+                return null;
+            }
+
+            @Override
+            public Object combine(Object first, Object second) {
+                return null;
+            }
+
+            @Override
+            public Collection finish(Collection resultSet, Object state) {
+                return resultSet;
+            }
+        };
+    }
 }
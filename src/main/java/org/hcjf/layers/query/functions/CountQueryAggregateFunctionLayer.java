@@ -48,4 +48,35 @@ public class CountQueryAggregateFunctionLayer extends BaseQueryAggregateFunction
         }
         return result;
     }
+
+    @Override
+    public Accumulator createAccumulator(String alias, Object... parameters) {
+        Accumulator result;
+        if(parameters.length == 0 || parameters[0].equals(Strings.ALL)) {
+            result = new Accumulator<Integer>() {
+
+                @Override
+                public Integer accumulate(Collection partition) {
+                    return partition.size();
+                }
+
+                @Override
+                public Integer combine(Integer first, Integer second) {
+                    return first + second;
+                }
+
+                @Override
+                public Collection finish(Collection resultSet, Integer state) {
+                    Collection<JoinableMap> newResultSet = new ArrayList<>();
+                    JoinableMap size = new JoinableMap(new HashMap<>(), alias);
+                    size.put(alias, state);
+                    newResultSet.add(size);
+                    return newResultSet;
+                }
+            };
+        } else {
+            result = createRowAccumulator(alias, parameters);
+        }
+        return result;
+    }
 }
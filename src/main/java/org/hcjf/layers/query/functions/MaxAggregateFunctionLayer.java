@@ -32,4 +32,13 @@ public class MaxAggregateFunctionLayer extends BaseQueryAggregateFunctionLayer i
         }
         return result;
     }
+
+    @Override
+    public Accumulator createAccumulator(String alias, Object... parameters) {
+        Accumulator result = null;
+        if(parameters.length >= 1) {
+            result = createRowAccumulator(alias, parameters);
+        }
+        return result;
+    }
 }
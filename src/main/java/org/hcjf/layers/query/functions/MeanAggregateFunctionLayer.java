@@ -7,6 +7,7 @@ import org.hcjf.properties.SystemProperties;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
+import java.util.function.BiFunction;
 
 public class MeanAggregateFunctionLayer extends BaseQueryAggregateFunctionLayer implements NumberSetFunction {
 
@@ -59,37 +60,12 @@ public class MeanAggregateFunctionLayer extends BaseQueryAggregateFunctionLayer
                     Number accumulatedCounter = 0;
                     Number[] functionResult;
                     for (Object row : resultSet) {
-                        switch (meanKind) {
-                            case GEOMETRIC: {
-                                functionResult = accumulateFunction(accumulatedValue, new Object[]{resolveValue(row, parameters[0])}, (A, V) -> A.multiply(V));
-                                break;
-                            }
-                            case HARMONIC: {
-                                functionResult = accumulateFunction(accumulatedValue, new Object[]{resolveValue(row, parameters[0])}, (A, V) -> A.add(new BigDecimal(1).
-                                        divide(V, SystemProperties.getInteger(SystemProperties.Query.Function.BIG_DECIMAL_DIVIDE_SCALE), RoundingMode.HALF_EVEN)));
-                                break;
-                            }
-                            default: {
-                                functionResult = accumulateFunction(accumulatedValue, new Object[]{resolveValue(row, parameters[0])}, (A, V) -> A.add(V));
-                            }
-                        }
+                        functionResult = accumulateFunction(accumulatedValue, new Object[]{resolveValue(row, parameters[0])},
+                                getFunction(meanKind));
                         accumulatedCounter = accumulatedCounter.doubleValue() + functionResult[0].doubleValue();
                         accumulatedValue = functionResult[1];
                     }
-
-                    switch (meanKind) {
-                        case GEOMETRIC: {
-                            meanValue = Math.pow(accumulatedValue.doubleValue(), 1 / accumulatedCounter.doubleValue());
-                            break;
-                        }
-                        case HARMONIC: {
-                            meanValue = accumulatedCounter.doubleValue() / accumulatedValue.doubleValue();
-                            break;
-                        }
-                        default: {
-                            meanValue = accumulatedValue.doubleValue() / accumulatedCounter.doubleValue();
-                        }
-                    }
+                    meanValue = getMeanValue(meanKind, accumulatedCounter, accumulatedValue);
                 }
 
                 if(group) {
@@ -111,4 +87,118 @@ public class MeanAggregateFunctionLayer extends BaseQueryAggregateFunctionLayer
         }
         return result;
     }
+
+    /**
+     * Returns the function to accumulate the values for the specific kind of mean.
+     * @param meanKind Kind of mean.
+     * @return Accumulation function.
+     */
+    private BiFunction<BigDecimal, BigDecimal, Number> getFunction(String meanKind) {
+        BiFunction<BigDecimal, BigDecimal, Number> result;
+        switch (meanKind) {
+            case GEOMETRIC: {
+                result = (A, V) -> A.multiply(V);
+                break;
+            }
+            case HARMONIC: {
+                result = (A, V) -> A.add(new BigDecimal(1).
+                        divide(V, SystemProperties.getInteger(SystemProperties.Query.Function.BIG_DECIMAL_DIVIDE_SCALE), RoundingMode.HALF_EVEN));
+                break;
+            }
+            default: {
+                result = (A, V) -> A.add(V);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the mean value using the accumulated value and the number of accumulated values.
+     * @param meanKind Kind of mean.
+     * @param accumulatedCounter Number of accumulated values.
+     * @param accumulatedValue Accumulated value.
+     * @return Mean value.
+     */
+    private Number getMeanValue(String meanKind, Number accumulatedCounter, Number accumulatedValue) {
+        Number result;
+        switch (meanKind) {
+            case GEOMETRIC: {
+                result = Math.pow(accumulatedValue.doubleValue(), 1 / accumulatedCounter.doubleValue());
+                break;
+            }
+            case HARMONIC: {
+                result = accumulatedCounter.doubleValue() / accumulatedValue.doubleValue();
+                break;
+            }
+            default: {
+                result = accumulatedValue.doubleValue() / accumulatedCounter.doubleValue();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Accumulator createAccumulator(String alias, Object... parameters) {
+        Accumulator result = null;
+        if(parameters.length >= 1 && (parameters.length < 2 || parameters[1] instanceof String) &&
+                (parameters.length < 3 || parameters[2] instanceof Boolean)) {
+            String meanKind = parameters.length >= 2 ? (String) parameters[1] : ARITHMETIC;
+            boolean group = parameters.length < 3 || (boolean) parameters[2];
+            //The median needs all the values sorted, then it is not combinable.
+            if(!meanKind.equals(MEDIAN)) {
+                result = new Accumulator<Number[]>() {
+
+                    @Override
+                    public Number[] accumulate(Collection partition) {
+                        Number accumulatedValue = 0;
+                        Number accumulatedCounter = 0;
+                        Number[] functionResult;
+                        for (Object row : partition) {
+                            functionResult = accumulateFunction(accumulatedValue, new Object[]{resolveValue(row, parameters[0])},
+                                    getFunction(meanKind));
+                            accumulatedCounter = accumulatedCounter.doubleValue() + functionResult[0].doubleValue();
+                            accumulatedValue = functionResult[1];
+                        }
+                        return new Number[]{accumulatedCounter, accumulatedValue};
+                    }
+
+                    @Override
+                    public Number[] combine(Number[] first, Number[] second) {
+                        //The partial values are combined with the same operation that
+                        //the values are combined with the partial accumulated value.
+                        Number value;
+                        switch (meanKind) {
+                            case GEOMETRIC: {
+                                value = applyFunction(first[1], second[1], (A, V) -> A.multiply(V));
+                                break;
+                            }
+                            default: {
+                                value = applyFunction(first[1], second[1], (A, V) -> A.add(V));
+                            }
+                        }
+                        return new Number[]{first[0].doubleValue() + second[0].doubleValue(), value};
+                    }
+
+                    @Override
+                    public Collection finish(Collection resultSet, Number[] state) {
+                        Number meanValue = getMeanValue(meanKind, state[0], state[1]);
+                        Collection finishResult = resultSet;
+                        if(group) {
+                            Collection<JoinableMap> newResultSet = new ArrayList<>();
+                            JoinableMap mean = new JoinableMap(new HashMap<>(), alias);
+                            mean.put(alias, meanValue);
+                            newResultSet.add(mean);
+                            finishResult = newResultSet;
+                        } else {
+                            for(Object row : resultSet) {
+                                ((Map) row).put(alias, meanValue);
+                            }
+                        }
+                        return finishResult;
+                    }
+                };
+            }
+        }
+        return result;
+    }
 }
@@ -0,0 +1,71 @@
+package org.hcjf.layers.query.functions;
+
+import org.hcjf.layers.query.JoinableMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+
+/**
+ * Combinable accumulator for the number functions that reduce all the rows to only one value. The
+ * result is a new result set with only one row or the same value written into all the rows.
+ */
+class NumberAccumulator implements QueryAggregateFunctionLayerInterface.Accumulator<Number> {
+
+    private final String alias;
+    private final boolean group;
+    private final Number identity;
+    private final BiFunction<Number, Object, Number> accumulator;
+    private final BinaryOperator<Number> combiner;
+
+    /**
+     * Constructor.
+     * @param alias Alias of the function.
+     * @param group If this value is true then the result is a new result set with only one row.
+     * @param identity Initial value for each partition.
+     * @param accumulator Function to accumulate the value of a row.
+     * @param combiner Function to combine two partial values.
+     */
+    NumberAccumulator(String alias, boolean group, Number identity,
+                      BiFunction<Number, Object, Number> accumulator, BinaryOperator<Number> combiner) {
+        this.alias = alias;
+        this.group = group;
+        this.identity = identity;
+        this.accumulator = accumulator;
+        this.combiner = combiner;
+    }
+
+    @Override
+    public Number accumulate(Collection partition) {
+        Number result = identity;
+        for(Object row : partition) {
+            result = accumulator.apply(result, row);
+        }
+        return result;
+    }
+
+    @Override
+    public Number combine(Number first, Number second) {
+        return combiner.apply(first, second);
+    }
+
+    @Override
+    public Collection finish(Collection resultSet, Number state) {
+        Collection result = resultSet;
+        if(group) {
+            Collection<JoinableMap> newResultSet = new ArrayList<>();
+            JoinableMap row = new JoinableMap(new HashMap<>(), alias);
+            row.put(alias, state);
+            newResultSet.add(row);
+            result = newResultSet;
+        } else {
+            for(Object row : resultSet) {
+                ((Map) row).put(alias, state);
+            }
+        }
+        return result;
+    }
+}
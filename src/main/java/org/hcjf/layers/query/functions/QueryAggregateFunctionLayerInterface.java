@@ -18,4 +18,48 @@ public interface QueryAggregateFunctionLayerInterface extends LayerInterface {
      */
     Collection evaluate(String alias, Collection resultSet, Object... parameters);
 
+    /**
+     * Creates an accumulator to evaluate the function over partitions of the result set. The default
+     * implementation returns null, that means that the function must be evaluated over the complete result set.
+     * @param alias Alias of the function.
+     * @param parameters Function's parameters.
+     * @return Accumulator instance or null if the function is not combinable with these parameters.
+     */
+    default Accumulator createAccumulator(String alias, Object... parameters) {
+        return null;
+    }
+
+    /**
+     * This interface represents the partial state of an aggregate function, each partition of the
+     * result set is accumulated independently and then the partial states are combined in the
+     * partitions order.
+     * @param <S> Kind of the partial state.
+     */
+    interface Accumulator<S extends Object> {
+
+        /**
+         * Evaluates the function over a partition of the result set, this method could be called
+         * concurrently for different partitions.
+         * @param partition Partition of the result set.
+         * @return Partial state of the partition.
+         */
+        S accumulate(Collection partition);
+
+        /**
+         * Combines two partial states, the first state belongs to the partitions previous to the second one.
+         * @param first First partial state.
+         * @param second Second partial state.
+         * @return Combined state.
+         */
+        S combine(S first, S second);
+
+        /**
+         * Creates the function result using the combined state of all the partitions.
+         * @param resultSet Complete result set.
+         * @param state Combined state.
+         * @return Function result.
+         */
+        Collection finish(Collection resultSet, S state);
+
+    }
 }
@@ -70,4 +70,23 @@ public class SumAggregateFunctionLayer extends BaseQueryAggregateFunctionLayer i
         }
         return result;
     }
+
+    @Override
+    public Accumulator createAccumulator(String alias, Object... parameters) {
+        Accumulator result = null;
+        if(parameters.length == 1) {
+            result = createRowAccumulator(alias, parameters);
+        } else if(parameters.length > 1 && parameters[1] instanceof Boolean) {
+            boolean group = (boolean) parameters[1];
+            boolean accumulate = parameters.length == 3 && Boolean.TRUE.equals(parameters[2]);
+            //If the value is accumulated row by row then the value of each row depends on the
+            //previous rows and the function is not combinable.
+            if(group || !accumulate) {
+                result = new NumberAccumulator(alias, group, 0,
+                        (A, R) -> accumulateFunction(A, new Object[]{resolveValue(R, parameters[0])}, (X, V) -> X.add(V))[1],
+                        (A, B) -> applyFunction(A, B, (X, V) -> X.add(V)));
+            }
+        }
+        return result;
+    }
 }
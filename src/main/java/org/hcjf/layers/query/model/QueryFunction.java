@@ -1,5 +1,6 @@
 package org.hcjf.layers.query.model;
 
+import org.hcjf.layers.LayerInterface;
 import org.hcjf.layers.query.Query;
 
 import java.util.List;
@@ -13,6 +14,7 @@ public class QueryFunction extends QueryParameter {
 
     private final String functionName;
     private final List<Object> parameters;
+    private volatile Binding binding;
 
     public QueryFunction(Query query, String originalFunction, String functionName, List<Object> parameters) {
         super(query, originalFunction, functionName);
@@ -28,6 +30,22 @@ public class QueryFunction extends QueryParameter {
         return parameters;
     }
 
+    /**
+     * Returns the layer binding resolved for this function or null if the function is not bound yet.
+     * @return Binding instance.
+     */
+    public Binding getBinding() {
+        return binding;
+    }
+
+    /**
+     * Bind the function with the layer that resolves it.
+     * @param binding Binding instance.
+     */
+    public void setBinding(Binding binding) {
+        this.binding = binding;
+    }
+
     public Set<QueryResource> getResources() {
         Set<QueryResource> queryResources = new TreeSet<>();
 
@@ -46,4 +64,45 @@ public class QueryFunction extends QueryParameter {
     public boolean verifyResource(QueryResource resource) {
         return getResources().contains(resource);
     }
+
+    /**
+     * This class contains the layer instance resolved for the function, the version of the layers registry used to
+     * resolve it and the number of arguments in order to avoid the lookup for each evaluation of the function.
+     */
+    public static final class Binding {
+
+        private final LayerInterface layer;
+        private final long version;
+        private final int argumentsSize;
+
+        public Binding(LayerInterface layer, long version, int argumentsSize) {
+            this.layer = layer;
+            this.version = version;
+            this.argumentsSize = argumentsSize;
+        }
+
+        /**
+         * Returns the layer instance or null if the layer is not stateful and must be resolved for each evaluation.
+         * @return Layer instance.
+         */
+        public LayerInterface getLayer() {
+            return layer;
+        }
+
+        /**
+         * Returns the version of the layers registry used to resolve the layer.
+         * @return Version of the layers registry.
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Returns the number of arguments of the function.
+         * @return Number of arguments.
+         */
+        public int getArgumentsSize() {
+            return argumentsSize;
+        }
+    }
 }
@@ -11,12 +11,17 @@ import org.hcjf.layers.Layer;
 import org.hcjf.properties.SystemProperties;
 import org.hcjf.service.Service;
 import org.hcjf.service.ServiceSession;
+import org.hcjf.utils.ConcurrentLruMap;
 import org.hcjf.utils.LruMap;
 import org.hcjf.utils.Strings;
 
+import javax.tools.*;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
+import java.net.URI;
 import java.util.*;
+import java.util.function.Function;
 
 public class JavaCodeEvaluator extends Layer implements CodeEvaluator {
 
@@ -45,10 +50,20 @@ public class JavaCodeEvaluator extends Layer implements CodeEvaluator {
     private static final String WAITING_VM_TIME_FIELD = "_waitingVmTime";
     private static final String EVAL_TIME_FIELD = "_evalTime";
 
+    private static final String CLASS_NAME_TEMPLATE = "Script_%s";
+    private static final String CLASS_TEMPLATE = "%s\r\npublic class %s implements java.util.function.Function<Map<String,Object>,Object> {\r\n" +
+            "public Object apply(Map<String,Object> parameters) {\r\n" +
+            "try {return method(parameters);} catch (RuntimeException ex) {throw ex;} catch (Exception ex) {throw new RuntimeException(ex);}\r\n}\r\n" +
+            "private Object method(Map<String,Object> parameters) throws Exception {\r\n%s\r\n}\r\n}";
+
     private final Queue<JShellInstance> pool;
+    private final JavaCompiler compiler;
+    private final Map<String,CompiledScript> compiledScripts;
 
     public JavaCodeEvaluator() {
         this.pool = new LinkedList<>();
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        this.compiledScripts = new ConcurrentLruMap<>(SystemProperties.getInteger(SystemProperties.CodeEvaluator.Java.SCRIPT_CACHE_SIZE));
         Integer size = SystemProperties.getInteger(SystemProperties.CodeEvaluator.Java.J_SHELL_POOL_SIZE);
         for (int i = 0; i < size; i++) {
             pool.offer(new JShellInstance());
@@ -69,6 +84,143 @@ public class JavaCodeEvaluator extends Layer implements CodeEvaluator {
      */
     @Override
     public ExecutionResult evaluate(String script, Map<String, Object> parameters) {
+        ExecutionResult result;
+        if(compiler != null && SystemProperties.getBoolean(SystemProperties.CodeEvaluator.Java.COMPILED_SCRIPTS_ENABLED)) {
+            result = evaluateCompiledScript(script, parameters);
+        } else {
+            result = evaluateIntoJShell(script, parameters);
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the script as an instance of a class compiled into the same vm, the parameters are
+     * passed directly to the instance without serialization. The classes are compiled only the first time
+     * that the script is evaluated.
+     * @param script Script to evaluate.
+     * @param parameters Parameters object.
+     * @return Model as result of the script evaluation.
+     */
+    private ExecutionResult evaluateCompiledScript(String script, Map<String, Object> parameters) {
+        Long time = System.currentTimeMillis();
+        CompiledScript compiledScript = compiledScripts.get(script);
+        if(compiledScript == null) {
+            compiledScript = compile(script);
+            compiledScripts.put(script, compiledScript);
+        }
+
+        Map<String,Object> resultParameters = new HashMap<>(parameters);
+        Object result = null;
+        if(compiledScript.getFunction() != null) {
+            Function<Map<String,Object>,Object> function = compiledScript.getFunction();
+            Long timeout = SystemProperties.getLong(SystemProperties.CodeEvaluator.Java.J_SHELL_INSTANCE_TIMEOUT);
+            result = Service.call(() -> function.apply(resultParameters), ServiceSession.getCurrentIdentity(), timeout);
+        }
+
+        Map<String, Object> resultState = new HashMap<>();
+        resultState.put(OUT_FIELD, Strings.EMPTY_STRING);
+        resultState.put(ERR_FIELD, Strings.EMPTY_STRING);
+        resultState.put(DIAGNOSTICS_FIELD, compiledScript.getDiagnostics());
+        resultState.put(WAITING_VM_TIME_FIELD, 0L);
+        resultState.put(EVAL_TIME_FIELD, System.currentTimeMillis() - time);
+        return new ExecutionResult(
+                compiledScript.getFunction() == null ? ExecutionResult.State.FAIL : ExecutionResult.State.SUCCESS,
+                resultState, resultParameters, result);
+    }
+
+    /**
+     * Compiles the script as a class in memory and creates an instance of the class using a new class loader,
+     * then the class is unloaded when the script is removed from the cache.
+     * @param script Script to compile.
+     * @return Compiled script with the instance or with the diagnostics if the compilation fails.
+     */
+    private CompiledScript compile(String script) {
+        Strings.Builder importsBuilder = new Strings.Builder();
+        for(String i : IMPORTS) {
+            importsBuilder.append(String.format(IMPORT_TEMPLATE, i));
+        }
+        for (String i : SystemProperties.getList(SystemProperties.CodeEvaluator.Java.IMPORTS)) {
+            importsBuilder.append(String.format(IMPORT_TEMPLATE, i));
+        }
+        String className = String.format(CLASS_NAME_TEMPLATE, UUID.randomUUID().toString().replace("-", "_"));
+        String source = String.format(CLASS_TEMPLATE, importsBuilder, className, script);
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Map<String,ByteArrayOutputStream> classes = new HashMap<>();
+        JavaFileManager fileManager = new ForwardingJavaFileManager<>(compiler.getStandardFileManager(diagnostics, null, null)) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, String name, JavaFileObject.Kind kind, FileObject sibling) {
+                return new SimpleJavaFileObject(URI.create("bytes:///" + name.replace('.', '/') + kind.extension), kind) {
+                    @Override
+                    public OutputStream openOutputStream() {
+                        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                        classes.put(name, outputStream);
+                        return outputStream;
+                    }
+                };
+            }
+        };
+        JavaFileObject sourceFile = new SimpleJavaFileObject(URI.create("string:///" + className + JavaFileObject.Kind.SOURCE.extension),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        CompiledScript result;
+        List<String> options = List.of("-classpath", System.getProperty(CLASS_PATH_PROPERTY));
+        if(compiler.getTask(null, fileManager, diagnostics, options, null, List.of(sourceFile)).call()) {
+            ClassLoader classLoader = new ClassLoader(JavaCodeEvaluator.class.getClassLoader()) {
+                @Override
+                protected Class<?> findClass(String name) throws ClassNotFoundException {
+                    ByteArrayOutputStream classBytes = classes.get(name);
+                    if(classBytes == null) {
+                        throw new ClassNotFoundException(name);
+                    }
+                    byte[] bytes = classBytes.toByteArray();
+                    return defineClass(name, bytes, 0, bytes.length);
+                }
+            };
+            try {
+                Function<Map<String,Object>,Object> function = (Function<Map<String, Object>, Object>)
+                        classLoader.loadClass(className).getConstructor().newInstance();
+                result = new CompiledScript(function, List.of());
+            } catch (Exception ex) {
+                result = new CompiledScript(null, List.of(ex.toString()));
+            }
+        } else {
+            List<String> diagnosticsList = new ArrayList<>();
+            for(Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                if(diagnostic.getKind().equals(Diagnostic.Kind.ERROR) && diagnostic.getStartPosition() >= 0) {
+                    StringBuilder builder = new StringBuilder();
+                    builder.append(Strings.CARRIAGE_RETURN_AND_LINE_SEPARATOR);
+                    builder.append(Strings.CARRIAGE_RETURN_AND_LINE_SEPARATOR);
+                    builder.append(diagnostic.getMessage(Locale.getDefault()));
+                    builder.append(Strings.CARRIAGE_RETURN_AND_LINE_SEPARATOR);
+                    builder.append(source, 0, (int) diagnostic.getStartPosition());
+                    builder.append(START_DIAGNOSTIC_ERROR);
+                    builder.append(source, (int) diagnostic.getStartPosition(), (int) diagnostic.getEndPosition());
+                    builder.append(END_DIAGNOSTIC_ERROR);
+                    builder.append(source.substring((int) diagnostic.getEndPosition()));
+                    diagnosticsList.add(builder.toString());
+                } else if(diagnostic.getKind().equals(Diagnostic.Kind.ERROR)) {
+                    diagnosticsList.add(diagnostic.getMessage(Locale.getDefault()));
+                }
+            }
+            result = new CompiledScript(null, diagnosticsList);
+        }
+        return result;
+    }
+
+    /**
+     * Evaluate the script into a JShell instance of the pool, the parameters and the result are
+     * serialized to cross the vm boundaries.
+     * @param script     Script to evaluate.
+     * @param parameters Parameters object.
+     * @return Model as result of the script evaluation.
+     */
+    private ExecutionResult evaluateIntoJShell(String script, Map<String, Object> parameters) {
         JShellInstance jShellInstance;
         Long waitingVmTime = System.currentTimeMillis();
         synchronized (pool) {
@@ -106,6 +258,25 @@ public class JavaCodeEvaluator extends Layer implements CodeEvaluator {
         }
     }
 
+    private static class CompiledScript {
+
+        private final Function<Map<String,Object>,Object> function;
+        private final List<String> diagnostics;
+
+        public CompiledScript(Function<Map<String, Object>, Object> function, List<String> diagnostics) {
+            this.function = function;
+            this.diagnostics = diagnostics;
+        }
+
+        public Function<Map<String, Object>, Object> getFunction() {
+            return function;
+        }
+
+        public List<String> getDiagnostics() {
+            return diagnostics;
+        }
+    }
+
     private static class JShellScript {
 
         private final String id;
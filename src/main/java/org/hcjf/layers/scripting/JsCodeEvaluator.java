@@ -1,23 +1,41 @@
 package org.hcjf.layers.scripting;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 import org.graalvm.polyglot.proxy.ProxyArray;
 import org.graalvm.polyglot.proxy.ProxyObject;
+import org.hcjf.errors.HCJFRuntimeException;
 import org.hcjf.layers.Layer;
 import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.ConcurrentLruMap;
+import org.hcjf.utils.LruMap;
 import org.hcjf.utils.Strings;
 
 import java.util.*;
 
+/**
+ * This implementation evaluates javascript code using a pool of contexts that share the same engine,
+ * then the parsed code is shared between all the contexts. Each script is wrapped into a function that
+ * is created only one time for each context and the parameters are passed to the function
+ * as proxies of the original instances, the original instances are copied only if the script modifies them.
+ */
 public class JsCodeEvaluator extends Layer implements CodeEvaluator{
 
     private static final String METHOD_DEFINITION = "(%s) => {%s}";
     private static final String GRAALVM_JS = "js";
-    private final Context context;
+
+    private final Engine engine;
+    private final Map<String,Source> sources;
+    private final Queue<JsContext> pool;
+    private int contextsSize;
 
     public JsCodeEvaluator() {
-        context = Context.newBuilder(GRAALVM_JS).build();
+        engine = Engine.create();
+        sources = new ConcurrentLruMap<>(SystemProperties.getInteger(SystemProperties.CodeEvaluator.Js.SCRIPT_CACHE_SIZE));
+        pool = new LinkedList<>();
     }
 
     @Override
@@ -33,20 +51,81 @@ public class JsCodeEvaluator extends Layer implements CodeEvaluator{
      */
     @Override
     public ExecutionResult evaluate(String script, Map<String, Object> parameters) {
-
+        List<String> parameterNames = new ArrayList<>(parameters.keySet());
+        Collections.sort(parameterNames);
         Strings.Builder parametersBuilder = new Strings.Builder();
-        List<Object> values = new ArrayList<>();
-        for(String parameterName : parameters.keySet()) {
-            parametersBuilder.append(parameterName, Strings.ARGUMENT_SEPARATOR);
-            values.add(getParameterInstance(parameterName, parameters));
+        Object[] values = new Object[parameterNames.size()];
+        for (int i = 0; i < values.length; i++) {
+            parametersBuilder.append(parameterNames.get(i), Strings.ARGUMENT_SEPARATOR);
+            values[i] = getParameterInstance(parameterNames.get(i), parameters);
         }
         String methodDefinition = String.format(METHOD_DEFINITION, parametersBuilder, script);
-        Value value = context.eval(GRAALVM_JS, methodDefinition);
-        ExecutionResult executionResult = new ExecutionResult(
-                ExecutionResult.State.SUCCESS,
-                Map.of(),
-                parameters, getResultInstance(value.execute(values.toArray())));
-        return executionResult;
+        Source source = sources.get(methodDefinition);
+        if(source == null) {
+            source = Source.create(GRAALVM_JS, methodDefinition);
+            sources.put(methodDefinition, source);
+        }
+
+        JsContext jsContext = borrowContext();
+        boolean discardContext = false;
+        try {
+            Value function = jsContext.getFunction(source);
+            return new ExecutionResult(
+                    ExecutionResult.State.SUCCESS,
+                    Map.of(),
+                    parameters, getResultInstance(function.execute(values)));
+        } catch (PolyglotException ex) {
+            discardContext = ex.isCancelled() || ex.isExit() || ex.isInternalError();
+            throw ex;
+        } finally {
+            returnContext(jsContext, discardContext);
+        }
+    }
+
+    /**
+     * Takes a context of the pool, if the pool is empty then a new context is created only if the
+     * number of contexts is less than the pool size, in the otherwise the thread waits for a context.
+     * @return Context instance.
+     * @throws HCJFRuntimeException if the thread is interrupted while it is waiting for a context.
+     */
+    private JsContext borrowContext() {
+        JsContext result = null;
+        synchronized (pool) {
+            while (pool.isEmpty() &&
+                    contextsSize >= SystemProperties.getInteger(SystemProperties.CodeEvaluator.Js.CONTEXT_POOL_SIZE)) {
+                try {
+                    pool.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new HCJFRuntimeException("Interrupted waiting for a js context", ex);
+                }
+            }
+            if(!pool.isEmpty()) {
+                result = pool.remove();
+            }
+            contextsSize++;
+        }
+        if(result == null) {
+            result = new JsContext();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the context to the pool.
+     * @param jsContext Context instance.
+     * @param discard If this parameter is true then the context is closed and it is not returned to the pool.
+     */
+    private void returnContext(JsContext jsContext, boolean discard) {
+        synchronized (pool) {
+            contextsSize--;
+            if(discard) {
+                jsContext.close();
+            } else {
+                pool.offer(jsContext);
+            }
+            pool.notifyAll();
+        }
     }
 
     /**
@@ -56,42 +135,30 @@ public class JsCodeEvaluator extends Layer implements CodeEvaluator{
      * @return Returns the parameter instance.
      */
     public Object getParameterInstance(String parameterName, Map<String,Object> parameters) {
-        Object result = parameters.get(parameterName);
-        if(result instanceof Map) {
-            result = getProxyObjectFromMap((Map<String, Object>) result);
-        } else if(result instanceof Collection) {
-            result = getProxyArrayFromCollection((Collection<Object>) result);
+        return getProxyInstance(parameters.get(parameterName));
+    }
+
+    /**
+     * Returns a proxy for the maps and collections, the other instances are returned without changes.
+     * @param value Original instance.
+     * @return Instance to bind with the script.
+     */
+    private Object getProxyInstance(Object value) {
+        Object result = value;
+        if(value instanceof Map) {
+            result = getProxyObjectFromMap((Map<String, Object>) value);
+        } else if(value instanceof Collection) {
+            result = getProxyArrayFromCollection((Collection<Object>) value);
         }
         return result;
     }
 
     public ProxyObject getProxyObjectFromMap(Map<String,Object> map) {
-        Map<String,Object> mapCopy = new HashMap<>();
-        for(String key : map.keySet()) {
-            Object value = map.get(key);
-            if(value instanceof Map) {
-                mapCopy.put(key, getProxyObjectFromMap((Map<String, Object>) value));
-            } else if(value instanceof Collection) {
-                mapCopy.put(key, getProxyArrayFromCollection((Collection<Object>) value));
-            } else {
-                mapCopy.put(key, value);
-            }
-        }
-        return ProxyObject.fromMap(mapCopy);
+        return new MapProxy(map);
     }
 
     public ProxyArray getProxyArrayFromCollection(Collection<Object> collection) {
-        List<Object> collectionCopy = new ArrayList<>();
-        for(Object value : collection) {
-            if(value instanceof Map) {
-                collectionCopy.add(getProxyObjectFromMap((Map<String, Object>) value));
-            } else if(value instanceof Collection) {
-                collectionCopy.add(getProxyArrayFromCollection((Collection<Object>) value));
-            } else {
-                collectionCopy.add(value);
-            }
-        }
-        return ProxyArray.fromList(collectionCopy);
+        return new ListProxy(collection);
     }
 
     /**
@@ -103,6 +170,10 @@ public class JsCodeEvaluator extends Layer implements CodeEvaluator{
         Object result = scriptResult;
         if(scriptResult instanceof Value) {
             result = getResultInstance((Value) result);
+        } else if(scriptResult instanceof MapProxy) {
+            result = ((MapProxy) scriptResult).getResult();
+        } else if(scriptResult instanceof ListProxy) {
+            result = ((ListProxy) scriptResult).getResult();
         } else if(scriptResult instanceof ProxyObject) {
             result = getResultFromProxyObject((ProxyObject) result);
         } else if(scriptResult instanceof ProxyArray) {
@@ -145,12 +216,9 @@ public class JsCodeEvaluator extends Layer implements CodeEvaluator{
         } else if(scriptResult.isNumber()) {
             result = scriptResult.asDouble();
         } else if(scriptResult.isProxyObject()) {
-            Object proxy = scriptResult.asProxyObject();
-            if(proxy instanceof ProxyObject) {
-                result = getResultFromProxyObject((ProxyObject) proxy);
-            } else if(proxy instanceof ProxyArray) {
-                result = getResultFromProxyArray((ProxyArray) proxy);
-            }
+            result = getResultInstance((Object) scriptResult.asProxyObject());
+        } else if(scriptResult.isHostObject()) {
+            result = scriptResult.asHostObject();
         } else {
             if(scriptResult.hasArrayElements()) {
                 Collection<Object> resultCollection = new ArrayList<>();
@@ -168,4 +236,229 @@ public class JsCodeEvaluator extends Layer implements CodeEvaluator{
         }
         return result;
     }
+
+    /**
+     * Context of the pool, each context contains the functions created for the scripts evaluated into the context.
+     */
+    private class JsContext {
+
+        private final Context context;
+        private final LruMap<Source,Value> functions;
+
+        private JsContext() {
+            this.context = Context.newBuilder(GRAALVM_JS).engine(engine).build();
+            this.functions = new LruMap<>(SystemProperties.getInteger(SystemProperties.CodeEvaluator.Js.SCRIPT_CACHE_SIZE));
+        }
+
+        /**
+         * Returns the function for the source, the function is evaluated only the first time.
+         * @param source Function definition.
+         * @return Function instance.
+         */
+        private Value getFunction(Source source) {
+            Value result = functions.get(source);
+            if(result == null) {
+                result = context.eval(source);
+                functions.put(source, result);
+            }
+            return result;
+        }
+
+        private void close() {
+            context.close(true);
+        }
+    }
+
+    /**
+     * Proxy of a map, the original map is copied only when the script modifies it.
+     */
+    private class MapProxy implements ProxyObject {
+
+        private final Map<String,Object> map;
+        private final Map<String,Object> children;
+        private Map<String,Object> copy;
+
+        private MapProxy(Map<String, Object> map) {
+            this.map = map;
+            this.children = new HashMap<>();
+        }
+
+        private Map<String,Object> getWritableMap() {
+            if(copy == null) {
+                copy = new HashMap<>(map);
+                copy.putAll(children);
+                children.clear();
+            }
+            return copy;
+        }
+
+        @Override
+        public Object getMember(String key) {
+            Object result;
+            if(copy == null) {
+                result = children.get(key);
+                if(result == null) {
+                    result = getProxyInstance(map.get(key));
+                    if(result instanceof MapProxy || result instanceof ListProxy) {
+                        children.put(key, result);
+                    }
+                }
+            } else {
+                result = copy.get(key);
+                if(result instanceof Map || result instanceof Collection) {
+                    result = getProxyInstance(result);
+                    copy.put(key, result);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Object getMemberKeys() {
+            return ProxyArray.fromArray((copy == null ? map : copy).keySet().toArray());
+        }
+
+        @Override
+        public boolean hasMember(String key) {
+            return (copy == null ? map : copy).containsKey(key);
+        }
+
+        @Override
+        public void putMember(String key, Value value) {
+            getWritableMap().put(key, value);
+        }
+
+        @Override
+        public boolean removeMember(String key) {
+            boolean result = hasMember(key);
+            getWritableMap().remove(key);
+            return result;
+        }
+
+        /**
+         * Returns the original map if the script doesn't modify it or a new map with the changes.
+         * @return Result map.
+         */
+        private Map<String,Object> getResult() {
+            Map<String,Object> result = map;
+            if(copy != null) {
+                result = new HashMap<>();
+                for(Map.Entry<String,Object> entry : copy.entrySet()) {
+                    result.put(entry.getKey(), getResultInstance(entry.getValue()));
+                }
+            } else {
+                for(Map.Entry<String,Object> child : children.entrySet()) {
+                    Object childResult = getResultInstance(child.getValue());
+                    if(childResult != map.get(child.getKey())) {
+                        if(result == map) {
+                            result = new HashMap<>(map);
+                        }
+                        result.put(child.getKey(), childResult);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Proxy of a collection, the original collection is copied only when the script modifies it.
+     */
+    private class ListProxy implements ProxyArray {
+
+        private final List<Object> list;
+        private final Map<Integer,Object> children;
+        private List<Object> copy;
+
+        private ListProxy(Collection<Object> collection) {
+            this.list = collection instanceof List ? (List<Object>) collection : new ArrayList<>(collection);
+            this.children = new HashMap<>();
+        }
+
+        private List<Object> getWritableList() {
+            if(copy == null) {
+                copy = new ArrayList<>(list);
+                children.forEach(copy::set);
+                children.clear();
+            }
+            return copy;
+        }
+
+        private int checkIndex(long index, int size) {
+            if(index < 0 || index >= size) {
+                throw new ArrayIndexOutOfBoundsException((int) index);
+            }
+            return (int) index;
+        }
+
+        @Override
+        public Object get(long index) {
+            Object result;
+            if(copy == null) {
+                int i = checkIndex(index, list.size());
+                result = children.get(i);
+                if(result == null) {
+                    result = getProxyInstance(list.get(i));
+                    if(result instanceof MapProxy || result instanceof ListProxy) {
+                        children.put(i, result);
+                    }
+                }
+            } else {
+                int i = checkIndex(index, copy.size());
+                result = copy.get(i);
+                if(result instanceof Map || result instanceof Collection) {
+                    result = getProxyInstance(result);
+                    copy.set(i, result);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void set(long index, Value value) {
+            List<Object> writableList = getWritableList();
+            if(index == writableList.size()) {
+                writableList.add(value);
+            } else {
+                writableList.set(checkIndex(index, writableList.size()), value);
+            }
+        }
+
+        @Override
+        public boolean remove(long index) {
+            List<Object> writableList = getWritableList();
+            writableList.remove(checkIndex(index, writableList.size()));
+            return true;
+        }
+
+        @Override
+        public long getSize() {
+            return (copy == null ? list : copy).size();
+        }
+
+        /**
+         * Returns the original list if the script doesn't modify it or a new list with the changes.
+         * @return Result list.
+         */
+        private List<Object> getResult() {
+            List<Object> result = list;
+            if(copy != null) {
+                result = new ArrayList<>();
+                for(Object value : copy) {
+                    result.add(getResultInstance(value));
+                }
+            } else {
+                for(Map.Entry<Integer,Object> child : children.entrySet()) {
+                    Object childResult = getResultInstance(child.getValue());
+                    if(childResult != list.get(child.getKey())) {
+                        if(result == list) {
+                            result = new ArrayList<>(list);
+                        }
+                        result.set(child.getKey(), childResult);
+                    }
+                }
+            }
+            return result;
+        }
+    }
 }
@@ -10,7 +10,13 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -21,7 +27,6 @@ import java.util.stream.Stream;
  * maintain and organize a log file with the same records format
  * The log behavior is affected by the following system properties
  * <br><b>hcfj_log_path</b>: work directory of the log, by default app work directory
- * <br><b>hcfj_log_initial_queue_size</b>: initial size of the internal queue, by default 10000;
  * <br><b>hcfj_log_file_prefix</b>: all the log files start with this prefix, by default hcjf
  * <br><b>hcfj_log_error_file</b>: if the property is true then log create a particular file for error group only, by default false
  * <br><b>hcfj_log_warning_file</b>: if the property is true then log create a particular file for warning group only, by default false
@@ -29,11 +34,24 @@ import java.util.stream.Stream;
  * <br><b>hcfj_log_debug_file</b>: if the property is true then log create a particular file for debug group only, by default false
  * <br><b>hcfj_log_level</b>: min level to write file, by default "I"
  * <br><b>hcfj_log_date_format</b>: date format to show in the log file, by default "yyyy-mm-dd hh:mm:ss"
+ * <br><b>hcjf.log.queue.capacity</b>: capacity of the ring buffer of records, rounded up to a power of two, by default 16384
+ * <br><b>hcjf.log.batch.size</b>: max number of records printed by the consumer thread in each batch, by default 256
+ * <br><b>hcjf.log.consumer.wait.time</b>: milliseconds that the consumer thread sleeps when the buffer is empty, by default 100
+ * <br><b>hcjf.log.overflow.policy</b>: behavior when the buffer is full, BLOCK waits for space and DROP_NEWEST
+ * discards the new record, by default BLOCK
+ * <br><b>hcjf.log.call.stack.information.enabled</b>: if the property is true then each record contains the
+ * caller class, method and line, by default true
+ * The records under the log level are discarded before to be created. The records are stored into a
+ * bounded ring buffer with many producers and only one consumer thread that prints the records in batches.
  * @author javaito
  *
  */
 public final class Log extends Service<LogPrinter> {
 
+    private static final String[] NO_CALL_STACK_INFORMATION = new String[]{"", "", ""};
+    private static final StackWalker stackWalker = StackWalker.getInstance();
+    private static final ThreadLocal<SimpleDateFormat> dateFormats = new ThreadLocal<>();
+
     private static final Log instance;
 
     static {
@@ -41,9 +59,11 @@ public final class Log extends Service<LogPrinter> {
     }
 
     private List<LogPrinter> printers;
-    private Queue<LogRecord> queue;
-    private Object logMonitor;
-    private Boolean shuttingDown;
+    private RecordRing queue;
+    private AtomicLong droppedRecords;
+    private volatile Thread consumerThread;
+    private volatile boolean consumerWaiting;
+    private volatile Boolean shuttingDown;
 
     /**
      * Private constructor
@@ -58,15 +78,11 @@ public final class Log extends Service<LogPrinter> {
      */
     @Override
     protected void init() {
-        this.printers = new ArrayList<>();
-        this.queue = new PriorityBlockingQueue<>(
-                SystemProperties.getInteger(SystemProperties.Log.QUEUE_INITIAL_SIZE),
-                (o1, o2) -> (int)(o1.getDate().getTime() - o2.getDate().getTime()));
-        this.logMonitor = new Object();
+        this.printers = new CopyOnWriteArrayList<>();
+        this.queue = new RecordRing(SystemProperties.getInteger(SystemProperties.Log.QUEUE_CAPACITY));
+        this.droppedRecords = new AtomicLong();
         this.shuttingDown = false;
-        for (int i = 0; i < SystemProperties.getInteger(SystemProperties.Log.LOG_CONSUMERS_SIZE); i++) {
-            fork(new LogRunnable());
-        }
+        fork(new LogRunnable());
         List<String> logConsumers = SystemProperties.getList(SystemProperties.Log.CONSUMERS);
         logConsumers.forEach(S -> {
             try {
@@ -87,9 +103,7 @@ public final class Log extends Service<LogPrinter> {
         switch (stage) {
             case START: {
                 shuttingDown = true;
-                synchronized (this.logMonitor) {
-                    this.logMonitor.notifyAll();
-                }
+                wakeUpConsumer();
                 break;
             }
         }
@@ -115,16 +129,63 @@ public final class Log extends Service<LogPrinter> {
     }
 
     /**
-     * Add the record to the queue and notify the consumer thread.
+     * Creates a record and add the record to the queue only if the group of the record is enabled.
+     * @param group Group of the record.
+     * @param tag Tag for the record.
+     * @param message Message with wildcard for the parameters.
+     * @param printThrowable Flag to indicate if the record must print the throwable instance or not.
+     * @param throwable The error object, could be null.
+     * @param params Values that will be put in for each places of the message.
+     * @return Returns the id assigned to the record or null if the record is not created.
+     */
+    private UUID addRecord(LogGroup group, String tag, String message,
+                           Boolean printThrowable, Throwable throwable, Object... params) {
+        UUID result = null;
+        if(isEnabled(group)) {
+            String[] callStackInformation = SystemProperties.getBoolean(SystemProperties.Log.CALL_STACK_INFORMATION_ENABLED) ?
+                    getCallStackInformation() : NO_CALL_STACK_INFORMATION;
+            LogRecord record = new LogRecord(group, tag, message, callStackInformation, printThrowable, throwable, params);
+            if(offerRecord(record)) {
+                result = record.getId();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Add the record to the queue applying the overflow policy if the queue is full, and
+     * wake up the consumer thread if it is waiting.
      * @param record Record to add.
+     * @return Returns true if the record was added.
      */
-    private UUID addRecord(LogRecord record) {
-        if (instance.queue.add(record)) {
-            synchronized (this.logMonitor) {
-                this.logMonitor.notifyAll();
+    private boolean offerRecord(LogRecord record) {
+        boolean result = queue.offer(record);
+        if(!result && Thread.currentThread() != consumerThread &&
+                SystemProperties.get(SystemProperties.Log.OVERFLOW_POLICY).equals(OverflowPolicy.BLOCK.toString())) {
+            while(!(result = queue.offer(record)) && !shuttingDown) {
+                wakeUpConsumer();
+                Thread.yield();
+            }
+        }
+
+        if(result) {
+            if(consumerWaiting) {
+                wakeUpConsumer();
             }
+        } else {
+            droppedRecords.incrementAndGet();
+        }
+        return result;
+    }
+
+    /**
+     * Wake up the consumer thread.
+     */
+    private void wakeUpConsumer() {
+        Thread consumerThread = this.consumerThread;
+        if(consumerThread != null) {
+            LockSupport.unpark(consumerThread);
         }
-        return record.getId();
     }
 
     /**
@@ -133,8 +194,21 @@ public final class Log extends Service<LogPrinter> {
      * @return Call stack information.
      */
     private static String[] getCallStackInformation() {
-        StackTraceElement element = Thread.currentThread().getStackTrace()[3];
-        return new String[] {element.getClassName(), element.getMethodName(), Integer.toString(element.getLineNumber())};
+        return stackWalker.walk(frames -> frames.
+                filter(F -> !F.getClassName().equals(Log.class.getName())).
+                findFirst().
+                map(F -> new String[] {F.getClassName(), F.getMethodName(), Integer.toString(F.getLineNumber())}).
+                orElse(NO_CALL_STACK_INFORMATION));
+    }
+
+    /**
+     * Verify if the records of the group are printed, this method could be used to avoid the
+     * creation of expensive parameters.
+     * @param group Log group.
+     * @return Returns true if the records of the group are printed.
+     */
+    public static boolean isEnabled(LogGroup group) {
+        return group.getOrder() >= SystemProperties.getInteger(SystemProperties.Log.LEVEL) && instance.verifyPrinters();
     }
 
     /**
@@ -146,6 +220,14 @@ public final class Log extends Service<LogPrinter> {
         instance.registerConsumer(printer);
     }
 
+    /**
+     * This method unregister a printer.
+     * @param printer Printer.
+     */
+    public static void removePrinter(LogPrinter printer) {
+        instance.unregisterConsumer(printer);
+    }
+
     private boolean verifyPrinters() {
         return SystemProperties.getBoolean(SystemProperties.Log.SYSTEM_OUT_ENABLED) || instance.printers.size() > 0;
     }
@@ -161,12 +243,7 @@ public final class Log extends Service<LogPrinter> {
      * if the service does not generate any log records
      */
     public static UUID d(String tag, String message, Object... params) {
-        UUID result = null;
-        if(instance.verifyPrinters()) {
-            result = instance.addRecord(new LogRecord(LogGroup.DEBUG, tag, message,
-                    getCallStackInformation(), params));
-        }
-        return result;
+        return instance.addRecord(LogGroup.DEBUG, tag, message, false, null, params);
     }
 
     /**
@@ -181,12 +258,7 @@ public final class Log extends Service<LogPrinter> {
      * if the service does not generate any log records
      */
     public static UUID d(String tag, String message, Throwable throwable, Object... params) {
-        UUID result = null;
-        if(instance.verifyPrinters()) {
-            result = instance.addRecord(new LogRecord(LogGroup.DEBUG, tag, message,
-                    getCallStackInformation(), throwable, params));
-        }
-        return result;
+        return instance.addRecord(LogGroup.DEBUG, tag, message, true, throwable, params);
     }
 
     /**
@@ -202,12 +274,7 @@ public final class Log extends Service<LogPrinter> {
      * if the service does not generate any log records
      */
     public static UUID d(String tag, String message, Boolean printThrowable, Throwable throwable, Object... params) {
-        UUID result = null;
-        if(instance.verifyPrinters()) {
-            result = instance.addRecord(new LogRecord(LogGroup.DEBUG, tag, message,
-                    getCallStackInformation(), printThrowable, throwable, params));
-        }
-        return result;
+        return instance.addRecord(LogGroup.DEBUG, tag, message, printThrowable, throwable, params);
     }
 
     /**
@@ -221,12 +288,7 @@ public final class Log extends Service<LogPrinter> {
      * if the service does not generate any log records
      */
     public static UUID i(String tag, String message, Object... params) {
-        UUID result = null;
-        if(instance.verifyPrinters()) {
-            result = instance.addRecord(new LogRecord(LogGroup.INFO, tag, message,
-                    getCallStackInformation(), params));
-        }
-        return result;
+        return instance.addRecord(LogGroup.INFO, tag, message, false, null, params);
     }
 
     /**
@@ -240,12 +302,7 @@ public final class Log extends Service<LogPrinter> {
      * if the service does not generate any log records
      */
     public static UUID in(String tag, String message, Object... params) {
-        UUID result = null;
-        if(instance.verifyPrinters()) {
-            result = instance.addRecord(new LogRecord(LogGroup.INPUT, tag, message,
-                    getCallStackInformation(), params));
-        }
-        return result;
+        return instance.addRecord(LogGroup.INPUT, tag, message, false, null, params);
     }
 
     /**
@@ -259,12 +316,7 @@ public final class Log extends Service<LogPrinter> {
      * if the service does not generate any log records
      */
     public static UUID out(String tag, String message, Object... params) {
-        UUID result = null;
-        if(instance.verifyPrinters()) {
-            result = instance.addRecord(new LogRecord(LogGroup.OUTPUT, tag, message,
-                    getCallStackInformation(), params));
-        }
-        return result;
+        return instance.addRecord(LogGroup.OUTPUT, tag, message, false, null, params);
     }
 
     /**
@@ -278,12 +330,7 @@ public final class Log extends Service<LogPrinter> {
      * if the service does not generate any log records
      */
     public static UUID w(String tag, String message, Object... params) {
-        UUID result = null;
-        if(instance.verifyPrinters()) {
-            result = instance.addRecord(new LogRecord(LogGroup.WARNING, tag, message,
-                    getCallStackInformation(), params));
-        }
-        return result;
+        return instance.addRecord(LogGroup.WARNING, tag, message, false, null, params);
     }
 
     /**
@@ -298,12 +345,7 @@ public final class Log extends Service<LogPrinter> {
      * if the service does not generate any log records
      */
     public static UUID w(String tag, String message, Throwable throwable, Object... params) {
-        UUID result = null;
-        if(instance.verifyPrinters()) {
-            result = instance.addRecord(new LogRecord(LogGroup.WARNING, tag, message,
-                    getCallStackInformation(), throwable, params));
-        }
-        return result;
+        return instance.addRecord(LogGroup.WARNING, tag, message, true, throwable, params);
     }
 
     /**
@@ -319,12 +361,7 @@ public final class Log extends Service<LogPrinter> {
      * if the service does not generate any log records
      */
     public static UUID w(String tag, String message, Boolean printThrowable, Throwable throwable, Object... params) {
-        UUID result = null;
-        if(instance.verifyPrinters()) {
-            result = instance.addRecord(new LogRecord(LogGroup.WARNING, tag, message,
-                    getCallStackInformation(), printThrowable, throwable, params));
-        }
-        return result;
+        return instance.addRecord(LogGroup.WARNING, tag, message, printThrowable, throwable, params);
     }
 
     /**
@@ -338,12 +375,7 @@ public final class Log extends Service<LogPrinter> {
      * if the service does not generate any log records
      */
     public static UUID e(String tag, String message, Object... params) {
-        UUID result = null;
-        if(instance.verifyPrinters()) {
-            result = instance.addRecord(new LogRecord(LogGroup.ERROR, tag, message,
-                    getCallStackInformation(), params));
-        }
-        return result;
+        return instance.addRecord(LogGroup.ERROR, tag, message, false, null, params);
     }
 
     /**
@@ -358,12 +390,7 @@ public final class Log extends Service<LogPrinter> {
      * if the service does not generate any log records
      */
     public static UUID e(String tag, String message, Throwable throwable, Object... params) {
-        UUID result = null;
-        if(instance.verifyPrinters()) {
-            result = instance.addRecord(new LogRecord(LogGroup.ERROR, tag, message,
-                    getCallStackInformation(), throwable, params));
-        }
-        return result;
+        return instance.addRecord(LogGroup.ERROR, tag, message, true, throwable, params);
     }
 
     /**
@@ -379,12 +406,7 @@ public final class Log extends Service<LogPrinter> {
      * if the service does not generate any log records
      */
     public static UUID e(String tag, String message, Boolean printThrowable, Throwable throwable, Object... params) {
-        UUID result = null;
-        if(instance.verifyPrinters()) {
-            result = instance.addRecord(new LogRecord(LogGroup.ERROR, tag, message,
-                    getCallStackInformation(), printThrowable, throwable, params));
-        }
-        return result;
+        return instance.addRecord(LogGroup.ERROR, tag, message, printThrowable, throwable, params);
     }
 
     /**
@@ -395,26 +417,45 @@ public final class Log extends Service<LogPrinter> {
         return instance.queue.size();
     }
 
+    /**
+     * Returns the number of records discarded because the queue was full.
+     * @return Number of dropped records.
+     */
+    public static Long getDroppedRecords() {
+        return instance.droppedRecords.get();
+    }
+
     private class LogRunnable implements Runnable {
 
         /**
-         * Wait to found a recor to print.
+         * Wait to found records to print, the records are printed in batches.
          */
         @Override
         public void run() {
-            try {
-                while(!shuttingDown) {
-                    if(instance.queue.isEmpty()) {
-                        synchronized (Log.this.logMonitor) {
-                            Log.this.logMonitor.wait();
-                        }
+            consumerThread = Thread.currentThread();
+            Consumer<LogRecord> recordConsumer = record -> {
+                try {
+                    writeRecord(record);
+                } catch (Exception ex) {}
+            };
+            while(!shuttingDown || queue.size() > 0) {
+                int batchSize = SystemProperties.getInteger(SystemProperties.Log.BATCH_SIZE);
+                if(queue.drain(recordConsumer, batchSize) > 0) {
+                    if (SystemProperties.getBoolean(SystemProperties.Log.SYSTEM_OUT_ENABLED)) {
+                        System.out.flush();
+                        System.err.flush();
+                    }
+                } else if(!shuttingDown) {
+                    consumerWaiting = true;
+                    if(queue.size() == 0) {
+                        LockSupport.parkNanos(SystemProperties.getLong(SystemProperties.Log.CONSUMER_WAIT_TIME) * 1000000);
+                    }
+                    consumerWaiting = false;
+                    if(Thread.interrupted()) {
+                        break;
                     }
-
-                    try {
-                        writeRecord(instance.queue.remove());
-                    } catch (Exception ex) {}
                 }
-            } catch (InterruptedException e) {}
+            }
         }
 
         /**
@@ -440,10 +481,8 @@ public final class Log extends Service<LogPrinter> {
                         } else {
                             if(record.getThrowable() != null) {
                                 System.err.println(record.toString());
-                                System.err.flush();
                             } else {
                                 System.out.println(record.toString());
-                                System.out.flush();
                             }
                         }
                     }
@@ -452,15 +491,99 @@ public final class Log extends Service<LogPrinter> {
         }
     }
 
+    /**
+     * Bounded ring buffer with many producers and only one consumer, each slot has a sequence number
+     * that indicates if the slot is free for the producers or published for the consumer.
+     */
+    private static final class RecordRing {
+
+        private final AtomicReferenceArray<LogRecord> records;
+        private final AtomicLongArray sequences;
+        private final int capacity;
+        private final int mask;
+        private final AtomicLong tail;
+        private volatile long head;
+
+        private RecordRing(int capacity) {
+            this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+            this.mask = this.capacity - 1;
+            this.records = new AtomicReferenceArray<>(this.capacity);
+            this.sequences = new AtomicLongArray(this.capacity);
+            for (int i = 0; i < this.capacity; i++) {
+                sequences.set(i, i);
+            }
+            this.tail = new AtomicLong();
+        }
+
+        /**
+         * Adds the record into the ring if there are free slots.
+         * @param record Record to add.
+         * @return Returns true if the record was added or false if the ring is full.
+         */
+        private boolean offer(LogRecord record) {
+            boolean result = false;
+            while(true) {
+                long position = tail.get();
+                int index = (int) (position & mask);
+                long sequence = sequences.get(index);
+                if(sequence == position) {
+                    if(tail.compareAndSet(position, position + 1)) {
+                        records.set(index, record);
+                        sequences.set(index, position + 1);
+                        result = true;
+                        break;
+                    }
+                } else if(sequence < position) {
+                    //The slot is not consumed yet, then the ring is full.
+                    break;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Consumes the published records in order, this method must be called only by the consumer thread.
+         * @param consumer Record consumer.
+         * @param maxSize Max number of records to consume.
+         * @return Number of consumed records.
+         */
+        private int drain(Consumer<LogRecord> consumer, int maxSize) {
+            int result = 0;
+            long position = head;
+            while(result < maxSize) {
+                int index = (int) (position & mask);
+                if(sequences.get(index) != position + 1) {
+                    break;
+                }
+                LogRecord record = records.get(index);
+                records.set(index, null);
+                sequences.set(index, position + capacity);
+                position++;
+                head = position;
+                result++;
+                consumer.accept(record);
+            }
+            return result;
+        }
+
+        /**
+         * Returns the number of records into the ring.
+         * @return Size of the ring.
+         */
+        private int size() {
+            return (int) Math.max(0, tail.get() - head);
+        }
+    }
+
     /**
      * This class contains all the information to write a record in the log.
-     * The instances of this class will be queued sorted chronologically waiting for
+     * The instances of this class will be queued chronologically waiting for
      * be written
      */
     public static final class LogRecord {
 
         private final UUID id;
-        private final Date date;
+        private final long time;
         private final LogGroup group;
         private final String tag;
         private final String originalMessage;
@@ -468,7 +591,6 @@ public final class Log extends Service<LogPrinter> {
         private final String className;
         private final String methodName;
         private final String lineNumber;
-        private final SimpleDateFormat dateFormat;
         private final Object[] params;
         private final Throwable throwable;
         private final Boolean printThrowable;
@@ -484,11 +606,12 @@ public final class Log extends Service<LogPrinter> {
          */
         private LogRecord(LogGroup group, String tag, String message, String[] callStackInformation,
                           Boolean printThrowable, Throwable throwable, Object... params) {
-            this.id = UUID.randomUUID();
-            this.date = new Date();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            this.id = new UUID((random.nextLong() & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L,
+                    (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L);
+            this.time = System.currentTimeMillis();
             this.group = group;
             this.tag = tag;
-            this.dateFormat = new SimpleDateFormat(SystemProperties.get(SystemProperties.Log.DATE_FORMAT));
             this.originalMessage = message;
             this.className = callStackInformation[0];
             this.methodName = callStackInformation[1];
@@ -504,30 +627,6 @@ public final class Log extends Service<LogPrinter> {
             }
         }
 
-        /**
-         * Constructor
-         * @param group Group of the record.
-         * @param tag Tag for the record.
-         * @param message Message with wildcard for the parameters.
-         * @param params Values that will be put in for each places of the message.
-         */
-        private LogRecord(LogGroup group, String tag, String message,
-                          String[] callStackInformation, Throwable throwable, Object... params) {
-            this(group, tag, message, callStackInformation, true, throwable, params);
-        }
-
-        /**
-         * Constructor
-         * @param group Group of the record.
-         * @param tag Tag for the record.
-         * @param message Message with wildcard for the parameters.
-         * @param params Values that will be put in for each places of the message.
-         */
-        private LogRecord(LogGroup group, String tag, String message,
-                          String[] callStackInformation, Object... params) {
-            this(group, tag, message, callStackInformation, false, null, params);
-        }
-
         /**
          * Returns the id of log record.
          * @return Log record id.
@@ -565,7 +664,7 @@ public final class Log extends Service<LogPrinter> {
                 printWriter.print(Strings.StandardOutput.GREEN_BOLD);
             }
 
-            printWriter.print(dateFormat.format(getDate()));
+            printWriter.print(getDateFormat().format(getDate()));
 
             printWriter.print(Strings.StandardOutput.RESET);
 
@@ -607,6 +706,21 @@ public final class Log extends Service<LogPrinter> {
             return stringWriter.toString();
         }
 
+        /**
+         * Returns the date format of the current thread, the instance is created again only if
+         * the format property changes.
+         * @return Date format instance.
+         */
+        private SimpleDateFormat getDateFormat() {
+            String pattern = SystemProperties.get(SystemProperties.Log.DATE_FORMAT);
+            SimpleDateFormat result = dateFormats.get();
+            if(result == null || !result.toPattern().equals(pattern)) {
+                result = new SimpleDateFormat(pattern);
+                dateFormats.set(result);
+            }
+            return result;
+        }
+
         /**
          * Returns the session instance owner of this record.
          * @return Session instance.
@@ -620,7 +734,7 @@ public final class Log extends Service<LogPrinter> {
          * @return Record date.
          */
         public Date getDate() {
-            return date;
+            return new Date(time);
         }
 
         /**
@@ -708,6 +822,23 @@ public final class Log extends Service<LogPrinter> {
         }
     }
 
+    /**
+     * Policies applied when the log queue is full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * The thread that creates the record waits until the queue has space.
+         */
+        BLOCK,
+
+        /**
+         * The new record is discarded.
+         */
+        DROP_NEWEST
+
+    }
+
     /**
      * This enum contains all the possible groups for the records
      */
@@ -38,6 +38,7 @@ public final class SystemProperties extends Properties {
     public static final String HCJF_MATH_CONNECTOR_REGULAR_EXPRESSION = "hcjf.math.connector.regular.expression";
     public static final String HCJF_MATH_SPLITTER_REGULAR_EXPRESSION = "hcjf.math.splitter.regular.expression";
     public static final String HCJF_DEFAULT_LRU_MAP_SIZE = "hcjf.default.lru.map.size";
+    public static final String HCJF_DEFAULT_TTL_REAPER_PERIOD = "hcjf.default.ttl.reaper.period";
     public static final String HCJF_DEFAULT_EXCEPTION_MESSAGE_TAG = "hcjf.default.exception.message.tag";
     public static final String HCJF_CHECKSUM_ALGORITHM = "hcjf.checksum.algorithm";
 
@@ -55,6 +56,7 @@ public final class SystemProperties extends Properties {
         public static final String PLUGIN_THREADING_GRANT = "hcjf.layers.plugin.threading.grant";
         public static final String PLUGIN_FILE_ACCESS_GRANT = "hcjf.layers.plugin.file.access.grant";
         public static final String DISTRIBUTED_LAYER_ENABLED = "hcjf.layers.distributed.layer.enabled";
+        public static final String CALLER_THREAD_INVOCATION_ENABLED = "hcjf.layers.caller.thread.invocation.enabled";
     }
 
     public static final class Service {
@@ -78,6 +80,9 @@ public final class SystemProperties extends Properties {
         public static final String LOG_TAG = "hcjf.event.log.tag";
         public static final String SERVICE_NAME = "hcjf.event.service.name";
         public static final String SERVICE_PRIORITY = "hcjf.event.service.priority";
+        public static final String MAILBOX_CAPACITY = "hcjf.event.mailbox.capacity";
+        public static final String MAILBOX_BATCH_SIZE = "hcjf.event.mailbox.batch.size";
+        public static final String MAILBOX_OVERFLOW_POLICY = "hcjf.event.mailbox.overflow.policy";
     }
 
     public static final class Collector {
@@ -97,6 +102,7 @@ public final class SystemProperties extends Properties {
             public static final String J_SHELL_INSTANCE_TIMEOUT = "hcjf.code.evaluator.java.j.shell.instance.timeout";
             public static final String SCRIPT_CACHE_SIZE = "hcjf.code.evaluator.java.script.cache.size";
             public static final String IMPORTS = "hcjf.code.evaluator.java.script.cache.imports";
+            public static final String COMPILED_SCRIPTS_ENABLED = "hcjf.code.evaluator.java.compiled.scripts.enabled";
         }
 
         public static final class Python {
@@ -105,6 +111,8 @@ public final class SystemProperties extends Properties {
 
         public static final class Js {
             public static final String IMPL_NAME = "hcjf.code.evaluator.js.impl.name";
+            public static final String CONTEXT_POOL_SIZE = "hcjf.code.evaluator.js.context.pool.size";
+            public static final String SCRIPT_CACHE_SIZE = "hcjf.code.evaluator.js.script.cache.size";
         }
     }
 
@@ -138,10 +146,23 @@ public final class SystemProperties extends Properties {
         public static final String CONSUMERS = "hcjf.log.consumers";
         public static final String SYSTEM_OUT_ENABLED = "hcjf.log.system.out.enabled";
         public static final String JAVA_STANDARD_LOGGER_ENABLED = "hcjf.log.java.standard.logger.enabled";
+        /**
+         * @deprecated This property is ignored by the ring buffer of the log, use {@link #QUEUE_CAPACITY}.
+         */
+        @Deprecated
         public static final String QUEUE_INITIAL_SIZE = "hcjf.log.queue.initial.size";
         public static final String TRUNCATE_TAG = "hcjf.log.truncate.tag";
         public static final String TRUNCATE_TAG_SIZE = "hcjf.log.truncate.tag.size";
+        /**
+         * @deprecated This property is ignored by the ring buffer of the log, the log has only one consumer thread.
+         */
+        @Deprecated
         public static final String LOG_CONSUMERS_SIZE = "hcjf.log.consumers.size";
+        public static final String QUEUE_CAPACITY = "hcjf.log.queue.capacity";
+        public static final String BATCH_SIZE = "hcjf.log.batch.size";
+        public static final String CONSUMER_WAIT_TIME = "hcjf.log.consumer.wait.time";
+        public static final String OVERFLOW_POLICY = "hcjf.log.overflow.policy";
+        public static final String CALL_STACK_INFORMATION_ENABLED = "hcjf.log.call.stack.information.enabled";
     }
 
     public static final class Encoding {
@@ -168,11 +189,22 @@ public final class SystemProperties extends Properties {
         public static final String IO_UDP_LRU_SESSIONS_SIZE = "hcjf.net.io.udp.lru.sessions.size";
         public static final String IO_UDP_LRU_ADDRESSES_SIZE = "hcjf.net.io.udp.lru.addresses.size";
         public static final String IO_QUEUE_SIZE = "hcjf.net.io.queue.size";
+        public static final String DECOUPLED_IO_ACTION_BATCH_SIZE = "hcjf.net.decoupled.io.action.batch.size";
+        public static final String DECOUPLED_IO_ACTION_IDLE_TIMEOUT = "hcjf.net.decoupled.io.action.idle.timeout";
+        public static final String WRITE_COALESCING_MAX_SIZE = "hcjf.net.write.coalescing.max.size";
+        public static final String WRITE_COALESCING_MAX_PACKAGES = "hcjf.net.write.coalescing.max.packages";
+        public static final String MAX_PENDING_OUTBOUND_BYTES = "hcjf.net.max.pending.outbound.bytes";
+        public static final String PENDING_OUTBOUND_WAIT_TIMEOUT = "hcjf.net.pending.outbound.wait.timeout";
         public static final String IO_THREAD_POOL_KEEP_ALIVE_TIME = "hcjf.net.io.thread.pool.keep.alive.time";
         public static final String IO_THREAD_POOL_NAME = "hcjf.net.io.thread.pool.name";
         public static final String DEFAULT_INPUT_BUFFER_SIZE = "hcjf.net.default.input.buffer.size";
         public static final String DEFAULT_OUTPUT_BUFFER_SIZE = "hcjf.net.default.output.buffer.size";
         public static final String IO_THREAD_DIRECT_ALLOCATE_MEMORY = "hcjf.net.io.thread.direct.allocate.memory";
+        public static final String BUFFER_POOL_THREAD_CACHE_SIZE = "hcjf.net.buffer.pool.thread.cache.size";
+        public static final String BUFFER_POOL_MAX_SIZE = "hcjf.net.buffer.pool.max.size";
+        public static final String REACTOR_POOL_SIZE = "hcjf.net.reactor.pool.size";
+        public static final String REACTOR_BALANCE_STRATEGY = "hcjf.net.reactor.balance.strategy";
+        public static final String REACTOR_NAME = "hcjf.net.reactor.name";
         public static final String SSL_MAX_IO_THREAD_POOL_SIZE = "hcjf.net.ssl.max.io.thread.pool.size";
         public static final String PORT_PROVIDER_TIME_WINDOWS_SIZE = "hcjf.net.port.provider.time.windows.size";
         public static final String PORT_PROBE_CONNECTION_TIMEOUT = "hcjf.net.port.probe.connection.timeout";
@@ -234,6 +266,7 @@ public final class SystemProperties extends Properties {
             public static final String SERVER_DECOUPLED_IO_ACTION = "hcjf.net.messages.server.decoupled.io.action";
             public static final String SERVER_IO_QUEUE_SIZE = "hcjf.net.messages.server.io.queue.size";
             public static final String SERVER_IO_WORKERS = "hcjf.net.messages.server.io.workers";
+            public static final String MAX_FRAME_SIZE = "hcjf.net.messages.max.frame.size";
         }
 
         public static final class Http {
@@ -319,6 +352,8 @@ public final class SystemProperties extends Properties {
             public static final String DATA_SOURCE_FIELD = "hcjf.net.http.rest.data.source.field";
             public static final String COMMAND_FIELD = "hcjf.net.http.rest.command.field";
             public static final String COMMANDS_FIELD = "hcjf.net.http.rest.commands.field";
+            public static final String QUERY_STREAMING_ENABLED = "hcjf.net.http.rest.query.streaming.enabled";
+            public static final String QUERY_STREAMING_BUFFER_SIZE = "hcjf.net.http.rest.query.streaming.buffer.size";
         }
 
     }
@@ -366,6 +401,11 @@ public final class SystemProperties extends Properties {
         public static final String EVALUATOR_LEFT_VALUES_CACHE_NAME = "hcjf.query.evaluator.left.values.cache";
         public static final String EVALUATOR_RIGHT_VALUES_CACHE_NAME = "hcjf.query.evaluator.right.values.cache";
         public static final String COMPILER_CACHE_SIZE = "hcjf.query.compiler.cache.size";
+        public static final String COMPILER_CACHE_ENABLED = "hcjf.query.compiler.cache.enabled";
+        public static final String ORDER_MEMORY_BUDGET = "hcjf.query.order.memory.budget";
+        public static final String PARALLEL_ENABLED = "hcjf.query.parallel.enabled";
+        public static final String PARALLEL_THRESHOLD = "hcjf.query.parallel.threshold";
+        public static final String PARALLELISM = "hcjf.query.parallelism";
         public static final String DEFAULT_COMPILER = "hcjf.query.default.compiler";
         public static final String DEFAULT_SERIALIZER = "hcjf.query.default.serializer";
 
@@ -465,12 +505,39 @@ public final class SystemProperties extends Properties {
             public static final String INVOKE_TIMEOUT = "hcjf.cloud.orchestrator.invokeNode.timeout";
             public static final String TEST_NODE_TIMEOUT = "hcjf.cloud.orchestrator.test.node.timeout";
             public static final String REPLICATION_FACTOR = "hcjf.cloud.orchestrator.replication.factor";
+            public static final String VIRTUAL_NODES = "hcjf.cloud.orchestrator.virtual.nodes";
             public static final String NODES = "hcjf.cloud.orchestrator.nodes";
             public static final String SERVICE_END_POINTS = "hcjf.cloud.orchestrator.service.end.points";
             public static final String SERVICE_PUBLICATION_REPLICAS_BROADCASTING_ENABLED = "hcjf.cloud.orchestrator.service.publication.broadcasting.enabled";
             public static final String SERVICE_PUBLICATION_REPLICAS_BROADCASTING_TIMEOUT = "hcjf.cloud.orchestrator.service.publication.broadcasting.timeout";
             public static final String NETWORKING_HANDSHAKE_DETAILS_AVAILABLE = "hcjf.cloud.orchestrator.networking.handshake.details.available";
 
+            public static final class ConnectionPool {
+                public static final String ENABLED = "hcjf.cloud.orchestrator.connection.pool.enabled";
+                public static final String MAX_CONNECTIONS = "hcjf.cloud.orchestrator.connection.pool.max.connections";
+                public static final String MAX_IN_FLIGHT = "hcjf.cloud.orchestrator.connection.pool.max.in.flight";
+                public static final String ACQUIRE_TIMEOUT = "hcjf.cloud.orchestrator.connection.pool.acquire.timeout";
+                public static final String MAX_CONSECUTIVE_FAILURES = "hcjf.cloud.orchestrator.connection.pool.max.consecutive.failures";
+                public static final String RECONNECT_BACKOFF_BASE = "hcjf.cloud.orchestrator.connection.pool.reconnect.backoff.base";
+                public static final String RECONNECT_BACKOFF_MAX = "hcjf.cloud.orchestrator.connection.pool.reconnect.backoff.max";
+            }
+
+            public static final class Lock {
+                public static final String LEASE_DURATION = "hcjf.cloud.orchestrator.lock.lease.duration";
+                public static final String RETRY_TIMEOUT = "hcjf.cloud.orchestrator.lock.retry.timeout";
+                public static final String VOTE_TIMEOUT = "hcjf.cloud.orchestrator.lock.vote.timeout";
+            }
+
+            public static final class NearCache {
+                public static final String ENABLED = "hcjf.cloud.orchestrator.near.cache.enabled";
+                public static final String SIZE = "hcjf.cloud.orchestrator.near.cache.size";
+            }
+
+            public static final class Counter {
+                public static final String BLOCK_SIZE = "hcjf.cloud.orchestrator.counter.block.size";
+                public static final String GOSSIP_PERIOD = "hcjf.cloud.orchestrator.counter.gossip.period";
+            }
+
             public static final class Events {
                 public static final String LOG_TAG = "hcjf.cloud.orchestrator.events.log.tag";
                 public static final String TIMEOUT = "hcjf.cloud.orchestrator.events.timeout";
@@ -582,6 +649,7 @@ public final class SystemProperties extends Properties {
         defaults.put(HCJF_MATH_CONNECTOR_REGULAR_EXPRESSION, ".*[+\\-*/%=<>!].*");
         defaults.put(HCJF_MATH_SPLITTER_REGULAR_EXPRESSION, "(?<=(\\+|\\-|\\*|/|%|=|>|<|<>|!=|>=|<=))|(?=(\\+|\\-|\\*|/|%|=|>|<|<>|!=|>=|<=))");
         defaults.put(HCJF_DEFAULT_LRU_MAP_SIZE, "1000");
+        defaults.put(HCJF_DEFAULT_TTL_REAPER_PERIOD, "1000");
         defaults.put(HCJF_DEFAULT_EXCEPTION_MESSAGE_TAG, "IMPL");
         defaults.put(HCJF_CHECKSUM_ALGORITHM, "MD5");
 
@@ -594,6 +662,7 @@ public final class SystemProperties extends Properties {
         defaults.put(Layer.READABLE_ALL_LAYER_IMPLEMENTATION_NAME, "system_layer");
         defaults.put(Layer.READABLE_LAYER_IMPLEMENTATION_NAME, "system_readable_layer");
         defaults.put(Layer.DISTRIBUTED_LAYER_ENABLED, "false");
+        defaults.put(Layer.CALLER_THREAD_INVOCATION_ENABLED, "false");
 
         defaults.put(Service.STATIC_THREAD_NAME, "StaticServiceThread");
         defaults.put(Service.STATIC_THREAD_POOL_CORE_SIZE, "2");
@@ -613,6 +682,9 @@ public final class SystemProperties extends Properties {
         defaults.put(Event.LOG_TAG, "EVENTS");
         defaults.put(Event.SERVICE_NAME, "Events");
         defaults.put(Event.SERVICE_PRIORITY, "0");
+        defaults.put(Event.MAILBOX_CAPACITY, "10000");
+        defaults.put(Event.MAILBOX_BATCH_SIZE, "100");
+        defaults.put(Event.MAILBOX_OVERFLOW_POLICY, "DROP_NEWEST");
 
         defaults.put(Collector.SERVICE_NAME, "Collectors");
         defaults.put(Collector.SERVICE_PRIORITY, "0");
@@ -626,8 +698,11 @@ public final class SystemProperties extends Properties {
         defaults.put(CodeEvaluator.Java.J_SHELL_INSTANCE_TIMEOUT, "5000");
         defaults.put(CodeEvaluator.Java.SCRIPT_CACHE_SIZE, "10");
         defaults.put(CodeEvaluator.Java.IMPORTS, "[]");
+        defaults.put(CodeEvaluator.Java.COMPILED_SCRIPTS_ENABLED, "false");
 
         defaults.put(CodeEvaluator.Js.IMPL_NAME, "js");
+        defaults.put(CodeEvaluator.Js.CONTEXT_POOL_SIZE, "5");
+        defaults.put(CodeEvaluator.Js.SCRIPT_CACHE_SIZE, "100");
 
         defaults.put(Cryptography.KEY,"71324dccdb58966a04507b0fe2008632940b87c6dc5cea5f4bdf0d0089524c8e");
         defaults.put(Cryptography.ALGORITHM,"AES");
@@ -661,6 +736,11 @@ public final class SystemProperties extends Properties {
         defaults.put(Log.TRUNCATE_TAG, "false");
         defaults.put(Log.TRUNCATE_TAG_SIZE, "35");
         defaults.put(Log.LOG_CONSUMERS_SIZE, "50");
+        defaults.put(Log.QUEUE_CAPACITY, "16384");
+        defaults.put(Log.BATCH_SIZE, "256");
+        defaults.put(Log.CONSUMER_WAIT_TIME, "100");
+        defaults.put(Log.OVERFLOW_POLICY, "BLOCK");
+        defaults.put(Log.CALL_STACK_INFORMATION_ENABLED, "true");
 
         defaults.put(Net.SERVICE_NAME, "Net service");
         defaults.put(Net.LOG_TAG, "NET_SERVICE");
@@ -673,11 +753,22 @@ public final class SystemProperties extends Properties {
         defaults.put(Net.IO_UDP_LRU_ADDRESSES_SIZE, "1000");
         defaults.put(Net.IO_UDP_LRU_SESSIONS_SIZE, "1000");
         defaults.put(Net.IO_QUEUE_SIZE, "1000000");
+        defaults.put(Net.DECOUPLED_IO_ACTION_BATCH_SIZE, "16");
+        defaults.put(Net.DECOUPLED_IO_ACTION_IDLE_TIMEOUT, "1000");
+        defaults.put(Net.WRITE_COALESCING_MAX_SIZE, "65536");
+        defaults.put(Net.WRITE_COALESCING_MAX_PACKAGES, "64");
+        defaults.put(Net.MAX_PENDING_OUTBOUND_BYTES, "8388608");
+        defaults.put(Net.PENDING_OUTBOUND_WAIT_TIMEOUT, "10000");
         defaults.put(Net.IO_THREAD_POOL_KEEP_ALIVE_TIME, "120");
         defaults.put(Net.IO_THREAD_POOL_NAME, "IoThreadPool");
         defaults.put(Net.DEFAULT_INPUT_BUFFER_SIZE, "102400");
         defaults.put(Net.DEFAULT_OUTPUT_BUFFER_SIZE, "102400");
         defaults.put(Net.IO_THREAD_DIRECT_ALLOCATE_MEMORY, "false");
+        defaults.put(Net.BUFFER_POOL_THREAD_CACHE_SIZE, "2");
+        defaults.put(Net.BUFFER_POOL_MAX_SIZE, "64");
+        defaults.put(Net.REACTOR_POOL_SIZE, Integer.toString(Runtime.getRuntime().availableProcessors()));
+        defaults.put(Net.REACTOR_BALANCE_STRATEGY, "ROUND_ROBIN"); //Valid values [ROUND_ROBIN, LEAST_LOADED]
+        defaults.put(Net.REACTOR_NAME, "NetReactor-%d");
         defaults.put(Net.SSL_MAX_IO_THREAD_POOL_SIZE, "2");
         defaults.put(Net.PORT_PROVIDER_TIME_WINDOWS_SIZE, "15000");
         defaults.put(Net.PORT_PROBE_CONNECTION_TIMEOUT, "1000");
@@ -728,8 +819,9 @@ public final class SystemProperties extends Properties {
 
         defaults.put(Net.Messages.LOG_TAG, "MESSAGES");
         defaults.put(Net.Messages.SERVER_DECOUPLED_IO_ACTION, "true");
-        defaults.put(Net.Messages.SERVER_IO_QUEUE_SIZE, "100000");
+        defaults.put(Net.Messages.SERVER_IO_QUEUE_SIZE, "1000");
         defaults.put(Net.Messages.SERVER_IO_WORKERS, "5");
+        defaults.put(Net.Messages.MAX_FRAME_SIZE, "67108864");
 
         defaults.put(Net.Http.INPUT_LOG_ENABLED, "false");
         defaults.put(Net.Http.OUTPUT_LOG_ENABLED, "false");
@@ -751,7 +843,7 @@ public final class SystemProperties extends Properties {
         defaults.put(Net.Http.AUTOMATIC_CONTENT_LENGTH_SKIP_CODES, "[304]");
         defaults.put(Net.Http.MAX_PACKAGE_SIZE, Integer.toString(20 * 1024 * 1024));
         defaults.put(Net.Http.SERVER_DECOUPLED_IO_ACTION, "true");
-        defaults.put(Net.Http.SERVER_IO_QUEUE_SIZE, "100000");
+        defaults.put(Net.Http.SERVER_IO_QUEUE_SIZE, "1000");
         defaults.put(Net.Http.SERVER_IO_WORKERS, "5");
 
         defaults.put(Net.Https.DEFAULT_SERVER_PORT, "443");
@@ -795,6 +887,8 @@ public final class SystemProperties extends Properties {
         defaults.put(Net.Rest.DATA_SOURCE_FIELD, "_dataSource");
         defaults.put(Net.Rest.COMMAND_FIELD, "_command");
         defaults.put(Net.Rest.COMMANDS_FIELD, "_commands");
+        defaults.put(Net.Rest.QUERY_STREAMING_ENABLED, "false");
+        defaults.put(Net.Rest.QUERY_STREAMING_BUFFER_SIZE, "8192");
 
         defaults.put(ProcessDiscovery.LOG_TAG, "PROCESS_DISCOVERY");
         defaults.put(ProcessDiscovery.SERVICE_NAME, "Process Discovery Service");
@@ -836,6 +930,11 @@ public final class SystemProperties extends Properties {
         defaults.put(Query.EVALUATOR_LEFT_VALUES_CACHE_NAME, "__evaluator__left__values__cache__");
         defaults.put(Query.EVALUATOR_RIGHT_VALUES_CACHE_NAME, "__evaluator__right__values__cache__");
         defaults.put(Query.COMPILER_CACHE_SIZE, "1000");
+        defaults.put(Query.COMPILER_CACHE_ENABLED, "true");
+        defaults.put(Query.ORDER_MEMORY_BUDGET, "100000");
+        defaults.put(Query.PARALLEL_ENABLED, "false");
+        defaults.put(Query.PARALLEL_THRESHOLD, "10000");
+        defaults.put(Query.PARALLELISM, Integer.toString(Runtime.getRuntime().availableProcessors()));
         defaults.put(Query.DEFAULT_COMPILER, "SQL");
         defaults.put(Query.DEFAULT_SERIALIZER, "SQL");
         defaults.put(Query.ReservedWord.ENVIRONMENT, "ENVIRONMENT");
@@ -923,11 +1022,26 @@ public final class SystemProperties extends Properties {
         defaults.put(Cloud.Orchestrator.INVOKE_TIMEOUT, "120000");
         defaults.put(Cloud.Orchestrator.TEST_NODE_TIMEOUT, "2000");
         defaults.put(Cloud.Orchestrator.REPLICATION_FACTOR, "2");
+        defaults.put(Cloud.Orchestrator.VIRTUAL_NODES, "128");
         defaults.put(Cloud.Orchestrator.NODES, "[]");
         defaults.put(Cloud.Orchestrator.SERVICE_END_POINTS, "[]");
         defaults.put(Cloud.Orchestrator.SERVICE_PUBLICATION_REPLICAS_BROADCASTING_ENABLED, "true");
         defaults.put(Cloud.Orchestrator.SERVICE_PUBLICATION_REPLICAS_BROADCASTING_TIMEOUT, "2000");
         defaults.put(Cloud.Orchestrator.NETWORKING_HANDSHAKE_DETAILS_AVAILABLE, "false");
+        defaults.put(Cloud.Orchestrator.ConnectionPool.ENABLED, "true");
+        defaults.put(Cloud.Orchestrator.ConnectionPool.MAX_CONNECTIONS, "4");
+        defaults.put(Cloud.Orchestrator.ConnectionPool.MAX_IN_FLIGHT, "64");
+        defaults.put(Cloud.Orchestrator.ConnectionPool.ACQUIRE_TIMEOUT, "10000");
+        defaults.put(Cloud.Orchestrator.ConnectionPool.MAX_CONSECUTIVE_FAILURES, "3");
+        defaults.put(Cloud.Orchestrator.ConnectionPool.RECONNECT_BACKOFF_BASE, "100");
+        defaults.put(Cloud.Orchestrator.ConnectionPool.RECONNECT_BACKOFF_MAX, "10000");
+        defaults.put(Cloud.Orchestrator.Lock.LEASE_DURATION, "30000");
+        defaults.put(Cloud.Orchestrator.Lock.RETRY_TIMEOUT, "1000");
+        defaults.put(Cloud.Orchestrator.Lock.VOTE_TIMEOUT, "5000");
+        defaults.put(Cloud.Orchestrator.NearCache.ENABLED, "true");
+        defaults.put(Cloud.Orchestrator.NearCache.SIZE, "10000");
+        defaults.put(Cloud.Orchestrator.Counter.BLOCK_SIZE, "1000");
+        defaults.put(Cloud.Orchestrator.Counter.GOSSIP_PERIOD, "1000");
         defaults.put(Cloud.Orchestrator.CLUSTER_NAME, "hcjf");
         defaults.put(Cloud.Orchestrator.ThisNode.READABLE_LAYER_IMPLEMENTATION_NAME, "system_cloud_node");
         defaults.put(Cloud.Orchestrator.ThisNode.NAME, "hcjf-node");
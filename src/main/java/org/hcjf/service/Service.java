@@ -326,6 +326,20 @@ public abstract class Service<C extends ServiceConsumer> {
         return result;
     }
 
+    /**
+     * This method submit a callable instance to the service executor and returns the future
+     * without wait for the response.
+     * @param callable Callable instance.
+     * @param serviceSession Service session.
+     * @param <O> Expected response.
+     * @return Future instance of the execution.
+     * @throws RejectedExecutionException if the service executor can't accept the task.
+     */
+    public static final <O extends Object> Future<O> submit(Callable<O> callable, ServiceSession serviceSession) {
+        CallableWrapper callableWrapper = new CallableWrapper(callable, serviceSession.getClone());
+        return SystemServices.instance.serviceExecutor.submit(callableWrapper);
+    }
+
     /**
      * This internal class contains all the services registered
      * in the system.
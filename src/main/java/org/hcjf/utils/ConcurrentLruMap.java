@@ -0,0 +1,365 @@
+package org.hcjf.utils;
+
+import org.hcjf.properties.SystemProperties;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Concurrent implementation of a map with a fixed size that removes the elements least recently used (LRU).
+ * The readers never block, each read is recorded into a striped buffer and the buffers are drained into the
+ * access order list by the thread that gets the lock. When a buffer is full the reads are discarded,
+ * then the access order is an approximation under high contention.
+ * The writes are applied under the lock in order to maintain the max size of the map.
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public class ConcurrentLruMap<K extends Object, V extends Object> extends AbstractMap<K,V> {
+
+    private static final int BUFFER_SIZE = 32;
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+    private static final int DRAIN_THRESHOLD = BUFFER_SIZE / 2;
+
+    private volatile Integer maxSize;
+    private final ConcurrentHashMap<K, Node<K,V>> data;
+    private final ReentrantLock evictionLock;
+    private final ReadBuffer<K,V>[] readBuffers;
+    private final int readBuffersMask;
+    private final List<LruMap.RemoveOverflowListener<K,V>> listeners;
+    private final Node<K,V> sentinel;
+    private Set<Entry<K,V>> entrySet;
+
+    public ConcurrentLruMap() {
+        this(SystemProperties.getInteger(SystemProperties.HCJF_DEFAULT_LRU_MAP_SIZE));
+    }
+
+    public ConcurrentLruMap(Integer maxSize) {
+        this.maxSize = maxSize;
+        this.data = new ConcurrentHashMap<>();
+        this.evictionLock = new ReentrantLock();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.sentinel = new Node<>(null, null);
+        this.sentinel.previous = sentinel;
+        this.sentinel.next = sentinel;
+
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        this.readBuffers = new ReadBuffer[stripes];
+        for (int i = 0; i < stripes; i++) {
+            readBuffers[i] = new ReadBuffer<>();
+        }
+        this.readBuffersMask = stripes - 1;
+    }
+
+    /**
+     * Add a listener remove overflow listener.
+     * @param listener Listener instance.
+     */
+    public final void addRemoveOverflowListener(LruMap.RemoveOverflowListener<K,V> listener) {
+        if(listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Returns the max size of the map.
+     * @return Max size of the map.
+     */
+    public final Integer getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Set the max size of the map.
+     * @param maxSize Max size of the map.
+     */
+    public final void setMaxSize(Integer maxSize) {
+        evictionLock.lock();
+        try {
+            this.maxSize = maxSize;
+            drainReadBuffers();
+            removeOverflow();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Records the read of the node into the buffer of the current thread, if the buffer
+     * is full then the read is discarded.
+     * @param node Read node.
+     */
+    private void recordRead(Node<K,V> node) {
+        ReadBuffer<K,V> buffer = readBuffers[(int) Thread.currentThread().getId() & readBuffersMask];
+        int pending = buffer.offer(node);
+        if(pending >= DRAIN_THRESHOLD && evictionLock.tryLock()) {
+            try {
+                drainReadBuffers();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Moves all the nodes recorded into the read buffers to the end of the access order list.
+     * This method must be called with the lock held.
+     */
+    private void drainReadBuffers() {
+        for(ReadBuffer<K,V> buffer : readBuffers) {
+            buffer.drain(this::moveToTail);
+        }
+    }
+
+    /**
+     * Moves the node to the end of the access order list if the node is still linked.
+     * This method must be called with the lock held.
+     * @param node Node instance.
+     */
+    private void moveToTail(Node<K,V> node) {
+        if(node.previous != null) {
+            unlink(node);
+            linkLast(node);
+        }
+    }
+
+    private void linkLast(Node<K,V> node) {
+        node.previous = sentinel.previous;
+        node.next = sentinel;
+        sentinel.previous.next = node;
+        sentinel.previous = node;
+    }
+
+    private void unlink(Node<K,V> node) {
+        if(node.previous != null) {
+            node.previous.next = node.next;
+            node.next.previous = node.previous;
+            node.previous = null;
+            node.next = null;
+        }
+    }
+
+    /**
+     * Removes the least recently used elements until the size of the map is the max size.
+     * This method must be called with the lock held.
+     */
+    private void removeOverflow() {
+        while(data.size() > maxSize && sentinel.next != sentinel) {
+            Node<K,V> node = sentinel.next;
+            unlink(node);
+            if(data.remove(node.key, node)) {
+                listeners.forEach(L -> L.onRemove(node.key, node.value));
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return data.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return data.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return data.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        V result = null;
+        Node<K,V> node = data.get(key);
+        if(node != null) {
+            recordRead(node);
+            result = node.value;
+        }
+        return result;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return put(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return put(key, value, true);
+    }
+
+    private V put(K key, V value, boolean onlyIfAbsent) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        V result = null;
+        evictionLock.lock();
+        try {
+            drainReadBuffers();
+            Node<K,V> node = data.get(key);
+            if(node == null) {
+                node = new Node<>(key, value);
+                data.put(key, node);
+                linkLast(node);
+                removeOverflow();
+            } else {
+                result = node.value;
+                if(!onlyIfAbsent) {
+                    node.value = value;
+                }
+                moveToTail(node);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public V remove(Object key) {
+        V result = null;
+        evictionLock.lock();
+        try {
+            Node<K,V> node = data.remove(key);
+            if(node != null) {
+                unlink(node);
+                result = node.value;
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        evictionLock.lock();
+        try {
+            drainReadBuffers();
+            while(sentinel.next != sentinel) {
+                unlink(sentinel.next);
+            }
+            data.clear();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if(entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    Iterator<Node<K,V>> iterator = data.values().iterator();
+                    return new Iterator<>() {
+
+                        private Node<K,V> current;
+
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<K, V> next() {
+                            current = iterator.next();
+                            return new SimpleImmutableEntry<>(current.key, current.value);
+                        }
+
+                        @Override
+                        public void remove() {
+                            if(current == null) {
+                                throw new IllegalStateException();
+                            }
+                            ConcurrentLruMap.this.remove(current.key);
+                            current = null;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return data.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * Element of the map linked into the access order list.
+     * @param <K> Key type.
+     * @param <V> Value type.
+     */
+    private static final class Node<K extends Object, V extends Object> {
+
+        private final K key;
+        private volatile V value;
+        private Node<K,V> previous;
+        private Node<K,V> next;
+
+        private Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Bounded ring buffer with many producers and only one consumer (the thread that holds the lock).
+     * @param <K> Key type.
+     * @param <V> Value type.
+     */
+    private static final class ReadBuffer<K extends Object, V extends Object> {
+
+        private final AtomicReferenceArray<Node<K,V>> buffer;
+        private final AtomicLong writeCounter;
+        private volatile long readCounter;
+
+        private ReadBuffer() {
+            this.buffer = new AtomicReferenceArray<>(BUFFER_SIZE);
+            this.writeCounter = new AtomicLong();
+        }
+
+        /**
+         * Adds the node into the buffer if the buffer is not full.
+         * @param node Node instance.
+         * @return Number of pending nodes into the buffer.
+         */
+        private int offer(Node<K,V> node) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            int result = (int) (tail - head);
+            if(result < BUFFER_SIZE && writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) (tail & BUFFER_MASK), node);
+                result++;
+            }
+            return result;
+        }
+
+        /**
+         * Consumes all the published nodes of the buffer.
+         * @param consumer Node consumer.
+         */
+        private void drain(Consumer<Node<K,V>> consumer) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            while(head < tail) {
+                int index = (int) (head & BUFFER_MASK);
+                Node<K,V> node = buffer.get(index);
+                if(node == null) {
+                    //The producer has not published the node yet.
+                    break;
+                }
+                buffer.lazySet(index, null);
+                consumer.accept(node);
+                head++;
+            }
+            readCounter = head;
+        }
+    }
+}
@@ -8,8 +8,12 @@ import org.hcjf.service.security.Permission;
 import org.hcjf.service.security.SecurityPermissions;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.*;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -33,8 +37,44 @@ public final class Introspection {
     private static final int SETTER_GETTER_FIRST_CHAR_FIELD_NAME_GROUP = 2;
     private static final int SETTER_GETTER_FIELD_NAME_GROUP = 3;
 
-    private static final Map<String, Map<String, ? extends Invoker>> invokerCache = new HashMap<>();
-    private static final Map<Class, Map<String, Accessors>> accessorsCache = new HashMap<>();
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final Map<String, Map<String, ? extends Invoker>> invokerCache = new ConcurrentHashMap<>();
+    private static final Map<Class, Map<String, Getter>> gettersCache = new ConcurrentHashMap<>();
+    private static final Map<Class, Map<String, Setter>> settersCache = new ConcurrentHashMap<>();
+    private static final Map<Class, Map<String, Accessors>> accessorsCache = new ConcurrentHashMap<>();
+
+    private static final InvokerFilter<Getter> GETTER_FILTER = method -> {
+        InvokerEntry<Getter> result = null;
+        Matcher matcher;
+        String fieldName;
+        if(Modifier.isPublic(method.getModifiers())) {
+            matcher = GETTER_METHODS_PATTERN.matcher(method.getName());
+            if(matcher.matches() && !method.getReturnType().equals(Void.TYPE) &&
+                    method.getParameterTypes().length == 0) {
+                fieldName = matcher.group(SETTER_GETTER_FIRST_CHAR_FIELD_NAME_GROUP).toLowerCase() +
+                        matcher.group(SETTER_GETTER_FIELD_NAME_GROUP);
+                result = new InvokerEntry<>(fieldName, new Getter(method.getDeclaringClass(), fieldName, method));
+            }
+        }
+        return result;
+    };
+
+    private static final InvokerFilter<Setter> SETTER_FILTER = method -> {
+        InvokerEntry<Setter> result = null;
+        Matcher matcher;
+        String fieldName;
+        if(Modifier.isPublic(method.getModifiers())) {
+            matcher = SETTER_METHODS_PATTERN.matcher(method.getName());
+            if(matcher.matches() && method.getReturnType().equals(Void.TYPE) &&
+                    method.getParameterTypes().length == 1) {
+                fieldName = matcher.group(SETTER_GETTER_FIRST_CHAR_FIELD_NAME_GROUP).toLowerCase() +
+                        matcher.group(SETTER_GETTER_FIELD_NAME_GROUP);
+                result = new InvokerEntry<>(fieldName, new Setter(method.getDeclaringClass(), fieldName, method));
+            }
+        }
+        return result;
+    };
 
     /**
      * If the value is an instance of map or collection the the method returns a deep copy of the object, if the value
@@ -552,34 +592,38 @@ public final class Introspection {
      * @return Return the founded invokers.
      */
     public static <I extends Invoker> Map<String, I> getInvokers(Class clazz, InvokerFilter<I> filter) {
-        Map<String, I> result = new HashMap<>();
-        String invokerKey = getInvokerKey(clazz, filter);
+        Map<String, I> result = Map.of();
 
         if(!clazz.equals(Object.class)) {
-            synchronized (invokerCache) {
-                if(!invokerCache.containsKey(invokerKey)) {
-                    invokerCache.put(invokerKey, result);
-
-                    if(clazz.getSuperclass() != null && !clazz.getSuperclass().equals(Objects.class)) {
-                        result.putAll(getInvokers(clazz.getSuperclass(), filter));
-                    }
+            String invokerKey = getInvokerKey(clazz, filter);
+            result = (Map<String, I>) invokerCache.get(invokerKey);
+            if(result == null) {
+                //The invokers are created out of any lock, if two threads inspect the same class
+                //at the same time then the first result stored into the cache is the winner.
+                Map<String, I> invokers = new HashMap<>();
+                if(clazz.getSuperclass() != null && !clazz.getSuperclass().equals(Objects.class)) {
+                    invokers.putAll(getInvokers(clazz.getSuperclass(), filter));
+                }
 
-                    for(Method method : clazz.getDeclaredMethods()) {
-                        InvokerEntry<I> entry = filter.filter(method);
-                        if(entry != null) {
-                            result.put(entry.getKey(), entry.getInvoker());
-                            for(String alias : entry.getAliases()) {
-                                result.put(alias, entry.getInvoker());
-                            }
+                for(Method method : clazz.getDeclaredMethods()) {
+                    InvokerEntry<I> entry = filter.filter(method);
+                    if(entry != null) {
+                        invokers.put(entry.getKey(), entry.getInvoker());
+                        for(String alias : entry.getAliases()) {
+                            invokers.put(alias, entry.getInvoker());
                         }
                     }
-                } else {
-                    result = (Map<String, I>) invokerCache.get(invokerKey);
+                }
+
+                result = Collections.unmodifiableMap(invokers);
+                Map<String, I> cachedResult = (Map<String, I>) invokerCache.putIfAbsent(invokerKey, result);
+                if(cachedResult != null) {
+                    result = cachedResult;
                 }
             }
         }
 
-        return Collections.unmodifiableMap(result);
+        return result;
     }
 
     /**
@@ -597,24 +641,20 @@ public final class Introspection {
      * @param clazz Resource class.
      * @return Accessors map.
      */
-    public static synchronized Map<String, Accessors> getAccessors(Class clazz) {
-        Map<String, Accessors> result = accessorsCache.get(clazz);
-
-        if(result == null) {
-            result = new HashMap<>();
+    public static Map<String, Accessors> getAccessors(Class clazz) {
+        return accessorsCache.computeIfAbsent(clazz, key -> {
+            Map<String, Accessors> result = new HashMap<>();
             Map<String, Setter> setterMap = getSetters(clazz);
             Map<String, Getter> getterMap = getGetters(clazz);
             Set<String> keySet = new HashSet<>();
             keySet.addAll(setterMap.keySet());
             keySet.addAll(getterMap.keySet());
 
-            for (String key : keySet) {
-                result.put(key, new Accessors(key, getterMap.get(key), setterMap.get(key)));
+            for (String name : keySet) {
+                result.put(name, new Accessors(name, getterMap.get(name), setterMap.get(name)));
             }
-            accessorsCache.put(clazz, result);
-        }
-
-        return Collections.unmodifiableMap(result);
+            return Collections.unmodifiableMap(result);
+        });
     }
 
     /**
@@ -656,22 +696,7 @@ public final class Introspection {
      * @return All the accessors founded indexed by the possible field name.
      */
     public static Map<String, Getter> getGetters(Class clazz) {
-        Map<String, Getter> result = getInvokers(clazz, method -> {
-            InvokerEntry<Getter> result1 = null;
-            Matcher matcher;
-            String fieldName;
-            if(Modifier.isPublic(method.getModifiers())) {
-                matcher = GETTER_METHODS_PATTERN.matcher(method.getName());
-                if(matcher.matches() && !method.getReturnType().equals(Void.TYPE) &&
-                        method.getParameterTypes().length == 0) {
-                    fieldName = matcher.group(SETTER_GETTER_FIRST_CHAR_FIELD_NAME_GROUP).toLowerCase() +
-                            matcher.group(SETTER_GETTER_FIELD_NAME_GROUP);
-                    result1 = new InvokerEntry<>(fieldName, new Getter(method.getDeclaringClass(), fieldName, method));
-                }
-            }
-            return result1;
-        });
-        return Collections.unmodifiableMap(result);
+        return gettersCache.computeIfAbsent(clazz, key -> getInvokers(key, GETTER_FILTER));
     }
 
     /**
@@ -713,22 +738,94 @@ public final class Introspection {
      * @return All the accessors founded indexed by the possible field name.
      */
     public static Map<String, Setter> getSetters(Class clazz) {
-        Map<String, Setter> result = getInvokers(clazz, method -> {
-            InvokerEntry<Setter> result1 = null;
-            Matcher matcher;
-            String fieldName;
-            if(Modifier.isPublic(method.getModifiers())) {
-                matcher = SETTER_METHODS_PATTERN.matcher(method.getName());
-                if(matcher.matches() && method.getReturnType().equals(Void.TYPE) &&
-                        method.getParameterTypes().length == 1) {
-                    fieldName = matcher.group(SETTER_GETTER_FIRST_CHAR_FIELD_NAME_GROUP).toLowerCase() +
-                            matcher.group(SETTER_GETTER_FIELD_NAME_GROUP);
-                    result1 = new InvokerEntry<>(fieldName, new Setter(method.getDeclaringClass(), fieldName, method));
+        return settersCache.computeIfAbsent(clazz, key -> getInvokers(key, SETTER_FILTER));
+    }
+
+    /**
+     * Creates a function to invoke the getter method without reflection. If the class of the method is visible
+     * from the class loader of this class then the function is created using the lambda meta factory, in otherwise
+     * the function invokes a method handle.
+     * @param method Getter method.
+     * @return Compiled getter or null if the method is not accessible, in this case the getter uses reflection.
+     */
+    private static Function<Object,Object> compileGetter(Method method) {
+        Function<Object,Object> result = null;
+        if(!Modifier.isStatic(method.getModifiers())) {
+            try {
+                MethodHandle handle = LOOKUP.unreflect(method);
+                if(isVisible(method.getDeclaringClass())) {
+                    CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                            MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class),
+                            handle, MethodType.methodType(method.getReturnType(), method.getDeclaringClass()).wrap());
+                    result = (Function<Object,Object>) callSite.getTarget().invokeExact();
+                } else {
+                    MethodHandle genericHandle = handle.asType(MethodType.methodType(Object.class, Object.class));
+                    result = instance -> {
+                        try {
+                            return genericHandle.invokeExact(instance);
+                        } catch (RuntimeException | Error ex) {
+                            throw ex;
+                        } catch (Throwable throwable) {
+                            throw new HCJFRuntimeException("Getter invocation fail", throwable);
+                        }
+                    };
                 }
+            } catch (Throwable throwable) {
+                result = null;
             }
-            return result1;
-        });
-        return Collections.unmodifiableMap(result);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a function to invoke the setter method without reflection. The setters with primitive parameters are
+     * not compiled because the reflection invocation makes the widening conversions of the boxed values.
+     * @param method Setter method.
+     * @return Compiled setter or null if the method is not accessible, in this case the setter uses reflection.
+     */
+    private static BiConsumer<Object,Object> compileSetter(Method method) {
+        BiConsumer<Object,Object> result = null;
+        if(!Modifier.isStatic(method.getModifiers()) && !method.getParameterTypes()[0].isPrimitive()) {
+            try {
+                MethodHandle handle = LOOKUP.unreflect(method);
+                if(isVisible(method.getDeclaringClass())) {
+                    CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                            MethodType.methodType(BiConsumer.class), MethodType.methodType(void.class, Object.class, Object.class),
+                            handle, MethodType.methodType(void.class, method.getDeclaringClass(), method.getParameterTypes()[0]));
+                    result = (BiConsumer<Object,Object>) callSite.getTarget().invokeExact();
+                } else {
+                    MethodHandle genericHandle = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+                    result = (instance, value) -> {
+                        try {
+                            genericHandle.invokeExact(instance, value);
+                        } catch (RuntimeException | Error ex) {
+                            throw ex;
+                        } catch (Throwable throwable) {
+                            throw new HCJFRuntimeException("Setter invocation fail", throwable);
+                        }
+                    };
+                }
+            } catch (Throwable throwable) {
+                result = null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Verify if the class is visible from the class loader of this class, the classes loaded by other class loaders
+     * (plugins for example) can't be linked into the classes created by the lambda meta factory.
+     * @param clazz Class to verify.
+     * @return True if the class is visible and false in the otherwise.
+     */
+    private static boolean isVisible(Class clazz) {
+        boolean result;
+        try {
+            result = Class.forName(clazz.getName(), false, Introspection.class.getClassLoader()).equals(clazz);
+        } catch (Throwable throwable) {
+            result = false;
+        }
+        return result;
     }
 
     public static abstract class Invoker {
@@ -839,6 +936,14 @@ public final class Introspection {
             return Collections.unmodifiableMap(annotationsMap);
         }
 
+        /**
+         * Verify if the invoker method needs to check some permission before the invocation.
+         * @return True if the method has permissions and false in the otherwise.
+         */
+        protected final boolean isPermissionRequired() {
+            return containsPermission;
+        }
+
         /**
          * Wrapper method to get the storage method.
          * @param instance Instance to get the method.
@@ -1021,11 +1126,13 @@ public final class Introspection {
         private ParameterizedType parameterParameterizedType;
         private final Class returnKeyType;
         private final Class returnCollectionType;
+        private final Function<Object,Object> compiledGetter;
 
         public Getter(Class implementationClass, String resourceName, Method method) {
             super(implementationClass, resourceName, method);
             returnType = method.getReturnType();
             parameterParameterizedType = null;
+            compiledGetter = compileGetter(method);
 
             if (method.getGenericReturnType() instanceof ParameterizedType) {
                 parameterParameterizedType = (ParameterizedType) method.getGenericReturnType();
@@ -1072,7 +1179,17 @@ public final class Introspection {
          * @throws IllegalAccessException Illegal access exception.
          */
         public <O extends Object> O get(Object instance) {
-            return (O) invoke(instance);
+            O result;
+            if(compiledGetter != null && !isPermissionRequired() && !(instance instanceof InvocationHandler)) {
+                try {
+                    result = (O) compiledGetter.apply(instance);
+                } catch (Throwable throwable) {
+                    throw new HCJFRuntimeException("Layer invoker", throwable);
+                }
+            } else {
+                result = (O) invoke(instance);
+            }
+            return result;
         }
 
         /**
@@ -1119,11 +1236,13 @@ public final class Introspection {
         private ParameterizedType parameterParameterizedType;
         private final Class parameterKeyType;
         private final Class parameterCollectionType;
+        private final BiConsumer<Object,Object> compiledSetter;
 
         public Setter(Class implementationClass, String resourceName, Method method) {
             super(implementationClass, resourceName, method);
             this.parameterType = method.getParameterTypes()[0];
             this.parameterParameterizedType = null;
+            this.compiledSetter = compileSetter(method);
 
             if(method.getGenericParameterTypes()[0] instanceof ParameterizedType) {
                 parameterParameterizedType = (ParameterizedType) method.getGenericParameterTypes()[0];
@@ -1170,7 +1289,15 @@ public final class Introspection {
          * @throws IllegalAccessException Illegal access exception.
          */
         public void set(Object instance, Object value) {
-            invoke(instance, value);
+            if(compiledSetter != null && !isPermissionRequired() && !(instance instanceof InvocationHandler)) {
+                try {
+                    compiledSetter.accept(instance, value);
+                } catch (Throwable throwable) {
+                    throw new HCJFRuntimeException("Layer invoker", throwable);
+                }
+            } else {
+                invoke(instance, value);
+            }
         }
 
         /**
@@ -3,22 +3,22 @@ package org.hcjf.utils;
 import org.hcjf.properties.SystemProperties;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
 /**
  * This map implementation use an algorithm to maintains a fixed size into the map with the elements
- * least recently used (LRU).
+ * least recently used (LRU). The elements are linked in access order then each access and each
+ * eviction takes constant time.
  * @param <K> Key type.
  * @param <V> Value type.
  */
 public class LruMap<K extends Object, V extends Object> implements Map<K,V> {
 
     private Integer maxSize;
-    private final List<Key<K>> keys;
-    private final Map<K,Key<K>> metadata;
-    private final Map<K,V> mapInstance;
+    private final LinkedHashMap<K,V> mapInstance;
     private final List<RemoveOverflowListener<K, V>> listeners;
 
     public LruMap() {
@@ -26,11 +26,9 @@ public class LruMap<K extends Object, V extends Object> implements Map<K,V> {
     }
 
     public LruMap(Integer maxSize) {
-        this.keys = new ArrayList<>();
-        this.metadata = new HashMap<>();
-        this.mapInstance = new HashMap<>();
+        this.mapInstance = new LinkedHashMap<>(16, 0.75f, true);
         this.maxSize = maxSize;
-        this.listeners = new ArrayList<>();
+        this.listeners = new CopyOnWriteArrayList<>();
     }
 
     /**
@@ -61,227 +59,169 @@ public class LruMap<K extends Object, V extends Object> implements Map<K,V> {
     }
 
     /**
-     * Update the temporal component into the keys.
-     * @param keys Keys to updateMetadata.
-     */
-    private void updateMetadata(Key<K>... keys) {
-        for(Key<K> key : keys) {
-            key.update();
-        }
-        Collections.sort(this.keys);
-    }
-
-    /**
-     * This method remove the overflow elements into the map.
+     * This method remove the overflow elements into the map, the first elements of the
+     * linked map are the least recently used.
      */
     private void removeOverflow() {
-        for (int i = 0; i < keys.size() - maxSize; i++) {
-            Key<K> key = keys.remove(keys.size() -1);
-            metadata.remove(key.getKey());
-            V value = mapInstance.remove(key.getKey());
-            listeners.forEach(L -> L.onRemove(key.getKey(), value));
+        Iterator<Entry<K,V>> iterator = mapInstance.entrySet().iterator();
+        while(mapInstance.size() > maxSize && iterator.hasNext()) {
+            Entry<K,V> entry = iterator.next();
+            iterator.remove();
+            listeners.forEach(L -> L.onRemove(entry.getKey(), entry.getValue()));
         }
     }
 
     @Override
-    public int size() {
+    public synchronized int size() {
         return mapInstance.size();
     }
 
     @Override
-    public boolean isEmpty() {
+    public synchronized boolean isEmpty() {
         return mapInstance.isEmpty();
     }
 
     @Override
-    public boolean containsKey(Object key) {
+    public synchronized boolean containsKey(Object key) {
         return mapInstance.containsKey(key);
     }
 
     @Override
-    public boolean containsValue(Object value) {
+    public synchronized boolean containsValue(Object value) {
         return mapInstance.containsValue(value);
     }
 
     @Override
     public synchronized V get(Object key) {
-        V result = null;
-        if(mapInstance.containsKey(key)) {
-            updateMetadata(metadata.get(key));
-            result = mapInstance.get(key);
-        }
-        return result;
+        return mapInstance.get(key);
     }
 
     @Override
     public synchronized V put(K key, V value) {
         V result = mapInstance.put(key, value);
-        Key<K> temporalKey = new Key<>(key);
-        if (metadata.containsKey(key)) {
-            temporalKey = metadata.get(key);
-            updateMetadata(temporalKey);
-        } else {
-            keys.add(temporalKey);
-            metadata.put(key, temporalKey);
-            updateMetadata();
-        }
         removeOverflow();
         return result;
     }
 
     @Override
     public synchronized V remove(Object key) {
-        V result = mapInstance.remove(key);
-        keys.remove(metadata.remove(key));
-        updateMetadata();
-        return result;
+        return mapInstance.remove(key);
     }
 
     @Override
     public synchronized void putAll(Map<? extends K, ? extends V> m) {
         mapInstance.putAll(m);
-        Key<K> temporalKey;
-        for(K key : m.keySet()) {
-            temporalKey = new Key<>(key);
-            keys.add(temporalKey);
-            metadata.put(key, temporalKey);
-        }
-        updateMetadata();
         removeOverflow();
     }
 
     @Override
     public synchronized void clear() {
         mapInstance.clear();
-        metadata.clear();
-        keys.clear();
     }
 
+    /**
+     * Returns a snapshot of the keys, because the access to the elements modifies the order of the map
+     * and the iteration over a view of the map fails if other thread gets an element.
+     * @return Set of keys in access order.
+     */
     @Override
-    public Set<K> keySet() {
-        return mapInstance.keySet();
+    public synchronized Set<K> keySet() {
+        return new LinkedHashSet<>(mapInstance.keySet());
     }
 
+    /**
+     * Returns a snapshot of the values.
+     * @return Collection of values in access order.
+     */
     @Override
-    public Collection<V> values() {
-        return mapInstance.values();
+    public synchronized Collection<V> values() {
+        return new ArrayList<>(mapInstance.values());
     }
 
+    /**
+     * Returns a snapshot of the entries, the entries are not linked with the map.
+     * @return Set of entries in access order.
+     */
     @Override
-    public Set<Entry<K, V>> entrySet() {
-        return mapInstance.entrySet();
+    public synchronized Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> result = new LinkedHashSet<>();
+        for(Entry<K, V> entry : mapInstance.entrySet()) {
+            result.add(new AbstractMap.SimpleImmutableEntry<>(entry));
+        }
+        return result;
     }
 
     @Override
-    public boolean equals(Object o) {
+    public synchronized boolean equals(Object o) {
         return mapInstance.equals(o);
     }
 
     @Override
-    public int hashCode() {
+    public synchronized int hashCode() {
         return mapInstance.hashCode();
     }
 
     @Override
-    public V getOrDefault(Object key, V defaultValue) {
+    public synchronized V getOrDefault(Object key, V defaultValue) {
         return mapInstance.getOrDefault(key, defaultValue);
     }
 
     @Override
-    public void forEach(BiConsumer<? super K, ? super V> action) {
+    public synchronized void forEach(BiConsumer<? super K, ? super V> action) {
         mapInstance.forEach(action);
     }
 
     @Override
-    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+    public synchronized void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
         mapInstance.replaceAll(function);
     }
 
     @Override
-    public V putIfAbsent(K key, V value) {
-        return mapInstance.putIfAbsent(key, value);
+    public synchronized V putIfAbsent(K key, V value) {
+        V result = mapInstance.putIfAbsent(key, value);
+        removeOverflow();
+        return result;
     }
 
     @Override
-    public boolean remove(Object key, Object value) {
+    public synchronized boolean remove(Object key, Object value) {
         return mapInstance.remove(key, value);
     }
 
     @Override
-    public boolean replace(K key, V oldValue, V newValue) {
+    public synchronized boolean replace(K key, V oldValue, V newValue) {
         return mapInstance.replace(key, oldValue, newValue);
     }
 
     @Override
-    public V replace(K key, V value) {
+    public synchronized V replace(K key, V value) {
         return mapInstance.replace(key, value);
     }
 
     @Override
-    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
-        return mapInstance.computeIfAbsent(key, mappingFunction);
+    public synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        V result = mapInstance.computeIfAbsent(key, mappingFunction);
+        removeOverflow();
+        return result;
     }
 
     @Override
-    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+    public synchronized V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
         return mapInstance.computeIfPresent(key, remappingFunction);
     }
 
     @Override
-    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
-        return mapInstance.compute(key, remappingFunction);
+    public synchronized V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        V result = mapInstance.compute(key, remappingFunction);
+        removeOverflow();
+        return result;
     }
 
     @Override
-    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
-        return mapInstance.merge(key, value, remappingFunction);
-    }
-
-    /**
-     * This class represents a key with a temporal component in order to knows what key is older than other.
-     * @param <K> Key type.
-     */
-    private static final class Key<K extends Object> implements Comparable<Key> {
-
-        private final K key;
-        private Long lastUpdate;
-
-        public Key(K key) {
-            this.key = key;
-            this.lastUpdate = System.currentTimeMillis();
-        }
-
-        public K getKey() {
-            return key;
-        }
-
-        public void update() {
-            lastUpdate = System.currentTimeMillis();
-        }
-
-        @Override
-        public int hashCode() {
-            return key.hashCode();
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            boolean result = false;
-            if(obj instanceof Key) {
-                result = key.equals(((Key)obj).key);
-            }
-            return result;
-        }
-
-        @Override
-        public String toString() {
-            return key.toString();
-        }
-
-        @Override
-        public int compareTo(Key o) {
-            return lastUpdate.compareTo(o.lastUpdate) * -1;
-        }
+    public synchronized V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        V result = mapInstance.merge(key, value, remappingFunction);
+        removeOverflow();
+        return result;
     }
 
     /**
@@ -1,42 +1,148 @@
 package org.hcjf.utils;
 
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
+import org.hcjf.properties.SystemProperties;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This class provides the mechanism to maintains the wrapped collection
  * elements into the collection some time.
+ * All the elements of the collection has the same time to live, then the deadlines are stored
+ * into a queue with the same order that the deadlines expires, and the insertion and the expiration
+ * of each element takes constant time. If there are not expired elements then the access doesn't
+ * take any lock.
  * @author javaito
  */
 public abstract class TtlCollection<K extends Object> {
 
-    private final Map<Long,K> timeWindows;
+    private static final List<WeakReference<TtlCollection>> reapedCollections = new CopyOnWriteArrayList<>();
+    private static Timer reaper;
+
     private final Long timeWindowsSize;
+    private final Queue<Deadline<K>> deadlines;
+    private final Map<K,Long> lastDeadlines;
+    private final ReentrantLock expirationLock;
+    private final List<ExpirationListener<K>> listeners;
 
     public TtlCollection(Long timeWindowsSize) {
+        this(timeWindowsSize, false);
+    }
+
+    /**
+     * Constructor.
+     * @param timeWindowsSize Time to live of each element.
+     * @param backgroundExpiration If this parameter is true then the expired elements are removed periodically
+     *                             by a background thread, in this case the wrapped collection must be thread safe.
+     */
+    public TtlCollection(Long timeWindowsSize, boolean backgroundExpiration) {
         this.timeWindowsSize = timeWindowsSize;
-        this.timeWindows = new HashMap<>();
+        this.deadlines = new ConcurrentLinkedQueue<>();
+        this.lastDeadlines = new ConcurrentHashMap<>();
+        this.expirationLock = new ReentrantLock();
+        this.listeners = new CopyOnWriteArrayList<>();
+        if(backgroundExpiration) {
+            startReaper();
+            reapedCollections.add(new WeakReference<>(this));
+        }
     }
 
     /**
-     * Add instance into the ttl map.
+     * Starts the timer that removes the expired elements of all the collections with background expiration.
+     */
+    private static synchronized void startReaper() {
+        if(reaper == null) {
+            Long period = SystemProperties.getLong(SystemProperties.HCJF_DEFAULT_TTL_REAPER_PERIOD);
+            reaper = new Timer(TtlCollection.class.getSimpleName(), true);
+            reaper.scheduleAtFixedRate(new TimerTask() {
+                @Override
+                public void run() {
+                    for(WeakReference<TtlCollection> reference : reapedCollections) {
+                        TtlCollection collection = reference.get();
+                        if(collection == null) {
+                            reapedCollections.remove(reference);
+                        } else {
+                            try {
+                                collection.removeOldWindows();
+                            } catch (Exception ex) {}
+                        }
+                    }
+                }
+            }, period, period);
+        }
+    }
+
+    /**
+     * Add a listener to be notified when an element expires.
+     * @param listener Listener instance.
+     */
+    public final void addExpirationListener(ExpirationListener<K> listener) {
+        if(listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Add instance into the ttl map, if the instance already exists then the deadline is updated.
      * @param instance Instance to add.
      */
-    protected final synchronized void addInstance(K instance) {
-        timeWindows.put(System.currentTimeMillis(), instance);
+    protected final void addInstance(K instance) {
+        if(instance != null) {
+            Long deadline = System.currentTimeMillis() + timeWindowsSize;
+            lastDeadlines.put(instance, deadline);
+            deadlines.offer(new Deadline<>(instance, deadline));
+        }
+    }
+
+    /**
+     * Removes the deadline of the instance because the instance was removed explicitly,
+     * then the instance is not expired and the listeners are not notified.
+     * @param instance Instance to remove.
+     */
+    protected final void removeInstance(Object instance) {
+        if(instance != null) {
+            lastDeadlines.remove(instance);
+        }
+    }
+
+    /**
+     * Removes all the deadlines of the collection.
+     */
+    protected final void clearInstances() {
+        expirationLock.lock();
+        try {
+            deadlines.clear();
+            lastDeadlines.clear();
+        } finally {
+            expirationLock.unlock();
+        }
     }
 
     /**
      * Removes all the old elements of the wrapped collection.
      */
-    protected final synchronized void removeOldWindows() {
+    protected final void removeOldWindows() {
         Long current = System.currentTimeMillis();
-        for(Iterator<Long> iterator = timeWindows.keySet().iterator(); iterator.hasNext();) {
-            Long time = iterator.next();
-            if((time + timeWindowsSize) < current) {
-                removeOldInstance(timeWindows.get(time));
-                iterator.remove();
+        Deadline<K> deadline = deadlines.peek();
+        if(deadline != null && deadline.time < current) {
+            expirationLock.lock();
+            try {
+                while((deadline = deadlines.peek()) != null && deadline.time < current) {
+                    deadlines.poll();
+                    //Only the last deadline of the instance is valid.
+                    if(lastDeadlines.remove(deadline.instance, deadline.time)) {
+                        removeOldInstance(deadline.instance);
+                        for(ExpirationListener<K> listener : listeners) {
+                            listener.onExpire(deadline.instance);
+                        }
+                    }
+                }
+            } finally {
+                expirationLock.unlock();
             }
         }
     }
@@ -46,4 +152,29 @@ public abstract class TtlCollection<K extends Object> {
      * @param instanceKey Instance key.
      */
     protected abstract void removeOldInstance(K instanceKey);
+
+    /**
+     * Deadline of an instance.
+     * @param <K> Instance type.
+     */
+    private static final class Deadline<K extends Object> {
+
+        private final K instance;
+        private final Long time;
+
+        private Deadline(K instance, Long time) {
+            this.instance = instance;
+            this.time = time;
+        }
+    }
+
+    /**
+     * This interface provides the method to listen when an element is removed because it expires.
+     * @param <K> Expected instance type.
+     */
+    public interface ExpirationListener<K extends Object> {
+
+        void onExpire(K instance);
+
+    }
 }
@@ -21,6 +21,11 @@ public final class TtlMap<K extends Object, V extends Object> extends TtlCollect
         this.instance = instance;
     }
 
+    public TtlMap(Map<K,V> instance, Long timeWindowsSize, boolean backgroundExpiration) {
+        super(timeWindowsSize, backgroundExpiration);
+        this.instance = instance;
+    }
+
     @Override
     protected void removeOldInstance(K instanceKey) {
         instance.remove(instanceKey);
@@ -66,6 +71,7 @@ public final class TtlMap<K extends Object, V extends Object> extends TtlCollect
     @Override
     public V remove(Object key) {
         removeOldWindows();
+        removeInstance(key);
         return instance.remove(key);
     }
 
@@ -76,6 +82,7 @@ public final class TtlMap<K extends Object, V extends Object> extends TtlCollect
 
     @Override
     public void clear() {
+        clearInstances();
         instance.clear();
     }
 
@@ -109,6 +116,7 @@ public final class TtlMap<K extends Object, V extends Object> extends TtlCollect
 
     @Override
     public V getOrDefault(Object key, V defaultValue) {
+        removeOldWindows();
         return instance.getOrDefault(key, defaultValue);
     }
 
@@ -128,7 +136,7 @@ public final class TtlMap<K extends Object, V extends Object> extends TtlCollect
     public V putIfAbsent(K key, V value) {
         removeOldWindows();
         V result = instance.putIfAbsent(key, value);
-        if(result != null) {
+        if(result == null) {
             addInstance(key);
         }
         return result;
@@ -137,8 +145,11 @@ public final class TtlMap<K extends Object, V extends Object> extends TtlCollect
     @Override
     public boolean remove(Object key, Object value) {
         removeOldWindows();
-        return instance.remove(key, value);
-
+        boolean result = instance.remove(key, value);
+        if(result) {
+            removeInstance(key);
+        }
+        return result;
     }
 
     @Override
@@ -19,6 +19,11 @@ public class TtlSet<V extends Object> extends TtlCollection<V> implements Set<V>
         this.instance = instance;
     }
 
+    public TtlSet(Set<V> instance, Long timeWindowsSize, boolean backgroundExpiration) {
+        super(timeWindowsSize, backgroundExpiration);
+        this.instance = instance;
+    }
+
     @Override
     protected void removeOldInstance(V instanceKey) {
         instance.remove(instanceKey);
@@ -70,6 +75,7 @@ public class TtlSet<V extends Object> extends TtlCollection<V> implements Set<V>
     @Override
     public boolean remove(Object o) {
         removeOldWindows();
+        removeInstance(o);
         return instance.remove(o);
     }
 
@@ -98,6 +104,7 @@ public class TtlSet<V extends Object> extends TtlCollection<V> implements Set<V>
 
     @Override
     public void clear() {
+        clearInstances();
         instance.clear();
     }
 
@@ -0,0 +1,162 @@
+package org.hcjf.utils.bson;
+
+import org.hcjf.utils.Introspection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class contains all the information needed to encode and decode the instances of
+ * a parcelable class. The codec of each class is built only one time and the classes
+ * are resolved by name using a cache for each class loader. Neither of the caches
+ * retains the classes, then the class loaders of the plugins can be collected when they are reloaded.
+ * @author javaito
+ */
+public final class BsonCodec {
+
+    private static final Map<ClassLoader, Map<String, WeakReference<Class>>> classesByLoader =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private static final ClassValue<BsonCodec> codecs = new ClassValue<>() {
+        @Override
+        protected BsonCodec computeValue(Class<?> type) {
+            return new BsonCodec(type);
+        }
+    };
+
+    private final Class parcelableClass;
+    private final MethodHandle constructor;
+    private final Introspection.Getter[] getters;
+    private final Introspection.Setter[] setters;
+
+    private BsonCodec(Class parcelableClass) {
+        this.parcelableClass = parcelableClass;
+
+        MethodHandle constructor;
+        try {
+            constructor = MethodHandles.publicLookup().findConstructor(parcelableClass,
+                    MethodType.methodType(void.class)).asType(MethodType.methodType(Object.class));
+        } catch (Exception ex) {
+            constructor = null;
+        }
+        this.constructor = constructor;
+
+        List<Introspection.Getter> getters = new ArrayList<>();
+        List<Introspection.Setter> setters = new ArrayList<>();
+        for(Introspection.Accessors accessors : Introspection.getAccessors(parcelableClass).values()) {
+            if(accessors.getGetter() != null) {
+                getters.add(accessors.getGetter());
+            }
+            if(accessors.getSetter() != null) {
+                setters.add(accessors.getSetter());
+            }
+        }
+        this.getters = getters.toArray(new Introspection.Getter[0]);
+        this.setters = setters.toArray(new Introspection.Setter[0]);
+    }
+
+    /**
+     * Returns the codec for the specific class, the codec is created the first time.
+     * @param parcelableClass Parcelable class.
+     * @return Codec instance.
+     */
+    public static BsonCodec getCodec(Class parcelableClass) {
+        return codecs.get(parcelableClass);
+    }
+
+    /**
+     * Returns the class for the specific name using the context class loader of the current thread,
+     * or the class loader of this class if the thread has not a context class loader.
+     * @param className Name of the class.
+     * @return Class instance or null if the class doesn't exists.
+     */
+    public static Class getClass(String className) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if(classLoader == null) {
+            classLoader = BsonCodec.class.getClassLoader();
+        }
+        return getClass(className, classLoader);
+    }
+
+    /**
+     * Returns the class for the specific name resolved by the class loader, the classes found are stored
+     * into a cache of the class loader. The names that doesn't exists are not stored because the class
+     * could be loaded later.
+     * @param className Name of the class.
+     * @param classLoader Class loader used to resolve the name.
+     * @return Class instance or null if the class doesn't exists.
+     */
+    public static Class getClass(String className, ClassLoader classLoader) {
+        Map<String, WeakReference<Class>> classesByName =
+                classesByLoader.computeIfAbsent(classLoader, loader -> new ConcurrentHashMap<>());
+        WeakReference<Class> reference = classesByName.get(className);
+        Class result = reference == null ? null : reference.get();
+        if(result == null) {
+            try {
+                result = Class.forName(className, true, classLoader);
+                classesByName.put(className, new WeakReference<>(result));
+            } catch (Throwable ex) {
+                result = null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the class of the codec.
+     * @return Parcelable class.
+     */
+    public Class getParcelableClass() {
+        return parcelableClass;
+    }
+
+    /**
+     * Verify if the class has a public constructor without parameters.
+     * @return True if the codec can create instances.
+     */
+    public boolean isInstantiable() {
+        return constructor != null;
+    }
+
+    /**
+     * Creates a new instance using the public constructor without parameters.
+     * @param <P> Expected parcelable type.
+     * @return New instance.
+     */
+    public <P extends BsonParcelable> P newInstance() {
+        if(constructor == null) {
+            throw new IllegalArgumentException("Public constructor without parameters not found: " +
+                    parcelableClass.getName());
+        }
+
+        P result;
+        try {
+            Object instance = constructor.invokeExact();
+            result = (P) instance;
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Throwable throwable) {
+            throw new IllegalArgumentException("Unable to create instance: " + parcelableClass.getName(), throwable);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the getters of the class.
+     * @return Array of getters.
+     */
+    public Introspection.Getter[] getGetters() {
+        return getters;
+    }
+
+    /**
+     * Returns the setters of the class.
+     * @return Array of setters.
+     */
+    public Introspection.Setter[] getSetters() {
+        return setters;
+    }
+}
@@ -27,17 +27,12 @@ public interface BsonParcelable {
     default BsonDocument toBson() {
         BsonDocument document = new BsonDocument();
         document.put(PARCELABLE_CLASS_NAME, getClass().getName());
-        Map<String, Introspection.Accessors> accessorsMap = Introspection.getAccessors(getClass());
-        Introspection.Getter getter;
         Object value;
-        for(Introspection.Accessors accessors : accessorsMap.values()) {
+        for(Introspection.Getter getter : BsonCodec.getCodec(getClass()).getGetters()) {
             try {
-                getter = accessors.getGetter();
-                if(getter != null) {
-                    value = getter.get(this);
-                    if(value != null) {
-                        document.put(toBson(accessors.getResourceName(), value));
-                    }
+                value = getter.get(this);
+                if(value != null) {
+                    document.put(toBson(getter.getResourceName(), value));
                 }
             } catch (Exception ex){}
         }
@@ -134,20 +129,14 @@ public interface BsonParcelable {
      * @return Return the same instance that was populated.
      */
     default <P extends BsonParcelable> P populate(BsonDocument document) {
-        Map<String, Introspection.Accessors> accessorsMap = Introspection.getAccessors(getClass());
-
-        Introspection.Setter setter;
         BsonElement element;
-        for(Introspection.Accessors accessors : accessorsMap.values()) {
+        for(Introspection.Setter setter : BsonCodec.getCodec(getClass()).getSetters()) {
             try {
-                setter = accessors.getSetter();
-                if(setter != null) {
-                    element = document.get(accessors.getResourceName());
-                    if(element != null) {
-                        setter.set(this, fromBson(setter.getParameterType(),
-                                setter.getParameterKeyType(),
-                                setter.getParameterCollectionType(), element));
-                    }
+                element = document.get(setter.getResourceName());
+                if(element != null) {
+                    setter.set(this, fromBson(setter.getParameterType(),
+                            setter.getParameterKeyType(),
+                            setter.getParameterCollectionType(), element));
                 }
             } catch (Exception ex){}
         }
@@ -275,9 +264,8 @@ public interface BsonParcelable {
                 result = Collection.class;
             } else if(element instanceof BsonDocument) {
                 if(((BsonDocument)element).hasElement(PARCELABLE_CLASS_NAME)) {
-                    try {
-                        result = Class.forName(((BsonDocument) element).get(PARCELABLE_CLASS_NAME).getAsString());
-                    } catch(Exception ex){
+                    result = BsonCodec.getClass(((BsonDocument) element).get(PARCELABLE_CLASS_NAME).getAsString());
+                    if(result == null) {
                         result = Map.class;
                     }
                 } else {
@@ -320,9 +308,16 @@ public interface BsonParcelable {
             P result;
             String className = document.get(PARCELABLE_CLASS_NAME).getAsString();
             try {
-                try {
-                    result = (P) Class.forName(className).getConstructor().newInstance();
-                } catch (Exception e) {
+                Class parcelableClass = BsonCodec.getClass(className);
+                BsonCodec codec = parcelableClass == null ? null : BsonCodec.getCodec(parcelableClass);
+                result = null;
+                if(codec != null && codec.isInstantiable()) {
+                    try {
+                        result = codec.newInstance();
+                    } catch (Exception ex) {}
+                }
+
+                if(result == null) {
                     try {
                         BsonCustomBuilderLayer bsonCustomBuilderLayer = Layers.get(BsonCustomBuilderLayer.class, className);
                         result = (P) bsonCustomBuilderLayer.create(document);
@@ -0,0 +1,119 @@
+package org.hcjf.cloud;
+
+import org.hcjf.cloud.impl.objects.DistributedCounter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class DistributedCounterTest {
+
+    @Test
+    public void testMerge() {
+        DistributedCounter counter = new DistributedCounter(UUID.randomUUID());
+        UUID node = UUID.randomUUID();
+        counter.add(10);
+        counter.add(-3);
+        Assert.assertEquals(7, counter.getValue());
+
+        counter.merge(node, 5, 1);
+        Assert.assertEquals(11, counter.getValue());
+
+        //The merge is idempotent and the old totals are ignored.
+        counter.merge(node, 5, 1);
+        counter.merge(node, 4, 0);
+        Assert.assertEquals(11, counter.getValue());
+        counter.merge(node, 8, 1);
+        Assert.assertEquals(14, counter.getValue());
+    }
+
+    @Test
+    public void testGossip() {
+        UUID shardId = UUID.randomUUID();
+        DistributedCounter counter = new DistributedCounter(shardId);
+        Assert.assertEquals(1, counter.takeGossip().size());
+        Assert.assertNull(counter.takeGossip());
+        counter.add(2);
+        counter.add(-1);
+        Map<UUID, DistributedCounter.Shard> shards = counter.takeGossip();
+        Assert.assertEquals(2, shards.get(shardId).getIncrements());
+        Assert.assertEquals(1, shards.get(shardId).getDecrements());
+        Assert.assertNull(counter.takeGossip());
+        counter.resetGossip();
+        Assert.assertEquals(shards, counter.takeGossip());
+
+        //The totals merged from other nodes are gossiped too.
+        UUID otherShardId = UUID.randomUUID();
+        counter.merge(otherShardId, 4, 0);
+        shards = counter.takeGossip();
+        Assert.assertEquals(2, shards.size());
+        Assert.assertEquals(4, shards.get(otherShardId).getIncrements());
+        Assert.assertNull(counter.takeGossip());
+    }
+
+    @Test
+    public void testLateNode() {
+        DistributedCounter first = new DistributedCounter(UUID.randomUUID());
+        first.add(10);
+        first.merge(UUID.randomUUID(), 5, 2);
+
+        //The second node starts later and receives the totals of a node that is not connected any more.
+        DistributedCounter second = new DistributedCounter(UUID.randomUUID());
+        second.add(-1);
+        gossip(first, second);
+        gossip(second, first);
+        Assert.assertEquals(12, first.getValue());
+        Assert.assertEquals(12, second.getValue());
+
+        //The first node restarts with a new shard and receives the totals of its old shard from the second node.
+        first = new DistributedCounter(UUID.randomUUID());
+        first.add(3);
+        gossip(second, first);
+        Assert.assertEquals(15, first.getValue());
+        gossip(first, second);
+        Assert.assertEquals(15, second.getValue());
+
+        //The own totals that come back are not added again.
+        gossip(second, first);
+        gossip(first, second);
+        Assert.assertEquals(15, first.getValue());
+        Assert.assertEquals(15, second.getValue());
+    }
+
+    private void gossip(DistributedCounter source, DistributedCounter target) {
+        source.resetGossip();
+        for(Map.Entry<UUID, DistributedCounter.Shard> entry : source.takeGossip().entrySet()) {
+            target.merge(entry.getKey(), entry.getValue().getIncrements(), entry.getValue().getDecrements());
+        }
+    }
+
+    @Test
+    public void testBlocks() throws InterruptedException {
+        DistributedCounter counter = new DistributedCounter(UUID.randomUUID());
+        Assert.assertNull(counter.takeFromBlock(1));
+        Assert.assertEquals(0, counter.reserve(null));
+        Assert.assertEquals(1000, counter.reserve(1000L));
+        Assert.assertEquals(1000, counter.reserve(500L));
+        counter.setBlock(0, 1000);
+
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                Long value;
+                while((value = counter.takeFromBlock(1)) != null) {
+                    values.add(value);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for(Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(1000, values.size());
+        Assert.assertEquals(0L, (long) Collections.min(values));
+        Assert.assertEquals(999L, (long) Collections.max(values));
+    }
+}
@@ -0,0 +1,74 @@
+package org.hcjf.cloud;
+
+import org.hcjf.cloud.impl.objects.DistributedLock;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.UUID;
+
+public class DistributedLockTest {
+
+    @Test
+    public void testOldestRequestFirst() {
+        DistributedLock lock = new DistributedLock();
+        UUID holder = UUID.randomUUID();
+        UUID older = UUID.randomUUID();
+        UUID younger = UUID.randomUUID();
+
+        Assert.assertTrue(lock.vote(holder, 1L, 10000L));
+        Assert.assertFalse(lock.vote(younger, 3L, 10000L));
+        Assert.assertFalse(lock.vote(older, 2L, 10000L));
+        Assert.assertTrue(lock.vote(holder, 1L, 10000L));
+
+        Assert.assertTrue(lock.release(holder, false));
+        Assert.assertEquals(1, lock.getReleases());
+        Assert.assertFalse(lock.vote(younger, 3L, 10000L));
+        Assert.assertTrue(lock.vote(older, 2L, 10000L));
+
+        //The returned grant keeps the place of the request into the queue.
+        Assert.assertTrue(lock.release(older, true));
+        Assert.assertFalse(lock.vote(younger, 3L, 10000L));
+        Assert.assertTrue(lock.vote(older, 2L, 10000L));
+    }
+
+    @Test
+    public void testLeaseExpiration() throws InterruptedException {
+        DistributedLock lock = new DistributedLock();
+        UUID holder = UUID.randomUUID();
+        UUID waiter = UUID.randomUUID();
+
+        Assert.assertTrue(lock.vote(holder, 1L, 100L));
+        Assert.assertTrue(lock.renew(holder, 100L));
+        Assert.assertFalse(lock.vote(waiter, 2L, 10000L));
+        Thread.sleep(200);
+        Assert.assertFalse(lock.renew(holder, 100L));
+        Assert.assertTrue(lock.vote(waiter, 2L, 10000L));
+        Assert.assertFalse(lock.renew(holder, 100L));
+    }
+
+    @Test
+    public void testFencingToken() {
+        DistributedLock lock = new DistributedLock();
+        UUID holder = UUID.randomUUID();
+        UUID next = UUID.randomUUID();
+
+        Assert.assertTrue(lock.vote(holder, 1L, 10000L));
+        Assert.assertEquals(1, lock.getFencingToken());
+        //The renewal of the owner doesn't grant a new token.
+        Assert.assertTrue(lock.vote(holder, 1L, 10000L));
+        Assert.assertEquals(1, lock.getFencingToken());
+        Assert.assertTrue(lock.validateFencingToken(1L));
+
+        //The holder commits a token greater than the token of this voter.
+        lock.fence(3L);
+        Assert.assertEquals(3, lock.getFencingToken());
+        Assert.assertTrue(lock.validateFencingToken(3L));
+
+        Assert.assertTrue(lock.release(holder, false));
+        Assert.assertTrue(lock.vote(next, 2L, 10000L));
+        Assert.assertEquals(4, lock.getFencingToken());
+        Assert.assertFalse(lock.validateFencingToken(3L));
+        Assert.assertFalse(lock.validateFencingToken(null));
+        Assert.assertTrue(lock.validateFencingToken(4L));
+    }
+}
@@ -0,0 +1,72 @@
+package org.hcjf.cloud.impl.network;
+
+import org.hcjf.cloud.counter.Counter;
+import org.hcjf.cloud.impl.objects.DistributedLock;
+import org.hcjf.properties.SystemProperties;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.locks.Lock;
+
+public class CloudOrchestratorLockTest {
+
+    private static final Long LEASE_DURATION = 300L;
+
+    @BeforeClass
+    public static void config() {
+        System.setProperty(SystemProperties.Cloud.Orchestrator.Lock.LEASE_DURATION, LEASE_DURATION.toString());
+        System.setProperty(SystemProperties.Cloud.Orchestrator.SERVER_LISTENER_PORT, "18181");
+        System.setProperty(SystemProperties.Cloud.Orchestrator.ThisNode.LAN_PORT, "18181");
+    }
+
+    @Test
+    public void testLeaseLost() throws InterruptedException {
+        CloudOrchestrator orchestrator = CloudOrchestrator.getInstance();
+        Object[] path = new Object[]{Lock.class.getName(), "lease-test", "__lock__"};
+
+        orchestrator.lock(path);
+        Long fencingToken = orchestrator.getLockFencingToken(path);
+        Assert.assertNotNull(fencingToken);
+        Thread.sleep(LEASE_DURATION * 2);
+        //The lease is renewed while the lock is held.
+        Assert.assertTrue(orchestrator.isLockLeaseValid(path));
+
+        //The voter loses the lease of the holder, then the next renewal doesn't reach the quorum.
+        DistributedLock distributedLock = orchestrator.getDistributedLock(path);
+        Assert.assertTrue(distributedLock.release(distributedLock.getRequestId(), false));
+        Thread.sleep(LEASE_DURATION * 2);
+        Assert.assertFalse(orchestrator.isLockLeaseValid(path));
+        Assert.assertNull(orchestrator.getLockFencingToken(path));
+        Assert.assertEquals(DistributedLock.Status.LOST, distributedLock.getStatus());
+
+        //The lock is released anyway and the result reports the lost lease.
+        Assert.assertFalse(orchestrator.unlock(path));
+
+        //The next holder gets a greater token and the writes of the previous holder are rejected.
+        orchestrator.lock(path);
+        Long nextFencingToken = orchestrator.getLockFencingToken(path);
+        Assert.assertTrue(nextFencingToken > fencingToken);
+        Assert.assertTrue(distributedLock.validateFencingToken(nextFencingToken));
+        Assert.assertFalse(distributedLock.validateFencingToken(fencingToken));
+        Assert.assertTrue(orchestrator.unlock(path));
+        Assert.assertFalse(orchestrator.isLockLeaseValid(path));
+    }
+
+    @Test
+    public void testFencedCounterReservation() {
+        CloudOrchestrator orchestrator = CloudOrchestrator.getInstance();
+        String name = "fenced-counter";
+        Long first = orchestrator.getAndAddCounter(name, 1L);
+        Assert.assertEquals(first + 1, (long) orchestrator.getAndAddCounter(name, 1L));
+
+        //The reservation of the last holder of the lock is accepted and the stale reservations are rejected.
+        Long fencingToken = orchestrator.getDistributedLock(Counter.class.getName(), name, "__counter_reservation__").getFencingToken();
+        Long reservation = orchestrator.reserveCounter(name, null, fencingToken);
+        Assert.assertNotNull(reservation);
+        Assert.assertTrue(reservation > first);
+        Assert.assertNull(orchestrator.reserveCounter(name, reservation + 1000, fencingToken - 1));
+        Assert.assertNull(orchestrator.reserveCounter(name, reservation + 1000, null));
+        Assert.assertEquals(reservation, orchestrator.reserveCounter(name, null, fencingToken));
+    }
+}
@@ -0,0 +1,213 @@
+package org.hcjf.cloud.impl.network;
+
+import org.hcjf.cloud.impl.objects.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class ConsistentHashRingTest {
+
+    private static final int PATHS = 10000;
+    private static final int VIRTUAL_NODES = 128;
+
+    @Test
+    public void testOwners() {
+        List<Node> nodes = createNodes(5);
+        ConsistentHashRing ring = new ConsistentHashRing(nodes, VIRTUAL_NODES);
+
+        Map<Node,Integer> primaries = new HashMap<>();
+        for (int i = 0; i < PATHS; i++) {
+            Object[] path = new Object[]{Map.class.getName(), "map", "key" + i};
+            List<Node> owners = ring.getOwners(path, 3);
+            Assert.assertEquals(3, owners.size());
+            Assert.assertEquals(3, new HashSet<>(owners).size());
+            Assert.assertEquals(owners, ring.getOwners(path, 3));
+            primaries.merge(owners.get(0), 1, Integer::sum);
+        }
+
+        //Each node must be the primary owner of a fair portion of the paths.
+        for(Node node : nodes) {
+            int count = primaries.getOrDefault(node, 0);
+            Assert.assertTrue("Unbalanced node: " + count, count > PATHS / nodes.size() / 2);
+            Assert.assertTrue("Unbalanced node: " + count, count < PATHS / nodes.size() * 2);
+        }
+
+        Assert.assertEquals(1, new ConsistentHashRing(nodes.subList(0, 1), VIRTUAL_NODES).getOwners(
+                new Object[]{"path"}, 3).size());
+        Assert.assertTrue(new ConsistentHashRing(List.of(), VIRTUAL_NODES).getOwners(
+                new Object[]{"path"}, 3).isEmpty());
+    }
+
+    @Test
+    public void testIncrementalChange() {
+        List<Node> nodes = createNodes(5);
+        ConsistentHashRing ring = new ConsistentHashRing(nodes, VIRTUAL_NODES);
+        List<Node> newNodes = new ArrayList<>(nodes);
+        Node newNode = createNodes(1).get(0);
+        newNodes.add(newNode);
+        ConsistentHashRing newRing = new ConsistentHashRing(newNodes, VIRTUAL_NODES);
+
+        int moved = 0;
+        for (int i = 0; i < PATHS; i++) {
+            Object[] path = new Object[]{Map.class.getName(), "map", "key" + i};
+            Node owner = ring.getOwners(path, 1).get(0);
+            Node newOwner = newRing.getOwners(path, 1).get(0);
+            if(!owner.equals(newOwner)) {
+                //Only the paths taken by the new node change of owner.
+                Assert.assertEquals(newNode, newOwner);
+                moved++;
+            }
+        }
+        System.out.printf("%d of %d paths moved\r\n", moved, PATHS);
+        Assert.assertTrue(moved > 0);
+        Assert.assertTrue(moved < PATHS / newNodes.size() * 2);
+    }
+
+    @Test
+    public void testRebalanceCoordinator() {
+        List<Node> nodes = createNodes(4);
+        nodes.sort(Comparator.comparing(Node::getId));
+        UUID first = nodes.get(0).getId();
+        UUID second = nodes.get(1).getId();
+        UUID third = nodes.get(2).getId();
+        UUID fourth = nodes.get(3).getId();
+        ConsistentHashRing ring = new ConsistentHashRing(nodes.subList(1, 4), VIRTUAL_NODES);
+
+        //The leaf doesn't move if the holders are the owners.
+        Assert.assertNull(ring.getRebalanceCoordinator(second, List.of(second, third), List.of(third, second)));
+
+        //The holder with the lowest id into the ring is the coordinator, the first node left the ring.
+        Assert.assertEquals(second, ring.getRebalanceCoordinator(third, List.of(first, second, third), List.of(third, fourth)));
+        Assert.assertEquals(second, ring.getRebalanceCoordinator(second, List.of(first, second, third), List.of(third, fourth)));
+        Assert.assertEquals(third, ring.getRebalanceCoordinator(third, List.of(first, third), List.of(third, fourth)));
+
+        //Only the owners that don't hold the leaf must acknowledge the value.
+        Assert.assertEquals(List.of(fourth), ConsistentHashRing.getNewOwners(List.of(first, second, third), List.of(third, fourth)));
+        Assert.assertTrue(ConsistentHashRing.getNewOwners(List.of(second, third), List.of(third, second)).isEmpty());
+    }
+
+    @Test
+    public void testRebalance() {
+        int replicationFactor = 2;
+        List<Node> nodes = createNodes(3);
+        Map<UUID,DistributedTree> stores = new HashMap<>();
+        for(Node node : nodes) {
+            stores.put(node.getId(), new DistributedTree(""));
+        }
+
+        ConsistentHashRing ring = new ConsistentHashRing(nodes, VIRTUAL_NODES);
+        for (int i = 0; i < 1000; i++) {
+            Object[] path = new Object[]{Map.class.getName(), "map", "key" + i};
+            List<UUID> ownerIds = getIds(ring.getOwners(path, replicationFactor));
+            publish(stores, Set.of(), "value" + i, ownerIds, (long) i, path);
+        }
+        assertHolders(stores, ring, replicationFactor);
+
+        //A node joins to the ring but it doesn't receive the first publications, then the holders keep the values.
+        Node newNode = createNodes(1).get(0);
+        stores.put(newNode.getId(), new DistributedTree(""));
+        List<Node> members = new ArrayList<>(nodes);
+        members.add(newNode);
+        ring = new ConsistentHashRing(members, VIRTUAL_NODES);
+        rebalance(stores, Set.of(newNode.getId()), ring, replicationFactor);
+        for (int i = 0; i < 1000; i++) {
+            Object[] path = new Object[]{Map.class.getName(), "map", "key" + i};
+            int copies = 0;
+            for(DistributedTree store : stores.values()) {
+                if(store.getObject(path) instanceof LocalLeaf) {
+                    copies++;
+                }
+            }
+            Assert.assertTrue(copies > 0);
+            Assert.assertFalse(stores.get(newNode.getId()).getObject(path) instanceof LocalLeaf);
+        }
+
+        //The leaves are moved again with the next rebalance.
+        rebalance(stores, Set.of(), ring, replicationFactor);
+        assertHolders(stores, ring, replicationFactor);
+
+        //A node leaves the ring.
+        Node removedNode = members.remove(0);
+        stores.remove(removedNode.getId());
+        ring = new ConsistentHashRing(members, VIRTUAL_NODES);
+        rebalance(stores, Set.of(), ring, replicationFactor);
+        assertHolders(stores, ring, replicationFactor);
+    }
+
+    /**
+     * Delivers the publication as the cloud orchestrator does, the owners receive the value and the rest
+     * of the nodes only the ownership. The unreachable nodes don't receive anything.
+     */
+    private void publish(Map<UUID,DistributedTree> stores, Set<UUID> unreachable, Object value,
+                         List<UUID> ownerIds, Long timestamp, Object... path) {
+        for(UUID id : stores.keySet()) {
+            if(unreachable.contains(id)) {
+                continue;
+            } else if(ownerIds.contains(id)) {
+                stores.get(id).addLocalObject(value, ownerIds, List.of(), timestamp, path);
+            } else {
+                stores.get(id).addRemoteObject(null, ownerIds, ownerIds, timestamp, path);
+            }
+        }
+    }
+
+    /**
+     * Moves the local leaves using the decisions of the ring, the coordinator keeps its copy and its holders
+     * if some new owner doesn't receive the value.
+     */
+    private void rebalance(Map<UUID,DistributedTree> stores, Set<UUID> unreachable, ConsistentHashRing ring, int replicationFactor) {
+        for(UUID id : new ArrayList<>(stores.keySet())) {
+            for(DistributedTree.Entry entry : stores.get(id).filter(LocalLeaf.class)) {
+                LocalLeaf leaf = (LocalLeaf) entry.getValue();
+                Set<UUID> holders = new HashSet<>(leaf.getNodes());
+                List<UUID> ownerIds = getIds(ring.getOwners(entry.getPath(), replicationFactor));
+                if(id.equals(ring.getRebalanceCoordinator(id, holders, ownerIds))) {
+                    Map<UUID,DistributedTree> others = new HashMap<>(stores);
+                    others.remove(id);
+                    publish(others, unreachable, leaf.getInstance(), ownerIds, leaf.getLastUpdate(), entry.getPath());
+                    if(Collections.disjoint(unreachable, ConsistentHashRing.getNewOwners(holders, ownerIds))) {
+                        publish(Map.of(id, stores.get(id)), Set.of(), leaf.getInstance(), ownerIds,
+                                leaf.getLastUpdate(), entry.getPath());
+                    }
+                }
+            }
+        }
+    }
+
+    private void assertHolders(Map<UUID,DistributedTree> stores, ConsistentHashRing ring, int replicationFactor) {
+        for (int i = 0; i < 1000; i++) {
+            Object[] path = new Object[]{Map.class.getName(), "map", "key" + i};
+            Set<UUID> ownerIds = new HashSet<>(getIds(ring.getOwners(path, replicationFactor)));
+            for(UUID id : stores.keySet()) {
+                DistributedObject object = stores.get(id).getObject(path);
+                Assert.assertEquals(ownerIds.contains(id), object instanceof LocalLeaf);
+                if(object != null) {
+                    //The nodes that joined after the publication know only the moved paths.
+                    Assert.assertEquals(ownerIds, ((DistributedLeaf) object).getNodes());
+                }
+                if(object instanceof LocalLeaf) {
+                    Assert.assertEquals("value" + i, ((LocalLeaf) object).getInstance());
+                }
+            }
+        }
+    }
+
+    private List<UUID> getIds(List<Node> nodes) {
+        List<UUID> result = new ArrayList<>();
+        for(Node node : nodes) {
+            result.add(node.getId());
+        }
+        return result;
+    }
+
+    private List<Node> createNodes(int size) {
+        List<Node> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Node node = new Node();
+            node.setId(UUID.randomUUID());
+            result.add(node);
+        }
+        return result;
+    }
+}
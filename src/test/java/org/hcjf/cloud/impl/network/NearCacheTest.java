@@ -0,0 +1,107 @@
+package org.hcjf.cloud.impl.network;
+
+import org.hcjf.bson.BsonDecoder;
+import org.hcjf.bson.BsonEncoder;
+import org.hcjf.cloud.impl.messages.BatchInvokeMessage;
+import org.hcjf.cloud.impl.messages.VersionedValue;
+import org.hcjf.cloud.impl.objects.DistributedTree;
+import org.hcjf.io.net.messages.ResponseMessage;
+import org.hcjf.utils.bson.BsonParcelable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class NearCacheTest {
+
+    private static final Object[] PATH = new Object[]{Map.class.getName(), "map", "key"};
+
+    @Test
+    public void testHitReturnsCopies() {
+        NearCache nearCache = new NearCache(10);
+        Map<String,Object> value = new HashMap<>();
+        value.put("field", "value");
+
+        Assert.assertSame(value, nearCache.put(new VersionedValue(value, 10L), 10L, PATH));
+        value.put("field", "changed");
+
+        Map<String,Object> first = (Map<String, Object>) nearCache.get(10L, PATH);
+        Assert.assertEquals("value", first.get("field"));
+        first.put("field", "changed");
+        Map<String,Object> second = (Map<String, Object>) nearCache.get(10L, PATH);
+        Assert.assertEquals("value", second.get("field"));
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(2L, (long) nearCache.getHits());
+    }
+
+    @Test
+    public void testVersionRejection() {
+        NearCache nearCache = new NearCache(10);
+
+        //The owner has not received the last publication then the value is returned but it is not cached.
+        Assert.assertEquals("old", nearCache.put(new VersionedValue("old", 5L), 10L, PATH));
+        Assert.assertNull(nearCache.get(10L, PATH));
+
+        Assert.assertEquals("value", nearCache.put(new VersionedValue("value", 10L), 10L, PATH));
+        Assert.assertEquals("value", nearCache.get(10L, PATH));
+
+        //A newer publication makes the entry stale.
+        Assert.assertNull(nearCache.get(11L, PATH));
+        Assert.assertNull(nearCache.get(null, PATH));
+
+        //The null values are not cached.
+        Object[] otherPath = new Object[]{Map.class.getName(), "map", "other"};
+        Assert.assertNull(nearCache.put(new VersionedValue(null, 10L), 10L, otherPath));
+        Assert.assertEquals(1, (int) nearCache.getSize());
+    }
+
+    @Test
+    public void testInvalidation() {
+        NearCache nearCache = new NearCache(10);
+        Object[] otherPath = new Object[]{Map.class.getName(), "map", "other"};
+        Object[] otherMapPath = new Object[]{Map.class.getName(), "otherMap", "key"};
+        nearCache.put(new VersionedValue("value", 1L), 1L, PATH);
+        nearCache.put(new VersionedValue("value", 1L), 1L, otherPath);
+        nearCache.put(new VersionedValue("value", 1L), 1L, otherMapPath);
+
+        //Publication of the path.
+        nearCache.invalidate(PATH);
+        Assert.assertNull(nearCache.get(1L, PATH));
+        Assert.assertEquals("value", nearCache.get(1L, otherPath));
+
+        //Hide of the complete map.
+        nearCache.invalidatePath(Map.class.getName(), "map");
+        Assert.assertNull(nearCache.get(1L, otherPath));
+        Assert.assertEquals("value", nearCache.get(1L, otherMapPath));
+        Assert.assertEquals(2L, (long) nearCache.getInvalidations());
+    }
+
+    @Test
+    public void testBatchInvoke() {
+        DistributedTree store = new DistributedTree("");
+        UUID owner = UUID.randomUUID();
+        store.addLocalObject("first", List.of(owner), List.of(), 1L, Map.class.getName(), "map", "first");
+        store.addRemoteObject(null, List.of(owner), List.of(owner), 2L, Map.class.getName(), "map", "remote");
+
+        BatchInvokeMessage batchInvokeMessage = new BatchInvokeMessage(UUID.randomUUID());
+        batchInvokeMessage.setPath(new Object[]{Map.class.getName(), "map"});
+        batchInvokeMessage.setKeys(List.of("first", "remote", "missing"));
+        batchInvokeMessage = BsonParcelable.Builder.create(
+                BsonDecoder.decode(BsonEncoder.encode(batchInvokeMessage.toBson())));
+
+        ResponseMessage responseMessage = new ResponseMessage(batchInvokeMessage);
+        responseMessage.setValue(CloudOrchestrator.getVersionedValues(store,
+                batchInvokeMessage.getPath(), batchInvokeMessage.getKeys()));
+        responseMessage = BsonParcelable.Builder.create(
+                BsonDecoder.decode(BsonEncoder.encode(responseMessage.toBson())));
+
+        List<VersionedValue> values = (List<VersionedValue>) responseMessage.getValue();
+        Assert.assertEquals(3, values.size());
+        Assert.assertEquals("first", values.get(0).getValue());
+        Assert.assertEquals(1L, (long) values.get(0).getTimestamp());
+        Assert.assertNull(values.get(1).getValue());
+        Assert.assertEquals(2L, (long) values.get(1).getTimestamp());
+        Assert.assertNull(values.get(2).getValue());
+        Assert.assertNull(values.get(2).getTimestamp());
+    }
+}
@@ -0,0 +1,39 @@
+package org.hcjf.cloud.impl.objects;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+public class DistributedTreeTest {
+
+    @Test
+    public void testVersionedLeaves() {
+        DistributedTree tree = new DistributedTree("");
+        UUID node = UUID.randomUUID();
+        tree.createPath("map", "test");
+
+        tree.addLocalObject("first", List.of(node), List.of(), 100L, "map", "test", "key");
+        Assert.assertEquals("first", tree.getInstance("map", "test", "key"));
+        Assert.assertEquals(100L, ((DistributedLeaf) tree.getObject("map", "test", "key")).getLastUpdate().longValue());
+
+        //The older publications are ignored.
+        tree.addLocalObject("old", List.of(node), List.of(), 50L, "map", "test", "key");
+        Assert.assertEquals("first", tree.getInstance("map", "test", "key"));
+
+        tree.addLocalObject("second", List.of(node), List.of(), 200L, "map", "test", "key");
+        Assert.assertEquals("second", tree.getInstance("map", "test", "key"));
+
+        //A newer remote publication replaces the local leaf.
+        tree.addRemoteObject(null, List.of(UUID.randomUUID()), List.of(), 300L, "map", "test", "key");
+        DistributedObject object = tree.getObject("map", "test", "key");
+        Assert.assertTrue(object instanceof RemoteLeaf);
+        Assert.assertEquals(300L, ((DistributedLeaf) object).getLastUpdate().longValue());
+        Assert.assertSame(object, tree.getInstance("map", "test", "key"));
+
+        Assert.assertEquals(1, tree.getObject("map", "test") instanceof DistributedTree ?
+                ((DistributedTree) tree.getObject("map", "test")).size() : 0);
+        Assert.assertNull(tree.getObject("map", "other", "key"));
+    }
+}
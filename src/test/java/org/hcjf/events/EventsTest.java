@@ -0,0 +1,138 @@
+package org.hcjf.events;
+
+import org.hcjf.service.Service;
+import org.hcjf.service.ServiceSession;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class EventsTest {
+
+    @Test
+    public void testIndexedDispatch() throws InterruptedException {
+        CountDownLatch baseLatch = new CountDownLatch(2);
+        CountDownLatch childLatch = new CountDownLatch(1);
+        EventListener<BaseEvent> baseListener = new EventListener<>() {
+            @Override
+            public void onEventReceived(BaseEvent event) {
+                baseLatch.countDown();
+            }
+
+            @Override
+            public Class<BaseEvent> getEventType() {
+                return BaseEvent.class;
+            }
+        };
+        EventListener<ChildEvent> childListener = new EventListener<>() {
+            @Override
+            public void onEventReceived(ChildEvent event) {
+                childLatch.countDown();
+            }
+
+            @Override
+            public Class<ChildEvent> getEventType() {
+                return ChildEvent.class;
+            }
+        };
+
+        Events.addEventListener(baseListener);
+        Events.addEventListener(childListener);
+        try {
+            Service.run(() -> {
+                Events.sendEvent(new BaseEvent(0));
+                Events.sendEvent(new ChildEvent(1));
+            }, ServiceSession.getSystemSession(), true, 5000);
+            Assert.assertTrue(baseLatch.await(5, TimeUnit.SECONDS));
+            Assert.assertTrue(childLatch.await(5, TimeUnit.SECONDS));
+        } finally {
+            Events.removeEventListener(baseListener);
+            Events.removeEventListener(childListener);
+        }
+    }
+
+    @Test
+    public void testOrderedDelivery() throws InterruptedException {
+        int size = 1000;
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(size);
+        EventListener<OrderedEvent> listener = new EventListener<>() {
+            @Override
+            public void onEventReceived(OrderedEvent event) {
+                received.add(event.getIndex());
+                latch.countDown();
+            }
+
+            @Override
+            public Class<OrderedEvent> getEventType() {
+                return OrderedEvent.class;
+            }
+
+            @Override
+            public boolean isOrdered() {
+                return true;
+            }
+
+            @Override
+            public Events.OverflowPolicy getOverflowPolicy() {
+                return Events.OverflowPolicy.BLOCK;
+            }
+
+            @Override
+            public Integer getMailboxCapacity() {
+                return 10;
+            }
+        };
+
+        Events.addEventListener(listener);
+        try {
+            Service.run(() -> {
+                for (int i = 0; i < size; i++) {
+                    Events.sendEvent(new OrderedEvent(i));
+                }
+            }, ServiceSession.getSystemSession(), true, 10000);
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < size; i++) {
+                Assert.assertEquals(i, received.get(i).intValue());
+            }
+        } finally {
+            Events.removeEventListener(listener);
+        }
+    }
+
+    public static class BaseEvent implements Event {
+
+        private final int index;
+
+        public BaseEvent(int index) {
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public String getName() {
+            return getClass().getSimpleName();
+        }
+    }
+
+    public static class ChildEvent extends BaseEvent {
+
+        public ChildEvent(int index) {
+            super(index);
+        }
+    }
+
+    public static class OrderedEvent extends BaseEvent {
+
+        public OrderedEvent(int index) {
+            super(index);
+        }
+    }
+}
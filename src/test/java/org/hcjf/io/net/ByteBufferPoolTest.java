@@ -0,0 +1,90 @@
+package org.hcjf.io.net;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class ByteBufferPoolTest {
+
+    @Test
+    public void testReuse() {
+        ByteBufferPool pool = new ByteBufferPool(16, false, 1, 1);
+        ByteBuffer first = pool.acquire();
+        ByteBuffer second = pool.acquire();
+        Assert.assertEquals(2, pool.getAllocations());
+
+        first.put((byte) 1);
+        pool.release(first);
+        pool.release(second);
+        pool.release(ByteBuffer.allocate(8));
+
+        ByteBuffer reused = pool.acquire();
+        Assert.assertSame(first, reused);
+        Assert.assertEquals(0, reused.position());
+        Assert.assertSame(second, pool.acquire());
+        Assert.assertEquals(2, pool.getReuses());
+
+        pool.acquire();
+        Assert.assertEquals(3, pool.getAllocations());
+    }
+
+    @Test
+    public void testPooledPackage() {
+        ByteBufferPool pool = new ByteBufferPool(16, false, 1, 1);
+        ByteBuffer buffer = pool.acquire();
+        buffer.put("payload".getBytes(StandardCharsets.UTF_8));
+        buffer.flip();
+
+        DefaultNetPackage netPackage = new DefaultNetPackage("", "", 0, 0, buffer, pool, NetPackage.ActionEvent.READ);
+        Assert.assertEquals(7, netPackage.getPayloadSize());
+        ByteBuffer payloadBuffer = netPackage.getTransientPayloadBuffer();
+        Assert.assertTrue(payloadBuffer.isReadOnly());
+        Assert.assertEquals('p', payloadBuffer.get(0));
+
+        netPackage.release();
+        Assert.assertNull(netPackage.getPayload());
+        Assert.assertSame(buffer, pool.acquire());
+    }
+
+    @Test
+    public void testPayloadBufferOfPooledPackage() {
+        ByteBufferPool pool = new ByteBufferPool(16, false, 1, 1);
+        ByteBuffer buffer = pool.acquire();
+        buffer.put("payload".getBytes(StandardCharsets.UTF_8));
+        buffer.flip();
+
+        DefaultNetPackage netPackage = new DefaultNetPackage("", "", 0, 0, buffer, pool, NetPackage.ActionEvent.READ);
+        ByteBuffer payloadBuffer = netPackage.getPayloadBuffer();
+        netPackage.detach();
+        pool.acquire().put("override".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals('p', payloadBuffer.get(0));
+    }
+
+    @Test
+    public void testDetachedPackage() {
+        ByteBufferPool pool = new ByteBufferPool(16, false, 1, 1);
+        ByteBuffer buffer = pool.acquire();
+        buffer.put("payload".getBytes(StandardCharsets.UTF_8));
+        buffer.flip();
+
+        DefaultNetPackage netPackage = new DefaultNetPackage("", "", 0, 0, buffer, pool, NetPackage.ActionEvent.READ);
+        netPackage.detach();
+        pool.acquire().put("override".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals("payload", new String(netPackage.getPayload(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testGatheringPackage() {
+        ByteBuffer header = ByteBuffer.wrap("header:".getBytes(StandardCharsets.UTF_8));
+        ByteBuffer body = ByteBuffer.wrap("body".getBytes(StandardCharsets.UTF_8));
+        NetPackage netPackage = new DefaultNetPackage("", "", 0, 0, new ByteBuffer[]{header, body}, NetPackage.ActionEvent.WRITE);
+
+        Assert.assertEquals(11, netPackage.getPayloadSize());
+        ByteBuffer[] buffers = netPackage.getPayloadBuffers();
+        buffers[0].position(buffers[0].limit());
+        Assert.assertEquals(0, header.position());
+        Assert.assertEquals("header:body", new String(netPackage.getPayload(), StandardCharsets.UTF_8));
+    }
+}
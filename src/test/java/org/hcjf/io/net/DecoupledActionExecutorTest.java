@@ -0,0 +1,126 @@
+package org.hcjf.io.net;
+
+import org.hcjf.service.ServiceSession;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DecoupledActionExecutorTest {
+
+    @Test
+    public void testOrderBySession() throws InterruptedException {
+        int sessionsSize = 20;
+        int actionsSize = 200;
+        DecoupledActionExecutor executor = new DecoupledActionExecutor(new TestConsumer(), 1000, 4);
+        CountDownLatch latch = new CountDownLatch(sessionsSize * actionsSize);
+        AtomicInteger errors = new AtomicInteger();
+        List<ServiceSession> sessions = new ArrayList<>();
+        List<AtomicInteger> counters = new ArrayList<>();
+        List<AtomicBoolean> running = new ArrayList<>();
+        for (int i = 0; i < sessionsSize; i++) {
+            ServiceSession session = new ServiceSession(UUID.randomUUID());
+            session.setSessionName("Session " + i);
+            sessions.add(session);
+            counters.add(new AtomicInteger());
+            running.add(new AtomicBoolean());
+        }
+
+        for (int j = 0; j < actionsSize; j++) {
+            for (int i = 0; i < sessionsSize; i++) {
+                int sessionIndex = i;
+                int actionIndex = j;
+                executor.execute(new NetServiceConsumer.DecoupledAction(sessions.get(i)) {
+                    @Override
+                    public void onAction() {
+                        if(!running.get(sessionIndex).compareAndSet(false, true)) {
+                            errors.incrementAndGet();
+                        }
+                        if(counters.get(sessionIndex).getAndIncrement() != actionIndex) {
+                            errors.incrementAndGet();
+                        }
+                        running.get(sessionIndex).set(false);
+                        latch.countDown();
+                    }
+                });
+            }
+        }
+
+        Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+        Assert.assertEquals(0, errors.get());
+        Assert.assertEquals(0L, executor.getPendingActions().longValue());
+    }
+
+    @Test
+    public void testPauseAndResume() throws Exception {
+        int sessionsSize = 50;
+        int actionsSize = 2000;
+        TestConsumer consumer = new TestConsumer();
+        //The sessions are not connected then the service ignores the pause and resume of the reads.
+        Field serviceField = NetServiceConsumer.class.getDeclaredField("service");
+        serviceField.setAccessible(true);
+        serviceField.set(consumer, NetService.getInstance());
+        DecoupledActionExecutor executor = new DecoupledActionExecutor(consumer, 2, 2);
+        CountDownLatch latch = new CountDownLatch(sessionsSize * actionsSize);
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < sessionsSize; i++) {
+            NetSession session = new NetSession(UUID.randomUUID(), consumer) {};
+            Thread producer = new Thread(() -> {
+                for (int j = 0; j < actionsSize; j++) {
+                    executor.execute(new NetServiceConsumer.DecoupledAction(session) {
+                        @Override
+                        public void onAction() {
+                            latch.countDown();
+                        }
+                    });
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        for(Thread producer : producers) {
+            producer.join();
+        }
+
+        Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 5000;
+        while(executor.getPausedLanes() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        //All the drained lanes resume the read of its session.
+        Assert.assertEquals(0, executor.getPausedLanes().intValue());
+    }
+
+    private static class TestConsumer extends NetServiceConsumer<NetSession, byte[]> {
+
+        public TestConsumer() {
+            super(0, NetService.TransportLayerProtocol.TCP);
+        }
+
+        @Override
+        protected byte[] encode(byte[] payLoad) {
+            return payLoad;
+        }
+
+        @Override
+        protected byte[] decode(NetPackage netPackage) {
+            return netPackage.getPayload();
+        }
+
+        @Override
+        public void destroySession(NetSession session) {
+        }
+
+        @Override
+        public NetSession checkSession(NetSession session, byte[] payLoad, NetPackage netPackage) {
+            return session;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package org.hcjf.io.net;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class NetServiceConsumerTest {
+
+    @Test
+    public void testAsyncWrite() throws Exception {
+        int packagesSize = 5000;
+        int port;
+        try(ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+
+        CompletableFuture<List<CompletableFuture<NetPackage>>> writes = new CompletableFuture<>();
+        TestServer server = new TestServer(port, session -> {
+            List<CompletableFuture<NetPackage>> futures = new ArrayList<>();
+            for (int i = 0; i < packagesSize; i++) {
+                futures.add(session.getConsumer().writeAsync(session, ByteBuffer.allocate(8).putLong(i).array()));
+            }
+            writes.complete(futures);
+        });
+        server.start();
+
+        try(Socket socket = new Socket("localhost", port)) {
+            socket.getOutputStream().write(1);
+            socket.getOutputStream().flush();
+            DataInputStream inputStream = new DataInputStream(socket.getInputStream());
+            long time = System.currentTimeMillis();
+            for (int i = 0; i < packagesSize; i++) {
+                Assert.assertEquals(i, inputStream.readLong());
+            }
+            System.out.printf("%d packages read in %d ms\r\n", packagesSize, System.currentTimeMillis() - time);
+
+            List<CompletableFuture<NetPackage>> futures = writes.get(10, TimeUnit.SECONDS);
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            for(CompletableFuture<NetPackage> future : futures) {
+                Assert.assertEquals(NetPackage.PackageStatus.OK, future.get().getPackageStatus());
+            }
+            Assert.assertEquals(0, NetService.getInstance().getPendingOutboundBytes(futures.get(0).get().getSession()));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testAsyncWriteAfterClose() throws Exception {
+        int port;
+        try(ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+
+        CompletableFuture<List<CompletableFuture<NetPackage>>> writes = new CompletableFuture<>();
+        TestServer server = new TestServer(port, session -> {
+            List<CompletableFuture<NetPackage>> futures = new ArrayList<>();
+            try {
+                long deadline = System.currentTimeMillis() + 10000;
+                CompletableFuture<NetPackage> future;
+                do {
+                    future = session.getConsumer().writeAsync(session, ByteBuffer.allocate(8).putLong(futures.size()).array());
+                    futures.add(future);
+                } while (!future.isCompletedExceptionally() && System.currentTimeMillis() < deadline);
+                writes.complete(futures);
+            } catch (Throwable throwable) {
+                writes.completeExceptionally(throwable);
+            }
+        });
+        server.start();
+
+        try {
+            try (Socket socket = new Socket("localhost", port)) {
+                socket.getOutputStream().write(1);
+                socket.getOutputStream().flush();
+                Assert.assertEquals(0, new DataInputStream(socket.getInputStream()).readLong());
+            }
+
+            //All the packages are completed, the packages queued after the channel was closed are completed exceptionally.
+            List<CompletableFuture<NetPackage>> futures = writes.get(20, TimeUnit.SECONDS);
+            Assert.assertTrue(futures.get(futures.size() - 1).isCompletedExceptionally());
+            for(CompletableFuture<NetPackage> future : futures) {
+                try {
+                    future.get(10, TimeUnit.SECONDS);
+                } catch (ExecutionException ex) {
+                }
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testClientsSharedReactors() throws Exception {
+        int clientsSize = 20;
+        int port;
+        try(ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+
+        TestServer server = new TestServer(port, session ->
+                session.getConsumer().writeAsync(session, ByteBuffer.allocate(8).putLong(1).array()));
+        server.start();
+
+        List<TestClient> clients = new ArrayList<>();
+        try {
+            //The first client starts the reactors, the thread count is taken after that.
+            TestClient firstClient = new TestClient(port);
+            clients.add(firstClient);
+            firstClient.connect();
+            Assert.assertEquals(1, firstClient.getResponse().get(10, TimeUnit.SECONDS).longValue());
+            int threads = Thread.activeCount();
+
+            for (int i = 1; i < clientsSize; i++) {
+                TestClient client = new TestClient(port);
+                clients.add(client);
+                client.connect();
+            }
+            for(TestClient client : clients) {
+                Assert.assertEquals(1, client.getResponse().get(10, TimeUnit.SECONDS).longValue());
+            }
+
+            //The client channels are attended by the shared reactors, then each client doesn't add its own threads.
+            Assert.assertTrue(Thread.activeCount() - threads < clientsSize - 1);
+        } finally {
+            for(TestClient client : clients) {
+                client.close();
+            }
+            server.stop();
+        }
+    }
+
+    private interface Writer {
+        void write(TestSession session);
+    }
+
+    private static class TestSession extends NetSession {
+
+        public TestSession(UUID id, NetServiceConsumer consumer) {
+            super(id, consumer);
+        }
+
+        @Override
+        public TestServer getConsumer() {
+            return (TestServer) super.getConsumer();
+        }
+    }
+
+    private static class TestServer extends NetServer<TestSession, byte[]> {
+
+        private final Writer writer;
+
+        public TestServer(Integer port, Writer writer) {
+            super(port, NetService.TransportLayerProtocol.TCP, false, true);
+            this.writer = writer;
+        }
+
+        @Override
+        public TestSession createSession(NetPackage netPackage) {
+            return new TestSession(UUID.randomUUID(), this);
+        }
+
+        @Override
+        protected void onRead(TestSession session, byte[] payLoad, NetPackage netPackage) {
+            new Thread(() -> writer.write(session)).start();
+        }
+
+        @Override
+        protected byte[] encode(byte[] payLoad) {
+            return payLoad;
+        }
+
+        @Override
+        protected byte[] decode(NetPackage netPackage) {
+            return netPackage.getPayload();
+        }
+
+        @Override
+        public void destroySession(NetSession session) {
+        }
+
+        @Override
+        public TestSession checkSession(TestSession session, byte[] payLoad, NetPackage netPackage) {
+            return session;
+        }
+    }
+
+    private static class ClientSession extends NetSession {
+
+        public ClientSession(UUID id, NetServiceConsumer consumer) {
+            super(id, consumer);
+        }
+    }
+
+    private static class TestClient extends NetClient<NetSession, byte[]> {
+
+        private final NetSession session;
+        private final CompletableFuture<Long> response;
+
+        public TestClient(Integer port) {
+            super("localhost", port, NetService.TransportLayerProtocol.TCP);
+            this.session = new ClientSession(UUID.randomUUID(), this);
+            this.response = new CompletableFuture<>();
+        }
+
+        public CompletableFuture<Long> getResponse() {
+            return response;
+        }
+
+        @Override
+        protected void connect() {
+            super.connect();
+        }
+
+        public void close() {
+            disconnect(session, "Test finished");
+        }
+
+        @Override
+        public NetSession getSession() {
+            return session;
+        }
+
+        @Override
+        protected void onConnect(NetSession session, byte[] payLoad, NetPackage netPackage) {
+            writeAsync(this.session, new byte[]{1});
+        }
+
+        @Override
+        protected void onRead(NetSession session, byte[] payLoad, NetPackage netPackage) {
+            response.complete(ByteBuffer.wrap(payLoad).getLong());
+        }
+
+        @Override
+        protected byte[] encode(byte[] payLoad) {
+            return payLoad;
+        }
+
+        @Override
+        protected byte[] decode(NetPackage netPackage) {
+            return netPackage.getPayload();
+        }
+
+        @Override
+        public void destroySession(NetSession session) {
+        }
+
+        @Override
+        public NetSession checkSession(NetSession session, byte[] payLoad, NetPackage netPackage) {
+            return session;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.hcjf.io.net.messages;
+
+import org.hcjf.bson.BsonEncoder;
+import org.hcjf.cloud.impl.messages.BusyNodeMessage;
+import org.hcjf.errors.HCJFRuntimeException;
+import org.hcjf.properties.SystemProperties;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+
+public class MessageBufferTest {
+
+    private static byte[] encode(Message message) {
+        return BsonEncoder.encode(message.toBson());
+    }
+
+    private static Message createMessage() {
+        BusyNodeMessage message = new BusyNodeMessage();
+        message.setId(UUID.randomUUID());
+        return message;
+    }
+
+    @Test
+    public void testSingleFrame() {
+        Message message = createMessage();
+        MessageBuffer buffer = new MessageBuffer();
+        buffer.append(encode(message));
+        Assert.assertTrue(buffer.isComplete());
+        List<Message> messages = buffer.getMessages();
+        Assert.assertEquals(1, messages.size());
+        Assert.assertEquals(message.getId(), messages.get(0).getId());
+        Assert.assertNull(buffer.getLeftover());
+    }
+
+    @Test
+    public void testTransientData() {
+        Message first = createMessage();
+        Message second = createMessage();
+        byte[] firstFrame = encode(first);
+        byte[] secondFrame = encode(second);
+
+        ByteBuffer data = ByteBuffer.allocate(firstFrame.length + secondFrame.length);
+        data.put(firstFrame).put(secondFrame, 0, 3).flip();
+
+        MessageBuffer buffer = new MessageBuffer();
+        buffer.appendTransient(data.asReadOnlyBuffer());
+        Assert.assertEquals(first.getId(), buffer.getMessages().get(0).getId());
+
+        //The buffer is reused after the call, then the pending bytes must be a copy.
+        data.clear();
+        data.put(new byte[data.capacity()]).clear();
+        data.put(secondFrame, 3, secondFrame.length - 3).flip();
+        buffer.appendTransient(data);
+        Assert.assertTrue(buffer.isComplete());
+        Assert.assertEquals(second.getId(), buffer.getMessages().get(0).getId());
+        Assert.assertNull(buffer.getLeftover());
+    }
+
+    @Test
+    public void testFragmentedFrame() {
+        Message message = createMessage();
+        byte[] frame = encode(message);
+        MessageBuffer buffer = new MessageBuffer();
+        for (int i = 0; i < frame.length; i++) {
+            Assert.assertFalse(buffer.isComplete());
+            buffer.append(new byte[]{frame[i]});
+        }
+        Assert.assertTrue(buffer.isComplete());
+        Assert.assertEquals(message.getId(), buffer.getMessages().get(0).getId());
+        Assert.assertNull(buffer.getLeftover());
+    }
+
+    @Test
+    public void testManyFramesAndLeftover() {
+        Message first = createMessage();
+        Message second = createMessage();
+        Message third = createMessage();
+        byte[] firstFrame = encode(first);
+        byte[] secondFrame = encode(second);
+        byte[] thirdFrame = encode(third);
+
+        ByteBuffer data = ByteBuffer.allocate(firstFrame.length + secondFrame.length + 3);
+        data.put(firstFrame).put(secondFrame).put(thirdFrame, 0, 3).flip();
+
+        MessageBuffer buffer = new MessageBuffer();
+        buffer.append(data);
+        List<Message> messages = buffer.getMessages();
+        Assert.assertEquals(2, messages.size());
+        Assert.assertEquals(first.getId(), messages.get(0).getId());
+        Assert.assertEquals(second.getId(), messages.get(1).getId());
+
+        MessageBuffer leftover = buffer.getLeftover();
+        Assert.assertNotNull(leftover);
+        Assert.assertFalse(leftover.isComplete());
+        byte[] rest = new byte[thirdFrame.length - 3];
+        System.arraycopy(thirdFrame, 3, rest, 0, rest.length);
+        leftover.append(rest);
+        Assert.assertTrue(leftover.isComplete());
+        Assert.assertEquals(third.getId(), leftover.getMessages().get(0).getId());
+    }
+
+    @Test(expected = HCJFRuntimeException.class)
+    public void testMaxFrameSize() {
+        ByteBuffer data = ByteBuffer.allocate(4);
+        data.putInt(SystemProperties.getInteger(SystemProperties.Net.Messages.MAX_FRAME_SIZE) + 1).flip();
+        new MessageBuffer().append(data);
+    }
+}
@@ -0,0 +1,106 @@
+package org.hcjf.layers;
+
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.service.ServiceThread;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+public class LayerInvocationTest {
+
+    private static EchoLayer echoLayer;
+
+    @BeforeClass
+    public static void config() {
+        echoLayer = new EchoLayer();
+        Layers.publishLayer(echoLayer);
+    }
+
+    @Test
+    public void testInvocationMetadata() {
+        Layer.LayerAgent agent = new Layer.LayerAgent(echoLayer);
+        EchoLayerInterface echoLayerInterface = Layers.get(EchoLayerInterface.class, EchoLayer.NAME);
+        long resolutions = agent.getMetadataResolutions();
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("value" + i, echoLayerInterface.echo("value" + i));
+        }
+        Assert.assertTrue(agent.getMetadataResolutions() - resolutions <= 1);
+        Assert.assertTrue(agent.getThreadHops() >= 100);
+    }
+
+    @Test
+    public void testCallerThreadInvocation() {
+        Layer.LayerAgent agent = new Layer.LayerAgent(echoLayer);
+        EchoLayerInterface echoLayerInterface = Layers.get(EchoLayerInterface.class, EchoLayer.NAME);
+        System.setProperty(SystemProperties.Layer.CALLER_THREAD_INVOCATION_ENABLED, "true");
+        try {
+            long hops = agent.getThreadHops();
+            long callerThreadInvocations = agent.getCallerThreadInvocations();
+            Assert.assertFalse(echoLayerInterface.isServiceThread());
+            Assert.assertEquals("value", echoLayerInterface.echo("value"));
+            Assert.assertEquals(hops, agent.getThreadHops().longValue());
+            Assert.assertTrue(agent.getCallerThreadInvocations() - callerThreadInvocations >= 2);
+        } finally {
+            System.setProperty(SystemProperties.Layer.CALLER_THREAD_INVOCATION_ENABLED, "false");
+        }
+        Assert.assertTrue(echoLayerInterface.isServiceThread());
+    }
+
+    @Test
+    public void testSharedInvocationMetadata() throws Throwable {
+        Method echo = EchoLayerInterface.class.getMethod("echo", String.class);
+        System.setProperty(SystemProperties.Layer.CALLER_THREAD_INVOCATION_ENABLED, "true");
+        try {
+            EchoLayer firstInstance = new EchoLayer();
+            Assert.assertEquals("value", firstInstance.invoke(null, echo, new Object[]{"value"}));
+
+            //The new instances of the layer use the metadata resolved by the first instance.
+            EchoLayer secondInstance = new EchoLayer();
+            Assert.assertEquals("value", secondInstance.invoke(null, echo, new Object[]{"value"}));
+            Assert.assertEquals(0L, new Layer.LayerAgent(secondInstance).getMetadataResolutions().longValue());
+
+            //The invalid arguments fail in the same way that the reflection invocation.
+            try {
+                secondInstance.invoke(null, echo, new Object[]{1});
+                Assert.fail();
+            } catch (IllegalArgumentException ex) {
+            }
+            try {
+                secondInstance.invoke(null, echo, new Object[]{"value", "value"});
+                Assert.fail();
+            } catch (IllegalArgumentException ex) {
+            }
+        } finally {
+            System.setProperty(SystemProperties.Layer.CALLER_THREAD_INVOCATION_ENABLED, "false");
+        }
+    }
+
+    public interface EchoLayerInterface extends LayerInterface {
+
+        String echo(String value);
+
+        boolean isServiceThread();
+
+    }
+
+    public static class EchoLayer extends Layer implements EchoLayerInterface {
+
+        public static final String NAME = "echo-layer";
+
+        public EchoLayer() {
+            super(NAME);
+        }
+
+        @Override
+        public String echo(String value) {
+            return value;
+        }
+
+        @Override
+        public boolean isServiceThread() {
+            return Thread.currentThread() instanceof ServiceThread;
+        }
+    }
+}
@@ -6,8 +6,10 @@ import org.hcjf.bson.BsonEncoder;
 import org.hcjf.layers.Layer;
 import org.hcjf.layers.Layers;
 import org.hcjf.layers.crud.ReadRowsLayerInterface;
+import org.hcjf.layers.query.compilers.QueryPlanCache;
 import org.hcjf.layers.query.functions.BaseQueryFunctionLayer;
 import org.hcjf.layers.query.functions.QueryFunctionLayerInterface;
+import org.hcjf.layers.query.model.QueryFunction;
 import org.hcjf.layers.query.model.QueryReturnFunction;
 import org.hcjf.properties.SystemProperties;
 import org.hcjf.utils.Introspection;
@@ -21,6 +23,7 @@ import java.text.SimpleDateFormat;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * @author javaito
@@ -570,6 +573,169 @@ public class QueryRunningTest {
         Assert.assertEquals(resultSet.size(), 2);
     }
 
+    @Test
+    public void sortWithTopNAndSpill() {
+        List<JoinableMap> sortedResult = new ArrayList<>(Query.compile("SELECT * FROM character ORDER BY lastName, name DESC").evaluate(dataSource));
+
+        Collection<JoinableMap> resultSet = Query.compile("SELECT * FROM character ORDER BY lastName, name DESC START 1 LIMIT 3").evaluate(dataSource);
+        Assert.assertEquals(sortedResult.subList(1, 4).stream().map(M -> M.get(NAME)).collect(Collectors.toList()),
+                resultSet.stream().map(M -> M.get(NAME)).collect(Collectors.toList()));
+
+        Query query = Query.compile("SELECT * FROM character ORDER BY lastName, name DESC");
+        QuerySorter<JoinableMap> sorter = new QuerySorter<>(query.getOrderParameters(), 2, null, true,
+                dataSource, new Queryable.IntrospectionConsumer<>(), 2);
+        sorter.addAll(Query.compile("SELECT name, lastName FROM character").evaluate(dataSource));
+        List<JoinableMap> spilledResult = sorter.getResult();
+        Assert.assertTrue(sortedResult.size() > 4);
+        Assert.assertEquals(sortedResult.size() - 2, spilledResult.size());
+        for (int i = 0; i < spilledResult.size(); i++) {
+            Assert.assertEquals(sortedResult.get(i + 2).get(NAME), spilledResult.get(i).get(NAME));
+            Assert.assertEquals(sortedResult.get(i + 2).get(LAST_NAME), spilledResult.get(i).get(LAST_NAME));
+        }
+    }
+
+    @Test
+    public void sortWithSpillFailure() {
+        List<JoinableMap> sortedResult = new ArrayList<>(Query.compile("SELECT * FROM character ORDER BY lastName, name DESC").evaluate(dataSource));
+
+        Query query = Query.compile("SELECT * FROM character ORDER BY lastName, name DESC");
+        QuerySorter<Map<String,Object>> sorter = new QuerySorter<>(query.getOrderParameters(), 0, null, true,
+                null, new Queryable.IntrospectionConsumer<>(), 2);
+        List<Map<String,Object>> rows = new ArrayList<>(Query.compile("SELECT name, lastName FROM character").evaluate(dataSource));
+        //After the first run there is a row that is not a joinable map, then the next spill fails.
+        rows.set(3, new HashMap<>(rows.get(3)));
+        Map<Map<String,Object>,Set<String>> keys = new IdentityHashMap<>();
+        for(Map<String,Object> row : rows) {
+            keys.put(row, new HashSet<>(row.keySet()));
+            sorter.add(row);
+        }
+        List<Map<String,Object>> spilledResult = sorter.getResult();
+        Assert.assertEquals(sortedResult.size(), spilledResult.size());
+        for (int i = 0; i < spilledResult.size(); i++) {
+            Assert.assertEquals(sortedResult.get(i).get(NAME), spilledResult.get(i).get(NAME));
+            Assert.assertEquals(sortedResult.get(i).get(LAST_NAME), spilledResult.get(i).get(LAST_NAME));
+        }
+
+        //The spill doesn't modify the rows added into the sorter.
+        for(Map<String,Object> row : rows) {
+            Assert.assertEquals(keys.get(row), row.keySet());
+        }
+    }
+
+    @Test
+    public void iterateWithStartAndLimit() {
+        Query query = Query.compile("SELECT name, lastName FROM character WHERE lastName like 'Simpson' START 1 LIMIT 2");
+        Assert.assertTrue(query.isStreamable());
+        List<Object> expected = new ArrayList<>();
+        for(JoinableMap row : query.evaluate(dataSource)) {
+            expected.add(row.get(NAME));
+        }
+
+        int[] readRows = new int[1];
+        Queryable.DataSource<JoinableMap> countingDataSource = new Queryable.DataSource<>() {
+            @Override
+            public Collection<JoinableMap> getResourceData(Queryable queryable) {
+                return dataSource.getResourceData(queryable);
+            }
+
+            @Override
+            public Iterator<JoinableMap> getResourceIterator(Queryable queryable) {
+                Iterator<JoinableMap> iterator = dataSource.getResourceData(queryable).iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public JoinableMap next() {
+                        readRows[0]++;
+                        return iterator.next();
+                    }
+                };
+            }
+        };
+
+        List<Object> result = new ArrayList<>();
+        Iterator<JoinableMap> iterator = query.iterate(countingDataSource);
+        while(iterator.hasNext()) {
+            JoinableMap row = iterator.next();
+            Assert.assertFalse(row.containsKey(WEIGHT));
+            result.add(row.get(NAME));
+        }
+        Assert.assertEquals(expected, result);
+        Assert.assertEquals(2, result.size());
+        Assert.assertTrue(readRows[0] < simpsonCharacters.size());
+
+        query = Query.compile("SELECT * FROM character ORDER BY name");
+        Assert.assertFalse(query.isStreamable());
+        iterator = query.iterate(dataSource);
+        int size = 0;
+        while(iterator.hasNext()) {
+            iterator.next();
+            size++;
+        }
+        Assert.assertEquals(simpsonCharacters.size(), size);
+    }
+
+    @Test
+    public void bindFunctionsOnce() {
+        Query query = Query.compile("SELECT name, toUpperCase(name) AS upper FROM character");
+        QueryReturnFunction function = (QueryReturnFunction) query.getReturnParameters().get(1);
+        Collection<JoinableMap> resultSet = query.evaluate(dataSource);
+        for(JoinableMap row : resultSet) {
+            Assert.assertEquals(((String)row.get(NAME)).toUpperCase(), row.get("upper"));
+        }
+
+        QueryFunction.Binding binding = function.getBinding();
+        Assert.assertNotNull(binding);
+        Assert.assertNotNull(binding.getLayer());
+        Assert.assertEquals(1, binding.getArgumentsSize());
+
+        query.evaluate(dataSource);
+        Assert.assertSame(binding, function.getBinding());
+
+        //Publishing a layer changes the version of the registry, then the function is bound again.
+        Layers.publishLayer(CustomFunction.class);
+        resultSet = query.evaluate(dataSource);
+        Assert.assertNotSame(binding, function.getBinding());
+        Assert.assertEquals(simpsonCharacters.size(), resultSet.size());
+    }
+
+    @Test
+    public void parallelEvaluation() {
+        String[] sqls = new String[] {
+                "SELECT name, lastName, weight FROM character WHERE weight > 40 ORDER BY lastName, name",
+                "SELECT addressId, count(weight) AS size FROM character GROUP BY addressId",
+                "SELECT * FROM character DISJOINT BY lastName",
+                "SELECT count(*) AS size FROM character",
+                "SELECT aggregateSum(weight, true) AS sum FROM character WHERE isNotNull(weight)",
+                "SELECT name, aggregateSum(weight, false) AS sum, aggregateMax(weight) AS max FROM character WHERE isNotNull(weight)",
+                "SELECT aggregateMean(weight) AS mean FROM character WHERE isNotNull(weight)"
+        };
+
+        List<List<String>> sequentialResults = new ArrayList<>();
+        for(String sql : sqls) {
+            sequentialResults.add(Query.compile(sql).evaluate(dataSource).stream().
+                    map(Object::toString).collect(Collectors.toList()));
+        }
+
+        System.setProperty(SystemProperties.Query.PARALLEL_ENABLED, "true");
+        System.setProperty(SystemProperties.Query.PARALLEL_THRESHOLD, "2");
+        System.setProperty(SystemProperties.Query.PARALLELISM, "4");
+        try {
+            for (int i = 0; i < sqls.length; i++) {
+                List<String> parallelResult = Query.compile(sqls[i]).evaluate(dataSource).stream().
+                        map(Object::toString).collect(Collectors.toList());
+                Assert.assertEquals(sqls[i], sequentialResults.get(i), parallelResult);
+            }
+        } finally {
+            System.setProperty(SystemProperties.Query.PARALLEL_ENABLED, "false");
+            System.setProperty(SystemProperties.Query.PARALLEL_THRESHOLD, "10000");
+            System.setProperty(SystemProperties.Query.PARALLELISM, Integer.toString(Runtime.getRuntime().availableProcessors()));
+        }
+    }
+
     @Test
     public void debug() {
         Query query = Query.compile("" +
@@ -657,6 +823,54 @@ public class QueryRunningTest {
         System.out.println();
     }
 
+    @Test
+    public void joinByOrderedAndUnorderedKeys() {
+        int expectedSize = 0;
+        for(JoinableMap character : simpsonCharacters.values()) {
+            for(JoinableMap character2 : simpsonCharacters2.values()) {
+                if(Objects.equals(character.get(LAST_NAME), character2.get(LAST_NAME))) {
+                    expectedSize++;
+                }
+            }
+        }
+
+        Query query = Query.compile("SELECT * FROM (SELECT * FROM character ORDER BY lastName) AS ch1 " +
+                "JOIN (SELECT * FROM character2 ORDER BY lastName) AS ch2 ON ch1.lastName = ch2.lastName");
+        Collection<JoinableMap> orderedResultSet = query.evaluate(dataSource);
+        Assert.assertEquals(expectedSize, orderedResultSet.size());
+
+        query = Query.compile("SELECT * FROM character JOIN character2 ON character.lastName = character2.lastName");
+        Collection<JoinableMap> resultSet = query.evaluate(dataSource);
+        Assert.assertEquals(expectedSize, resultSet.size());
+
+        query = Query.compile("SELECT * FROM character2 LEFT JOIN address ON character2.addressId = address.addressId");
+        resultSet = query.evaluate(dataSource);
+        Assert.assertEquals(simpsonCharacters2.size(), resultSet.size());
+    }
+
+    @Test
+    public void compileUsingPlanCache() {
+        String[] queries = {
+                "SELECT * FROM character WHERE lastName = 'Simpson' AND weight > 50",
+                "SELECT * FROM character WHERE lastName = 'Flanders' AND weight > 10",
+                "SELECT * FROM character WHERE lastName like 'Simp' ORDER BY name LIMIT 3",
+                "SELECT * FROM character WHERE lastName like 'Flan' ORDER BY name LIMIT 3",
+                "SELECT name FROM character WHERE addressId IN (select addressId from address)"
+        };
+        long misses = QueryPlanCache.getMisses();
+        long hits = QueryPlanCache.getHits();
+        long bypasses = QueryPlanCache.getBypasses();
+        for(String queryExpression : queries) {
+            Collection<JoinableMap> expected = Query.evaluate(Query.compile(queryExpression));
+            Collection<JoinableMap> resultSet = Query.evaluate(QueryPlanCache.compile(queryExpression));
+            Assert.assertEquals(expected.size(), resultSet.size());
+            Assert.assertEquals(new HashSet<>(expected), new HashSet<>(resultSet));
+        }
+        Assert.assertEquals(misses + 3, QueryPlanCache.getMisses());
+        Assert.assertEquals(hits + 2, QueryPlanCache.getHits());
+        Assert.assertEquals(bypasses + 1, QueryPlanCache.getBypasses());
+    }
+
     @Test
     public void testUnderlyingFunctions() {
         Query query = Query.compile("SELECT * FROM character JOIN (SELECT * FROM character) AS ch ON character.id = ch.id " +
@@ -10,6 +10,7 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -146,6 +147,46 @@ public class JavaCodeTest {
         }
     }
 
+    @Test
+    public void testCompiledScripts() {
+        CodeEvaluator codeEvaluator = Layers.get(CodeEvaluator.class, "java");
+        String script = "" +
+                "Integer iteration = Introspection.resolve(parameters, \"iteration\");" +
+                "parameters.put(\"newIteration\", iteration * 100);" +
+                "return new Date();";
+        System.setProperty(SystemProperties.CodeEvaluator.Java.COMPILED_SCRIPTS_ENABLED, "true");
+        try {
+            ExecutionResult executionResult = codeEvaluator.evaluate("System.out.println()", new HashMap<>());
+            Assert.assertTrue(executionResult.isExecutionFailed());
+            List<String> diagnostics = Introspection.resolve(executionResult.getResultState(), "_diagnostics");
+            Assert.assertFalse(diagnostics.isEmpty());
+
+            Long time = System.currentTimeMillis();
+            for (int i = 0; i < 100; i++) {
+                Map<String,Object> parameters = new HashMap<>();
+                parameters.put("iteration", i);
+                executionResult = codeEvaluator.evaluate(script, parameters);
+                Assert.assertFalse(executionResult.isExecutionFailed());
+                Assert.assertTrue(executionResult.getResult() instanceof Date);
+                Assert.assertEquals(Integer.valueOf(i * 100), executionResult.getResultParameters().get("newIteration"));
+                Assert.assertFalse(parameters.containsKey("newIteration"));
+            }
+            System.out.println("Compiled scripts time: " + (System.currentTimeMillis() - time));
+
+            System.setProperty(SystemProperties.CodeEvaluator.Java.COMPILED_SCRIPTS_ENABLED, "false");
+            time = System.currentTimeMillis();
+            for (int i = 0; i < 100; i++) {
+                Map<String,Object> parameters = new HashMap<>();
+                parameters.put("iteration", i);
+                executionResult = codeEvaluator.evaluate(script, parameters);
+                Assert.assertEquals(Integer.valueOf(i * 100), executionResult.getResultParameters().get("newIteration"));
+            }
+            System.out.println("JShell scripts time: " + (System.currentTimeMillis() - time));
+        } finally {
+            System.setProperty(SystemProperties.CodeEvaluator.Java.COMPILED_SCRIPTS_ENABLED, "false");
+        }
+    }
+
 //    @Test
     public void testSimpleDateFormat() {    
         String script = "return new SimpleDateFormat(\"yyyy-MM-dd HH:mm:ss\").format(new Date());";
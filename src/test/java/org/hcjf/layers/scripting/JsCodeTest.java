@@ -139,5 +139,54 @@ public class JsCodeTest {
         Assert.assertEquals(resultList.size(), 3);
         System.out.println("Result into java context: " + result.getResult().toString());
     }
-}
 
+    @Test
+    public void testParametersWithoutCopy() {
+        CodeEvaluator codeEvaluator = Layers.get(CodeEvaluator.class, "js");
+        List<String> list = new ArrayList<>(List.of("item1", "item2"));
+        Map<String,Object> map = new HashMap<>();
+        map.put("name", "javier");
+        map.put("list", list);
+        Map<String,Object> parameters = new HashMap<>();
+        parameters.put("map", map);
+
+        ExecutionResult result = codeEvaluator.evaluate("return map;", parameters);
+        Assert.assertSame(map, result.getResult());
+
+        result = codeEvaluator.evaluate("map.list[1] = 'item3'; return map;", parameters);
+        Map<String,Object> resultMap = result.getResult();
+        Assert.assertNotSame(map, resultMap);
+        Assert.assertEquals(List.of("item1", "item3"), resultMap.get("list"));
+        Assert.assertEquals("javier", resultMap.get("name"));
+        Assert.assertEquals(List.of("item1", "item2"), list);
+    }
+
+    @Test
+    public void testConcurrentEvaluation() throws InterruptedException {
+        CodeEvaluator codeEvaluator = Layers.get(CodeEvaluator.class, "js");
+        String script = "return age * index;";
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            int age = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    for (int index = 0; index < 200; index++) {
+                        Map<String,Object> parameters = new HashMap<>();
+                        parameters.put("age", age);
+                        parameters.put("index", index);
+                        Number number = codeEvaluator.evaluate(script, parameters).getResult();
+                        Assert.assertEquals(age * index, number.intValue());
+                    }
+                } catch (Throwable throwable) {
+                    errors.add(throwable);
+                }
+            });
+            threads[i].start();
+        }
+        for(Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertTrue(errors.toString(), errors.isEmpty());
+    }
+}
@@ -0,0 +1,64 @@
+package org.hcjf.log;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class LogTest {
+
+    @Test
+    public void testLevelAndCallStackInformation() throws InterruptedException {
+        AtomicReference<Log.LogRecord> printed = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        LogPrinter printer = record -> {
+            printed.set(record);
+            latch.countDown();
+        };
+        Log.addPrinter(printer);
+        try {
+            Assert.assertFalse(Log.isEnabled(Log.LogGroup.DEBUG));
+            Assert.assertNull(Log.d("TEST", "Debug record %d", 1));
+            Assert.assertNotNull(Log.i("TEST", "Info record %d", 1));
+            Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(Log.LogGroup.INFO, printed.get().getGroup());
+            Assert.assertEquals(LogTest.class.getName(), printed.get().getClassName());
+            Assert.assertEquals("testLevelAndCallStackInformation", printed.get().getMethodName());
+            Assert.assertTrue(printed.get().getMessage().endsWith("Info record 1"));
+        } finally {
+            Log.removePrinter(printer);
+        }
+    }
+
+    @Test
+    public void testThroughput() throws InterruptedException {
+        int producers = 4;
+        int recordsByProducer = 50000;
+        CountDownLatch latch = new CountDownLatch(producers * recordsByProducer);
+        LogPrinter printer = record -> latch.countDown();
+        Log.addPrinter(printer);
+        try {
+            long time = System.currentTimeMillis();
+            Thread[] threads = new Thread[producers];
+            for (int i = 0; i < producers; i++) {
+                threads[i] = new Thread(() -> {
+                    for (int j = 0; j < recordsByProducer; j++) {
+                        Log.i("TEST", "Record %d", j);
+                    }
+                });
+                threads[i].start();
+            }
+            for(Thread thread : threads) {
+                thread.join();
+            }
+            Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+            time = Math.max(1, System.currentTimeMillis() - time);
+            System.out.printf("Log throughput: %d records/sec\r\n", (producers * recordsByProducer * 1000L) / time);
+            Assert.assertEquals(0L, Log.getDroppedRecords().longValue());
+        } finally {
+            Log.removePrinter(printer);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.hcjf.io.net.messages.ResponseMessage;
 import org.hcjf.layers.query.JoinableMap;
 import org.hcjf.layers.query.ParameterizedQuery;
 import org.hcjf.layers.query.Query;
+import org.hcjf.utils.bson.BsonCodec;
 import org.hcjf.utils.bson.BsonParcelable;
 import org.junit.Assert;
 import org.junit.Test;
@@ -162,6 +163,40 @@ public class BsonParcelableTest {
         System.out.println();
     }
 
+    @Test
+    public void testCodec() {
+        BsonCodec codec = BsonCodec.getCodec(LayerInvokeMessage.class);
+        Assert.assertSame(codec, BsonCodec.getCodec(LayerInvokeMessage.class));
+        Assert.assertSame(LayerInvokeMessage.class, BsonCodec.getClass(LayerInvokeMessage.class.getName()));
+        Assert.assertNull(BsonCodec.getClass("no.class"));
+        Assert.assertTrue(codec.isInstantiable());
+    }
+
+    @Test
+    public void testLayerInvokeMessage() {
+        LayerInvokeMessage message = new LayerInvokeMessage(UUID.randomUUID());
+        message.setSessionId(UUID.randomUUID());
+        message.setTimestamp(System.currentTimeMillis());
+        message.setMethodName("get");
+        message.setPath(new Object[]{"path", "resource"});
+        message.setParameterTypes(new Class[]{String.class, Integer.class});
+        message.setParameters(new Object[]{"parameter", 5});
+
+        LayerInvokeMessage decodedMessage = null;
+        long time = System.currentTimeMillis();
+        for (int i = 0; i < 10000; i++) {
+            decodedMessage = BsonParcelable.Builder.create(BsonDecoder.decode(BsonEncoder.encode(message.toBson())));
+        }
+        System.out.printf("10000 layer invoke messages encoded and decoded: %d ms\r\n", System.currentTimeMillis() - time);
+
+        Assert.assertEquals(message.getId(), decodedMessage.getId());
+        Assert.assertEquals(message.getSessionId(), decodedMessage.getSessionId());
+        Assert.assertEquals(message.getMethodName(), decodedMessage.getMethodName());
+        Assert.assertArrayEquals(message.getPath(), decodedMessage.getPath());
+        Assert.assertArrayEquals(message.getParameterTypes(), decodedMessage.getParameterTypes());
+        Assert.assertArrayEquals(message.getParameters(), decodedMessage.getParameters());
+    }
+
     public static class TestByteArray implements BsonParcelable {
 
         private byte[] array;
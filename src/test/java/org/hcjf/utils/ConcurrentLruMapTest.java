@@ -0,0 +1,80 @@
+package org.hcjf.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentLruMapTest {
+
+    @Test
+    public void deleteLeastRecentlyUsed() {
+        ConcurrentLruMap<String,String> lruMap = new ConcurrentLruMap<>(3);
+        List<String> removed = new ArrayList<>();
+        lruMap.addRemoveOverflowListener((K, V) -> removed.add(K));
+
+        lruMap.put("1°","1°");
+        lruMap.put("2°","2°");
+        lruMap.put("3°","3°");
+        lruMap.get("1°");
+        lruMap.put("4°","4°");
+
+        Assert.assertEquals(3, lruMap.size());
+        Assert.assertTrue(lruMap.containsKey("1°"));
+        Assert.assertFalse(lruMap.containsKey("2°"));
+        Assert.assertTrue(lruMap.containsKey("3°"));
+        Assert.assertTrue(lruMap.containsKey("4°"));
+        Assert.assertEquals(List.of("2°"), removed);
+
+        lruMap.put("3°", "3°bis");
+        lruMap.put("5°", "5°");
+        Assert.assertFalse(lruMap.containsKey("1°"));
+        Assert.assertEquals("3°bis", lruMap.get("3°"));
+
+        lruMap.setMaxSize(1);
+        Assert.assertEquals(1, lruMap.size());
+        Assert.assertEquals("3°bis", lruMap.get("3°"));
+        Assert.assertEquals(List.of("2°", "1°", "4°", "5°"), removed);
+    }
+
+    @Test
+    public void concurrentAccess() throws InterruptedException {
+        compare(new LruMap<>(1000), "LruMap");
+        compare(new ConcurrentLruMap<>(1000), "ConcurrentLruMap");
+    }
+
+    private void compare(Map<Integer,Integer> map, String name) throws InterruptedException {
+        AtomicInteger evictions = new AtomicInteger();
+        if(map instanceof LruMap) {
+            ((LruMap<Integer,Integer>)map).addRemoveOverflowListener((K, V) -> evictions.incrementAndGet());
+        } else {
+            ((ConcurrentLruMap<Integer,Integer>)map).addRemoveOverflowListener((K, V) -> evictions.incrementAndGet());
+        }
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            int seed = i;
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 200000; j++) {
+                    Integer key = (j * 31 + seed) % 2000;
+                    if(map.get(key) == null) {
+                        map.put(key, key);
+                    }
+                }
+            }));
+        }
+
+        long time = System.currentTimeMillis();
+        threads.forEach(Thread::start);
+        for(Thread thread : threads) {
+            thread.join();
+        }
+        System.out.printf("%s: %d ms\r\n", name, System.currentTimeMillis() - time);
+
+        Assert.assertTrue(map.size() <= 1000);
+        Assert.assertTrue(evictions.get() > 0);
+    }
+}
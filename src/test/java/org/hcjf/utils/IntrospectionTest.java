@@ -1,6 +1,7 @@
 package org.hcjf.utils;
 
 import com.esri.core.geometry.ogc.OGCGeometry;
+import org.hcjf.errors.HCJFRuntimeException;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -55,6 +56,62 @@ public class IntrospectionTest {
         }
     }
 
+    @Test
+    public void testCompiledAccessors() {
+        AccessorEntity entity = new AccessorEntity();
+        Map<String, Introspection.Setter> setters = Introspection.getSetters(AccessorEntity.class);
+        setters.get("name").set(entity, "Homer");
+        setters.get("age").set(entity, 39);
+        setters.get("weight").set(entity, 108);
+
+        Map<String, Introspection.Getter> getters = Introspection.getGetters(AccessorEntity.class);
+        Assert.assertSame(getters, Introspection.getGetters(AccessorEntity.class));
+        Assert.assertEquals("Homer", getters.get("name").get(entity));
+        Assert.assertEquals(39, (int) getters.get("age").get(entity));
+        Assert.assertEquals(108L, (long) getters.get("weight").get(entity));
+        Assert.assertTrue(getters.get("active").get(entity));
+        Assert.assertEquals("Homer", Introspection.resolve(entity, "name"));
+
+        try {
+            getters.get("name").get(new Bean());
+            Assert.fail("The getter must fail with an instance of other class");
+        } catch (HCJFRuntimeException ex) {}
+    }
+
+    public static class AccessorEntity {
+        private String name;
+        private int age;
+        private long weight;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+
+        public void setWeight(long weight) {
+            this.weight = weight;
+        }
+
+        public boolean isActive() {
+            return age > 0;
+        }
+    }
+
     public class Bean {
         public String name;
 
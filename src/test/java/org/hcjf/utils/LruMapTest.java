@@ -73,4 +73,26 @@ public class LruMapTest {
         Assert.assertTrue(lruMap.containsKey("3°"));
         Assert.assertTrue(lruMap.containsKey("4°"));
     }
+
+    @Test
+    public void iterateWhileGet() throws InterruptedException {
+        LruMap<Integer,Integer> lruMap = new LruMap<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            lruMap.put(i, i);
+        }
+
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < 100000; i++) {
+                lruMap.get(i % 1000);
+            }
+        });
+        reader.start();
+        while(reader.isAlive()) {
+            //The views are snapshots then the access order changes don't break the iteration.
+            Assert.assertEquals(1000, lruMap.keySet().size());
+            Assert.assertEquals(1000, lruMap.values().size());
+            Assert.assertEquals(1000, lruMap.entrySet().size());
+        }
+        reader.join();
+    }
 }
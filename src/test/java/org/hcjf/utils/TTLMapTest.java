@@ -1,9 +1,14 @@
 package org.hcjf.utils;
 
+import org.hcjf.properties.SystemProperties;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author javaito
@@ -54,4 +59,49 @@ public class TTLMapTest {
 
         Assert.assertTrue(superMap.containsKey("3°"));
     }
+
+    @Test
+    public void testRefreshAndListener() throws InterruptedException {
+        TtlMap<String, String> ttlMap = new TtlMap<>(new HashMap<>(), 500L);
+        List<String> expired = new ArrayList<>();
+        ttlMap.addExpirationListener(expired::add);
+
+        ttlMap.put("first", "first");
+        ttlMap.put("second", "second");
+        Thread.sleep(300);
+        ttlMap.put("first", "first");
+        Thread.sleep(300);
+
+        Assert.assertTrue(ttlMap.containsKey("first"));
+        Assert.assertFalse(ttlMap.containsKey("second"));
+        Assert.assertEquals(List.of("second"), expired);
+    }
+
+    @Test
+    public void testExplicitRemove() throws InterruptedException {
+        TtlMap<String, String> ttlMap = new TtlMap<>(new HashMap<>(), 500L);
+        List<String> expired = new ArrayList<>();
+        ttlMap.addExpirationListener(expired::add);
+
+        ttlMap.put("first", "first");
+        ttlMap.put("second", "second");
+        ttlMap.remove("first");
+        ttlMap.remove("second", "second");
+        Thread.sleep(600);
+
+        Assert.assertTrue(ttlMap.isEmpty());
+        Assert.assertTrue(expired.isEmpty());
+    }
+
+    @Test
+    public void testBackgroundExpiration() throws InterruptedException {
+        Set<Integer> instance = ConcurrentHashMap.newKeySet();
+        TtlSet<Integer> ttlSet = new TtlSet<>(instance, 100L, true);
+        ttlSet.add(1);
+        ttlSet.add(2);
+        Assert.assertEquals(2, instance.size());
+
+        Thread.sleep(SystemProperties.getLong(SystemProperties.HCJF_DEFAULT_TTL_REAPER_PERIOD) + 500);
+        Assert.assertTrue(instance.isEmpty());
+    }
 }